@@ -13,7 +13,8 @@ import com.mosque.crm.service.ConfigurationService;
 /**
  * Configures the billing scheduler dynamically from the database.
  * The cron expression and enabled flag are read from the configurations table
- * on every trigger evaluation, so changes take effect without a restart.
+ * (through the ConfigurationService snapshot) on every trigger evaluation, so
+ * changes take effect without a restart.
  */
 @Configuration
 public class BillingSchedulerConfig implements SchedulingConfigurer {
@@ -37,7 +38,7 @@ public class BillingSchedulerConfig implements SchedulingConfigurer {
         taskRegistrar.addTriggerTask(
             this::runBillingJob,
             triggerContext -> {
-                String cron = configurationService.getValue(KEY_CRON).orElse(DEFAULT_CRON);
+                String cron = configurationService.getValue(KEY_CRON, DEFAULT_CRON);
                 try {
                     return new CronTrigger(cron).nextExecution(triggerContext);
                 } catch (Exception e) {
@@ -49,7 +50,7 @@ public class BillingSchedulerConfig implements SchedulingConfigurer {
     }
 
     private void runBillingJob() {
-        String enabled = configurationService.getValue(KEY_ENABLED).orElse("true");
+        String enabled = configurationService.getValue(KEY_ENABLED, "true");
         if ("false".equalsIgnoreCase(enabled)) {
             log.info("Billing scheduler is disabled via configuration, skipping job execution");
             return;
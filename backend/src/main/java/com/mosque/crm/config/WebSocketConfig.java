@@ -1,5 +1,6 @@
 package com.mosque.crm.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -7,19 +8,54 @@ import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBr
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP over WebSocket. A single node uses the in-memory simple broker. With
+ * {@code websocket.broker-relay.enabled} the /topic and /queue destinations are
+ * relayed to an external STOMP broker (RabbitMQ, ActiveMQ) and user sessions
+ * are shared between nodes, so a push dispatched on any node reaches the
+ * user's session wherever it is connected.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
 
+    @Value("${websocket.broker-relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${websocket.broker-relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker-relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker-relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker-relay.passcode:guest}")
+    private String relayPasscode;
+
     public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor) {
         this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if (relayEnabled) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // Resolve /user destinations of sessions held by other nodes
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
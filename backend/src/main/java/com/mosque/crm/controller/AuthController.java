@@ -36,12 +36,15 @@ import com.mosque.crm.entity.UserPreferences;
 import com.mosque.crm.repository.OrganizationRepository;
 import com.mosque.crm.repository.UserRepository;
 import com.mosque.crm.security.JwtUtil;
+import com.mosque.crm.security.TokenRevocationRegistry;
 import com.mosque.crm.service.AuthorizationService;
 import com.mosque.crm.service.ConfigurationService;
 import com.mosque.crm.service.PasswordResetService;
 import com.mosque.crm.service.RegistrationService;
 import com.mosque.crm.service.UserPreferencesService;
 
+import io.jsonwebtoken.Claims;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -82,6 +85,9 @@ public class AuthController {
     @Autowired
     private ConfigurationService configurationService;
 
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
         try {
@@ -122,8 +128,9 @@ public class AuthController {
                 .anyMatch(r -> "SUPER_ADMIN".equals(r.getName()));
         Long effectiveOrganizationId = isSuperAdmin ? null : user.getOrganizationId();
 
-        // Generate JWT with userId and organizationId embedded
-        final String token = jwtUtil.generateToken(userDetails, user.getId(), effectiveOrganizationId);
+        // Generate JWT with userId, organizationId and the permission-version stamp embedded
+        final String token = jwtUtil.generateToken(userDetails, user.getId(), effectiveOrganizationId,
+                user.getOrganizationId(), user.getPermissionVersion());
 
         // Get primary role (first role in the set)
         String roleName = user.getRoles().isEmpty() ? "MEMBER" :
@@ -174,6 +181,26 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Revoke the presented token so it cannot be reused until it expires.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtUtil.extractAllClaims(authorizationHeader.substring(7));
+                tokenRevocationRegistry.revokeToken(claims.getId(),
+                        claims.get(JwtUtil.CLAIM_USER_ID, Long.class), claims.getExpiration());
+            } catch (Exception e) {
+                // Already invalid or expired — nothing to revoke
+            }
+        }
+        SecurityContextHolder.clearContext();
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Logged out");
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/change-password")
     public ResponseEntity<?> changePassword(@RequestBody PasswordChangeDTO passwordChangeDTO) {
         try {
@@ -278,17 +305,13 @@ public class AuthController {
         try {
             User user = registrationService.register(request);
 
-            // Auto-login: generate JWT for the new user
+            // Auto-login: same UserDetails, and so the same authorities, as a login token
             final String token = jwtUtil.generateToken(
-                    org.springframework.security.core.userdetails.User.builder()
-                            .username(user.getUsername())
-                            .password(user.getPassword())
-                            .authorities(user.getRoles().stream()
-                                    .map(r -> "ROLE_" + r.getName())
-                                    .toArray(String[]::new))
-                            .build(),
+                    userDetailsService.loadUserByUsername(user.getUsername()),
                     user.getId(),
-                    user.getOrganizationId()
+                    user.getOrganizationId(),
+                    user.getOrganizationId(),
+                    user.getPermissionVersion()
             );
 
             // Build auth response (same as login)
@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,7 +24,8 @@ import com.mosque.crm.dto.BusinessListingDTO;
 import com.mosque.crm.dto.BusinessReviewDTO;
 import com.mosque.crm.dto.FederatedBusinessListingDTO;
 import com.mosque.crm.service.BusinessDirectoryService;
-import com.mosque.crm.service.BusinessDirectoryService.StoredImage;
+import com.mosque.crm.service.ImageVariantService.StoredImage;
+import com.mosque.crm.service.ImageVariantService.Variant;
 import com.mosque.crm.subscription.FeatureKeys;
 import com.mosque.crm.subscription.PlanFeatureRequired;
 
@@ -282,18 +283,20 @@ public class BusinessDirectoryController {
     }
 
     @GetMapping("/{id}/logo")
-    public ResponseEntity<?> getLogo(@PathVariable Long id) {
+    public ResponseEntity<?> getLogo(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "original") String size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Variant variant = Variant.fromParam(size);
+        if (variant == null) {
+            return ResponseEntity.badRequest().body(errorBody("Unknown image size: " + size));
+        }
         try {
-            StoredImage image = businessDirectoryService.getLogo(id);
+            StoredImage image = businessDirectoryService.getLogo(id, variant);
             if (image == null) {
                 return ResponseEntity.noContent().build();
             }
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_TYPE, image.contentType() != null
-                            ? image.contentType()
-                            : MediaType.APPLICATION_OCTET_STREAM_VALUE)
-                    .header(HttpHeaders.CACHE_CONTROL, "public, max-age=3600")
-                    .body(image.bytes());
+            return ImageResponses.of(image, ifNoneMatch);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
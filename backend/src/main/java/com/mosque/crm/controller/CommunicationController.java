@@ -23,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.mosque.crm.dto.CommunicationMessageDTO;
+import com.mosque.crm.dto.CommunicationProgressDTO;
 import com.mosque.crm.dto.CommunicationTemplateDTO;
 import com.mosque.crm.dto.SendMessageRequest;
 import com.mosque.crm.entity.User;
@@ -85,6 +86,14 @@ public class CommunicationController {
             .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /** Delivery progress of a queued message; the message id returned by {@code /send} is the job id. */
+    @GetMapping("/messages/{id}/progress")
+    public ResponseEntity<CommunicationProgressDTO> getProgress(@PathVariable Long id) {
+        return communicationService.getProgress(id)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     // ==================== Templates ====================
 
     @GetMapping("/templates")
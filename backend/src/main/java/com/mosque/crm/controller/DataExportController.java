@@ -1,23 +1,37 @@
 package com.mosque.crm.controller;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.mosque.crm.dto.DataExportJobDTO;
+import com.mosque.crm.enums.ExportFormat;
+import com.mosque.crm.enums.ExportScope;
+import com.mosque.crm.service.AuthorizationService;
+import com.mosque.crm.service.DataExportJobService;
 import com.mosque.crm.service.DataExportService;
 import com.mosque.crm.subscription.FeatureKeys;
 import com.mosque.crm.subscription.PlanFeatureRequired;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 /**
- * DataExportController — REST endpoints for downloading organization data as Excel files.
+ * DataExportController — REST endpoints for downloading organization data as
+ * Excel, CSV (zipped) or JSON lines files, streamed as they are written, and
+ * for background export jobs of large organizations.
  *
  * The exported format is the canonical round-trip format: export, edit, re-import.
  * All endpoints require the data.export plan entitlement (Pro plan only).
@@ -32,57 +46,130 @@ public class DataExportController {
 
     private static final Logger log = LoggerFactory.getLogger(DataExportController.class);
 
-    private static final String XLSX_CONTENT_TYPE =
-            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-
     private final DataExportService dataExportService;
+    private final DataExportJobService dataExportJobService;
+    private final AuthorizationService authorizationService;
 
-    public DataExportController(DataExportService dataExportService) {
+    public DataExportController(DataExportService dataExportService, DataExportJobService dataExportJobService,
+                                AuthorizationService authorizationService) {
         this.dataExportService = dataExportService;
+        this.dataExportJobService = dataExportJobService;
+        this.authorizationService = authorizationService;
     }
 
     /**
      * Full export — all sheets: Members, Memberships, Payments, ContributionTypes.
-     * GET /admin/export/full
+     * GET /admin/export/full?format=xlsx|csv|jsonl
      */
     @GetMapping("/full")
-    public ResponseEntity<byte[]> exportFull() throws IOException {
+    public void exportFull(@RequestParam(required = false) String format, HttpServletResponse response)
+            throws IOException {
         log.info("Full data export requested");
-        byte[] data = dataExportService.exportFull();
-        return fileResponse(data, "full-export.xlsx");
+        streamExport(ExportScope.FULL, format, response);
     }
 
     /**
      * Members export — Members + Memberships sheets.
-     * GET /admin/export/members
+     * GET /admin/export/members?format=xlsx|csv|jsonl
      */
     @GetMapping("/members")
-    public ResponseEntity<byte[]> exportMembers() throws IOException {
+    public void exportMembers(@RequestParam(required = false) String format, HttpServletResponse response)
+            throws IOException {
         log.info("Members data export requested");
-        byte[] data = dataExportService.exportMembers();
-        return fileResponse(data, "members-export.xlsx");
+        streamExport(ExportScope.MEMBERS, format, response);
     }
 
     /**
      * Payments export — Payments + ContributionTypes sheets.
-     * GET /admin/export/payments
+     * GET /admin/export/payments?format=xlsx|csv|jsonl
      */
     @GetMapping("/payments")
-    public ResponseEntity<byte[]> exportPayments() throws IOException {
+    public void exportPayments(@RequestParam(required = false) String format, HttpServletResponse response)
+            throws IOException {
         log.info("Payments data export requested");
-        byte[] data = dataExportService.exportPayments();
-        return fileResponse(data, "payments-export.xlsx");
+        streamExport(ExportScope.PAYMENTS, format, response);
+    }
+
+    // -------------------------------------------------------------------------
+    // Background export jobs
+    // -------------------------------------------------------------------------
+
+    /**
+     * Queue a background export, written to object storage.
+     * POST /admin/export/jobs?scope=full|members|payments&format=xlsx|csv|jsonl
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> requestJob(@RequestParam String scope,
+                                        @RequestParam(required = false) String format) {
+        try {
+            Long userId = authorizationService.getCurrentUserId();
+            DataExportJobDTO job = dataExportJobService.requestJob(
+                    ExportScope.fromParam(scope), ExportFormat.fromParam(format), userId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recent export jobs of the organization.
+     * GET /admin/export/jobs
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<DataExportJobDTO>> listJobs() {
+        return ResponseEntity.ok(dataExportJobService.listJobs());
+    }
+
+    /**
+     * Status and progress of one export job.
+     * GET /admin/export/jobs/{id}
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(dataExportJobService.getJob(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * File of a completed export job.
+     * GET /admin/export/jobs/{id}/download
+     */
+    @GetMapping("/jobs/{id}/download")
+    public void downloadJob(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        try {
+            dataExportJobService.download(id, response);
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+            } else {
+                throw e;
+            }
+        }
     }
 
     // -------------------------------------------------------------------------
     // Helpers
     // -------------------------------------------------------------------------
 
-    private ResponseEntity<byte[]> fileResponse(byte[] data, String filename) {
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
-                .body(data);
+    /**
+     * Write the export straight to the response as rows are read. Runs on the
+     * request thread, which carries the organization context.
+     */
+    private void streamExport(ExportScope scope, String formatParam, HttpServletResponse response)
+            throws IOException {
+        ExportFormat format;
+        try {
+            format = ExportFormat.fromParam(formatParam);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + scope.fileName(format) + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
+        dataExportService.export(scope, format, response.getOutputStream(), null);
     }
 }
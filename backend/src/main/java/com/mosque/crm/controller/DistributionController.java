@@ -27,6 +27,8 @@ import com.mosque.crm.dto.NonMemberRecipientDTO;
 import com.mosque.crm.dto.NonMemberRecipientUpdateDTO;
 import com.mosque.crm.dto.ParcelCategoryCreateDTO;
 import com.mosque.crm.dto.ParcelCategoryDTO;
+import com.mosque.crm.dto.ParcelDistributionBatchDTO;
+import com.mosque.crm.dto.ParcelDistributionBatchResultDTO;
 import com.mosque.crm.dto.ParcelDistributionCreateDTO;
 import com.mosque.crm.dto.ParcelDistributionDTO;
 import com.mosque.crm.dto.DistributionRegistrationCreateDTO;
@@ -366,6 +368,13 @@ public class DistributionController {
         }
     }
 
+    /** Several distributions from one desk in one call; each item succeeds or fails on its own. */
+    @PostMapping("/distribute/batch")
+    public ResponseEntity<ParcelDistributionBatchResultDTO> distributeBatch(
+            @Valid @RequestBody ParcelDistributionBatchDTO dto) {
+        return ResponseEntity.ok(distributionService.distributeBatch(dto.getDistributions()));
+    }
+
     @GetMapping("/distributions/{id}")
     public ResponseEntity<?> getDistribution(@PathVariable Long id) {
         try {
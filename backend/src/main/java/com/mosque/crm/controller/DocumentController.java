@@ -9,27 +9,28 @@ import com.mosque.crm.dto.DocumentDetailDTO;
 import com.mosque.crm.dto.DocumentDownloadUrlDTO;
 import com.mosque.crm.dto.DocumentShareCreateDTO;
 import com.mosque.crm.dto.DocumentShareDTO;
+import com.mosque.crm.dto.DocumentUploadSessionDTO;
+import com.mosque.crm.dto.DocumentUploadStartDTO;
 import com.mosque.crm.dto.DocumentVersionDTO;
 import com.mosque.crm.dto.DocumentSearchResponseDTO;
 import com.mosque.crm.dto.RichTextDocumentSaveDTO;
-import com.mosque.crm.entity.Document;
 import com.mosque.crm.entity.User;
 import com.mosque.crm.repository.UserRepository;
 import com.mosque.crm.service.DocumentAuditService;
+import com.mosque.crm.service.DocumentDownloadService;
 import com.mosque.crm.service.DocumentService;
+import com.mosque.crm.service.DocumentUploadService;
 import com.mosque.crm.subscription.FeatureKeys;
 import com.mosque.crm.subscription.PlanFeatureRequired;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.ResponseInputStream;
-import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
 import java.io.IOException;
 import java.util.List;
@@ -43,13 +44,19 @@ public class DocumentController {
 
     private final DocumentService documentService;
     private final DocumentAuditService documentAuditService;
+    private final DocumentDownloadService documentDownloadService;
+    private final DocumentUploadService documentUploadService;
     private final UserRepository userRepository;
 
     public DocumentController(DocumentService documentService,
                                DocumentAuditService documentAuditService,
+                               DocumentDownloadService documentDownloadService,
+                               DocumentUploadService documentUploadService,
                                UserRepository userRepository) {
         this.documentService = documentService;
         this.documentAuditService = documentAuditService;
+        this.documentDownloadService = documentDownloadService;
+        this.documentUploadService = documentUploadService;
         this.userRepository = userRepository;
     }
 
@@ -106,6 +113,48 @@ public class DocumentController {
         return ResponseEntity.ok(documentService.uploadFile(file, meta, currentUser.getId()));
     }
 
+    // ==================== Chunked upload ====================
+
+    @PostMapping("/uploads")
+    public ResponseEntity<DocumentUploadSessionDTO> startUpload(@RequestBody DocumentUploadStartDTO dto) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(documentUploadService.start(dto, currentUser.getId()));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<DocumentUploadSessionDTO> getUpload(@PathVariable String uploadId) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(documentUploadService.getStatus(uploadId, currentUser.getId()));
+    }
+
+    /** Raw part bytes as the request body (not multipart/form-data), streamed to storage. */
+    @PutMapping("/uploads/{uploadId}/parts/{partNumber}")
+    public ResponseEntity<Void> uploadPart(@PathVariable String uploadId, @PathVariable int partNumber,
+                                           HttpServletRequest request) throws IOException {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) return ResponseEntity.status(401).build();
+        documentUploadService.uploadPart(uploadId, partNumber, request.getInputStream(),
+            request.getContentLengthLong(), currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<DocumentDTO> completeUpload(@PathVariable String uploadId) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(documentUploadService.complete(uploadId, currentUser.getId()));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) return ResponseEntity.status(401).build();
+        documentUploadService.abort(uploadId, currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+
     // ==================== Rich text ====================
 
     @PostMapping("/rich-text")
@@ -167,17 +216,11 @@ public class DocumentController {
     }
 
     @GetMapping("/{id}/download-stream")
-    public ResponseEntity<byte[]> downloadStream(@PathVariable Long id) throws IOException {
+    public void downloadStream(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         User currentUser = getCurrentUser();
         Long userId = currentUser != null ? currentUser.getId() : null;
-        Document doc = documentService.requireDocumentEntity(id);
-        ResponseInputStream<GetObjectResponse> stream = documentService.streamDocument(id, userId);
-        byte[] bytes = stream.readAllBytes();
-        stream.close();
-        return ResponseEntity.ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + doc.getOriginalFilename() + "\"")
-            .contentType(doc.getMimeType() != null ? MediaType.parseMediaType(doc.getMimeType()) : MediaType.APPLICATION_OCTET_STREAM)
-            .body(bytes);
+        documentDownloadService.stream(id, userId, request, response);
     }
 
     // ==================== Versions ====================
@@ -1,7 +1,14 @@
 package com.mosque.crm.controller;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -9,7 +16,10 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.mosque.crm.dto.ExcelImportResult;
+import com.mosque.crm.dto.MemberImportJobDTO;
+import com.mosque.crm.service.AuthorizationService;
 import com.mosque.crm.service.ExcelImportService;
+import com.mosque.crm.service.MemberImportJobService;
 import com.mosque.crm.subscription.PlanFeatureRequired;
 
 @RestController
@@ -19,29 +29,97 @@ import com.mosque.crm.subscription.PlanFeatureRequired;
 public class ExcelImportController {
 
     private final ExcelImportService excelImportService;
+    private final MemberImportJobService memberImportJobService;
+    private final AuthorizationService authorizationService;
 
-    public ExcelImportController(ExcelImportService excelImportService) {
+    public ExcelImportController(ExcelImportService excelImportService, MemberImportJobService memberImportJobService,
+                                 AuthorizationService authorizationService) {
         this.excelImportService = excelImportService;
+        this.memberImportJobService = memberImportJobService;
+        this.authorizationService = authorizationService;
     }
 
     @PostMapping("/excel")
     public ResponseEntity<ExcelImportResult> importFromExcel(@RequestParam("file") MultipartFile file) {
-        if (file.isEmpty()) {
+        if (!isExcelFile(file)) {
             return ResponseEntity.badRequest().build();
         }
 
+        ExcelImportResult result = excelImportService.importFromExcel(file);
+        return ResponseEntity.ok(result);
+    }
+
+    // -------------------------------------------------------------------------
+    // Background import jobs
+    // -------------------------------------------------------------------------
+
+    /**
+     * Queue a background import of the uploaded member list.
+     * POST /admin/import/excel/jobs
+     */
+    @PostMapping("/excel/jobs")
+    public ResponseEntity<?> requestJob(@RequestParam("file") MultipartFile file) {
+        if (!isExcelFile(file)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Not an Excel file"));
+        }
+        try {
+            Long userId = authorizationService.getCurrentUserId();
+            MemberImportJobDTO job = memberImportJobService.requestJob(file, userId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Could not store upload: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Recent import jobs of the organization.
+     * GET /admin/import/jobs
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<MemberImportJobDTO>> listJobs() {
+        return ResponseEntity.ok(memberImportJobService.listJobs());
+    }
+
+    /**
+     * Status and progress of one import job.
+     * GET /admin/import/jobs/{id}
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(memberImportJobService.getJob(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Counts and row errors and warnings of an import job, in the shape of the
+     * synchronous import result.
+     * GET /admin/import/jobs/{id}/report
+     */
+    @GetMapping("/jobs/{id}/report")
+    public ResponseEntity<?> getReport(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(memberImportJobService.getReport(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static boolean isExcelFile(MultipartFile file) {
+        if (file.isEmpty()) {
+            return false;
+        }
+
         // Check if the file is an Excel file
         String contentType = file.getContentType();
         String fileName = file.getOriginalFilename();
 
-        if (contentType == null ||
-            (!contentType.equals("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet") &&
-             !contentType.equals("application/vnd.ms-excel") &&
-             !(fileName != null && (fileName.toLowerCase().endsWith(".xlsx") || fileName.toLowerCase().endsWith(".xls"))))) {
-            return ResponseEntity.badRequest().build();
-        }
-
-        ExcelImportResult result = excelImportService.importFromExcel(file);
-        return ResponseEntity.ok(result);
+        return contentType != null &&
+            (contentType.equals("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet") ||
+             contentType.equals("application/vnd.ms-excel") ||
+             (fileName != null && (fileName.toLowerCase().endsWith(".xlsx") || fileName.toLowerCase().endsWith(".xls"))));
     }
-}
\ No newline at end of file
+}
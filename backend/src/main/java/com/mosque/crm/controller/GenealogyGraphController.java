@@ -7,12 +7,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 import com.mosque.crm.dto.GenealogyGraphDTO;
 import com.mosque.crm.repository.FamilyChildRepository;
 import com.mosque.crm.repository.FamilyRepository;
 import com.mosque.crm.repository.PersonRepository;
+import com.mosque.crm.service.FamilyGraph;
 import com.mosque.crm.service.GenealogyGraphService;
 import com.mosque.crm.subscription.PlanFeatureRequired;
 
@@ -124,13 +126,19 @@ public class GenealogyGraphController {
      * Get genealogy graph for a person.
      * Returns nodes (PERSON and FAMILY) and edges for d3-dag visualization.
      *
-     * GET /api/genealogy/persons/{personId}/graph
+     * GET /api/genealogy/persons/{personId}/graph?depth=3
+     * Without {@code depth} the whole connected family is returned.
      */
     @GetMapping("/persons/{personId}/graph")
-    public ResponseEntity<GenealogyGraphDTO> getGraph(@PathVariable Long personId) {
+    public ResponseEntity<GenealogyGraphDTO> getGraph(@PathVariable Long personId,
+                                                      @RequestParam(required = false) Integer depth) {
         log.info("Getting genealogy graph for person: {}", personId);
 
-        GenealogyGraphDTO graph = genealogyGraphService.buildGraph(personId);
+        if (depth != null && depth < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        GenealogyGraphDTO graph = genealogyGraphService.buildGraph(personId,
+                depth != null ? depth : FamilyGraph.UNLIMITED_DEPTH);
 
         log.info("Returning graph with {} nodes and {} edges",
                 graph.getNodes().size(), graph.getEdges().size());
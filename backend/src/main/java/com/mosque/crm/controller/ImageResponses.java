@@ -0,0 +1,37 @@
+package com.mosque.crm.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.mosque.crm.service.ImageVariantService.StoredImage;
+import com.mosque.crm.util.ETags;
+
+/**
+ * Responses for served images (profile photos, business logos): the image with
+ * its ETag, or {@code 304 Not Modified} when the client already has it.
+ */
+final class ImageResponses {
+
+    static final String CACHE_CONTROL = "public, max-age=3600";
+
+    private ImageResponses() {
+    }
+
+    static ResponseEntity<?> of(StoredImage image, String ifNoneMatch) {
+        if (ETags.matchesAny(ifNoneMatch, image.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(image.etag())
+                    .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(image.etag())
+                .header(HttpHeaders.CONTENT_TYPE, image.contentType() != null
+                        ? image.contentType()
+                        : MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .body(image.bytes());
+    }
+}
@@ -7,7 +7,6 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -25,7 +24,6 @@ import com.mosque.crm.dto.ConversationSummaryDTO;
 import com.mosque.crm.dto.InboxPageDTO;
 import com.mosque.crm.dto.MessageDTO;
 import com.mosque.crm.dto.SendMessageDTO;
-import com.mosque.crm.dto.WsMessageNotification;
 import com.mosque.crm.entity.User;
 import com.mosque.crm.repository.UserRepository;
 import com.mosque.crm.service.MessageService;
@@ -38,13 +36,10 @@ public class MessageController {
 
     private final MessageService messageService;
     private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
 
-    public MessageController(MessageService messageService, UserRepository userRepository,
-                             SimpMessagingTemplate messagingTemplate) {
+    public MessageController(MessageService messageService, UserRepository userRepository) {
         this.messageService = messageService;
         this.userRepository = userRepository;
-        this.messagingTemplate = messagingTemplate;
     }
 
     @GetMapping("/inbox")
@@ -82,22 +77,8 @@ public class MessageController {
                 ? currentUser.getSelectedOrganizationId()
                 : currentUser.getOrganizationId();
         try {
+            // The recipient's WebSocket push is queued in the same transaction (realtime outbox)
             MessageDTO result = messageService.sendMessage(currentUser.getId(), orgId, dto);
-
-            // Push real-time notification AFTER the transaction has committed
-            try {
-                long unreadCount = messageService.getUnreadCount(dto.getRecipientId());
-                WsMessageNotification notification = new WsMessageNotification(result, unreadCount);
-                messagingTemplate.convertAndSendToUser(
-                        dto.getRecipientId().toString(),
-                        "/topic/messages",
-                        notification);
-                log.debug("WebSocket notification sent to user {}", dto.getRecipientId());
-            } catch (Exception wsEx) {
-                log.warn("Failed to send WebSocket notification to user {}: {}",
-                        dto.getRecipientId(), wsEx.getMessage());
-            }
-
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
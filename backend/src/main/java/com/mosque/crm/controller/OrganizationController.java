@@ -21,6 +21,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.mosque.crm.dto.OrganizationDTO;
+import com.mosque.crm.dto.OrganizationDeletionJobDTO;
 import com.mosque.crm.entity.Organization;
 import com.mosque.crm.entity.User;
 import com.mosque.crm.multitenancy.TenantContext;
@@ -151,14 +152,40 @@ public class OrganizationController {
         return ResponseEntity.ok(toDTO(saved));
     }
 
+    /**
+     * Deactivate the organization and delete it with all its data in the background.
+     * Returns the deletion job (202); requesting again resumes a failed job.
+     */
     @DeleteMapping("/{id}")
     @PreAuthorize("@auth.hasPermission('superadmin.manage')")
-    public ResponseEntity<Void> deleteOrganization(@PathVariable Long id) {
-        boolean deleted = organizationDeletionService.deleteOrganizationCascade(id);
-        if (!deleted) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<OrganizationDeletionJobDTO> deleteOrganization(@PathVariable Long id) {
+        return organizationDeletionService.requestDeletion(id, authorizationService.getCurrentUserId())
+                .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Recent organization deletion jobs.
+     * GET /organizations/deletions
+     */
+    @GetMapping("/deletions")
+    @PreAuthorize("@auth.hasPermission('superadmin.manage')")
+    public ResponseEntity<List<OrganizationDeletionJobDTO>> listDeletionJobs() {
+        return ResponseEntity.ok(organizationDeletionService.listJobs());
+    }
+
+    /**
+     * Status and progress of one deletion job.
+     * GET /organizations/deletions/{jobId}
+     */
+    @GetMapping("/deletions/{jobId}")
+    @PreAuthorize("@auth.hasPermission('superadmin.manage')")
+    public ResponseEntity<?> getDeletionJob(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(organizationDeletionService.getJob(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
         }
-        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/check-handle")
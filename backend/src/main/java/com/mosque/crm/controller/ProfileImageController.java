@@ -5,7 +5,9 @@ import com.mosque.crm.entity.Person;
 import com.mosque.crm.entity.User;
 import com.mosque.crm.repository.PersonRepository;
 import com.mosque.crm.repository.UserRepository;
-import com.mosque.crm.service.StorageService;
+import com.mosque.crm.service.ImageVariantService;
+import com.mosque.crm.service.ImageVariantService.StoredImage;
+import com.mosque.crm.service.ImageVariantService.Variant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -15,8 +17,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.ResponseInputStream;
-import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
 import java.util.HashMap;
 import java.util.List;
@@ -26,6 +26,8 @@ import java.util.UUID;
 /**
  * REST controller for profile-image upload, download and deletion.
  * Images are stored in MinIO (S3-compatible) and served through the backend — no direct MinIO URLs.
+ * Downloads take {@code ?size=thumb|medium|original} (default original) and answer
+ * {@code If-None-Match} with 304.
  */
 @RestController
 @RequestMapping("/profile-image")
@@ -33,16 +35,16 @@ public class ProfileImageController {
 
     private static final Logger log = LoggerFactory.getLogger(ProfileImageController.class);
 
-    private final StorageService storageService;
+    private final ImageVariantService imageVariantService;
     private final StorageProperties storageProperties;
     private final UserRepository userRepository;
     private final PersonRepository personRepository;
 
-    public ProfileImageController(StorageService storageService,
+    public ProfileImageController(ImageVariantService imageVariantService,
                                   StorageProperties storageProperties,
                                   UserRepository userRepository,
                                   PersonRepository personRepository) {
-        this.storageService = storageService;
+        this.imageVariantService = imageVariantService;
         this.storageProperties = storageProperties;
         this.userRepository = userRepository;
         this.personRepository = personRepository;
@@ -81,24 +83,29 @@ public class ProfileImageController {
      * Get the current user's own profile image (binary).
      */
     @GetMapping("/me")
-    public ResponseEntity<?> getMyProfileImage() {
+    public ResponseEntity<?> getMyProfileImage(
+            @RequestParam(defaultValue = "original") String size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Person person = resolveCurrentPerson();
         if (person == null) {
             return ResponseEntity.status(403).body(Map.of("error", "No person profile linked to current user"));
         }
-        return serveImage(person);
+        return serveImage(person, size, ifNoneMatch);
     }
 
     /**
      * Get any person's profile image by personId (used by admin views, member lists, etc.).
      */
     @GetMapping("/persons/{personId}")
-    public ResponseEntity<?> getProfileImageForPerson(@PathVariable Long personId) {
+    public ResponseEntity<?> getProfileImageForPerson(
+            @PathVariable Long personId,
+            @RequestParam(defaultValue = "original") String size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Person person = personRepository.findById(personId).orElse(null);
         if (person == null) {
             return ResponseEntity.status(404).body(Map.of("error", "Person not found"));
         }
-        return serveImage(person);
+        return serveImage(person, size, ifNoneMatch);
     }
 
     // ── Delete ──────────────────────────────────────────────────
@@ -154,7 +161,7 @@ public class ProfileImageController {
             // Delete old image if exists
             if (person.getProfileImageKey() != null) {
                 try {
-                    storageService.delete(person.getProfileImageKey());
+                    imageVariantService.delete(person.getProfileImageKey());
                 } catch (Exception e) {
                     log.warn("Failed to delete old profile image for person {}: {}", person.getId(), e.getMessage());
                 }
@@ -164,7 +171,7 @@ public class ProfileImageController {
             String extension = getExtension(file.getOriginalFilename(), contentType);
             String key = "profile-images/" + person.getId() + "/" + UUID.randomUUID() + extension;
 
-            storageService.upload(key, file.getInputStream(), contentType, file.getSize());
+            imageVariantService.store(key, file.getBytes(), contentType);
 
             // Persist key on person
             person.setProfileImageKey(key);
@@ -183,18 +190,17 @@ public class ProfileImageController {
         }
     }
 
-    private ResponseEntity<?> serveImage(Person person) {
+    private ResponseEntity<?> serveImage(Person person, String size, String ifNoneMatch) {
+        Variant variant = Variant.fromParam(size);
+        if (variant == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown image size: " + size));
+        }
         if (person.getProfileImageKey() == null) {
             return ResponseEntity.noContent().build();
         }
         try {
-            ResponseInputStream<GetObjectResponse> response = storageService.download(person.getProfileImageKey());
-            GetObjectResponse metadata = response.response();
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_TYPE, metadata.contentType())
-                    .header(HttpHeaders.CACHE_CONTROL, "public, max-age=3600")
-                    .body(response.readAllBytes());
+            StoredImage image = imageVariantService.load(person.getProfileImageKey(), variant);
+            return ImageResponses.of(image, ifNoneMatch);
         } catch (Exception e) {
             log.error("Failed to serve profile image for person {}: {}", person.getId(), e.getMessage());
             return ResponseEntity.noContent().build();
@@ -206,7 +212,7 @@ public class ProfileImageController {
             return ResponseEntity.ok(Map.of("message", "No profile image to delete"));
         }
         try {
-            storageService.delete(person.getProfileImageKey());
+            imageVariantService.delete(person.getProfileImageKey());
         } catch (Exception e) {
             log.warn("Failed to delete object from storage for person {}: {}", person.getId(), e.getMessage());
         }
@@ -3,16 +3,17 @@ package com.mosque.crm.controller;
 import java.util.List;
 
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.mosque.crm.service.BusinessDirectoryService;
-import com.mosque.crm.service.BusinessDirectoryService.StoredImage;
+import com.mosque.crm.service.ImageVariantService.StoredImage;
+import com.mosque.crm.service.ImageVariantService.Variant;
 
 /**
  * Anonymous public business-directory endpoints.
@@ -65,18 +66,21 @@ public class PublicBusinessDirectoryController {
     }
 
     @GetMapping("/public/{orgHandle}/{id}/logo")
-    public ResponseEntity<?> getPublicLogo(@PathVariable String orgHandle, @PathVariable Long id) {
+    public ResponseEntity<?> getPublicLogo(
+            @PathVariable String orgHandle,
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "original") String size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Variant variant = Variant.fromParam(size);
+        if (variant == null) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            StoredImage image = businessDirectoryService.getPublicLogo(orgHandle, id);
+            StoredImage image = businessDirectoryService.getPublicLogo(orgHandle, id, variant);
             if (image == null) {
                 return ResponseEntity.noContent().build();
             }
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_TYPE, image.contentType() != null
-                            ? image.contentType()
-                            : MediaType.APPLICATION_OCTET_STREAM_VALUE)
-                    .header(HttpHeaders.CACHE_CONTROL, "public, max-age=3600")
-                    .body(image.bytes());
+            return ImageResponses.of(image, ifNoneMatch);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         } catch (org.springframework.security.access.AccessDeniedException e) {
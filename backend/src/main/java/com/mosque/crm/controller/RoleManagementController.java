@@ -9,6 +9,7 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -32,6 +33,7 @@ import com.mosque.crm.entity.User;
 import com.mosque.crm.multitenancy.TenantContext;
 import com.mosque.crm.repository.PermissionRepository;
 import com.mosque.crm.repository.RoleRepository;
+import com.mosque.crm.security.RolePermissionsChangedEvent;
 import com.mosque.crm.service.AuthorizationService;
 import com.mosque.crm.service.RoleGovernanceService;
 import com.mosque.crm.service.RoleTemplateService;
@@ -55,17 +57,20 @@ public class RoleManagementController {
     private final AuthorizationService authorizationService;
     private final RoleTemplateService roleTemplateService;
     private final RoleGovernanceService roleGovernanceService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RoleManagementController(RoleRepository roleRepository,
                                     PermissionRepository permissionRepository,
                                     AuthorizationService authorizationService,
                                     RoleTemplateService roleTemplateService,
-                                    RoleGovernanceService roleGovernanceService) {
+                                    RoleGovernanceService roleGovernanceService,
+                                    ApplicationEventPublisher eventPublisher) {
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
         this.authorizationService = authorizationService;
         this.roleTemplateService = roleTemplateService;
         this.roleGovernanceService = roleGovernanceService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -111,6 +116,15 @@ public class RoleManagementController {
         return ResponseEntity.ok(dtos);
     }
 
+    /**
+     * Permission cache sizes and hit/miss/eviction counters.
+     */
+    @GetMapping("/permission-cache-stats")
+    @PreAuthorize("@auth.hasPermission('superadmin.manage')")
+    public ResponseEntity<Map<String, Object>> getPermissionCacheStats() {
+        return ResponseEntity.ok(authorizationService.getPermissionCacheStats());
+    }
+
     /**
      * Get a single role with its assigned permission codes.
      */
@@ -200,8 +214,8 @@ public class RoleManagementController {
             roleTemplateService.syncTemplateRoleToAllTenants(role.getName());
         }
 
-        // Evict all caches since the role-permission mapping changed and may affect many users
-        authorizationService.evictAllCaches();
+        // Re-resolve permissions of every user holding this role (or its tenant copies)
+        publishRoleChanged(role);
 
         log.info("Updated permissions for role '{}' (id={}): {}", role.getName(), id,
                 request.getPermissionCodes());
@@ -270,7 +284,7 @@ public class RoleManagementController {
             roleTemplateService.syncTemplateRoleToAllTenants(role.getName());
         }
 
-        authorizationService.evictAllCaches();
+        publishRoleChanged(role);
 
         log.info("Updated assignable permissions for role '{}' (id={}): pool={}, granted pruned from {} to {}",
                 role.getName(), id, request.getPermissionCodes().size(),
@@ -369,7 +383,10 @@ public class RoleManagementController {
             poolTargets = roles;
         }
 
-        authorizationService.evictAllCaches();
+        // Super admins also re-synced the ADMIN/MEMBER templates to every tenant
+        eventPublisher.publishEvent(canManageSuperAdmin
+                ? RolePermissionsChangedEvent.allRoles()
+                : RolePermissionsChangedEvent.of(poolTargets.stream().map(Role::getId).collect(Collectors.toSet())));
 
         log.info("Updated global permission pool: {} permissions for {} roles",
                 newPool.size(),
@@ -476,7 +493,7 @@ public class RoleManagementController {
             roleTemplateService.syncTemplateRoleToAllTenants(role.getName());
         }
 
-        authorizationService.evictAllCaches();
+        publishRoleChanged(role);
 
         log.info("Updated role '{}' (id={})", role.getName(), id);
 
@@ -527,7 +544,7 @@ public class RoleManagementController {
         }
 
         roleRepository.delete(role);
-        authorizationService.evictAllCaches();
+        eventPublisher.publishEvent(RolePermissionsChangedEvent.of(role.getId()));
 
         log.info("Deleted role '{}' (id={})", role.getName(), id);
 
@@ -618,4 +635,14 @@ public class RoleManagementController {
         return authorizationService.hasPermission("superadmin.manage")
                 && roleTemplateService.isDefaultTemplateRole(role);
     }
+
+    /**
+     * Invalidate cached permissions for a changed role. Template roles are synced to
+     * tenant copies whose IDs are not known here, so those invalidate every role set.
+     */
+    private void publishRoleChanged(Role role) {
+        eventPublisher.publishEvent(shouldSyncTemplateRole(role)
+                ? RolePermissionsChangedEvent.allRoles()
+                : RolePermissionsChangedEvent.of(role.getId()));
+    }
 }
@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -26,7 +27,7 @@ import com.mosque.crm.entity.Permission;
 import com.mosque.crm.entity.RoleTemplate;
 import com.mosque.crm.repository.PermissionRepository;
 import com.mosque.crm.repository.RoleTemplateRepository;
-import com.mosque.crm.service.AuthorizationService;
+import com.mosque.crm.security.RolePermissionsChangedEvent;
 import com.mosque.crm.service.RoleTemplateService;
 
 import jakarta.validation.Valid;
@@ -44,16 +45,16 @@ public class RoleTemplateController {
 
     private final RoleTemplateRepository templateRepository;
     private final PermissionRepository permissionRepository;
-    private final AuthorizationService authorizationService;
+    private final ApplicationEventPublisher eventPublisher;
     private final RoleTemplateService roleTemplateService;
 
     public RoleTemplateController(RoleTemplateRepository templateRepository,
                                   PermissionRepository permissionRepository,
-                                  AuthorizationService authorizationService,
+                                  ApplicationEventPublisher eventPublisher,
                                   RoleTemplateService roleTemplateService) {
         this.templateRepository = templateRepository;
         this.permissionRepository = permissionRepository;
-        this.authorizationService = authorizationService;
+        this.eventPublisher = eventPublisher;
         this.roleTemplateService = roleTemplateService;
     }
 
@@ -132,7 +133,8 @@ public class RoleTemplateController {
         templateRepository.save(template);
 
         roleTemplateService.syncTemplateToAllTenants(template.getName());
-        authorizationService.evictAllCaches();
+        // Tenant copies were re-synced; their role IDs are not known here
+        eventPublisher.publishEvent(RolePermissionsChangedEvent.allRoles());
 
         log.info("Updated permissions for template '{}' (id={}): {} permissions",
                 template.getName(), id, newPermissions.size());
@@ -166,7 +168,8 @@ public class RoleTemplateController {
         templateRepository.save(template);
 
         roleTemplateService.syncTemplateToAllTenants(template.getName());
-        authorizationService.evictAllCaches();
+        // Tenant copies were re-synced; their role IDs are not known here
+        eventPublisher.publishEvent(RolePermissionsChangedEvent.allRoles());
 
         log.info("Updated assignable permissions for template '{}' (id={}): pool={}, granted={}",
                 template.getName(), id, newAssignable.size(), prunedGranted.size());
@@ -193,7 +196,8 @@ public class RoleTemplateController {
         if (template == null) return ResponseEntity.notFound().build();
 
         roleTemplateService.syncTemplateToAllTenants(template.getName());
-        authorizationService.evictAllCaches();
+        // Tenant copies were re-synced; their role IDs are not known here
+        eventPublisher.publishEvent(RolePermissionsChangedEvent.allRoles());
 
         log.info("Manually triggered sync for template '{}' (id={})", template.getName(), id);
         return ResponseEntity.ok(Map.of("message",
@@ -11,6 +11,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -40,6 +41,7 @@ import com.mosque.crm.entity.SubscriptionInvoice;
 import com.mosque.crm.service.BillingService;
 import com.mosque.crm.service.InvoicePdfService;
 import com.mosque.crm.service.OrganizationSubscriptionService;
+import com.mosque.crm.subscription.SubscriptionStatusCache;
 
 import jakarta.validation.Valid;
 
@@ -57,6 +59,7 @@ import jakarta.validation.Valid;
  * <ul>
  *   <li>POST /admin/subscription             — assign a subscription to a organization</li>
  *   <li>PUT  /admin/subscription/{id}/status — lifecycle transition (CANCEL, ACTIVATE, etc.)</li>
+ *   <li>GET  /admin/subscription/cache-stats — subscription status cache counters</li>
  * </ul>
  *
  * Security is managed centrally in SecurityConfig — no annotations here.
@@ -69,13 +72,16 @@ public class SubscriptionController {
     private final OrganizationSubscriptionService organizationSubscriptionService;
     private final BillingService billingService;
     private final InvoicePdfService invoicePdfService;
+    private final SubscriptionStatusCache subscriptionStatusCache;
 
     public SubscriptionController(OrganizationSubscriptionService organizationSubscriptionService,
             BillingService billingService,
-            InvoicePdfService invoicePdfService) {
+            InvoicePdfService invoicePdfService,
+            SubscriptionStatusCache subscriptionStatusCache) {
         this.organizationSubscriptionService = organizationSubscriptionService;
         this.billingService = billingService;
         this.invoicePdfService = invoicePdfService;
+        this.subscriptionStatusCache = subscriptionStatusCache;
     }
 
     // -------------------------------------------------------------------------
@@ -334,6 +340,16 @@ public class SubscriptionController {
         }
     }
 
+    /**
+     * Hit/miss/eviction counters of the per-organization subscription status cache
+     * used by the subscription enforcement interceptor.
+     */
+    @GetMapping("/admin/subscription/cache-stats")
+    @PreAuthorize("@auth.hasPermission('superadmin.manage')")
+    public ResponseEntity<Map<String, Object>> getSubscriptionCacheStats() {
+        return ResponseEntity.ok(subscriptionStatusCache.getStats());
+    }
+
     // -------------------------------------------------------------------------
     // Billing: invoices and payments
     // -------------------------------------------------------------------------
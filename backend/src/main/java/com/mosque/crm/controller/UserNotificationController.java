@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +15,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.mosque.crm.dto.RealtimeOutboxStatsDTO;
 import com.mosque.crm.dto.UserNotificationDTO;
 import com.mosque.crm.entity.User;
 import com.mosque.crm.repository.UserRepository;
+import com.mosque.crm.service.RealtimeOutboxDispatcher;
 import com.mosque.crm.service.UserNotificationService;
 
 @RestController
@@ -25,12 +28,15 @@ public class UserNotificationController {
 
     private final UserNotificationService userNotificationService;
     private final UserRepository userRepository;
+    private final RealtimeOutboxDispatcher realtimeOutboxDispatcher;
 
     public UserNotificationController(
             UserNotificationService userNotificationService,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            RealtimeOutboxDispatcher realtimeOutboxDispatcher) {
         this.userNotificationService = userNotificationService;
         this.userRepository = userRepository;
+        this.realtimeOutboxDispatcher = realtimeOutboxDispatcher;
     }
 
     @GetMapping
@@ -78,6 +84,15 @@ public class UserNotificationController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Realtime push pipeline: outbox queue depth, delivery lag and worker pool usage.
+     */
+    @GetMapping("/realtime-stats")
+    @PreAuthorize("@auth.hasPermission('superadmin.manage')")
+    public ResponseEntity<RealtimeOutboxStatsDTO> realtimeStats() {
+        return ResponseEntity.ok(realtimeOutboxDispatcher.stats());
+    }
+
     private User currentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !auth.isAuthenticated()) {
@@ -18,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.mosque.crm.federation.FederationConstants;
 import com.mosque.crm.service.ConfigurationService;
+import com.mosque.crm.service.ContributionTotalsService;
 import com.mosque.crm.service.RoleTemplateService;
 import com.mosque.crm.service.TenantSettingService;
 
@@ -54,16 +55,19 @@ public class DemoDataService {
     private final PasswordEncoder passwordEncoder;
     private final RoleTemplateService roleTemplateService;
     private final ConfigurationService configurationService;
+    private final ContributionTotalsService contributionTotalsService;
 
     public DemoDataService(
             JdbcTemplate jdbc,
             PasswordEncoder passwordEncoder,
             RoleTemplateService roleTemplateService,
-            ConfigurationService configurationService) {
+            ConfigurationService configurationService,
+            ContributionTotalsService contributionTotalsService) {
         this.jdbc = jdbc;
         this.passwordEncoder = passwordEncoder;
         this.roleTemplateService = roleTemplateService;
         this.configurationService = configurationService;
+        this.contributionTotalsService = contributionTotalsService;
     }
 
     public DemoDataStatusDTO getStatus() {
@@ -179,6 +183,8 @@ public class DemoDataService {
         for (int i = 0; i < Math.min(8, personIds.size()); i++) {
             createPayment(personIds.get(i), contributionTypeId, orgId, adminUserId, srdId, now, i);
         }
+        // Payments were inserted with plain SQL; aggregate them for the reports
+        contributionTotalsService.rebuild(orgId);
 
         createGeneralEvent(orgId, "Iftar avond " + label, "IFTAR", now);
         createGeneralEvent(orgId, "Collecte " + label, "FUNDRAISER", now);
@@ -341,10 +347,11 @@ public class DemoDataService {
         LocalDate payDate = LocalDate.now().minusMonths(offset % 6);
         jdbc.update(
                 "INSERT INTO member_payments (person_id, contribution_type_id, amount, payment_date, period_from, period_to, "
-                        + "reference, currency_id, created_by, is_reversal, organization_id, created_at) "
-                        + "VALUES (?,?,?,?,?,?,?,?,?,?,?,?)",
+                        + "effective_date, reference, currency_id, created_by, is_reversal, organization_id, created_at) "
+                        + "VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?)",
                 personId, contributionTypeId, new BigDecimal("75.00"), payDate,
                 payDate.withDayOfMonth(1), payDate.withDayOfMonth(1).plusMonths(1).minusDays(1),
+                payDate.withDayOfMonth(1),
                 "DEMO-" + personId + "-" + offset, currencyId, createdBy, false, orgId, now);
     }
 
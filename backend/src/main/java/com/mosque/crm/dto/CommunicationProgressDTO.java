@@ -0,0 +1,32 @@
+package com.mosque.crm.dto;
+
+/**
+ * Delivery progress of a bulk communication, counted over its recipients.
+ */
+public class CommunicationProgressDTO {
+
+    private Long messageId;
+    private String status;
+    private long total;
+    private long sent;
+    private long failed;
+    private long pending;
+
+    public Long getMessageId() { return messageId; }
+    public void setMessageId(Long messageId) { this.messageId = messageId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getSent() { return sent; }
+    public void setSent(long sent) { this.sent = sent; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getPending() { return pending; }
+    public void setPending(long pending) { this.pending = pending; }
+}
@@ -0,0 +1,36 @@
+package com.mosque.crm.dto;
+
+import java.util.List;
+
+/**
+ * State of a chunked upload. Part {@code n} (1-based) covers bytes
+ * {@code (n-1)*partSize} up to the file size; a client resumes by sending
+ * the parts missing from {@code uploadedParts}.
+ */
+public class DocumentUploadSessionDTO {
+    private String uploadId;
+    private Long documentId;
+    private long fileSize;
+    private long partSize;
+    private int partCount;
+    private List<Integer> uploadedParts;
+    private long uploadedBytes;
+    private String expiresAt;
+
+    public String getUploadId() { return uploadId; }
+    public void setUploadId(String uploadId) { this.uploadId = uploadId; }
+    public Long getDocumentId() { return documentId; }
+    public void setDocumentId(Long documentId) { this.documentId = documentId; }
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+    public long getPartSize() { return partSize; }
+    public void setPartSize(long partSize) { this.partSize = partSize; }
+    public int getPartCount() { return partCount; }
+    public void setPartCount(int partCount) { this.partCount = partCount; }
+    public List<Integer> getUploadedParts() { return uploadedParts; }
+    public void setUploadedParts(List<Integer> uploadedParts) { this.uploadedParts = uploadedParts; }
+    public long getUploadedBytes() { return uploadedBytes; }
+    public void setUploadedBytes(long uploadedBytes) { this.uploadedBytes = uploadedBytes; }
+    public String getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(String expiresAt) { this.expiresAt = expiresAt; }
+}
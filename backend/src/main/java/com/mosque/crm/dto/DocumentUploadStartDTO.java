@@ -0,0 +1,38 @@
+package com.mosque.crm.dto;
+
+import com.mosque.crm.enums.DocumentVisibility;
+
+/**
+ * Starts a chunked upload. With {@code documentId} set the file becomes a new
+ * version of that document; otherwise a new document is created on completion.
+ */
+public class DocumentUploadStartDTO {
+    private String filename;
+    private String contentType;
+    private long fileSize;
+    private Long documentId;
+    private String changeNote;
+    private Long folderId;
+    private String title;
+    private String description;
+    private DocumentVisibility visibility;
+
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+    public Long getDocumentId() { return documentId; }
+    public void setDocumentId(Long documentId) { this.documentId = documentId; }
+    public String getChangeNote() { return changeNote; }
+    public void setChangeNote(String changeNote) { this.changeNote = changeNote; }
+    public Long getFolderId() { return folderId; }
+    public void setFolderId(Long folderId) { this.folderId = folderId; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public DocumentVisibility getVisibility() { return visibility; }
+    public void setVisibility(DocumentVisibility visibility) { this.visibility = visibility; }
+}
@@ -4,11 +4,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mosque.crm.enums.ImportIssueSeverity;
+import com.mosque.crm.models.ImportRowIssue;
 import com.mosque.crm.models.RowData;
 
 public class ExcelImportResult {
+	private Long jobId;
 	private int totalRecords;
 	private int successfullyProcessed;
+	private int created;
+	private int updated;
 	private int skipped;
 	private List<String> errors;
 	private List<String> warnings;
@@ -16,6 +21,9 @@ public class ExcelImportResult {
 	@JsonIgnore
 	private List<RowData> rows;
 
+	@JsonIgnore
+	private final List<ImportRowIssue> issues = new ArrayList<>();
+
 	public ExcelImportResult(List<RowData> rows, int totalRecords, int successfullyProcessed, int skipped,
 			List<String> errors, List<String> warnings) {
 		this.rows = rows;
@@ -31,7 +39,34 @@ public class ExcelImportResult {
 		this(new ArrayList<>(), totalRecords, successfullyProcessed, skipped, errors, warnings);
 	}
 
+	/** Record an error of the file as a whole. */
+	public void addError(String message) {
+		addIssue(new ImportRowIssue(null, ImportIssueSeverity.ERROR, message));
+	}
+
+	public void addError(int rowNumber, String message) {
+		addIssue(new ImportRowIssue(rowNumber, ImportIssueSeverity.ERROR, message));
+	}
+
+	public void addWarning(int rowNumber, String message) {
+		addIssue(new ImportRowIssue(rowNumber, ImportIssueSeverity.WARNING, message));
+	}
+
+	/** Record an issue, and list its message under errors or warnings. */
+	public void addIssue(ImportRowIssue issue) {
+		issues.add(issue);
+		(issue.severity() == ImportIssueSeverity.ERROR ? errors : warnings).add(issue.describe());
+	}
+
 	// Getters and setters
+	public Long getJobId() {
+		return jobId;
+	}
+
+	public void setJobId(Long jobId) {
+		this.jobId = jobId;
+	}
+
 	public int getTotalRecords() {
 		return totalRecords;
 	}
@@ -48,6 +83,22 @@ public class ExcelImportResult {
 		this.successfullyProcessed = successfullyProcessed;
 	}
 
+	public int getCreated() {
+		return created;
+	}
+
+	public void setCreated(int created) {
+		this.created = created;
+	}
+
+	public int getUpdated() {
+		return updated;
+	}
+
+	public void setUpdated(int updated) {
+		this.updated = updated;
+	}
+
 	public int getSkipped() {
 		return skipped;
 	}
@@ -80,4 +131,9 @@ public class ExcelImportResult {
 		this.rows = rows;
 	}
 
+	/** Every error and warning, in the order they were recorded. */
+	public List<ImportRowIssue> getIssues() {
+		return issues;
+	}
+
 }
\ No newline at end of file
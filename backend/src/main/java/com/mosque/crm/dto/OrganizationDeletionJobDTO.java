@@ -0,0 +1,66 @@
+package com.mosque.crm.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State and progress of a background organization deletion.
+ */
+public class OrganizationDeletionJobDTO {
+
+    private Long id;
+    private Long organizationId;
+    private String organizationName;
+    private String status;
+    private boolean storageCleared;
+    private long objectsDeleted;
+    private Integer stepsTotal;
+    private int stepsDone;
+    private String currentTable;
+    private long rowsDeleted;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOrganizationId() { return organizationId; }
+    public void setOrganizationId(Long organizationId) { this.organizationId = organizationId; }
+
+    public String getOrganizationName() { return organizationName; }
+    public void setOrganizationName(String organizationName) { this.organizationName = organizationName; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public boolean isStorageCleared() { return storageCleared; }
+    public void setStorageCleared(boolean storageCleared) { this.storageCleared = storageCleared; }
+
+    public long getObjectsDeleted() { return objectsDeleted; }
+    public void setObjectsDeleted(long objectsDeleted) { this.objectsDeleted = objectsDeleted; }
+
+    public Integer getStepsTotal() { return stepsTotal; }
+    public void setStepsTotal(Integer stepsTotal) { this.stepsTotal = stepsTotal; }
+
+    public int getStepsDone() { return stepsDone; }
+    public void setStepsDone(int stepsDone) { this.stepsDone = stepsDone; }
+
+    public String getCurrentTable() { return currentTable; }
+    public void setCurrentTable(String currentTable) { this.currentTable = currentTable; }
+
+    public long getRowsDeleted() { return rowsDeleted; }
+    public void setRowsDeleted(long rowsDeleted) { this.rowsDeleted = rowsDeleted; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
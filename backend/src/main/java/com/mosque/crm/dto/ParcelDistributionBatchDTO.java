@@ -0,0 +1,26 @@
+package com.mosque.crm.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class ParcelDistributionBatchDTO {
+
+    @NotEmpty(message = "At least one distribution is required")
+    @Size(max = 500, message = "At most 500 distributions per request")
+    private List<@Valid ParcelDistributionCreateDTO> distributions = new ArrayList<>();
+
+    public ParcelDistributionBatchDTO() {
+    }
+
+    public List<ParcelDistributionCreateDTO> getDistributions() {
+        return distributions;
+    }
+
+    public void setDistributions(List<ParcelDistributionCreateDTO> distributions) {
+        this.distributions = distributions;
+    }
+}
@@ -0,0 +1,85 @@
+package com.mosque.crm.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batch of distributions: per item either the recorded
+ * distribution or the reason it was refused, in request order.
+ */
+public class ParcelDistributionBatchResultDTO {
+
+    private int succeeded;
+    private int failed;
+    private List<Item> results = new ArrayList<>();
+
+    public ParcelDistributionBatchResultDTO() {
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results;
+    }
+
+    public static class Item {
+
+        private int index;
+        private String requestKey;
+        private ParcelDistributionDTO distribution;
+        private String error;
+
+        public Item() {
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getRequestKey() {
+            return requestKey;
+        }
+
+        public void setRequestKey(String requestKey) {
+            this.requestKey = requestKey;
+        }
+
+        public ParcelDistributionDTO getDistribution() {
+            return distribution;
+        }
+
+        public void setDistribution(ParcelDistributionDTO distribution) {
+            this.distribution = distribution;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.mosque.crm.dto;
 
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class ParcelDistributionCreateDTO {
 
@@ -23,6 +24,10 @@ public class ParcelDistributionCreateDTO {
 
     private String distributedBy;
 
+    /** Optional client-generated key that makes resending the same distribution safe. */
+    @Size(max = 64, message = "Request key must be at most 64 characters")
+    private String requestKey;
+
     public ParcelDistributionCreateDTO() {
     }
 
@@ -73,4 +78,12 @@ public class ParcelDistributionCreateDTO {
     public void setDistributedBy(String distributedBy) {
         this.distributedBy = distributedBy;
     }
+
+    public String getRequestKey() {
+        return requestKey;
+    }
+
+    public void setRequestKey(String requestKey) {
+        this.requestKey = requestKey;
+    }
 }
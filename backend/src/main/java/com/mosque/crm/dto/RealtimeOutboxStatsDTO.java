@@ -0,0 +1,49 @@
+package com.mosque.crm.dto;
+
+/**
+ * Realtime push pipeline health: outbox depth across all nodes, and delivery
+ * counters and lag of this node since startup.
+ */
+public class RealtimeOutboxStatsDTO {
+
+    private long pending;
+    private long failed;
+    private long oldestPendingAgeMs;
+    private long lastDeliveryLagMs;
+    private long maxDeliveryLagMs;
+    private long delivered;
+    private long coalesced;
+    private long deliveryFailures;
+    private int workerQueueSize;
+    private int activeWorkers;
+
+    public long getPending() { return pending; }
+    public void setPending(long pending) { this.pending = pending; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getOldestPendingAgeMs() { return oldestPendingAgeMs; }
+    public void setOldestPendingAgeMs(long oldestPendingAgeMs) { this.oldestPendingAgeMs = oldestPendingAgeMs; }
+
+    public long getLastDeliveryLagMs() { return lastDeliveryLagMs; }
+    public void setLastDeliveryLagMs(long lastDeliveryLagMs) { this.lastDeliveryLagMs = lastDeliveryLagMs; }
+
+    public long getMaxDeliveryLagMs() { return maxDeliveryLagMs; }
+    public void setMaxDeliveryLagMs(long maxDeliveryLagMs) { this.maxDeliveryLagMs = maxDeliveryLagMs; }
+
+    public long getDelivered() { return delivered; }
+    public void setDelivered(long delivered) { this.delivered = delivered; }
+
+    public long getCoalesced() { return coalesced; }
+    public void setCoalesced(long coalesced) { this.coalesced = coalesced; }
+
+    public long getDeliveryFailures() { return deliveryFailures; }
+    public void setDeliveryFailures(long deliveryFailures) { this.deliveryFailures = deliveryFailures; }
+
+    public int getWorkerQueueSize() { return workerQueueSize; }
+    public void setWorkerQueueSize(int workerQueueSize) { this.workerQueueSize = workerQueueSize; }
+
+    public int getActiveWorkers() { return activeWorkers; }
+    public void setActiveWorkers(int activeWorkers) { this.activeWorkers = activeWorkers; }
+}
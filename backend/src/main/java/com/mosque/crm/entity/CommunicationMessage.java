@@ -27,7 +27,7 @@ import jakarta.persistence.TableGenerator;
 public class CommunicationMessage implements OrganizationAware {
 
     @Id
-    @TableGenerator(name = "communication_messages_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "communication_messages_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "communication_messages_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "communication_messages_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "communication_messages_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -54,7 +54,7 @@ public class CommunicationMessage implements OrganizationAware {
     private Integer totalRecipients = 0;
 
     /**
-     * Status: DRAFT, SENT, FAILED
+     * Status: DRAFT, QUEUED (recipients being sent in the background), SENT, PARTIALLY_SENT, FAILED
      */
     @Column(name = "status", nullable = false, length = 30)
     private String status = "DRAFT";
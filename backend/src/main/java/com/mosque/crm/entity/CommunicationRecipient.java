@@ -0,0 +1,114 @@
+package com.mosque.crm.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Filter;
+
+import com.mosque.crm.enums.EmailDeliveryStatus;
+import com.mosque.crm.multitenancy.OrganizationAware;
+import com.mosque.crm.multitenancy.OrganizationEntityListener;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+
+/**
+ * CommunicationRecipient - Delivery state of one address of a bulk {@link CommunicationMessage}.
+ * Rows are created PENDING when the message is queued and sent in chunks by {@code BulkEmailDispatcher}.
+ */
+@Entity
+@Table(name = "communication_recipients")
+@Filter(name = "organizationFilter", condition = "organization_id = :organizationId")
+@EntityListeners(OrganizationEntityListener.class)
+public class CommunicationRecipient implements OrganizationAware {
+
+    @Id
+    @TableGenerator(name = "communication_recipients_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "communication_recipients_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
+    @GeneratedValue(generator = "communication_recipients_seq", strategy = GenerationType.TABLE)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "message_id", nullable = false)
+    private Long messageId;
+
+    @Column(name = "person_id")
+    private Long personId;
+
+    @Column(name = "email", nullable = false, length = 255)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private EmailDeliveryStatus status = EmailDeliveryStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /** Earliest time of the next send attempt (retries back off exponentially). */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    // Multi-tenancy
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    public CommunicationRecipient() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getMessageId() { return messageId; }
+    public void setMessageId(Long messageId) { this.messageId = messageId; }
+
+    public Long getPersonId() { return personId; }
+    public void setPersonId(Long personId) { this.personId = personId; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public EmailDeliveryStatus getStatus() { return status; }
+    public void setStatus(EmailDeliveryStatus status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getClaimToken() { return claimToken; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+
+    public LocalDateTime getClaimedUntil() { return claimedUntil; }
+    public void setClaimedUntil(LocalDateTime claimedUntil) { this.claimedUntil = claimedUntil; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+
+    @Override
+    public Long getOrganizationId() { return organizationId; }
+    @Override
+    public void setOrganizationId(Long organizationId) { this.organizationId = organizationId; }
+}
@@ -27,7 +27,7 @@ import jakarta.persistence.TableGenerator;
 public class CommunicationTemplate implements OrganizationAware {
 
     @Id
-    @TableGenerator(name = "communication_templates_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "communication_templates_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "communication_templates_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "communication_templates_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "communication_templates_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -42,7 +42,7 @@ public class ContributionObligation implements OrganizationAware {
     @Id
     @TableGenerator(name = "contribution_obligations_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "contribution_obligations_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "contribution_obligations_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
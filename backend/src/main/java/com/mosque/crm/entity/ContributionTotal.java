@@ -0,0 +1,91 @@
+package com.mosque.crm.entity;
+
+import java.math.BigDecimal;
+
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * ContributionTotal - Pre-aggregated member payment totals for one
+ * organization, year, contribution type and currency.
+ *
+ * Read-only from JPA: rows are maintained with atomic SQL upserts by
+ * {@code ContributionTotalsService} whenever a payment is created, updated,
+ * reversed or deleted, and reconciled against member_payments nightly.
+ */
+@Entity
+@Immutable
+@Table(name = "contribution_totals")
+@Filter(name = "organizationFilter", condition = "organization_id = :organizationId")
+public class ContributionTotal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    /** Year of COALESCE(period_from, payment_date), as used by the reports. */
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+
+    @Column(name = "contribution_type_id", nullable = false)
+    private Long contributionTypeId;
+
+    /** Currency code, or '' for payments without a currency. */
+    @Column(name = "currency_code", nullable = false, length = 3)
+    private String currencyCode;
+
+    /** Sum of non-reversal payment amounts. */
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    /** Sum of reversal payment amounts (zero or negative). */
+    @Column(name = "reversal_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal reversalAmount;
+
+    /** Number of non-reversal payments. */
+    @Column(name = "payment_count", nullable = false)
+    private Integer paymentCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    public Integer getPeriodYear() {
+        return periodYear;
+    }
+
+    public Long getContributionTypeId() {
+        return contributionTypeId;
+    }
+
+    public String getCurrencyCode() {
+        return currencyCode;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public BigDecimal getReversalAmount() {
+        return reversalAmount;
+    }
+
+    public Integer getPaymentCount() {
+        return paymentCount;
+    }
+}
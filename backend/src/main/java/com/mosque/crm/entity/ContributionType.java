@@ -40,7 +40,7 @@ public class ContributionType implements OrganizationAware {
     @Id
     @TableGenerator(name = "contribution_types_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "contribution_types_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "contribution_types_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -28,7 +28,7 @@ public class ContributionTypeTranslation {
     @Id
     @TableGenerator(name = "contrib_type_trans_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "contrib_type_trans_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "contrib_type_trans_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -21,7 +21,7 @@ public class Currency {
     @Id
     @TableGenerator(name = "currencies_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "currencies_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "currencies_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -33,7 +33,7 @@ public class DistributionRegistration implements OrganizationAware {
     @Id
     @TableGenerator(name = "distribution_registrations_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "distribution_registrations_seq",
-            valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+            valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "distribution_registrations_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
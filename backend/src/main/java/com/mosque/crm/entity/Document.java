@@ -29,7 +29,7 @@ public class Document implements OrganizationAware {
 
     @Id
     @TableGenerator(name = "document_seq", table = "sequences_", pkColumnName = "PK_NAME",
-        pkColumnValue = "document_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+        pkColumnValue = "document_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "document_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -20,7 +20,7 @@ public class DocumentAuditEvent {
 
     @Id
     @TableGenerator(name = "doc_audit_seq", table = "sequences_", pkColumnName = "PK_NAME",
-        pkColumnValue = "doc_audit_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+        pkColumnValue = "doc_audit_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "doc_audit_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
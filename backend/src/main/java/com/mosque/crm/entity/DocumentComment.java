@@ -24,7 +24,7 @@ public class DocumentComment implements OrganizationAware {
 
     @Id
     @TableGenerator(name = "doc_comment_seq", table = "sequences_", pkColumnName = "PK_NAME",
-        pkColumnValue = "doc_comment_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+        pkColumnValue = "doc_comment_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "doc_comment_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
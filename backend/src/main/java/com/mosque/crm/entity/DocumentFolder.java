@@ -27,7 +27,7 @@ public class DocumentFolder implements OrganizationAware {
 
     @Id
     @TableGenerator(name = "doc_folder_seq", table = "sequences_", pkColumnName = "PK_NAME",
-        pkColumnValue = "doc_folder_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+        pkColumnValue = "doc_folder_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "doc_folder_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -27,7 +27,7 @@ public class DocumentLink implements OrganizationAware {
 
     @Id
     @TableGenerator(name = "doc_link_seq", table = "sequences_", pkColumnName = "PK_NAME",
-        pkColumnValue = "doc_link_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+        pkColumnValue = "doc_link_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "doc_link_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
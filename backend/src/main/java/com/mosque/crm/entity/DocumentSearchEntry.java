@@ -0,0 +1,81 @@
+package com.mosque.crm.entity;
+
+import com.mosque.crm.multitenancy.OrganizationAware;
+import com.mosque.crm.multitenancy.OrganizationEntityListener;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Filter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Full-text search row of a document, one per {@link Document}, covered by a
+ * FULLTEXT index on title, filename, description and body. The body is the
+ * plain text of a rich-text document or the text extracted from a file; file
+ * extraction happens in the background while {@code bodyPending} is set.
+ */
+@Entity
+@Table(name = "org_document_search_index")
+@Filter(name = "organizationFilter", condition = "organization_id = :organizationId")
+@EntityListeners(OrganizationEntityListener.class)
+public class DocumentSearchEntry implements OrganizationAware {
+
+    @Id
+    @Column(name = "document_id", updatable = false, nullable = false)
+    private Long documentId;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "title", length = 500)
+    private String title;
+
+    @Column(name = "original_filename", length = 500)
+    private String originalFilename;
+
+    @Column(name = "description", length = 2000)
+    private String description;
+
+    @Column(name = "body", columnDefinition = "MEDIUMTEXT")
+    private String body;
+
+    /** Storage key the body was extracted from; a new version has a new key. */
+    @Column(name = "indexed_storage_key", length = 1000)
+    private String indexedStorageKey;
+
+    @Column(name = "body_pending", nullable = false)
+    private boolean bodyPending = false;
+
+    @Column(name = "indexed_at")
+    private LocalDateTime indexedAt;
+
+    public Long getDocumentId() { return documentId; }
+    public void setDocumentId(Long documentId) { this.documentId = documentId; }
+
+    public Long getOrganizationId() { return organizationId; }
+    public void setOrganizationId(Long organizationId) { this.organizationId = organizationId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getOriginalFilename() { return originalFilename; }
+    public void setOriginalFilename(String originalFilename) { this.originalFilename = originalFilename; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+
+    public String getIndexedStorageKey() { return indexedStorageKey; }
+    public void setIndexedStorageKey(String indexedStorageKey) { this.indexedStorageKey = indexedStorageKey; }
+
+    public boolean isBodyPending() { return bodyPending; }
+    public void setBodyPending(boolean bodyPending) { this.bodyPending = bodyPending; }
+
+    public LocalDateTime getIndexedAt() { return indexedAt; }
+    public void setIndexedAt(LocalDateTime indexedAt) { this.indexedAt = indexedAt; }
+}
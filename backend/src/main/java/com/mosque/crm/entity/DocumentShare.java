@@ -21,7 +21,7 @@ public class DocumentShare {
 
     @Id
     @TableGenerator(name = "doc_share_seq", table = "sequences_", pkColumnName = "PK_NAME",
-        pkColumnValue = "doc_share_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+        pkColumnValue = "doc_share_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "doc_share_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -0,0 +1,149 @@
+package com.mosque.crm.entity;
+
+import com.mosque.crm.enums.DocumentUploadStatus;
+import com.mosque.crm.enums.DocumentVisibility;
+import com.mosque.crm.multitenancy.OrganizationAware;
+import com.mosque.crm.multitenancy.OrganizationEntityListener;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Filter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An in-progress chunked upload backed by an S3 multipart upload. The row holds
+ * the reserved storage quota until the upload completes, is aborted or expires;
+ * uploaded parts are tracked by the object store itself (ListParts).
+ * The id is a random UUID handed to the client.
+ */
+@Entity
+@Table(name = "org_document_upload_sessions")
+@Filter(name = "organizationFilter", condition = "organization_id = :organizationId")
+@EntityListeners(OrganizationEntityListener.class)
+public class DocumentUploadSession implements OrganizationAware {
+
+    @Id
+    @Column(name = "id", length = 36, updatable = false, nullable = false)
+    private String id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "owner_user_id", nullable = false)
+    private Long ownerUserId;
+
+    /** Set when the upload becomes a new version of an existing document. */
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(name = "storage_key", nullable = false, length = 1000)
+    private String storageKey;
+
+    @Column(name = "storage_upload_id", nullable = false, length = 1000)
+    private String storageUploadId;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Column(name = "part_size", nullable = false)
+    private long partSize;
+
+    @Column(name = "part_count", nullable = false)
+    private int partCount;
+
+    @Column(name = "original_filename", length = 500)
+    private String originalFilename;
+
+    @Column(name = "mime_type", length = 200)
+    private String mimeType;
+
+    @Column(name = "title", length = 500)
+    private String title;
+
+    @Column(name = "description", length = 2000)
+    private String description;
+
+    @Column(name = "folder_id")
+    private Long folderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "visibility", length = 30)
+    private DocumentVisibility visibility;
+
+    @Column(name = "change_note", length = 1000)
+    private String changeNote;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    private DocumentUploadStatus status = DocumentUploadStatus.UPLOADING;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getOrganizationId() { return organizationId; }
+    public void setOrganizationId(Long organizationId) { this.organizationId = organizationId; }
+
+    public Long getOwnerUserId() { return ownerUserId; }
+    public void setOwnerUserId(Long ownerUserId) { this.ownerUserId = ownerUserId; }
+
+    public Long getDocumentId() { return documentId; }
+    public void setDocumentId(Long documentId) { this.documentId = documentId; }
+
+    public String getStorageKey() { return storageKey; }
+    public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
+
+    public String getStorageUploadId() { return storageUploadId; }
+    public void setStorageUploadId(String storageUploadId) { this.storageUploadId = storageUploadId; }
+
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+    public long getPartSize() { return partSize; }
+    public void setPartSize(long partSize) { this.partSize = partSize; }
+
+    public int getPartCount() { return partCount; }
+    public void setPartCount(int partCount) { this.partCount = partCount; }
+
+    public String getOriginalFilename() { return originalFilename; }
+    public void setOriginalFilename(String originalFilename) { this.originalFilename = originalFilename; }
+
+    public String getMimeType() { return mimeType; }
+    public void setMimeType(String mimeType) { this.mimeType = mimeType; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Long getFolderId() { return folderId; }
+    public void setFolderId(Long folderId) { this.folderId = folderId; }
+
+    public DocumentVisibility getVisibility() { return visibility; }
+    public void setVisibility(DocumentVisibility visibility) { this.visibility = visibility; }
+
+    public String getChangeNote() { return changeNote; }
+    public void setChangeNote(String changeNote) { this.changeNote = changeNote; }
+
+    public DocumentUploadStatus getStatus() { return status; }
+    public void setStatus(DocumentUploadStatus status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -23,7 +23,7 @@ public class DocumentVersion implements OrganizationAware {
 
     @Id
     @TableGenerator(name = "doc_version_seq", table = "sequences_", pkColumnName = "PK_NAME",
-        pkColumnValue = "doc_version_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+        pkColumnValue = "doc_version_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "doc_version_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -32,7 +32,7 @@ public class EventMemberGroupMember implements OrganizationAware {
     @Id
     @TableGenerator(name = "event_member_group_members_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "event_member_group_members_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "event_member_group_members_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -30,7 +30,7 @@ public class EventResource implements OrganizationAware {
     @Id
     @TableGenerator(name = "event_resources_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "event_resources_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "event_resources_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
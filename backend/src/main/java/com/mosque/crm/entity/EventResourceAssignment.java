@@ -33,7 +33,7 @@ public class EventResourceAssignment implements OrganizationAware {
     @Id
     @TableGenerator(name = "event_resource_assignments_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "event_resource_assignments_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "event_resource_assignments_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -30,7 +30,7 @@ public class EventRole implements OrganizationAware {
     @Id
     @TableGenerator(name = "event_roles_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "event_roles_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "event_roles_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
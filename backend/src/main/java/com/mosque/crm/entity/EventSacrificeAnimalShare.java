@@ -31,7 +31,7 @@ public class EventSacrificeAnimalShare implements OrganizationAware {
     @Id
     @TableGenerator(name = "event_sacrifice_animal_shares_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "event_sacrifice_animal_shares_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "event_sacrifice_animal_shares_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -37,7 +37,7 @@ public class ExchangeRate implements OrganizationAware {
     @Id
     @TableGenerator(name = "exchange_rates_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "exchange_rates_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "exchange_rates_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -36,7 +36,7 @@ public class Expense implements OrganizationAware {
 
     @Id
     @TableGenerator(name = "expense_seq", table = "sequences_", pkColumnName = "PK_NAME",
-            pkColumnValue = "expense_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+            pkColumnValue = "expense_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "expense_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
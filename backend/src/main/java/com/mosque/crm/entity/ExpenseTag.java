@@ -24,7 +24,7 @@ public class ExpenseTag implements OrganizationAware {
 
     @Id
     @TableGenerator(name = "expense_tag_seq", table = "sequences_", pkColumnName = "PK_NAME",
-            pkColumnValue = "expense_tag_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+            pkColumnValue = "expense_tag_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "expense_tag_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -37,7 +37,7 @@ import jakarta.persistence.TableGenerator;
 public class GeneralEvent implements OrganizationAware {
 
     @Id
-    @TableGenerator(name = "general_events_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "general_events_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "general_events_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "general_events_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "general_events_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -25,7 +25,7 @@ import jakarta.persistence.TableGenerator;
 public class GeneralEventAttendance {
 
     @Id
-    @TableGenerator(name = "gen_event_attendance_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "gen_event_attendance_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "gen_event_attendance_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "gen_event_attendance_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "gen_event_attendance_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -35,7 +35,7 @@ public class GeneralEventDocument implements OrganizationAware {
     @Id
     @TableGenerator(name = "gen_event_documents_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "gen_event_documents_seq",
-            valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+            valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "gen_event_documents_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
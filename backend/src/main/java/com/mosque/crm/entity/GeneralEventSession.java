@@ -34,7 +34,7 @@ import jakarta.persistence.TableGenerator;
 public class GeneralEventSession implements OrganizationAware {
 
     @Id
-    @TableGenerator(name = "gen_event_sessions_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "gen_event_sessions_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "gen_event_sessions_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "gen_event_sessions_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "gen_event_sessions_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -31,7 +31,7 @@ import jakarta.persistence.TableGenerator;
 public class GeneralEventVolunteer implements OrganizationAware {
 
     @Id
-    @TableGenerator(name = "general_event_vol_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "general_event_vol_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "general_event_vol_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "general_event_vol_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "general_event_vol_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -37,7 +37,7 @@ public class GroupRole implements OrganizationAware {
     @Id
     @TableGenerator(name = "group_roles_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "group_roles_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "group_roles_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -0,0 +1,24 @@
+package com.mosque.crm.entity;
+
+/**
+ * Shared settings for the {@code sequences_} TableGenerators.
+ * <p>
+ * Every entity generator reserves {@link #BLOCK_SIZE} ids per round-trip to
+ * {@code sequences_} and hands them out from memory, which also lets Hibernate
+ * batch the INSERTs. The {@code pooled-lo} optimizer is selected globally via
+ * {@code hibernate.id.optimizer.pooled.preferred}: a block starts just above the
+ * stored PK_VALUE and PK_VALUE moves to the block's end, so it stays the
+ * high-water mark it was with {@code allocationSize = 1}. Nodes running
+ * different block sizes never hand out overlapping ranges, and the startup
+ * sync changesets ({@code GREATEST(PK_VALUE, MAX(id) + 1)}) remain valid.
+ * <p>
+ * Ids reserved but unused when a node stops are skipped, so expect gaps.
+ */
+public final class IdAllocation {
+
+    /** Ids reserved per generator per round-trip; also the upper bound of a restart gap. */
+    public static final int BLOCK_SIZE = 50;
+
+    private IdAllocation() {
+    }
+}
@@ -43,7 +43,7 @@ public class MemberContributionAssignment implements OrganizationAware {
     @Id
     @TableGenerator(name = "member_contribution_assignments_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "member_contribution_assignments_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "member_contribution_assignments_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
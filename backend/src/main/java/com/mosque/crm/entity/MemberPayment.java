@@ -19,6 +19,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.NotNull;
@@ -39,7 +41,7 @@ public class MemberPayment implements OrganizationAware {
     @Id
     @TableGenerator(name = "member_payments_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "member_payments_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "member_payments_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -66,6 +68,14 @@ public class MemberPayment implements OrganizationAware {
     @Column(name = "period_to")
     private LocalDate periodTo;
 
+    /**
+     * Date that places the payment in a reporting period: the period start,
+     * falling back to the payment date. Maintained on every write so that
+     * year filters are plain, indexable range conditions.
+     */
+    @Column(name = "effective_date", nullable = false)
+    private LocalDate effectiveDate;
+
     @Column(name = "reference", length = 100)
     private String reference;
 
@@ -97,6 +107,12 @@ public class MemberPayment implements OrganizationAware {
     @Column(name = "payment_group_id", length = 36)
     private String paymentGroupId;
 
+    @PrePersist
+    @PreUpdate
+    protected void updateEffectiveDate() {
+        effectiveDate = periodFrom != null ? periodFrom : paymentDate;
+    }
+
     // Constructors
     public MemberPayment() {
     }
@@ -166,6 +182,10 @@ public class MemberPayment implements OrganizationAware {
         this.periodTo = periodTo;
     }
 
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+
     public String getReference() {
         return reference;
     }
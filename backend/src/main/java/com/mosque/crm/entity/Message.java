@@ -1,6 +1,7 @@
 package com.mosque.crm.entity;
 
 import java.time.LocalDateTime;
+import java.util.regex.Pattern;
 
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.Filter;
@@ -14,6 +15,8 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
@@ -22,6 +25,8 @@ import jakarta.persistence.Table;
 @EntityListeners(OrganizationEntityListener.class)
 public class Message implements OrganizationAware {
 
+    private static final Pattern RE_PREFIX_PATTERN = Pattern.compile("^(RE: |Re: |re: )*");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -39,6 +44,10 @@ public class Message implements OrganizationAware {
     @Column(name = "subject", length = 255)
     private String subject;
 
+    /** Thread key: the subject without reply prefixes, stored so threads can be matched by index. */
+    @Column(name = "base_subject", nullable = false, length = 255)
+    private String baseSubject = "";
+
     @Column(name = "body", nullable = false, columnDefinition = "TEXT")
     private String body;
 
@@ -88,5 +97,19 @@ public class Message implements OrganizationAware {
     public Long getReplyToId() { return replyToId; }
     public void setReplyToId(Long replyToId) { this.replyToId = replyToId; }
 
+    public String getBaseSubject() { return baseSubject; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @PrePersist
+    @PreUpdate
+    protected void updateBaseSubject() {
+        baseSubject = baseSubjectOf(subject);
+    }
+
+    /** Subject with any leading "RE: " prefixes removed; "" for no subject. */
+    public static String baseSubjectOf(String subject) {
+        if (subject == null) return "";
+        return RE_PREFIX_PATTERN.matcher(subject).replaceFirst("");
+    }
 }
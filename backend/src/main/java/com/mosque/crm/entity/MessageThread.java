@@ -0,0 +1,89 @@
+package com.mosque.crm.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Filter;
+
+import com.mosque.crm.multitenancy.OrganizationAware;
+import com.mosque.crm.multitenancy.OrganizationEntityListener;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * One user's view of a conversation thread (counterpart + base subject): the
+ * latest message and how many messages in it the user has not read. Rows are
+ * written by {@code MessageService} alongside the messages themselves, so the
+ * inbox is a single indexed read of this table.
+ * <p>
+ * System messages have no sender; their threads use {@link #SYSTEM} as the
+ * counterpart so the unique thread key never contains NULL.
+ */
+@Entity
+@Table(name = "message_threads")
+@Filter(name = "organizationFilter", condition = "organization_id = :organizationId")
+@EntityListeners(OrganizationEntityListener.class)
+public class MessageThread implements OrganizationAware {
+
+    public static final long SYSTEM = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "other_user_id", nullable = false)
+    private Long otherUserId;
+
+    @Column(name = "base_subject", nullable = false, length = 255)
+    private String baseSubject;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "last_message_id", nullable = false)
+    private Message lastMessage;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    @Override
+    public Long getOrganizationId() { return organizationId; }
+    @Override
+    public void setOrganizationId(Long organizationId) { this.organizationId = organizationId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getOtherUserId() { return otherUserId; }
+    public void setOtherUserId(Long otherUserId) { this.otherUserId = otherUserId; }
+
+    public String getBaseSubject() { return baseSubject; }
+    public void setBaseSubject(String baseSubject) { this.baseSubject = baseSubject; }
+
+    public Message getLastMessage() { return lastMessage; }
+    public void setLastMessage(Message lastMessage) { this.lastMessage = lastMessage; }
+
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+    public void setLastMessageAt(LocalDateTime lastMessageAt) { this.lastMessageAt = lastMessageAt; }
+
+    public int getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(int unreadCount) { this.unreadCount = unreadCount; }
+}
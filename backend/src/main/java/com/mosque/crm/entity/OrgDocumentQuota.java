@@ -18,7 +18,7 @@ public class OrgDocumentQuota {
 
     @Id
     @TableGenerator(name = "doc_quota_seq", table = "sequences_", pkColumnName = "PK_NAME",
-        pkColumnValue = "doc_quota_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+        pkColumnValue = "doc_quota_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "doc_quota_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
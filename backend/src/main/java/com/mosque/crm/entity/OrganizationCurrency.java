@@ -35,7 +35,7 @@ public class OrganizationCurrency implements OrganizationAware {
     @Id
     @TableGenerator(name = "organization_currencies_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "organization_currencies_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "organization_currencies_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -0,0 +1,135 @@
+package com.mosque.crm.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.mosque.crm.enums.OrganizationDeletionStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+
+/**
+ * OrganizationDeletionJob - The background removal of an organization with all
+ * its data and storage objects, run by {@code OrganizationDeletionService}.
+ * Not tenant-scoped: the organization is only referenced by id, so the job row
+ * remains after the organization is gone.
+ */
+@Entity
+@Table(name = "organization_deletion_jobs")
+public class OrganizationDeletionJob {
+
+    @Id
+    @TableGenerator(name = "organization_deletion_jobs_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "organization_deletion_jobs_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
+    @GeneratedValue(generator = "organization_deletion_jobs_seq", strategy = GenerationType.TABLE)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "target_organization_id", nullable = false)
+    private Long targetOrganizationId;
+
+    @Column(name = "organization_name", length = 255)
+    private String organizationName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrganizationDeletionStatus status = OrganizationDeletionStatus.QUEUED;
+
+    @Column(name = "requested_by_user_id")
+    private Long requestedByUserId;
+
+    /** Set once the organization's storage objects are deleted; a resumed job skips that phase. */
+    @Column(name = "storage_cleared", nullable = false)
+    private boolean storageCleared;
+
+    @Column(name = "objects_deleted", nullable = false)
+    private long objectsDeleted;
+
+    /** Delete steps of the plan the job runs; a resumed job continues at stepsDone if the plan is unchanged. */
+    @Column(name = "steps_total")
+    private Integer stepsTotal;
+
+    @Column(name = "steps_done", nullable = false)
+    private int stepsDone;
+
+    @Column(name = "current_table", length = 100)
+    private String currentTable;
+
+    @Column(name = "rows_deleted", nullable = false)
+    private long rowsDeleted;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    /** Last progress update of a running job; a job silent for too long is queued again. */
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public OrganizationDeletionJob() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getTargetOrganizationId() { return targetOrganizationId; }
+    public void setTargetOrganizationId(Long targetOrganizationId) { this.targetOrganizationId = targetOrganizationId; }
+
+    public String getOrganizationName() { return organizationName; }
+    public void setOrganizationName(String organizationName) { this.organizationName = organizationName; }
+
+    public OrganizationDeletionStatus getStatus() { return status; }
+    public void setStatus(OrganizationDeletionStatus status) { this.status = status; }
+
+    public Long getRequestedByUserId() { return requestedByUserId; }
+    public void setRequestedByUserId(Long requestedByUserId) { this.requestedByUserId = requestedByUserId; }
+
+    public boolean isStorageCleared() { return storageCleared; }
+    public void setStorageCleared(boolean storageCleared) { this.storageCleared = storageCleared; }
+
+    public long getObjectsDeleted() { return objectsDeleted; }
+    public void setObjectsDeleted(long objectsDeleted) { this.objectsDeleted = objectsDeleted; }
+
+    public Integer getStepsTotal() { return stepsTotal; }
+    public void setStepsTotal(Integer stepsTotal) { this.stepsTotal = stepsTotal; }
+
+    public int getStepsDone() { return stepsDone; }
+    public void setStepsDone(int stepsDone) { this.stepsDone = stepsDone; }
+
+    public String getCurrentTable() { return currentTable; }
+    public void setCurrentTable(String currentTable) { this.currentTable = currentTable; }
+
+    public long getRowsDeleted() { return rowsDeleted; }
+    public void setRowsDeleted(long rowsDeleted) { this.rowsDeleted = rowsDeleted; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -34,7 +34,7 @@ public class OrganizationSubscription implements OrganizationAware {
     @Id
     @TableGenerator(name = "organization_subscriptions_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "organization_subscriptions_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "organization_subscriptions_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -31,7 +31,7 @@ import jakarta.persistence.TableGenerator;
 public class ParcelDistribution implements OrganizationAware {
 
     @Id
-    @TableGenerator(name = "parcel_distributions_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "parcel_distributions_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "parcel_distributions_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "parcel_distributions_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "parcel_distributions_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -60,6 +60,10 @@ public class ParcelDistribution implements OrganizationAware {
     @Column(name = "distributed_at")
     private LocalDateTime distributedAt;
 
+    /** Client-generated key; a resent request with the same key returns this distribution. */
+    @Column(name = "request_key", length = 64)
+    private String requestKey;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -138,6 +142,14 @@ public class ParcelDistribution implements OrganizationAware {
         this.distributedAt = distributedAt;
     }
 
+    public String getRequestKey() {
+        return requestKey;
+    }
+
+    public void setRequestKey(String requestKey) {
+        this.requestKey = requestKey;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -32,7 +32,7 @@ public class PaymentDocument implements OrganizationAware {
     @Id
     @TableGenerator(name = "payment_documents_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "payment_documents_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "payment_documents_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
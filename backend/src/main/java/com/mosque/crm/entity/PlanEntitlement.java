@@ -22,7 +22,7 @@ public class PlanEntitlement {
     @Id
     @TableGenerator(name = "plan_entitlements_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "plan_entitlements_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "plan_entitlements_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
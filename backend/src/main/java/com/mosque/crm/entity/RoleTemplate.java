@@ -30,7 +30,7 @@ public class RoleTemplate {
     @Id
     @TableGenerator(name = "role_templates_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "role_templates_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "role_templates_seq", strategy = GenerationType.TABLE)
     private Long id;
 
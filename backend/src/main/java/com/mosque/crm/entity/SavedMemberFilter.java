@@ -29,7 +29,7 @@ import jakarta.persistence.TableGenerator;
 public class SavedMemberFilter implements OrganizationAware {
 
     @Id
-    @TableGenerator(name = "saved_member_filters_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "saved_member_filters_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "saved_member_filters_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "saved_member_filters_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "saved_member_filters_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
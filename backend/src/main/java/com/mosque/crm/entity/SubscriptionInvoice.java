@@ -35,7 +35,7 @@ public class SubscriptionInvoice implements OrganizationAware {
     @Id
     @TableGenerator(name = "subscription_invoices_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "subscription_invoices_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "subscription_invoices_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -30,7 +30,7 @@ public class SubscriptionPayment implements OrganizationAware {
     @Id
     @TableGenerator(name = "subscription_payments_seq", table = "sequences_",
             pkColumnName = "PK_NAME", pkColumnValue = "subscription_payments_seq", valueColumnName = "PK_VALUE",
-            initialValue = 1000, allocationSize = 1)
+            initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "subscription_payments_seq", strategy = GenerationType.TABLE)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
@@ -33,7 +33,7 @@ import jakarta.persistence.TableGenerator;
 public class User implements OrganizationAware {
 
     @Id
-    @TableGenerator(name = "users_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "users_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "users_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "users_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "users_seq", strategy = GenerationType.TABLE)
     private Long id;
 
@@ -73,6 +73,13 @@ public class User implements OrganizationAware {
     @Column(name = "selected_organization_id")
     private Long selectedOrganizationId;
 
+    /**
+     * Stamped into issued JWTs. Maintained exclusively by
+     * {@link com.mosque.crm.security.TokenRevocationRegistry} via SQL, hence read-only here.
+     */
+    @Column(name = "permission_version", nullable = false, insertable = false, updatable = false)
+    private long permissionVersion;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "user_roles",
@@ -202,6 +209,10 @@ public class User implements OrganizationAware {
         this.selectedOrganizationId = selectedOrganizationId;
     }
 
+    public long getPermissionVersion() {
+        return permissionVersion;
+    }
+
     public Set<Role> getRoles() {
         return roles;
     }
@@ -1,5 +1,6 @@
 package com.mosque.crm.entity.gedcom;
 
+import com.mosque.crm.entity.IdAllocation;
 import com.mosque.crm.enums.RelationshipType;
 import com.mosque.crm.multitenancy.OrganizationAware;
 import com.mosque.crm.multitenancy.OrganizationEntityListener;
@@ -34,7 +35,7 @@ import org.hibernate.annotations.Filter;
 public class FamilyChild implements OrganizationAware {
 
     @Id
-    @TableGenerator(name = "gedcom_family_children_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "gedcom_family_children_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = 1)
+    @TableGenerator(name = "gedcom_family_children_seq", table = "sequences_", pkColumnName = "PK_NAME", pkColumnValue = "gedcom_family_children_seq", valueColumnName = "PK_VALUE", initialValue = 1000, allocationSize = IdAllocation.BLOCK_SIZE)
     @GeneratedValue(generator = "gedcom_family_children_seq", strategy = GenerationType.TABLE)
     private Long id;
 
@@ -0,0 +1,7 @@
+package com.mosque.crm.enums;
+
+public enum EmailDeliveryStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
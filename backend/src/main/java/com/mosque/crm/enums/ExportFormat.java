@@ -0,0 +1,39 @@
+package com.mosque.crm.enums;
+
+/**
+ * Output formats of the data export. CSV has one file per sheet, so it is
+ * delivered as a ZIP archive; JSON lines carry the sheet name on every line.
+ */
+public enum ExportFormat {
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    CSV("zip", "application/zip"),
+    JSONL("jsonl", "application/x-ndjson");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /** Case-insensitive lookup of a request parameter; null means XLSX. */
+    public static ExportFormat fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return XLSX;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+}
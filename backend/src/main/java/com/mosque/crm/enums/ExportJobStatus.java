@@ -0,0 +1,8 @@
+package com.mosque.crm.enums;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,33 @@
+package com.mosque.crm.enums;
+
+/**
+ * What a data export contains. The sheets of each scope are written by
+ * {@code DataExportService}.
+ */
+public enum ExportScope {
+    /** Members, Memberships, Payments and ContributionTypes. */
+    FULL("full-export"),
+    /** Members and Memberships. */
+    MEMBERS("members-export"),
+    /** Payments and ContributionTypes. */
+    PAYMENTS("payments-export");
+
+    private final String fileBaseName;
+
+    ExportScope(String fileBaseName) {
+        this.fileBaseName = fileBaseName;
+    }
+
+    public String fileName(ExportFormat format) {
+        return fileBaseName + "." + format.getExtension();
+    }
+
+    /** Case-insensitive lookup of a request parameter. */
+    public static ExportScope fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unsupported export scope: " + value);
+        }
+    }
+}
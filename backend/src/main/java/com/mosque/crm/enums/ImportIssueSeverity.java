@@ -0,0 +1,6 @@
+package com.mosque.crm.enums;
+
+public enum ImportIssueSeverity {
+    ERROR,
+    WARNING
+}
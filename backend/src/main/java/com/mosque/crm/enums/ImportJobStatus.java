@@ -0,0 +1,8 @@
+package com.mosque.crm.enums;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.mosque.crm.enums;
+
+public enum OrganizationDeletionStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,27 @@
+package com.mosque.crm.enums;
+
+/**
+ * User destinations pushed over the STOMP broker. On a coalesced channel only
+ * the newest pending event per user is delivered: clients treat it as a signal
+ * to refresh their badge and feed, so older events in the same batch add nothing.
+ */
+public enum RealtimeChannel {
+    NOTIFICATIONS("/topic/notifications", true),
+    MESSAGES("/topic/messages", false);
+
+    private final String destination;
+    private final boolean coalesced;
+
+    RealtimeChannel(String destination, boolean coalesced) {
+        this.destination = destination;
+        this.coalesced = coalesced;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public boolean isCoalesced() {
+        return coalesced;
+    }
+}
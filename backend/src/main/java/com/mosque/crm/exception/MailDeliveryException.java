@@ -0,0 +1,21 @@
+package com.mosque.crm.exception;
+
+public class MailDeliveryException extends RuntimeException {
+
+    private final boolean retryable;
+
+    public MailDeliveryException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public MailDeliveryException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    /** Whether sending the same request again later may succeed (server error, timeout, throttling). */
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
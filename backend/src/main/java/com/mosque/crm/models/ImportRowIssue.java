@@ -0,0 +1,15 @@
+package com.mosque.crm.models;
+
+import com.mosque.crm.enums.ImportIssueSeverity;
+
+/**
+ * An error or warning of one import row; {@code rowNumber} is the spreadsheet
+ * row, or null for problems with the file as a whole.
+ */
+public record ImportRowIssue(Integer rowNumber, ImportIssueSeverity severity, String message) {
+
+	/** The message as shown in import results: "Row 12: ...". */
+	public String describe() {
+		return rowNumber != null ? "Row " + rowNumber + ": " + message : message;
+	}
+}
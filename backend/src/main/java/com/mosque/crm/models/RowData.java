@@ -1,27 +1,19 @@
 package com.mosque.crm.models;
 
-import org.apache.poi.ss.usermodel.Row;
-
 import com.mosque.crm.dto.PersonCreateDTO;
 
 public class RowData {
 
-	private final Row row;
 	private final PersonCreateDTO personDto;
 	private final String gezinnenId;
 	private final int rowNumber;
 
-	public RowData(Row row, PersonCreateDTO personDto, String gezinnenId, int rowNumber) {
-		this.row = row;
+	public RowData(PersonCreateDTO personDto, String gezinnenId, int rowNumber) {
 		this.personDto = personDto;
 		this.gezinnenId = gezinnenId;
 		this.rowNumber = rowNumber;
 	}
 
-	public Row getRow() {
-		return row;
-	}
-
 	public PersonCreateDTO getPersonDto() {
 		return personDto;
 	}
@@ -30,6 +22,7 @@ public class RowData {
 		return gezinnenId;
 	}
 
+	/** Spreadsheet row number (1-based; the header is row 1). */
 	public int getRowNumber() {
 		return rowNumber;
 	}
@@ -1,10 +1,15 @@
 package com.mosque.crm.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mosque.crm.entity.CommunicationMessage;
 
@@ -13,4 +18,11 @@ public interface CommunicationMessageRepository extends JpaRepository<Communicat
     List<CommunicationMessage> findTop5ByOrderByCreatedAtDesc();
 
     Page<CommunicationMessage> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    /** Record the outcome of a queued message once its last recipient has been handled. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CommunicationMessage m SET m.status = :status, m.sentAt = :sentAt " +
+           "WHERE m.id = :id AND m.status = 'QUEUED'")
+    int finishQueued(@Param("id") Long id, @Param("status") String status, @Param("sentAt") LocalDateTime sentAt);
 }
@@ -0,0 +1,65 @@
+package com.mosque.crm.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mosque.crm.entity.CommunicationRecipient;
+
+@Repository
+public interface CommunicationRecipientRepository extends JpaRepository<CommunicationRecipient, Long> {
+
+    /**
+     * Claim up to {@code limit} pending recipients whose next attempt is due, oldest first.
+     * Rows claimed by another node stay untouched until their claim expires.
+     * Served by idx_comrcpt_due (status, next_attempt_at).
+     *
+     * @return number of rows claimed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE communication_recipients SET claim_token = :token, claimed_until = :until " +
+                   "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+                   "AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "ORDER BY next_attempt_at, id LIMIT :limit",
+           nativeQuery = true)
+    int claimBatch(@Param("token") String token,
+                   @Param("until") LocalDateTime until,
+                   @Param("now") LocalDateTime now,
+                   @Param("limit") int limit);
+
+    List<CommunicationRecipient> findByClaimTokenOrderByMessageIdAscIdAsc(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CommunicationRecipient r SET r.status = com.mosque.crm.enums.EmailDeliveryStatus.SENT, " +
+           "r.attempts = r.attempts + 1, r.sentAt = :now, r.lastError = NULL, " +
+           "r.claimToken = NULL, r.claimedUntil = NULL WHERE r.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /** Count a failed attempt and put the rows back in the queue from {@code nextAttemptAt}. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CommunicationRecipient r SET r.attempts = r.attempts + 1, r.lastError = :error, " +
+           "r.nextAttemptAt = :nextAttemptAt, r.claimToken = NULL, r.claimedUntil = NULL WHERE r.id IN :ids")
+    int scheduleRetry(@Param("ids") Collection<Long> ids, @Param("error") String error,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CommunicationRecipient r SET r.status = com.mosque.crm.enums.EmailDeliveryStatus.FAILED, " +
+           "r.attempts = r.attempts + 1, r.lastError = :error, " +
+           "r.claimToken = NULL, r.claimedUntil = NULL WHERE r.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("error") String error);
+
+    /** Recipient counts of one message as rows of (status, count). */
+    @Query("SELECT r.status, COUNT(r) FROM CommunicationRecipient r WHERE r.messageId = :messageId GROUP BY r.status")
+    List<Object[]> countByStatus(@Param("messageId") Long messageId);
+}
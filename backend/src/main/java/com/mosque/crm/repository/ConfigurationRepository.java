@@ -1,11 +1,14 @@
 package com.mosque.crm.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mosque.crm.entity.Configuration;
 
@@ -31,4 +34,23 @@ public interface ConfigurationRepository extends JpaRepository<Configuration, Lo
      */
     @Query(value = "SELECT * FROM configurations WHERE name = :name AND organization_id = :organizationId LIMIT 1", nativeQuery = true)
     Optional<Configuration> findTenantByName(@Param("name") String name, @Param("organizationId") Long organizationId);
+
+    /**
+     * Native query — bypasses the Hibernate organizationFilter.
+     * Every configuration row as [name, value, organizationId], for the in-memory snapshot.
+     */
+    @Query(value = "SELECT name, value, organization_id FROM configurations", nativeQuery = true)
+    List<Object[]> findAllNameValueRows();
+
+    /**
+     * Version of the configuration snapshot, bumped by every write; other nodes
+     * poll it to notice changes.
+     */
+    @Query(value = "SELECT version FROM cache_versions WHERE name = 'configurations'", nativeQuery = true)
+    Long findCacheVersion();
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE cache_versions SET version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE name = 'configurations'", nativeQuery = true)
+    int incrementCacheVersion();
 }
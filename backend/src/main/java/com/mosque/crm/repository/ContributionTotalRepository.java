@@ -0,0 +1,40 @@
+package com.mosque.crm.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.mosque.crm.entity.ContributionTotal;
+
+/**
+ * Reads of the pre-aggregated contribution totals. Tenant scoping is applied
+ * by the organizationFilter; writes go through ContributionTotalsService.
+ */
+@Repository
+public interface ContributionTotalRepository extends JpaRepository<ContributionTotal, Long> {
+
+    /**
+     * Non-reversal totals for a year as [contributionTypeId, currencyCode, total].
+     * Used by the contribution totals report.
+     */
+    @Query("SELECT t.contributionTypeId, t.currencyCode, SUM(t.totalAmount) " +
+           "FROM ContributionTotal t " +
+           "WHERE t.periodYear = :year " +
+           "GROUP BY t.contributionTypeId, t.currencyCode")
+    List<Object[]> sumByContributionTypeAndCurrency(@Param("year") int year);
+
+    /**
+     * Non-reversal totals for a year as [contributionTypeCode, total], all currencies combined.
+     * Used by the dashboard income widget.
+     */
+    @Query("SELECT ct.code, SUM(t.totalAmount) " +
+           "FROM ContributionTotal t, ContributionType ct " +
+           "WHERE ct.id = t.contributionTypeId " +
+           "AND t.periodYear = :year " +
+           "GROUP BY ct.code " +
+           "ORDER BY ct.code")
+    List<Object[]> sumByContributionTypeCode(@Param("year") int year);
+}
@@ -0,0 +1,71 @@
+package com.mosque.crm.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mosque.crm.entity.DataExportJob;
+import com.mosque.crm.enums.ExportJobStatus;
+
+@Repository
+public interface DataExportJobRepository extends JpaRepository<DataExportJob, Long> {
+
+    Optional<DataExportJob> findByIdAndOrganizationId(Long id, Long organizationId);
+
+    List<DataExportJob> findTop20ByOrganizationIdOrderByCreatedAtDesc(Long organizationId);
+
+    @Query("SELECT j.id FROM DataExportJob j WHERE j.status = com.mosque.crm.enums.ExportJobStatus.QUEUED ORDER BY j.id")
+    List<Long> findQueuedIds();
+
+    /**
+     * Move a queued job to RUNNING. Only one node wins when several pick up the same job.
+     *
+     * @return 1 if this caller now owns the job
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE DataExportJob j SET j.status = com.mosque.crm.enums.ExportJobStatus.RUNNING, " +
+           "j.startedAt = :now, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.ExportJobStatus.QUEUED")
+    int start(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE DataExportJob j SET j.totalRows = :totalRows, j.rowsWritten = :rowsWritten, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.ExportJobStatus.RUNNING")
+    int updateProgress(@Param("id") Long id, @Param("totalRows") Long totalRows,
+                       @Param("rowsWritten") long rowsWritten, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE DataExportJob j SET j.status = com.mosque.crm.enums.ExportJobStatus.COMPLETED, " +
+           "j.rowsWritten = :rowsWritten, j.storageKey = :storageKey, j.fileSize = :fileSize, " +
+           "j.completedAt = :now, j.heartbeatAt = :now, j.expiresAt = :expiresAt " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.ExportJobStatus.RUNNING")
+    int complete(@Param("id") Long id, @Param("rowsWritten") long rowsWritten,
+                 @Param("storageKey") String storageKey, @Param("fileSize") long fileSize,
+                 @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE DataExportJob j SET j.status = com.mosque.crm.enums.ExportJobStatus.FAILED, " +
+           "j.error = :error, j.completedAt = :now, j.expiresAt = :expiresAt " +
+           "WHERE j.id = :id AND j.status = :from")
+    int fail(@Param("id") Long id, @Param("from") ExportJobStatus from, @Param("error") String error,
+             @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** Running jobs whose node stopped reporting progress, e.g. because it was shut down. */
+    @Query("SELECT j.id FROM DataExportJob j WHERE j.status = com.mosque.crm.enums.ExportJobStatus.RUNNING " +
+           "AND j.heartbeatAt < :before")
+    List<Long> findStaleRunningIds(@Param("before") LocalDateTime before);
+
+    @Query("SELECT j FROM DataExportJob j WHERE j.expiresAt < :now")
+    List<DataExportJob> findExpired(@Param("now") LocalDateTime now);
+}
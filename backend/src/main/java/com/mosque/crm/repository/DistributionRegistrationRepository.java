@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -31,6 +32,24 @@ public interface DistributionRegistrationRepository extends JpaRepository<Distri
             + "WHERE r.distributionEvent.id = :eventId")
     int sumDistributedParcelCountByEventId(@Param("eventId") Long eventId);
 
+    /**
+     * Hand out {@code count} parcels to a registration that is still REGISTERED,
+     * marking it COLLECTED once its planned parcels are reached. The status is
+     * assigned first because MariaDB evaluates the assignments left to right
+     * against the already-updated row.
+     *
+     * @return 0 when the registration is no longer REGISTERED
+     */
+    @Modifying
+    @Query("UPDATE DistributionRegistration r SET "
+            + "r.status = CASE WHEN r.distributedParcelCount + :count >= r.plannedParcelCount "
+            + "THEN :collected ELSE r.status END, "
+            + "r.distributedParcelCount = r.distributedParcelCount + :count "
+            + "WHERE r.id = :id AND r.status = :registered")
+    int applyDistribution(@Param("id") Long id, @Param("count") int count,
+            @Param("registered") RegistrationStatus registered,
+            @Param("collected") RegistrationStatus collected);
+
     @Query("SELECT r FROM DistributionRegistration r JOIN r.registrationType t "
             + "WHERE r.distributionEvent.id = :eventId AND t.fulfillmentMode = :mode "
             + "AND r.status = :status ORDER BY t.sortOrder ASC, r.displayName ASC")
@@ -35,4 +35,33 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
             @Param("query") String query,
             Pageable pageable
     );
+
+    /**
+     * Ranked full-text match within one organization. {@code terms} is a MariaDB
+     * boolean-mode expression (see {@code DocumentSearchService.toBooleanQuery}).
+     * The pageable must be unsorted: results are ordered by relevance.
+     */
+    @Query(value = """
+        SELECT d.*
+        FROM org_document_search_index s
+        JOIN org_documents d ON d.id = s.document_id
+        WHERE s.organization_id = :organizationId
+          AND d.status <> :excludedStatus
+          AND MATCH(s.title, s.original_filename, s.description, s.body) AGAINST(:terms IN BOOLEAN MODE)
+        ORDER BY MATCH(s.title, s.original_filename, s.description, s.body) AGAINST(:terms IN BOOLEAN MODE) DESC,
+                 d.updated_at DESC
+        """,
+        countQuery = """
+        SELECT COUNT(*)
+        FROM org_document_search_index s
+        JOIN org_documents d ON d.id = s.document_id
+        WHERE s.organization_id = :organizationId
+          AND d.status <> :excludedStatus
+          AND MATCH(s.title, s.original_filename, s.description, s.body) AGAINST(:terms IN BOOLEAN MODE)
+        """,
+        nativeQuery = true)
+    Page<Document> searchFullText(@Param("organizationId") Long organizationId,
+                                  @Param("excludedStatus") String excludedStatus,
+                                  @Param("terms") String terms,
+                                  Pageable pageable);
 }
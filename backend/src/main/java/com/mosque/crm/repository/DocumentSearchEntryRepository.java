@@ -0,0 +1,45 @@
+package com.mosque.crm.repository;
+
+import com.mosque.crm.entity.DocumentSearchEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DocumentSearchEntryRepository extends JpaRepository<DocumentSearchEntry, Long> {
+
+    /** Documents that have no search row yet (created before the index existed). */
+    @Query(value = """
+        SELECT d.id
+        FROM org_documents d
+        LEFT JOIN org_document_search_index s ON s.document_id = d.id
+        WHERE s.document_id IS NULL
+        ORDER BY d.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findUnindexedDocumentIds(@Param("limit") int limit);
+
+    List<DocumentSearchEntry> findByBodyPendingTrueOrderByIndexedAtAsc(Pageable pageable);
+
+    /**
+     * Stores an extracted body, unless the document moved on to another file
+     * while it was being extracted; returns 0 in that case.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE DocumentSearchEntry e
+        SET e.body = :body, e.indexedStorageKey = :storageKey, e.bodyPending = false, e.indexedAt = :now
+        WHERE e.documentId = :documentId
+          AND EXISTS (SELECT 1 FROM Document d WHERE d.id = :documentId AND d.storageKey = :storageKey)
+        """)
+    int storeBody(@Param("documentId") Long documentId,
+                  @Param("storageKey") String storageKey,
+                  @Param("body") String body,
+                  @Param("now") LocalDateTime now);
+}
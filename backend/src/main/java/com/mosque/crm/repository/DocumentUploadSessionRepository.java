@@ -0,0 +1,25 @@
+package com.mosque.crm.repository;
+
+import com.mosque.crm.entity.DocumentUploadSession;
+import com.mosque.crm.enums.DocumentUploadStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DocumentUploadSessionRepository extends JpaRepository<DocumentUploadSession, String> {
+
+    List<DocumentUploadSession> findByExpiresAtBefore(LocalDateTime cutoff);
+
+    /** Atomic state transition; returns 0 when another request already moved the session on. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE DocumentUploadSession s SET s.status = :to WHERE s.id = :id AND s.status = :from")
+    int transition(@Param("id") String id,
+                   @Param("from") DocumentUploadStatus from,
+                   @Param("to") DocumentUploadStatus to);
+}
@@ -38,4 +38,10 @@ public interface FamilyChildRepository extends JpaRepository<FamilyChild, Long>
 	 * Find specific family-child relationship
 	 */
 	Optional<FamilyChild> findByFamilyIdAndChildId(String familyId, String childId);
+
+	/**
+	 * Graph projection of every family-child relationship: [id, familyId, childId]
+	 */
+	@Query("SELECT fc.id, fc.familyId, fc.childId FROM FamilyChild fc ORDER BY fc.id")
+	List<Object[]> findGraphRows();
 }
@@ -23,4 +23,10 @@ public interface FamilyRepository extends JpaRepository<Family, String> {
      */
     @Query("SELECT f FROM Family f WHERE (f.husbandId = :id1 AND f.wifeId = :id2) OR (f.husbandId = :id2 AND f.wifeId = :id1)")
     List<Family> findFamilyBySpouses(@Param("id1") String id1, @Param("id2") String id2);
+
+    /**
+     * Graph projection of every family: [id, husbandId, wifeId]
+     */
+    @Query("SELECT f.id, f.husbandId, f.wifeId FROM Family f ORDER BY f.id")
+    List<Object[]> findGraphRows();
 }
@@ -1,8 +1,10 @@
 package com.mosque.crm.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.GedcomPersonLink;
@@ -20,4 +22,10 @@ public interface GedcomPersonLinkRepository extends JpaRepository<GedcomPersonLi
     boolean existsByPerson(Person person);
 
     boolean existsByGedcomIndividual(Individual gedcomIndividual);
+
+    /**
+     * Graph projection of every link: [individualId, personId]
+     */
+    @Query("SELECT l.gedcomIndividual.id, l.person.id FROM GedcomPersonLink l")
+    List<Object[]> findGraphRows();
 }
@@ -1,12 +1,15 @@
 package com.mosque.crm.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.GeneralEventAttendance;
-import com.mosque.crm.enums.AttendanceStatus;
 
 @Repository
 public interface GeneralEventAttendanceRepository extends JpaRepository<GeneralEventAttendance, Long> {
@@ -15,7 +18,10 @@ public interface GeneralEventAttendanceRepository extends JpaRepository<GeneralE
 
     List<GeneralEventAttendance> findByGeneralEventIdOrderBySessionIdAscCreatedAtAsc(Long generalEventId);
 
-    boolean existsBySessionIdAndRegistrationId(Long sessionId, Long registrationId);
+    Optional<GeneralEventAttendance> findBySessionIdAndRegistrationId(Long sessionId, Long registrationId);
 
-    long countBySessionIdAndStatus(Long sessionId, AttendanceStatus status);
+    /** Attendance counts of several sessions in one query, as (sessionId, status, count) rows. */
+    @Query("SELECT a.session.id, a.status, COUNT(a) FROM GeneralEventAttendance a " +
+           "WHERE a.session.id IN :sessionIds GROUP BY a.session.id, a.status")
+    List<Object[]> countByStatusForSessions(@Param("sessionIds") Collection<Long> sessionIds);
 }
@@ -1,8 +1,11 @@
 package com.mosque.crm.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.GeneralEventRegistration;
@@ -11,4 +14,9 @@ import com.mosque.crm.entity.GeneralEventRegistration;
 public interface GeneralEventRegistrationRepository extends JpaRepository<GeneralEventRegistration, Long> {
 
     List<GeneralEventRegistration> findByGeneralEventIdOrderByRegisteredAtDesc(Long generalEventId);
+
+    /** The given registrations that belong to the event, as (registrationId, personId) rows. */
+    @Query("SELECT r.id, p.id FROM GeneralEventRegistration r LEFT JOIN r.person p " +
+           "WHERE r.generalEvent.id = :eventId AND r.id IN :ids")
+    List<Object[]> findPersonIdsByEventAndIdIn(@Param("eventId") Long eventId, @Param("ids") Collection<Long> ids);
 }
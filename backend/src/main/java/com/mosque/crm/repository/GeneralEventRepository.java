@@ -2,6 +2,7 @@ package com.mosque.crm.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -16,6 +17,9 @@ public interface GeneralEventRepository extends JpaRepository<GeneralEvent, Long
 
     List<GeneralEvent> findAllByOrderByStartDateDescCreatedAtDesc();
 
+    /** Tenant-scoped lookup; {@code findById} bypasses the organizationFilter. */
+    Optional<GeneralEvent> findByIdAndOrganizationId(Long id, Long organizationId);
+
     List<GeneralEvent> findByStatusOrderByStartDateDesc(GeneralEventStatus status);
 
     @Query("""
@@ -1,6 +1,7 @@
 package com.mosque.crm.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -11,4 +12,8 @@ import com.mosque.crm.entity.GeneralEventSession;
 public interface GeneralEventSessionRepository extends JpaRepository<GeneralEventSession, Long> {
 
     List<GeneralEventSession> findByGeneralEventIdOrderBySessionDateAscSessionOrderAsc(Long generalEventId);
+
+    /** Tenant-scoped lookup of a session of the given event; {@code findById} bypasses the organizationFilter. */
+    Optional<GeneralEventSession> findByIdAndGeneralEventIdAndOrganizationId(Long id, Long generalEventId,
+            Long organizationId);
 }
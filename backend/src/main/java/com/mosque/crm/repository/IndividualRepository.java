@@ -1,10 +1,19 @@
 package com.mosque.crm.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.gedcom.Individual;
 
 @Repository
 public interface IndividualRepository extends JpaRepository<Individual, String> {
+
+    /**
+     * Graph projection of every individual: [id, givenName, surname, sex, birthDate]
+     */
+    @Query("SELECT i.id, i.givenName, i.surname, i.sex, i.birthDate FROM Individual i ORDER BY i.id")
+    List<Object[]> findGraphRows();
 }
@@ -4,9 +4,13 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.MemberDistributionRegistration;
+import com.mosque.crm.enums.RegistrationStatus;
 
 @Repository
 public interface MemberDistributionRegistrationRepository extends JpaRepository<MemberDistributionRegistration, Long> {
@@ -21,4 +25,9 @@ public interface MemberDistributionRegistrationRepository extends JpaRepository<
     long countByDistributionEventId(Long distributionEventId);
 
     void deleteByDistributionEventId(Long distributionEventId);
+
+    /** Move the registration from {@code from} to {@code to}; returns 0 when it is no longer in {@code from}. */
+    @Modifying
+    @Query("UPDATE MemberDistributionRegistration r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") RegistrationStatus from, @Param("to") RegistrationStatus to);
 }
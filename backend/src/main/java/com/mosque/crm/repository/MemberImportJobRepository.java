@@ -0,0 +1,74 @@
+package com.mosque.crm.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mosque.crm.entity.MemberImportJob;
+import com.mosque.crm.enums.ImportJobStatus;
+
+@Repository
+public interface MemberImportJobRepository extends JpaRepository<MemberImportJob, Long> {
+
+    Optional<MemberImportJob> findByIdAndOrganizationId(Long id, Long organizationId);
+
+    List<MemberImportJob> findTop20ByOrganizationIdOrderByCreatedAtDesc(Long organizationId);
+
+    @Query("SELECT j.id FROM MemberImportJob j WHERE j.status = com.mosque.crm.enums.ImportJobStatus.QUEUED ORDER BY j.id")
+    List<Long> findQueuedIds();
+
+    /**
+     * Move a queued job to RUNNING. Only one node wins when several pick up the same job.
+     *
+     * @return 1 if this caller now owns the job
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE MemberImportJob j SET j.status = com.mosque.crm.enums.ImportJobStatus.RUNNING, " +
+           "j.startedAt = :now, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.ImportJobStatus.QUEUED")
+    int start(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MemberImportJob j SET j.totalRows = :totalRows, j.processedRows = :processedRows, " +
+           "j.createdCount = :created, j.updatedCount = :updated, j.skippedCount = :skipped, " +
+           "j.errorCount = :errors, j.warningCount = :warnings, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.ImportJobStatus.RUNNING")
+    int updateProgress(@Param("id") Long id, @Param("totalRows") int totalRows,
+                       @Param("processedRows") int processedRows, @Param("created") int created,
+                       @Param("updated") int updated, @Param("skipped") int skipped,
+                       @Param("errors") int errors, @Param("warnings") int warnings,
+                       @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MemberImportJob j SET j.status = com.mosque.crm.enums.ImportJobStatus.COMPLETED, " +
+           "j.storageKey = NULL, j.completedAt = :now, j.heartbeatAt = :now, j.expiresAt = :expiresAt " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.ImportJobStatus.RUNNING")
+    int complete(@Param("id") Long id, @Param("now") LocalDateTime now,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MemberImportJob j SET j.status = com.mosque.crm.enums.ImportJobStatus.FAILED, " +
+           "j.error = :error, j.completedAt = :now, j.expiresAt = :expiresAt " +
+           "WHERE j.id = :id AND j.status = :from")
+    int fail(@Param("id") Long id, @Param("from") ImportJobStatus from, @Param("error") String error,
+             @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** Running jobs whose node stopped reporting progress, e.g. because it was shut down. */
+    @Query("SELECT j.id FROM MemberImportJob j WHERE j.status = com.mosque.crm.enums.ImportJobStatus.RUNNING " +
+           "AND j.heartbeatAt < :before")
+    List<Long> findStaleRunningIds(@Param("before") LocalDateTime before);
+
+    @Query("SELECT j FROM MemberImportJob j WHERE j.expiresAt < :now")
+    List<MemberImportJob> findExpired(@Param("now") LocalDateTime now);
+}
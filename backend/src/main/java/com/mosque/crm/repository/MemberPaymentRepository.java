@@ -1,34 +1,41 @@
 package com.mosque.crm.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.dto.PaymentMonthlySummaryDTO;
 import com.mosque.crm.entity.MemberPayment;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface MemberPaymentRepository extends JpaRepository<MemberPayment, Long> {
 
     /**
-     * Returns income totals grouped by calendar month and currency for the given year.
-     * Uses paymentDate. Multi-tenancy is enforced via the organizationFilter.
+     * Returns income totals grouped by calendar month and currency for payments
+     * dated in [from, to). Multi-tenancy is enforced via the organizationFilter.
      */
     @Query("SELECT new com.mosque.crm.dto.PaymentMonthlySummaryDTO(" +
            "  FUNCTION('DATE_FORMAT', p.paymentDate, '%Y-%m')," +
            "  p.currency.code," +
            "  SUM(p.amount)" +
            ") FROM MemberPayment p " +
-           "WHERE YEAR(p.paymentDate) = :year " +
+           "WHERE p.paymentDate >= :from AND p.paymentDate < :to " +
            "GROUP BY FUNCTION('DATE_FORMAT', p.paymentDate, '%Y-%m'), p.currency.code " +
            "ORDER BY FUNCTION('DATE_FORMAT', p.paymentDate, '%Y-%m')")
-    List<PaymentMonthlySummaryDTO> findMonthlySummaryByYear(@Param("year") int year);
+    List<PaymentMonthlySummaryDTO> findMonthlySummaryByPaymentDateRange(@Param("from") LocalDate from,
+                                                                        @Param("to") LocalDate to);
 
     List<MemberPayment> findByPersonId(Long personId);
 
@@ -54,14 +61,16 @@ public interface MemberPaymentRepository extends JpaRepository<MemberPayment, Lo
     Page<MemberPayment> findAllWithDetails(Pageable pageable);
 
     /**
-     * Paginated: all payments filtered by year (based on periodFrom, falling back to paymentDate).
+     * Paginated: all payments with an effective date in [from, to)
+     * (periodFrom, falling back to paymentDate).
      */
     @Query(value = "SELECT mp FROM MemberPayment mp JOIN FETCH mp.person JOIN FETCH mp.contributionType " +
-           "WHERE YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year " +
+           "WHERE mp.effectiveDate >= :from AND mp.effectiveDate < :to " +
            "ORDER BY mp.person.firstName ASC, mp.periodFrom ASC, mp.contributionType.code ASC",
            countQuery = "SELECT COUNT(mp) FROM MemberPayment mp " +
-           "WHERE YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year")
-    Page<MemberPayment> findAllByYear(@Param("year") int year, Pageable pageable);
+           "WHERE mp.effectiveDate >= :from AND mp.effectiveDate < :to")
+    Page<MemberPayment> findAllByEffectiveDateRange(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                    Pageable pageable);
 
     /**
      * Paginated: payments for a specific person with eager-loaded details.
@@ -73,14 +82,16 @@ public interface MemberPaymentRepository extends JpaRepository<MemberPayment, Lo
     Page<MemberPayment> findByPersonIdWithDetails(@Param("personId") Long personId, Pageable pageable);
 
     /**
-     * Paginated: payments for a specific person filtered by year.
+     * Paginated: payments for a specific person with an effective date in [from, to).
      */
     @Query(value = "SELECT mp FROM MemberPayment mp JOIN FETCH mp.person JOIN FETCH mp.contributionType " +
-           "WHERE mp.person.id = :personId AND YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year " +
+           "WHERE mp.person.id = :personId AND mp.effectiveDate >= :from AND mp.effectiveDate < :to " +
            "ORDER BY mp.periodFrom ASC, mp.contributionType.code ASC",
            countQuery = "SELECT COUNT(mp) FROM MemberPayment mp " +
-           "WHERE mp.person.id = :personId AND YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year")
-    Page<MemberPayment> findByPersonIdAndYear(@Param("personId") Long personId, @Param("year") int year, Pageable pageable);
+           "WHERE mp.person.id = :personId AND mp.effectiveDate >= :from AND mp.effectiveDate < :to")
+    Page<MemberPayment> findByPersonIdAndEffectiveDateRange(@Param("personId") Long personId,
+                                                            @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                            Pageable pageable);
 
     @Query("SELECT mp FROM MemberPayment mp JOIN FETCH mp.person JOIN FETCH mp.contributionType " +
            "WHERE mp.person.id = :personId ORDER BY mp.paymentDate DESC")
@@ -96,14 +107,16 @@ public interface MemberPaymentRepository extends JpaRepository<MemberPayment, Lo
     Page<MemberPayment> findByContributionTypeIdWithDetails(@Param("typeId") Long typeId, Pageable pageable);
 
     /**
-     * Paginated: all payments filtered by contribution type and year.
+     * Paginated: payments of a contribution type with an effective date in [from, to).
      */
     @Query(value = "SELECT mp FROM MemberPayment mp JOIN FETCH mp.person JOIN FETCH mp.contributionType " +
-           "WHERE mp.contributionType.id = :typeId AND YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year " +
+           "WHERE mp.contributionType.id = :typeId AND mp.effectiveDate >= :from AND mp.effectiveDate < :to " +
            "ORDER BY mp.person.firstName ASC, mp.periodFrom ASC",
            countQuery = "SELECT COUNT(mp) FROM MemberPayment mp " +
-           "WHERE mp.contributionType.id = :typeId AND YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year")
-    Page<MemberPayment> findByContributionTypeIdAndYear(@Param("typeId") Long typeId, @Param("year") int year, Pageable pageable);
+           "WHERE mp.contributionType.id = :typeId AND mp.effectiveDate >= :from AND mp.effectiveDate < :to")
+    Page<MemberPayment> findByContributionTypeIdAndEffectiveDateRange(@Param("typeId") Long typeId,
+                                                                      @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                                      Pageable pageable);
 
     /**
      * Paginated: payments for a specific person and contribution type.
@@ -116,14 +129,20 @@ public interface MemberPaymentRepository extends JpaRepository<MemberPayment, Lo
     Page<MemberPayment> findByPersonIdAndContributionTypeId(@Param("personId") Long personId, @Param("typeId") Long typeId, Pageable pageable);
 
     /**
-     * Paginated: payments for a specific person, contribution type, and year.
+     * Paginated: payments for a specific person and contribution type with an effective date in [from, to).
      */
     @Query(value = "SELECT mp FROM MemberPayment mp JOIN FETCH mp.person JOIN FETCH mp.contributionType " +
-           "WHERE mp.person.id = :personId AND mp.contributionType.id = :typeId AND YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year " +
+           "WHERE mp.person.id = :personId AND mp.contributionType.id = :typeId " +
+           "AND mp.effectiveDate >= :from AND mp.effectiveDate < :to " +
            "ORDER BY mp.periodFrom ASC",
            countQuery = "SELECT COUNT(mp) FROM MemberPayment mp " +
-           "WHERE mp.person.id = :personId AND mp.contributionType.id = :typeId AND YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year")
-    Page<MemberPayment> findByPersonIdAndContributionTypeIdAndYear(@Param("personId") Long personId, @Param("typeId") Long typeId, @Param("year") int year, Pageable pageable);
+           "WHERE mp.person.id = :personId AND mp.contributionType.id = :typeId " +
+           "AND mp.effectiveDate >= :from AND mp.effectiveDate < :to")
+    Page<MemberPayment> findByPersonIdAndContributionTypeIdAndEffectiveDateRange(@Param("personId") Long personId,
+                                                                                 @Param("typeId") Long typeId,
+                                                                                 @Param("from") LocalDate from,
+                                                                                 @Param("to") LocalDate to,
+                                                                                 Pageable pageable);
 
     @Query("SELECT COALESCE(SUM(mp.amount), 0) FROM MemberPayment mp " +
            "WHERE mp.contributionType.id = :typeId " +
@@ -139,47 +158,65 @@ public interface MemberPaymentRepository extends JpaRepository<MemberPayment, Lo
     boolean existsByReversedPaymentId(@Param("paymentId") Long paymentId);
 
     /**
-     * Sum payment amounts grouped by contribution type for a given year.
-     * Uses periodFrom (falling back to paymentDate) to determine the year.
-     * Excludes reversal payments so the total reflects net income.
+     * Get distinct years that have payments (for the year selector).
      */
-    @Query("SELECT mp.contributionType.code, COALESCE(SUM(mp.amount), 0) " +
+    @Query("SELECT DISTINCT YEAR(mp.effectiveDate) " +
            "FROM MemberPayment mp " +
-           "WHERE YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year " +
+           "ORDER BY YEAR(mp.effectiveDate) DESC")
+    List<Integer> findDistinctPaymentYears();
+
+    /**
+     * Count the persons with at least one non-reversal payment effective in [from, to).
+     * Total row count of the payment summary report.
+     */
+    @Query("SELECT COUNT(DISTINCT mp.person.id) FROM MemberPayment mp " +
+           "WHERE mp.effectiveDate >= :from AND mp.effectiveDate < :to " +
            "AND mp.isReversal = false " +
-           "GROUP BY mp.contributionType.code " +
-           "ORDER BY mp.contributionType.code")
-    List<Object[]> sumAmountByContributionTypeForYear(@Param("year") int year);
+           "AND mp.contributionType IS NOT NULL")
+    long countPersonsForReport(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
     /**
-     * Get distinct years that have payments (for the year selector).
+     * One page of persons with at least one non-reversal payment effective in [from, to),
+     * as [personId, lastName, firstName] sorted case-insensitively by name.
+     * Row source of the payment summary report.
      */
-    @Query("SELECT DISTINCT YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) " +
-           "FROM MemberPayment mp " +
-           "ORDER BY YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) DESC")
-    List<Integer> findDistinctPaymentYears();
+    @Query("SELECT p.id, p.lastName, p.firstName FROM MemberPayment mp " +
+           "JOIN mp.person p " +
+           "WHERE mp.effectiveDate >= :from AND mp.effectiveDate < :to " +
+           "AND mp.isReversal = false " +
+           "AND mp.contributionType IS NOT NULL " +
+           "GROUP BY p.id, p.lastName, p.firstName " +
+           "ORDER BY COALESCE(LOWER(p.lastName), ''), COALESCE(LOWER(p.firstName), ''), p.id")
+    List<Object[]> findPersonsForReport(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
 
     /**
-     * Fetch all non-reversal payments for a given year with person, type, and currency eagerly loaded.
-     * Used for the payment summary report.
+     * Sum non-reversal payment amounts effective in [from, to) for the given persons, grouped as
+     * [personId, contributionTypeId, currencyCode, currencySymbol, total].
+     * Cell values of the payment summary report.
      */
-    @Query("SELECT mp FROM MemberPayment mp " +
-           "JOIN FETCH mp.person " +
-           "JOIN FETCH mp.contributionType " +
-           "LEFT JOIN FETCH mp.currency " +
-           "WHERE YEAR(COALESCE(mp.periodFrom, mp.paymentDate)) = :year " +
+    @Query("SELECT mp.person.id, mp.contributionType.id, c.code, c.symbol, SUM(mp.amount) " +
+           "FROM MemberPayment mp " +
+           "LEFT JOIN mp.currency c " +
+           "WHERE mp.effectiveDate >= :from AND mp.effectiveDate < :to " +
            "AND mp.isReversal = false " +
-           "ORDER BY mp.person.lastName, mp.person.firstName")
-    List<MemberPayment> findPaymentsForReport(@Param("year") int year);
+           "AND mp.person.id IN :personIds " +
+           "GROUP BY mp.person.id, mp.contributionType.id, c.code, c.symbol")
+    List<Object[]> sumPaymentsForReportByPerson(@Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("personIds") Collection<Long> personIds);
 
     /**
-     * Fetch ALL payments (including reversals) with person, type, and currency eagerly loaded.
-     * Used for the data export module.
+     * Export rows of ALL payments (including reversals), streamed from a server-side cursor:
+     * [id, personId, firstName, lastName, contributionTypeCode, amount, currencyCode,
+     * paymentDate, periodFrom, periodTo, reference, notes, isReversal]. Close the stream.
      */
-    @Query("SELECT mp FROM MemberPayment mp " +
-           "JOIN FETCH mp.person " +
-           "JOIN FETCH mp.contributionType " +
-           "LEFT JOIN FETCH mp.currency " +
-           "ORDER BY mp.person.lastName, mp.person.firstName, mp.paymentDate")
-    List<MemberPayment> findAllForExport();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT mp.id, p.id, p.firstName, p.lastName, ct.code, mp.amount, c.code, " +
+           "mp.paymentDate, mp.periodFrom, mp.periodTo, mp.reference, mp.notes, mp.isReversal " +
+           "FROM MemberPayment mp " +
+           "JOIN mp.person p " +
+           "JOIN mp.contributionType ct " +
+           "LEFT JOIN mp.currency c " +
+           "ORDER BY p.lastName, p.firstName, mp.paymentDate")
+    Stream<Object[]> streamForExport();
 }
@@ -2,15 +2,20 @@ package com.mosque.crm.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.Membership;
 import com.mosque.crm.entity.Person;
 import com.mosque.crm.enums.MembershipStatus;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface MembershipRepository extends JpaRepository<Membership, Long> {
 
@@ -33,4 +38,20 @@ public interface MembershipRepository extends JpaRepository<Membership, Long> {
      */
     @Query("SELECT DISTINCT m.person.id FROM Membership m WHERE m.status = 'ACTIVE'")
     List<Long> findPersonIdsWithActiveMembership();
+
+    /**
+     * Person IDs with at least one membership, whatever its status.
+     */
+    @Query("SELECT DISTINCT m.person.id FROM Membership m")
+    List<Long> findPersonIdsWithMembership();
+
+    /**
+     * Export rows of all memberships, streamed from a server-side cursor:
+     * [id, personId, firstName, lastName, membershipType, startDate, endDate, status, notes].
+     * Close the stream.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m.id, p.id, p.firstName, p.lastName, m.membershipType, m.startDate, m.endDate, m.status, m.notes " +
+           "FROM Membership m LEFT JOIN m.person p ORDER BY m.id")
+    Stream<Object[]> streamForExport();
 }
@@ -0,0 +1,77 @@
+package com.mosque.crm.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.mosque.crm.entity.MessageThread;
+
+@Repository
+public interface MessageThreadRepository extends JpaRepository<MessageThread, Long> {
+
+    /**
+     * One inbox page: the user's threads, most recent first, with the latest message.
+     * Served by idx_msgthread_inbox (user_id, organization_id, last_message_at).
+     */
+    @Query(value = "SELECT t FROM MessageThread t JOIN FETCH t.lastMessage " +
+           "WHERE t.userId = :userId AND t.organizationId = :orgId " +
+           "ORDER BY t.lastMessageAt DESC, t.id DESC",
+           countQuery = "SELECT COUNT(t) FROM MessageThread t " +
+           "WHERE t.userId = :userId AND t.organizationId = :orgId")
+    Page<MessageThread> findInboxPage(@Param("userId") Long userId, @Param("orgId") Long orgId, Pageable pageable);
+
+    /**
+     * Add a new message to one participant's thread, creating the thread on its first message.
+     * {@code last_message_at} is assigned before {@code last_message_id} because MariaDB
+     * evaluates the assignments left to right against the already-updated row.
+     */
+    @Modifying
+    @Query(value =
+        "INSERT INTO message_threads (organization_id, user_id, other_user_id, base_subject, " +
+        "                             last_message_id, last_message_at, unread_count) " +
+        "VALUES (:orgId, :userId, :otherUserId, :baseSubject, :messageId, :messageAt, :unread) " +
+        "ON DUPLICATE KEY UPDATE " +
+        "  last_message_at = IF(VALUES(last_message_id) > last_message_id, VALUES(last_message_at), last_message_at), " +
+        "  last_message_id = GREATEST(last_message_id, VALUES(last_message_id)), " +
+        "  unread_count = unread_count + VALUES(unread_count)",
+        nativeQuery = true)
+    void recordMessage(@Param("orgId") Long orgId,
+                       @Param("userId") Long userId,
+                       @Param("otherUserId") Long otherUserId,
+                       @Param("baseSubject") String baseSubject,
+                       @Param("messageId") Long messageId,
+                       @Param("messageAt") LocalDateTime messageAt,
+                       @Param("unread") int unread);
+
+    @Modifying
+    @Query("UPDATE MessageThread t SET t.unreadCount = 0 " +
+           "WHERE t.userId = :userId AND t.otherUserId = :otherUserId AND t.baseSubject = :baseSubject")
+    void markRead(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId,
+                  @Param("baseSubject") String baseSubject);
+
+    @Modifying
+    @Query("UPDATE MessageThread t SET t.unreadCount = 0 " +
+           "WHERE t.userId = :userId AND t.otherUserId = :otherUserId")
+    void markAllReadWith(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
+
+    @Modifying
+    @Query("UPDATE MessageThread t SET t.unreadCount = t.unreadCount - 1 " +
+           "WHERE t.userId = :userId AND t.otherUserId = :otherUserId AND t.baseSubject = :baseSubject " +
+           "AND t.unreadCount > 0")
+    void decrementUnread(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId,
+                         @Param("baseSubject") String baseSubject);
+
+    /** Remove the thread for both participants. */
+    @Modifying
+    @Query("DELETE FROM MessageThread t WHERE t.baseSubject = :baseSubject AND " +
+           "((t.userId = :userId AND t.otherUserId = :otherUserId) OR " +
+           " (t.userId = :otherUserId AND t.otherUserId = :userId))")
+    void deleteThread(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId,
+                      @Param("baseSubject") String baseSubject);
+}
@@ -4,9 +4,13 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.NonMemberRecipient;
+import com.mosque.crm.enums.RecipientStatus;
 
 @Repository
 public interface NonMemberRecipientRepository extends JpaRepository<NonMemberRecipient, Long> {
@@ -19,6 +23,11 @@ public interface NonMemberRecipientRepository extends JpaRepository<NonMemberRec
 
     void deleteByDistributionEventId(Long distributionEventId);
 
+    /** Move the recipient from {@code from} to {@code to}; returns 0 when it is no longer in {@code from}. */
+    @Modifying
+    @Query("UPDATE NonMemberRecipient r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") RecipientStatus from, @Param("to") RecipientStatus to);
+
     /**
      * Highest N-### sequence for the event (survives deletions; avoids duplicate numbers).
      * Implemented in Java for portability across MariaDB and PostgreSQL.
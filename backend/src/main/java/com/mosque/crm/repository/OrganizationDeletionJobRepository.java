@@ -0,0 +1,85 @@
+package com.mosque.crm.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mosque.crm.entity.OrganizationDeletionJob;
+
+@Repository
+public interface OrganizationDeletionJobRepository extends JpaRepository<OrganizationDeletionJob, Long> {
+
+    List<OrganizationDeletionJob> findTop50ByOrderByCreatedAtDesc();
+
+    /** The job of an organization that is not deleted yet (queued, running or failed). */
+    @Query("SELECT j FROM OrganizationDeletionJob j WHERE j.targetOrganizationId = :organizationId " +
+           "AND j.status <> com.mosque.crm.enums.OrganizationDeletionStatus.COMPLETED")
+    Optional<OrganizationDeletionJob> findUnfinished(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT j.id FROM OrganizationDeletionJob j " +
+           "WHERE j.status = com.mosque.crm.enums.OrganizationDeletionStatus.QUEUED ORDER BY j.id")
+    List<Long> findQueuedIds();
+
+    /**
+     * Move a queued job to RUNNING. Only one node wins when several pick up the same job.
+     *
+     * @return 1 if this caller now owns the job
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrganizationDeletionJob j SET j.status = com.mosque.crm.enums.OrganizationDeletionStatus.RUNNING, " +
+           "j.startedAt = :now, j.heartbeatAt = :now, j.error = NULL " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.OrganizationDeletionStatus.QUEUED")
+    int start(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrganizationDeletionJob j SET j.storageCleared = true, j.objectsDeleted = :objectsDeleted, " +
+           "j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.OrganizationDeletionStatus.RUNNING")
+    int storageCleared(@Param("id") Long id, @Param("objectsDeleted") long objectsDeleted,
+                       @Param("now") LocalDateTime now);
+
+    /** Record progress; returns 0 if the job is no longer RUNNING on this node's behalf. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrganizationDeletionJob j SET j.stepsTotal = :stepsTotal, j.stepsDone = :stepsDone, " +
+           "j.currentTable = :currentTable, j.rowsDeleted = :rowsDeleted, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.OrganizationDeletionStatus.RUNNING")
+    int updateProgress(@Param("id") Long id, @Param("stepsTotal") int stepsTotal, @Param("stepsDone") int stepsDone,
+                       @Param("currentTable") String currentTable, @Param("rowsDeleted") long rowsDeleted,
+                       @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrganizationDeletionJob j SET j.status = com.mosque.crm.enums.OrganizationDeletionStatus.COMPLETED, " +
+           "j.currentTable = NULL, j.completedAt = :now, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.OrganizationDeletionStatus.RUNNING")
+    int complete(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrganizationDeletionJob j SET j.status = com.mosque.crm.enums.OrganizationDeletionStatus.FAILED, " +
+           "j.error = :error, j.completedAt = :now " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.OrganizationDeletionStatus.RUNNING")
+    int fail(@Param("id") Long id, @Param("error") String error, @Param("now") LocalDateTime now);
+
+    /** Queue a running job again whose node stopped reporting; it resumes where it stopped. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrganizationDeletionJob j SET j.status = com.mosque.crm.enums.OrganizationDeletionStatus.QUEUED " +
+           "WHERE j.id = :id AND j.status = com.mosque.crm.enums.OrganizationDeletionStatus.RUNNING " +
+           "AND j.heartbeatAt < :before")
+    int requeueStale(@Param("id") Long id, @Param("before") LocalDateTime before);
+
+    @Query("SELECT j.id FROM OrganizationDeletionJob j " +
+           "WHERE j.status = com.mosque.crm.enums.OrganizationDeletionStatus.RUNNING AND j.heartbeatAt < :before")
+    List<Long> findStaleRunningIds(@Param("before") LocalDateTime before);
+}
@@ -25,6 +25,9 @@ public interface OrganizationSubscriptionRepository extends JpaRepository<Organi
         List<OrganizationSubscription> findByOrganizationIdAndStatusInAndStartsAtGreaterThanOrderByStartsAtAsc(
             Long organizationId, List<OrganizationSubscriptionStatus> statuses, LocalDateTime startsAt);
 
+    Optional<OrganizationSubscription> findFirstByOrganizationIdAndStatusInAndStartsAtGreaterThanOrderByStartsAtAsc(
+            Long organizationId, List<OrganizationSubscriptionStatus> statuses, LocalDateTime startsAt);
+
     List<OrganizationSubscription> findByStatus(OrganizationSubscriptionStatus status);
 
     List<OrganizationSubscription> findByStatusIn(List<OrganizationSubscriptionStatus> statuses);
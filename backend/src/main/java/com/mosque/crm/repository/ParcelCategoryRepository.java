@@ -3,6 +3,9 @@ package com.mosque.crm.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.ParcelCategory;
@@ -13,4 +16,20 @@ public interface ParcelCategoryRepository extends JpaRepository<ParcelCategory,
     List<ParcelCategory> findByDistributionEventIdOrderByNameAsc(Long distributionEventId);
 
     void deleteByDistributionEventId(Long distributionEventId);
+
+    /**
+     * Take {@code count} parcels from the category's stock if that many remain.
+     * The check and the increment are one statement, so concurrent desks can
+     * neither oversell nor lose an update; the row stays locked until commit.
+     *
+     * @return 1 when reserved, 0 when not enough parcels remain
+     */
+    @Modifying
+    @Query("UPDATE ParcelCategory c SET c.distributedParcels = c.distributedParcels + :count, " +
+           "c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.id = :id AND c.totalParcels - c.distributedParcels >= :count")
+    int reserveParcels(@Param("id") Long id, @Param("count") int count);
+
+    @Query("SELECT c.totalParcels - c.distributedParcels FROM ParcelCategory c WHERE c.id = :id")
+    Integer findRemainingParcels(@Param("id") Long id);
 }
@@ -1,6 +1,7 @@
 package com.mosque.crm.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -17,5 +18,7 @@ public interface ParcelDistributionRepository extends JpaRepository<ParcelDistri
 
     List<ParcelDistribution> findByDistributionEventIdAndRecipientTypeAndRecipientId(Long distributionEventId, RecipientType recipientType, Long recipientId);
 
+    Optional<ParcelDistribution> findByRequestKey(String requestKey);
+
     void deleteByDistributionEventId(Long distributionEventId);
 }
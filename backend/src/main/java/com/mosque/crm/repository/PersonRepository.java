@@ -1,20 +1,26 @@
 package com.mosque.crm.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.Person;
 import com.mosque.crm.enums.PersonStatus;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecificationExecutor<Person> {
 
@@ -152,4 +158,26 @@ public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecif
 		+ "WHERE p.id IN :ids")
 	List<Person> findByIdsWithAssociations(@Param("ids") List<Long> ids);
 
+	/**
+	 * Name projection for the given persons: [id, firstName, lastName]
+	 */
+	@Query("SELECT p.id, p.firstName, p.lastName FROM Person p WHERE p.id IN :ids")
+	List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Match keys of all persons, loaded once per member import:
+	 * [id, firstName, lastName, dateOfBirth, gender, email, hash]
+	 */
+	@Query("SELECT p.id, p.firstName, p.lastName, p.dateOfBirth, p.gender, p.email, p.hash FROM Person p")
+	List<Object[]> findImportIndexRows();
+
+	/**
+	 * Export rows of all persons, streamed from a server-side cursor:
+	 * [id, firstName, lastName, gender, dateOfBirth, dateOfDeath, email, phone,
+	 * address, city, country, postalCode, status, idNumber]. Close the stream.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT p.id, p.firstName, p.lastName, p.gender, p.dateOfBirth, p.dateOfDeath, p.email, p.phone, " +
+	       "p.address, p.city, p.country, p.postalCode, p.status, p.idNumber FROM Person p ORDER BY p.id")
+	Stream<Object[]> streamForExport();
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.PlanEntitlement;
@@ -14,4 +15,7 @@ public interface PlanEntitlementRepository extends JpaRepository<PlanEntitlement
     List<PlanEntitlement> findByPlanId(Long planId);
 
     Optional<PlanEntitlement> findByPlanIdAndFeatureKey(Long planId, String featureKey);
+
+    @Query("SELECT e FROM PlanEntitlement e JOIN FETCH e.plan")
+    List<PlanEntitlement> findAllWithPlan();
 }
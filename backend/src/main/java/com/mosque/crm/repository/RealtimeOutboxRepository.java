@@ -0,0 +1,68 @@
+package com.mosque.crm.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mosque.crm.entity.RealtimeOutboxEntry;
+
+@Repository
+public interface RealtimeOutboxRepository extends JpaRepository<RealtimeOutboxEntry, Long> {
+
+    /**
+     * Claim up to {@code limit} undelivered rows, oldest first, for one dispatch run.
+     * Rows claimed by another node stay untouched until their claim expires, so a
+     * node that dies mid-batch only delays its rows.
+     *
+     * @return number of rows claimed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE realtime_outbox SET claim_token = :token, claimed_until = :until " +
+                   "WHERE dispatched_at IS NULL AND attempts < :maxAttempts " +
+                   "AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    int claimBatch(@Param("token") String token,
+                   @Param("until") LocalDateTime until,
+                   @Param("now") LocalDateTime now,
+                   @Param("maxAttempts") int maxAttempts,
+                   @Param("limit") int limit);
+
+    List<RealtimeOutboxEntry> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RealtimeOutboxEntry e SET e.dispatchedAt = :now, e.claimToken = NULL, e.claimedUntil = NULL " +
+           "WHERE e.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RealtimeOutboxEntry e SET e.attempts = e.attempts + 1, e.lastError = :error, " +
+           "e.claimToken = NULL, e.claimedUntil = NULL WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("error") String error);
+
+    @Query("SELECT COUNT(e) FROM RealtimeOutboxEntry e WHERE e.dispatchedAt IS NULL AND e.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT COUNT(e) FROM RealtimeOutboxEntry e WHERE e.dispatchedAt IS NULL AND e.attempts >= :maxAttempts")
+    long countFailed(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT MIN(e.createdAt) FROM RealtimeOutboxEntry e WHERE e.dispatchedAt IS NULL AND e.attempts < :maxAttempts")
+    LocalDateTime findOldestPendingCreatedAt(@Param("maxAttempts") int maxAttempts);
+
+    /** Remove delivered rows, and rows that ran out of attempts, created before {@code cutoff}. */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RealtimeOutboxEntry e WHERE e.createdAt < :cutoff " +
+           "AND (e.dispatchedAt IS NOT NULL OR e.attempts >= :maxAttempts)")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts);
+}
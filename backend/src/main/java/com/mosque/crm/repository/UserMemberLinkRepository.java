@@ -1,8 +1,12 @@
 package com.mosque.crm.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mosque.crm.entity.Person;
@@ -19,4 +23,7 @@ public interface UserMemberLinkRepository extends JpaRepository<UserMemberLink,
     Optional<UserMemberLink> findByUserId(Long userId);
 
     Optional<UserMemberLink> findByPersonId(Long personId);
+
+    @Query("SELECT l FROM UserMemberLink l JOIN FETCH l.user JOIN FETCH l.person WHERE l.user.id IN :userIds")
+    List<UserMemberLink> findWithPersonByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,34 @@
+package com.mosque.crm.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * {@link org.springframework.security.core.userdetails.UserDetails} returned by
+ * {@link com.mosque.crm.service.CustomUserDetailsService}. Carries the user id and
+ * home organization so {@link JwtRequestFilter} can build the request's
+ * {@link CurrentPrincipal} without loading the user a second time.
+ */
+public class AuthenticatedUser extends User {
+
+    private final Long userId;
+    private final Long organizationId;
+
+    public AuthenticatedUser(Long userId, Long organizationId, String username, String password,
+                             boolean enabled, boolean accountNonLocked, boolean credentialsNonExpired,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, credentialsNonExpired, accountNonLocked, authorities);
+        this.userId = userId;
+        this.organizationId = organizationId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+}
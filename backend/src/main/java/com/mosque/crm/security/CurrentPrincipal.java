@@ -0,0 +1,54 @@
+package com.mosque.crm.security;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the authenticated user for the duration of one request.
+ * <p>
+ * Built once by {@link JwtRequestFilter} and exposed through {@link PrincipalContext}
+ * so that {@link com.mosque.crm.service.AuthorizationService} can answer permission
+ * and organization-scope checks without re-loading the {@code User} entity.
+ * <p>
+ * {@code organizationId} is the user's home organization (NULL for super admins),
+ * not the tenant currently in scope — that is {@link com.mosque.crm.multitenancy.TenantContext}.
+ */
+public final class CurrentPrincipal {
+
+    private final Long userId;
+    private final String username;
+    private final Long organizationId;
+    private final Set<Long> roleIds;
+    private final Set<String> permissions;
+
+    public CurrentPrincipal(Long userId, String username, Long organizationId,
+                            Set<Long> roleIds, Set<String> permissions) {
+        this.userId = userId;
+        this.username = username;
+        this.organizationId = organizationId;
+        this.roleIds = roleIds != null ? Collections.unmodifiableSet(roleIds) : Collections.emptySet();
+        this.permissions = permissions != null ? Collections.unmodifiableSet(permissions) : Collections.emptySet();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    /** IDs of the user's currently active (date-aware) role assignments. */
+    public Set<Long> getRoleIds() {
+        return roleIds;
+    }
+
+    /** Effective permission codes resolved from the active role assignments. */
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+}
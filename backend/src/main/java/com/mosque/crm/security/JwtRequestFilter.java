@@ -3,16 +3,20 @@ package com.mosque.crm.security;
 import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.service.AuthorizationService;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +31,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    /**
+     * When enabled, tokens carrying a current permission-version stamp are trusted
+     * without loading the user from the database on every request.
+     */
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -34,12 +51,13 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // Signature and expiry are verified here, once per request
+                claims = jwtUtil.extractAllClaims(authorizationHeader.substring(7));
+                username = claims.getSubject();
             } catch (Exception e) {
                 logger.error("JWT Token extraction failed: " + e.getMessage());
                 // Send 401 Unauthorized for invalid JWT signatures
@@ -47,26 +65,46 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                 response.getWriter().write("Invalid or expired JWT token");
                 return;
             }
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (!jwtUtil.validateToken(jwt, userDetails)) {
+            if (tokenRevocationRegistry.isRevoked(claims.getId())) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Invalid or expired JWT token");
                 return;
             }
+        }
+
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolveFromClaims(claims);
+            if (userDetails == null) {
+                try {
+                    userDetails = this.userDetailsService.loadUserByUsername(username);
+                } catch (UsernameNotFoundException e) {
+                    userDetails = null;
+                }
+                // Disabled or locked accounts lose access immediately, not at token expiry
+                if (userDetails == null || !userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("Invalid or expired JWT token");
+                    return;
+                }
+            }
 
             UsernamePasswordAuthenticationToken authenticationToken =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
 
+            // Snapshot the principal once so AuthorizationService does not reload the user
+            if (userDetails instanceof AuthenticatedUser authenticatedUser) {
+                PrincipalContext.set(authorizationService.buildPrincipal(
+                        authenticatedUser.getUserId(),
+                        authenticatedUser.getUsername(),
+                        authenticatedUser.getOrganizationId()));
+            }
+
             // Set tenant context from JWT organizationId claim
             // null organizationId = super admin (sees all organizations)
             try {
-                Long organizationId = jwtUtil.extractOrganizationId(jwt);
+                Long organizationId = claims.get(JwtUtil.CLAIM_ORGANIZATION_ID, Long.class);
                 TenantContext.setCurrentOrganizationId(organizationId);
             } catch (Exception e) {
                 logger.warn("Could not extract organizationId from JWT: " + e.getMessage());
@@ -76,6 +114,24 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             chain.doFilter(request, response);
         } finally {
             TenantContext.clear();
+            PrincipalContext.clear();
+        }
+    }
+
+    /**
+     * Stateless mode: build the user from the token alone when it carries the
+     * stateless claims and its permission version has not been superseded.
+     * Returns {@code null} when the database must be consulted instead.
+     */
+    private UserDetails resolveFromClaims(Claims claims) {
+        if (!statelessEnabled) {
+            return null;
+        }
+        AuthenticatedUser user = jwtUtil.toAuthenticatedUser(claims);
+        if (user == null || tokenRevocationRegistry.isPermissionVersionStale(
+                user.getUserId(), jwtUtil.extractPermissionVersion(claims))) {
+            return null;
         }
+        return user;
     }
 }
@@ -1,13 +1,19 @@
 package com.mosque.crm.security;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -18,6 +24,12 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_ORGANIZATION_ID = "organizationId";
+    public static final String CLAIM_HOME_ORGANIZATION_ID = "homeOrganizationId";
+    public static final String CLAIM_AUTHORITIES = "authorities";
+    public static final String CLAIM_PERMISSION_VERSION = "pv";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -53,7 +65,8 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
+    /** Verify the signature and expiry once and return all claims. */
+    public Claims extractAllClaims(String token) {
         return Jwts.parser()
                 .verifyWith(getSigningKey())
                 .build()
@@ -79,23 +92,69 @@ public class JwtUtil {
      * Permissions are NOT stored in the token — they are resolved per request.
      */
     public String generateToken(UserDetails userDetails, Long userId, Long organizationId) {
+        return generateToken(userDetails, userId, organizationId, null, null);
+    }
+
+    /**
+     * Generate a token that additionally carries everything {@link JwtRequestFilter}
+     * needs to build the {@code Authentication} without a database lookup in
+     * stateless mode: the user's home organization, authorities and the
+     * permission-version stamp checked against {@link TokenRevocationRegistry}.
+     */
+    public String generateToken(UserDetails userDetails, Long userId, Long organizationId,
+                                Long homeOrganizationId, Long permissionVersion) {
         Map<String, Object> claims = new HashMap<>();
         if (!userDetails.getAuthorities().isEmpty()) {
             claims.put("role", userDetails.getAuthorities().iterator().next().getAuthority());
         }
         if (userId != null) {
-            claims.put("userId", userId);
+            claims.put(CLAIM_USER_ID, userId);
         }
         if (organizationId != null) {
-            claims.put("organizationId", organizationId);
+            claims.put(CLAIM_ORGANIZATION_ID, organizationId);
+        }
+        if (homeOrganizationId != null) {
+            claims.put(CLAIM_HOME_ORGANIZATION_ID, homeOrganizationId);
+        }
+        if (permissionVersion != null) {
+            List<String> authorities = new ArrayList<>();
+            for (GrantedAuthority authority : userDetails.getAuthorities()) {
+                authorities.add(authority.getAuthority());
+            }
+            claims.put(CLAIM_AUTHORITIES, authorities);
+            claims.put(CLAIM_PERMISSION_VERSION, permissionVersion);
         }
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Rebuild the authenticated user from the claims of a verified token, or
+     * return {@code null} when the token predates stateless claims.
+     */
+    public AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        Object rawAuthorities = claims.get(CLAIM_AUTHORITIES);
+        if (userId == null || claims.get(CLAIM_PERMISSION_VERSION) == null
+                || !(rawAuthorities instanceof Collection<?> authorityNames)) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Object name : authorityNames) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(name)));
+        }
+        return new AuthenticatedUser(userId, claims.get(CLAIM_HOME_ORGANIZATION_ID, Long.class),
+                claims.getSubject(), "", true, true, true, authorities);
+    }
+
+    public Long extractPermissionVersion(Claims claims) {
+        return claims.get(CLAIM_PERMISSION_VERSION, Long.class);
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSigningKey())
@@ -0,0 +1,322 @@
+package com.mosque.crm.security;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.mosque.crm.entity.UserRole;
+import com.mosque.crm.repository.PermissionRepository;
+import com.mosque.crm.repository.UserRoleRepository;
+
+/**
+ * Two-level, bounded permission cache behind {@code AuthorizationService}.
+ * <ol>
+ *   <li><b>User level</b> — userId → active role IDs plus a reference to the
+ *       shared permission set of that role combination. LRU-bounded by
+ *       {@code auth.permission-cache.max-users}; an entry expires after
+ *       {@code auth.permission-cache.ttl-ms}, or at the next midnight when one of
+ *       the user's role assignments starts or ends in the future.</li>
+ *   <li><b>Role-set level</b> — set of role IDs → resolved permission codes.
+ *       Users holding the same roles share one immutable set, so a role change
+ *       re-resolves one set instead of every user.</li>
+ * </ol>
+ * Invalidation is targeted and event driven: {@link UserRolesChangedEvent} drops
+ * one user, {@link RolePermissionsChangedEvent} drops the role sets containing
+ * the changed roles (marking them stale for users still referencing them).
+ * Both are applied after the publishing transaction commits. A generation
+ * counter per level keeps a load that raced with an invalidation from being
+ * cached.
+ */
+@Component
+public class PermissionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionCache.class);
+
+    private final UserRoleRepository userRoleRepository;
+    private final PermissionRepository permissionRepository;
+
+    private final int maxUsers;
+    private final int maxRoleSets;
+    private final long ttlMs;
+
+    /** userId → UserEntry, access-ordered for LRU eviction; guarded by itself. */
+    private final LinkedHashMap<Long, UserEntry> users;
+
+    /** role-id set → RoleSetEntry, access-ordered for LRU eviction; guarded by itself. */
+    private final LinkedHashMap<Set<Long>, RoleSetEntry> roleSets;
+
+    private final AtomicLong userGeneration = new AtomicLong();
+    private final AtomicLong roleGeneration = new AtomicLong();
+
+    private final AtomicLong userHits = new AtomicLong();
+    private final AtomicLong userMisses = new AtomicLong();
+    private final AtomicLong roleSetHits = new AtomicLong();
+    private final AtomicLong roleSetMisses = new AtomicLong();
+    private final AtomicLong sizeEvictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PermissionCache(UserRoleRepository userRoleRepository,
+                           PermissionRepository permissionRepository,
+                           @Value("${auth.permission-cache.max-users:10000}") int maxUsers,
+                           @Value("${auth.permission-cache.max-role-sets:2000}") int maxRoleSets,
+                           @Value("${auth.permission-cache.ttl-ms:300000}") long ttlMs) {
+        this.userRoleRepository = userRoleRepository;
+        this.permissionRepository = permissionRepository;
+        this.maxUsers = maxUsers;
+        this.maxRoleSets = maxRoleSets;
+        this.ttlMs = ttlMs;
+        this.users = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserEntry> eldest) {
+                return evictIfOversized(size(), PermissionCache.this.maxUsers);
+            }
+        };
+        this.roleSets = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Set<Long>, RoleSetEntry> eldest) {
+                if (evictIfOversized(size(), PermissionCache.this.maxRoleSets)) {
+                    eldest.getValue().stale = true;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // ─── lookups ─────────────────────────────────────────────────────────
+
+    /** Return the active role IDs and effective permission codes for the user. */
+    public ResolvedPermissions get(Long userId) {
+        long now = System.currentTimeMillis();
+        UserEntry entry;
+        synchronized (users) {
+            entry = users.get(userId);
+        }
+        if (entry != null && now < entry.expiresAt) {
+            if (!entry.roleSet.stale) {
+                userHits.incrementAndGet();
+                return entry.resolved;
+            }
+            // Role assignments are still current; only the role permissions changed
+            RoleSetEntry roleSet = getRoleSet(entry.resolved.roleIds);
+            UserEntry refreshed = new UserEntry(entry.resolved.roleIds, roleSet, entry.expiresAt);
+            synchronized (users) {
+                users.replace(userId, entry, refreshed);
+            }
+            userHits.incrementAndGet();
+            return refreshed.resolved;
+        }
+
+        userMisses.incrementAndGet();
+        long generation = userGeneration.get();
+        UserEntry loaded = loadUser(userId, now);
+        synchronized (users) {
+            if (userGeneration.get() == generation) {
+                users.put(userId, loaded);
+            }
+        }
+        return loaded.resolved;
+    }
+
+    // ─── invalidation ────────────────────────────────────────────────────
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        evictUser(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRolePermissionsChanged(RolePermissionsChangedEvent event) {
+        if (event.isAllRoles()) {
+            evictAllRoleSets();
+        } else {
+            evictRoleSets(event.roleIds());
+        }
+    }
+
+    /** Drop one user's entry immediately. */
+    public void evictUser(Long userId) {
+        synchronized (users) {
+            userGeneration.incrementAndGet();
+            if (users.remove(userId) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    /** Drop every cached permission set containing one of the roles. */
+    public void evictRoleSets(Set<Long> roleIds) {
+        synchronized (roleSets) {
+            roleGeneration.incrementAndGet();
+            roleSets.entrySet().removeIf(e -> {
+                if (Collections.disjoint(e.getKey(), roleIds)) {
+                    return false;
+                }
+                e.getValue().stale = true;
+                invalidations.incrementAndGet();
+                return true;
+            });
+        }
+        log.debug("Invalidated cached permission sets for roles {}", roleIds);
+    }
+
+    /** Mark every cached permission set stale. User role assignments stay cached. */
+    public void evictAllRoleSets() {
+        synchronized (roleSets) {
+            roleGeneration.incrementAndGet();
+            roleSets.values().forEach(entry -> entry.stale = true);
+            invalidations.addAndGet(roleSets.size());
+            roleSets.clear();
+        }
+    }
+
+    /** Drop everything. */
+    public void evictAll() {
+        synchronized (users) {
+            userGeneration.incrementAndGet();
+            invalidations.addAndGet(users.size());
+            users.clear();
+        }
+        evictAllRoleSets();
+    }
+
+    /** Sizes and hit/miss/eviction counters, for the admin stats endpoint. */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (users) {
+            stats.put("users", users.size());
+        }
+        synchronized (roleSets) {
+            stats.put("roleSets", roleSets.size());
+        }
+        stats.put("maxUsers", maxUsers);
+        stats.put("maxRoleSets", maxRoleSets);
+        stats.put("userHits", userHits.get());
+        stats.put("userMisses", userMisses.get());
+        stats.put("userHitRatio", ratio(userHits.get(), userMisses.get()));
+        stats.put("roleSetHits", roleSetHits.get());
+        stats.put("roleSetMisses", roleSetMisses.get());
+        stats.put("roleSetHitRatio", ratio(roleSetHits.get(), roleSetMisses.get()));
+        stats.put("sizeEvictions", sizeEvictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    // ─── internal ────────────────────────────────────────────────────────
+
+    private UserEntry loadUser(Long userId, long now) {
+        List<UserRole> userRoles = userRoleRepository.findByIdUserId(userId);
+        LocalDate today = LocalDate.now();
+
+        Set<Long> activeRoleIds = userRoles.stream()
+                .filter(UserRole::isActive)
+                .map(UserRole::getRoleId)
+                .collect(Collectors.toUnmodifiableSet());
+
+        // An assignment that starts or ends later changes the result at a day boundary
+        long expiresAt = now + ttlMs;
+        boolean changesLater = userRoles.stream().anyMatch(ur ->
+                (ur.getStartDate() != null && ur.getStartDate().isAfter(today))
+                        || (ur.getEndDate() != null && !ur.getEndDate().isBefore(today)));
+        if (changesLater) {
+            long nextMidnight = today.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            expiresAt = Math.min(expiresAt, nextMidnight);
+        }
+
+        return new UserEntry(activeRoleIds, getRoleSet(activeRoleIds), expiresAt);
+    }
+
+    private RoleSetEntry getRoleSet(Set<Long> roleIds) {
+        synchronized (roleSets) {
+            RoleSetEntry cached = roleSets.get(roleIds);
+            if (cached != null) {
+                roleSetHits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        roleSetMisses.incrementAndGet();
+        long generation = roleGeneration.get();
+        Set<String> permissions = roleIds.isEmpty()
+                ? Set.of()
+                : Set.copyOf(permissionRepository.findPermissionCodesByRoleIds(roleIds));
+        RoleSetEntry loaded = new RoleSetEntry(permissions);
+        log.debug("Resolved {} permissions for roles {}", permissions.size(), roleIds);
+
+        synchronized (roleSets) {
+            if (roleGeneration.get() != generation) {
+                // Invalidated while loading: hand out the result once, but never cache it
+                loaded.stale = true;
+                return loaded;
+            }
+            RoleSetEntry raced = roleSets.putIfAbsent(roleIds, loaded);
+            return raced != null ? raced : loaded;
+        }
+    }
+
+    private boolean evictIfOversized(int size, int max) {
+        if (size > max) {
+            sizeEvictions.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private static double ratio(long hits, long misses) {
+        return (hits + misses) == 0 ? 0.0 : (double) hits / (hits + misses);
+    }
+
+    // ─── cache entries ───────────────────────────────────────────────────
+
+    /** Immutable result handed to callers. */
+    public static final class ResolvedPermissions {
+        private final Set<Long> roleIds;
+        private final Set<String> permissions;
+
+        ResolvedPermissions(Set<Long> roleIds, Set<String> permissions) {
+            this.roleIds = roleIds;
+            this.permissions = permissions;
+        }
+
+        public Set<Long> getRoleIds() {
+            return roleIds;
+        }
+
+        public Set<String> getPermissions() {
+            return permissions;
+        }
+    }
+
+    private static final class RoleSetEntry {
+        final Set<String> permissions;
+        volatile boolean stale;
+
+        RoleSetEntry(Set<String> permissions) {
+            this.permissions = permissions;
+        }
+    }
+
+    private static final class UserEntry {
+        final ResolvedPermissions resolved;
+        final RoleSetEntry roleSet;
+        final long expiresAt;
+
+        UserEntry(Set<Long> roleIds, RoleSetEntry roleSet, long expiresAt) {
+            this.resolved = new ResolvedPermissions(roleIds, roleSet.permissions);
+            this.roleSet = roleSet;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.mosque.crm.security;
+
+/**
+ * Thread-local holder for the {@link CurrentPrincipal} of the current request.
+ *
+ * Set by {@link JwtRequestFilter} after JWT authentication and cleared when the
+ * filter chain completes. Absent on threads that did not pass through the filter
+ * (WebSocket handlers, scheduled jobs); callers must fall back to a lookup then.
+ */
+public final class PrincipalContext {
+
+    private static final ThreadLocal<CurrentPrincipal> CURRENT_PRINCIPAL = new ThreadLocal<>();
+
+    private PrincipalContext() {
+        // utility class
+    }
+
+    public static CurrentPrincipal get() {
+        return CURRENT_PRINCIPAL.get();
+    }
+
+    public static void set(CurrentPrincipal principal) {
+        CURRENT_PRINCIPAL.set(principal);
+    }
+
+    /**
+     * Clear the principal. Must be called at the end of each request
+     * to prevent ThreadLocal leaks in thread pools.
+     */
+    public static void clear() {
+        CURRENT_PRINCIPAL.remove();
+    }
+}
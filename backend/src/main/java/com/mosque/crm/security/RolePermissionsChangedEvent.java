@@ -0,0 +1,37 @@
+package com.mosque.crm.security;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published after the permissions granted by one or more roles changed (role
+ * permission edits, role deletion, template sync). {@link PermissionCache}
+ * drops every cached permission set that includes one of the roles once the
+ * publishing transaction commits; {@link TokenRevocationRegistry} makes the
+ * tokens of the roles' holders stale within that transaction.
+ * <p>
+ * An empty {@code roleIds} set means "any role" — used when the affected
+ * tenant role copies are not known to the publisher.
+ */
+public record RolePermissionsChangedEvent(Set<Long> roleIds) {
+
+    public RolePermissionsChangedEvent {
+        roleIds = roleIds == null ? Set.of() : Set.copyOf(roleIds);
+    }
+
+    public static RolePermissionsChangedEvent of(Long roleId) {
+        return new RolePermissionsChangedEvent(Set.of(roleId));
+    }
+
+    public static RolePermissionsChangedEvent of(Collection<Long> roleIds) {
+        return new RolePermissionsChangedEvent(Set.copyOf(roleIds));
+    }
+
+    public static RolePermissionsChangedEvent allRoles() {
+        return new RolePermissionsChangedEvent(Set.of());
+    }
+
+    public boolean isAllRoles() {
+        return roleIds.isEmpty();
+    }
+}
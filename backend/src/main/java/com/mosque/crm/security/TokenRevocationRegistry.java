@@ -0,0 +1,243 @@
+package com.mosque.crm.security;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory token revocation list backed by the {@code token_revocations} table.
+ * <p>
+ * Used by {@link JwtRequestFilter} in stateless mode to decide — without a
+ * database round-trip — whether the claims of an already verified JWT can be
+ * trusted:
+ * <ul>
+ *   <li>a token whose {@code jti} was revoked (logout) is rejected;</li>
+ *   <li>a token whose permission-version stamp is below the user's latest
+ *       version (roles changed, account disabled or deleted) is stale and the
+ *       filter falls back to loading the user from the database.</li>
+ * </ul>
+ * Every write goes to the database first; other nodes pick it up through
+ * {@link #poll()}, and a restarted node reloads all unexpired rows on startup.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    /**
+     * Rows re-read on every poll, so revocations whose (auto-increment) id was
+     * allocated before, but committed after, the previous poll are not missed.
+     * Applying a row twice is harmless.
+     */
+    private static final long POLL_OVERLAP_ROWS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    /** userId → latest permission version known to be in force */
+    private final Map<Long, Long> latestPermissionVersions = new ConcurrentHashMap<>();
+
+    /** jti → expiry (epoch millis) of explicitly revoked tokens */
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+
+    /** Highest token_revocations.id already applied to the in-memory state. */
+    private volatile long lastSeenId;
+
+    public TokenRevocationRegistry(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ─── reads (hot path, no I/O) ────────────────────────────────────────
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Long expiresAt = revokedTokenIds.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * @return true when the user's permissions or account state changed after the
+     *         token was issued, i.e. the token's claims must not be trusted
+     */
+    public boolean isPermissionVersionStale(Long userId, long tokenPermissionVersion) {
+        Long latest = latestPermissionVersions.get(userId);
+        return latest != null && tokenPermissionVersion < latest;
+    }
+
+    // ─── writes ──────────────────────────────────────────────────────────
+
+    /**
+     * Increment the user's permission version so every token issued before now
+     * becomes stale. Call after enable/disable, lock, password and organization
+     * changes and deletion; role changes bump through {@link #onUserRolesChanged}.
+     * Participates in the caller's transaction; the in-memory state is updated
+     * once it commits.
+     */
+    public void bumpPermissionVersion(Long userId) {
+        jdbcTemplate.update("UPDATE users SET permission_version = permission_version + 1 WHERE id = ?", userId);
+        Long version = jdbcTemplate.queryForList(
+                "SELECT permission_version FROM users WHERE id = ?", Long.class, userId)
+                .stream().findFirst().orElse(Long.MAX_VALUE); // deleted user: every token is stale
+        jdbcTemplate.update(
+                "INSERT INTO token_revocations (user_id, permission_version, expires_at) VALUES (?, ?, ?)",
+                userId, version, new Timestamp(System.currentTimeMillis() + expiration));
+        afterCommit(() -> applyPermissionVersion(userId, version));
+        log.debug("Bumped permission version for user {} to {}", userId, version);
+    }
+
+    /**
+     * Tokens carry the user's role names, so every role assignment change makes
+     * the user's earlier tokens stale. Runs synchronously inside the publishing
+     * transaction, so the bump commits or rolls back with the change itself.
+     * A user without a row yet (created in this transaction) has no tokens.
+     */
+    @EventListener
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        Long userId = event.userId();
+        if (jdbcTemplate.update("UPDATE users SET permission_version = permission_version + 1 WHERE id = ?",
+                userId) == 0) {
+            return;
+        }
+        long version = jdbcTemplate.queryForObject(
+                "SELECT permission_version FROM users WHERE id = ?", Long.class, userId);
+        jdbcTemplate.update(
+                "INSERT INTO token_revocations (user_id, permission_version, expires_at) VALUES (?, ?, ?)",
+                userId, version, new Timestamp(System.currentTimeMillis() + expiration));
+        afterCommit(() -> applyPermissionVersion(userId, version));
+        log.debug("Bumped permission version for user {} to {} after a role change", userId, version);
+    }
+
+    /**
+     * Bump every holder of a role whose permissions changed (every user with a
+     * role for {@link RolePermissionsChangedEvent#allRoles()}), in two
+     * set-based statements. The in-memory state follows through {@link #poll()}
+     * once the change commits.
+     */
+    @EventListener
+    public void onRolePermissionsChanged(RolePermissionsChangedEvent event) {
+        List<Object> args = new ArrayList<>();
+        String holders;
+        if (event.isAllRoles()) {
+            holders = "SELECT ur.user_id FROM user_roles ur";
+        } else {
+            holders = "SELECT ur.user_id FROM user_roles ur WHERE ur.role_id IN ("
+                    + String.join(", ", Collections.nCopies(event.roleIds().size(), "?")) + ")";
+            args.addAll(event.roleIds());
+        }
+        int bumped = jdbcTemplate.update(
+                "UPDATE users SET permission_version = permission_version + 1 WHERE id IN (" + holders + ")",
+                args.toArray());
+        if (bumped == 0) {
+            return;
+        }
+        List<Object> insertArgs = new ArrayList<>();
+        insertArgs.add(new Timestamp(System.currentTimeMillis() + expiration));
+        insertArgs.addAll(args);
+        jdbcTemplate.update(
+                "INSERT INTO token_revocations (user_id, permission_version, expires_at) "
+                        + "SELECT u.id, u.permission_version, ? FROM users u WHERE u.id IN (" + holders + ")",
+                insertArgs.toArray());
+        afterCommit(this::poll);
+        log.debug("Bumped permission version for {} holder(s) of roles {}", bumped,
+                event.isAllRoles() ? "(all)" : event.roleIds());
+    }
+
+    /** Revoke a single token (e.g. on logout) until it would have expired anyway. */
+    public void revokeToken(String tokenId, Long userId, Date expiresAt) {
+        if (tokenId == null || userId == null || expiresAt == null) {
+            return;
+        }
+        jdbcTemplate.update(
+                "INSERT INTO token_revocations (user_id, token_id, expires_at) VALUES (?, ?, ?)",
+                userId, tokenId, new Timestamp(expiresAt.getTime()));
+        afterCommit(() -> revokedTokenIds.put(tokenId, expiresAt.getTime()));
+    }
+
+    // ─── synchronization with the database ───────────────────────────────
+
+    /** Load every unexpired revocation once the schema is migrated. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            apply(jdbcTemplate.queryForList(
+                    "SELECT id, user_id, token_id, permission_version, expires_at FROM token_revocations "
+                            + "WHERE expires_at > ? ORDER BY id",
+                    new Timestamp(System.currentTimeMillis())));
+            log.info("Loaded token revocation list: {} user version(s), {} revoked token(s)",
+                    latestPermissionVersions.size(), revokedTokenIds.size());
+        } catch (Exception e) {
+            log.warn("Could not load token revocation list: {}", e.getMessage());
+        }
+    }
+
+    /** Pick up revocations written by other nodes and drop expired entries. */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval-ms:15000}")
+    public void poll() {
+        try {
+            apply(jdbcTemplate.queryForList(
+                    "SELECT id, user_id, token_id, permission_version, expires_at FROM token_revocations "
+                            + "WHERE id > ? ORDER BY id",
+                    Math.max(0L, lastSeenId - POLL_OVERLAP_ROWS)));
+        } catch (Exception e) {
+            log.warn("Token revocation poll failed: {}", e.getMessage());
+        }
+        long now = System.currentTimeMillis();
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    private void apply(List<Map<String, Object>> rows) {
+        for (Map<String, Object> row : rows) {
+            long id = ((Number) row.get("id")).longValue();
+            Long userId = ((Number) row.get("user_id")).longValue();
+            String tokenId = (String) row.get("token_id");
+            Number version = (Number) row.get("permission_version");
+            long expiresAt = ((Timestamp) row.get("expires_at")).getTime();
+
+            if (tokenId != null) {
+                revokedTokenIds.put(tokenId, expiresAt);
+            }
+            if (version != null) {
+                applyPermissionVersion(userId, version.longValue());
+            }
+            if (id > lastSeenId) {
+                lastSeenId = id;
+            }
+        }
+    }
+
+    private void applyPermissionVersion(Long userId, long version) {
+        latestPermissionVersions.merge(userId, version, Math::max);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
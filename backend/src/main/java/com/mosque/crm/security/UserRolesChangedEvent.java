@@ -0,0 +1,10 @@
+package com.mosque.crm.security;
+
+/**
+ * Published after a user's role assignments changed (roles added or removed,
+ * user deleted). {@link PermissionCache} drops the user's cached permissions
+ * once the publishing transaction commits; {@link TokenRevocationRegistry}
+ * makes the user's earlier tokens stale within that transaction.
+ */
+public record UserRolesChangedEvent(Long userId) {
+}
@@ -1,14 +1,9 @@
 package com.mosque.crm.service;
 
-import java.time.LocalDate;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import org.hibernate.Session;
 import org.slf4j.Logger;
@@ -18,11 +13,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.mosque.crm.entity.User;
-import com.mosque.crm.entity.UserRole;
 import com.mosque.crm.multitenancy.TenantContext;
-import com.mosque.crm.repository.PermissionRepository;
 import com.mosque.crm.repository.UserRepository;
-import com.mosque.crm.repository.UserRoleRepository;
+import com.mosque.crm.security.CurrentPrincipal;
+import com.mosque.crm.security.PermissionCache;
+import com.mosque.crm.security.PrincipalContext;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -33,33 +28,28 @@ import jakarta.persistence.PersistenceContext;
  * <b>Never check role names directly.</b> Always check permission codes.
  * <p>
  * Permissions are resolved from the database via active (time-bound, organization-scoped)
- * role assignments, then cached per user for performance. The cache entry expires
- * after {@link #CACHE_TTL_MS} milliseconds.
+ * role assignments and cached by {@link PermissionCache}, which is invalidated by
+ * {@code UserRolesChangedEvent} / {@code RolePermissionsChangedEvent}.
+ * <p>
+ * Within an HTTP request all checks read the immutable {@link CurrentPrincipal}
+ * snapshot built once by {@code JwtRequestFilter}; the {@code User} entity is only
+ * loaded when a caller explicitly asks for it via {@link #getCurrentUser()}.
  */
 @Service("auth")
 public class AuthorizationService {
 
     private static final Logger log = LoggerFactory.getLogger(AuthorizationService.class);
 
-    /** Cache TTL – 5 minutes. */
-    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(5);
-
     private final UserRepository userRepository;
-    private final UserRoleRepository userRoleRepository;
-    private final PermissionRepository permissionRepository;
+    private final PermissionCache permissionCache;
 
     @PersistenceContext
     private EntityManager entityManager;
 
-    /** userId → CachedPermissions */
-    private final Map<Long, CachedPermissions> cache = new ConcurrentHashMap<>();
-
     public AuthorizationService(UserRepository userRepository,
-                                UserRoleRepository userRoleRepository,
-                                PermissionRepository permissionRepository) {
+                                PermissionCache permissionCache) {
         this.userRepository = userRepository;
-        this.userRoleRepository = userRoleRepository;
-        this.permissionRepository = permissionRepository;
+        this.permissionCache = permissionCache;
     }
 
     // ─── public API (called from @PreAuthorize or controllers) ───────────
@@ -101,18 +91,18 @@ public class AuthorizationService {
      * Super admins (with {@code superadmin.manage}) bypass organization scope checks.
      */
     public boolean hasPermissionForOrganization(String permissionCode, Long resourceOrganizationId) {
-        User user = getCurrentUser();
-        if (user == null) {
+        CurrentPrincipal principal = getCurrentPrincipal();
+        if (principal == null) {
             return false;
         }
-        Set<String> perms = getPermissions(user.getId());
+        Set<String> perms = principal.getPermissions();
         if (perms.contains(SUPERADMIN_PERMISSION)) {
             return true;
         }
         // Organization scope check
-        if (user.getOrganizationId() != null && !user.getOrganizationId().equals(resourceOrganizationId)) {
+        if (principal.getOrganizationId() != null && !principal.getOrganizationId().equals(resourceOrganizationId)) {
             log.warn("Organization scope violation: user {} (organization {}) tried to access resource in organization {}",
-                    user.getUsername(), user.getOrganizationId(), resourceOrganizationId);
+                    principal.getUsername(), principal.getOrganizationId(), resourceOrganizationId);
             return false;
         }
         return perms.contains(permissionCode);
@@ -123,16 +113,66 @@ public class AuthorizationService {
      * Used by the {@code /api/me} endpoint to send permissions to the frontend.
      */
     public Set<String> getPermissionsForCurrentUser() {
-        User user = getCurrentUser();
-        if (user == null) {
+        CurrentPrincipal principal = getCurrentPrincipal();
+        if (principal == null) {
             return Collections.emptySet();
         }
-        return getPermissions(user.getId());
+        return principal.getPermissions();
+    }
+
+    /**
+     * Return the principal snapshot of the current authenticated user, or {@code null}.
+     * <p>
+     * Uses the snapshot built by {@code JwtRequestFilter} when present; otherwise
+     * (WebSocket handlers, jobs, tests) builds one from the database.
+     */
+    public CurrentPrincipal getCurrentPrincipal() {
+        CurrentPrincipal principal = getRequestPrincipal();
+        if (principal != null) {
+            return principal;
+        }
+        User user = loadCurrentUser();
+        if (user == null) {
+            return null;
+        }
+        return buildPrincipal(user.getId(), user.getUsername(), user.getOrganizationId());
+    }
+
+    /** Return the ID of the current authenticated user, or {@code null}. */
+    public Long getCurrentUserId() {
+        CurrentPrincipal principal = getCurrentPrincipal();
+        return principal != null ? principal.getUserId() : null;
+    }
+
+    /**
+     * Build a principal snapshot for the given user. Role IDs and permissions come
+     * from the per-user permission cache.
+     */
+    public CurrentPrincipal buildPrincipal(Long userId, String username, Long organizationId) {
+        PermissionCache.ResolvedPermissions resolved = permissionCache.get(userId);
+        return new CurrentPrincipal(userId, username, organizationId, resolved.getRoleIds(), resolved.getPermissions());
     }
 
     /**
      * Return the current authenticated {@link User} entity, or {@code null}.
      * <p>
+     * When a request principal is available the user is loaded by primary key,
+     * which the Hibernate organization filter does not apply to and which is
+     * served from the persistence context after the first call in the request.
+     * <p>
+     * Otherwise falls back to {@link #loadCurrentUser()}.
+     */
+    public User getCurrentUser() {
+        CurrentPrincipal principal = getRequestPrincipal();
+        if (principal != null) {
+            return entityManager.find(User.class, principal.getUserId());
+        }
+        return loadCurrentUser();
+    }
+
+    /**
+     * Load the current authenticated {@link User} entity by username, or {@code null}.
+     * <p>
      * Temporarily disables the Hibernate organization filter so the current
      * user is always resolvable regardless of the active tenant context
      * (e.g. super admin with NULL organization_id viewing a specific organization).
@@ -141,13 +181,9 @@ public class AuthorizationService {
      * repository) to guarantee the filter disable and query execute on the
      * exact same Hibernate Session.
      */
-    public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-        String username = authentication.getName();
-        if ("anonymousUser".equals(username)) {
+    private User loadCurrentUser() {
+        String username = getAuthenticatedUsername();
+        if (username == null) {
             return null;
         }
 
@@ -198,18 +234,24 @@ public class AuthorizationService {
     }
 
     /**
-     * Evict the cached permissions for a specific user.
-     * Call this after role or permission changes.
+     * Evict the cached permissions for a specific user immediately.
+     * Writers should prefer publishing {@code UserRolesChangedEvent}, which
+     * evicts after their transaction commits.
      */
     public void evictCache(Long userId) {
-        cache.remove(userId);
+        permissionCache.evictUser(userId);
     }
 
     /**
-     * Evict all cached permissions.
+     * Evict all cached permissions immediately.
      */
     public void evictAllCaches() {
-        cache.clear();
+        permissionCache.evictAll();
+    }
+
+    /** Permission cache sizes and hit/miss/eviction counters. */
+    public Map<String, Object> getPermissionCacheStats() {
+        return permissionCache.getStats();
     }
 
     // ─── internal ────────────────────────────────────────────────────────
@@ -219,53 +261,31 @@ public class AuthorizationService {
      * SecurityContextHolder is not yet populated, e.g. during login).
      */
     public Set<String> getPermissions(Long userId) {
-        CachedPermissions cached = cache.get(userId);
-        if (cached != null && !cached.isExpired()) {
-            return cached.permissions;
-        }
-
-        Set<String> resolved = resolvePermissions(userId);
-        cache.put(userId, new CachedPermissions(resolved));
-        return resolved;
+        return permissionCache.get(userId).getPermissions();
     }
 
     /**
-     * Resolve permissions from the database:
-     * 1. Find all UserRole entries for this user
-     * 2. Filter to only active (date-aware) assignments
-     * 3. Collect the role IDs
-     * 4. Query role_permissions → permissions to get permission codes
+     * The request principal, if {@code JwtRequestFilter} built one for the user
+     * currently in the security context.
      */
-    private Set<String> resolvePermissions(Long userId) {
-        List<UserRole> userRoles = userRoleRepository.findByIdUserId(userId);
-
-        Set<Long> activeRoleIds = userRoles.stream()
-                .filter(UserRole::isActive)
-                .map(UserRole::getRoleId)
-                .collect(Collectors.toSet());
-
-        if (activeRoleIds.isEmpty()) {
-            return Collections.emptySet();
+    private CurrentPrincipal getRequestPrincipal() {
+        CurrentPrincipal principal = PrincipalContext.get();
+        if (principal == null) {
+            return null;
         }
-
-        Set<String> permissions = permissionRepository.findPermissionCodesByRoleIds(activeRoleIds);
-        log.debug("Resolved {} permissions for user {}: {}", permissions.size(), userId, permissions);
-        return permissions;
+        String username = getAuthenticatedUsername();
+        return principal.getUsername().equals(username) ? principal : null;
     }
 
-    // ─── cache entry ─────────────────────────────────────────────────────
-
-    private static class CachedPermissions {
-        final Set<String> permissions;
-        final long createdAt;
-
-        CachedPermissions(Set<String> permissions) {
-            this.permissions = Collections.unmodifiableSet(permissions);
-            this.createdAt = System.currentTimeMillis();
+    private String getAuthenticatedUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
         }
-
-        boolean isExpired() {
-            return (System.currentTimeMillis() - createdAt) > CACHE_TTL_MS;
+        String username = authentication.getName();
+        if ("anonymousUser".equals(username)) {
+            return null;
         }
+        return username;
     }
 }
@@ -0,0 +1,111 @@
+package com.mosque.crm.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the jobs of a job table (exports, imports, ...) on a small pool of
+ * daemon threads.
+ * <p>
+ * The owning service submits a job once the request that queued it commits,
+ * and its poll hands over jobs no node has picked up; an id is queued at most
+ * once per node. Claiming the job row (QUEUED to RUNNING) is left to the job
+ * itself, so a job another node already started is skipped there.
+ */
+final class BackgroundJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BackgroundJobRunner.class);
+
+    static final int MAX_ERROR_LENGTH = 500;
+
+    private final String label;
+    private final Consumer<Long> job;
+    private final ExecutorService workers;
+    private final Set<Long> submitted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param name  prefix of the thread names, e.g. {@code "data-export"}
+     * @param label what a job is called in log messages, e.g. {@code "export job"}
+     * @param job   runs one job by id
+     */
+    BackgroundJobRunner(String name, String label, int workerCount, Consumer<Long> job) {
+        this.label = label;
+        this.job = job;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), r -> {
+            Thread thread = new Thread(r, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Queue a job on this node, unless it is queued or running here already. */
+    void submit(Long jobId) {
+        if (submitted.add(jobId)) {
+            workers.execute(() -> {
+                try {
+                    job.accept(jobId);
+                } finally {
+                    submitted.remove(jobId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Recover the RUNNING jobs whose node stopped reporting progress, then
+     * submit every queued job. Recovery is up to the service: a job that
+     * cannot continue where it stopped is failed, one whose steps can safely
+     * run again is queued again (and so submitted right away).
+     *
+     * @param staleIds  jobs that have not reported progress in time
+     * @param recover   recovers one job; returns 0 when another node got there first
+     * @param outcome   what recovery did, for the log, e.g. {@code "marked FAILED"}
+     * @param queuedIds jobs waiting to run, read after recovery
+     */
+    void poll(List<Long> staleIds, ToIntFunction<Long> recover, String outcome, Supplier<List<Long>> queuedIds) {
+        for (Long id : staleIds) {
+            if (recover.applyAsInt(id) > 0) {
+                log.warn("The {} {} stopped reporting progress; {}", label, id, outcome);
+            }
+        }
+        queuedIds.get().forEach(this::submit);
+    }
+
+    /** Delete expired jobs one by one; a job that cannot be deleted is retried on the next cleanup. */
+    <J> void deleteExpired(List<J> expired, Function<J, Long> id, Consumer<J> delete) {
+        for (J expiredJob : expired) {
+            try {
+                delete.accept(expiredJob);
+            } catch (Exception e) {
+                log.warn("Could not delete expired {} {}: {}", label, id.apply(expiredJob), e.getMessage());
+            }
+        }
+    }
+
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    static String truncate(String error) {
+        return truncate(error, MAX_ERROR_LENGTH);
+    }
+
+    static String truncate(String value, int maxLength) {
+        if (value == null) {
+            return "unknown error";
+        }
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,146 @@
+package com.mosque.crm.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Claim-and-dispatch loop shared by the queue dispatchers
+ * ({@link RealtimeOutboxDispatcher}, {@link BulkEmailDispatcher}).
+ * <p>
+ * Runs execute one at a time on a dedicated dispatch thread. A run calls the
+ * dispatcher's batch function, which claims up to {@code batchSize} rows and
+ * hands them to the bounded worker pool; when the pool's queue is full the
+ * dispatch thread does the work itself, which throttles claiming to the pace
+ * of the workers. The run keeps claiming while batches come back full or new
+ * rows were signalled in the meantime.
+ * <p>
+ * Committing writers ({@link #wake()}) and the scheduler ({@link #poll()})
+ * only queue a run, so neither ever waits for a batch to go out.
+ */
+final class BatchDispatchLoop {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchDispatchLoop.class);
+
+    private final String name;
+    private final int batchSize;
+    private final IntSupplier dispatchBatch;
+
+    private final ExecutorService dispatchThread;
+    private final ThreadPoolTaskExecutor workers;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean wakeQueued = new AtomicBoolean();
+    private final AtomicBoolean rerun = new AtomicBoolean();
+
+    /**
+     * @param name          prefix of the thread names and log messages, e.g. {@code "realtime"}
+     * @param dispatchBatch claims and dispatches one batch, returning the number of rows handled
+     */
+    BatchDispatchLoop(String name, int batchSize, int workerCount, int queueCapacity, IntSupplier dispatchBatch) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.dispatchBatch = dispatchBatch;
+
+        this.dispatchThread = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, name + "-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers = new ThreadPoolTaskExecutor();
+        workers.setCorePoolSize(workerCount);
+        workers.setMaxPoolSize(workerCount);
+        workers.setQueueCapacity(queueCapacity);
+        workers.setThreadNamePrefix(name + "-worker-");
+        workers.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        workers.initialize();
+    }
+
+    /** Worker pool for the tasks of a batch. */
+    ThreadPoolTaskExecutor workers() {
+        return workers;
+    }
+
+    /** New rows were committed: queue a run, or make the current run claim another batch. */
+    void wake() {
+        rerun.set(true);
+        queueRun();
+    }
+
+    /** Queue a run for rows left behind (other nodes, retries, restarts) unless one is already queued. */
+    void poll() {
+        queueRun();
+    }
+
+    /**
+     * Dispatch batches on the calling thread until none is left. A run already
+     * in progress on this node picks up the new rows instead.
+     *
+     * @return number of rows handled
+     */
+    int drain() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            while (true) {
+                rerun.set(false);
+                int handled = dispatchBatch.getAsInt();
+                total += handled;
+                if (handled == 0 || (handled < batchSize && !rerun.get())) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("{} dispatch failed: {}", name, e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        return total;
+    }
+
+    /**
+     * Wait for the tasks of a batch. Tasks still running after {@code timeout}
+     * keep their rows claimed; those rows are retried once the claim expires.
+     * The tasks record their own failures, so none is expected to complete
+     * exceptionally.
+     */
+    void await(List<? extends CompletableFuture<?>> tasks, Duration timeout) {
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("{} tasks did not finish within {} ms", name, timeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("{} task failed: {}", name, e.getMessage());
+        }
+    }
+
+    void shutdown() {
+        dispatchThread.shutdown();
+        workers.shutdown();
+    }
+
+    private void queueRun() {
+        if (wakeQueued.compareAndSet(false, true)) {
+            dispatchThread.execute(() -> {
+                wakeQueued.set(false);
+                drain();
+            });
+        }
+    }
+}
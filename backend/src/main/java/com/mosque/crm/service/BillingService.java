@@ -25,6 +25,7 @@ import com.mosque.crm.repository.OrganizationRepository;
 import com.mosque.crm.repository.OrganizationSubscriptionRepository;
 import com.mosque.crm.repository.SubscriptionInvoiceRepository;
 import com.mosque.crm.repository.SubscriptionPaymentRepository;
+import com.mosque.crm.subscription.SubscriptionStatusCache;
 
 @Service
 public class BillingService {
@@ -39,15 +40,18 @@ public class BillingService {
     private final SubscriptionInvoiceRepository invoiceRepository;
     private final SubscriptionPaymentRepository paymentRepository;
     private final OrganizationRepository organizationRepository;
+    private final SubscriptionStatusCache subscriptionStatusCache;
 
     public BillingService(OrganizationSubscriptionRepository subscriptionRepository,
             SubscriptionInvoiceRepository invoiceRepository,
             SubscriptionPaymentRepository paymentRepository,
-            OrganizationRepository organizationRepository) {
+            OrganizationRepository organizationRepository,
+            SubscriptionStatusCache subscriptionStatusCache) {
         this.subscriptionRepository = subscriptionRepository;
         this.invoiceRepository = invoiceRepository;
         this.paymentRepository = paymentRepository;
         this.organizationRepository = organizationRepository;
+        this.subscriptionStatusCache = subscriptionStatusCache;
     }
 
     // -------------------------------------------------------------------------
@@ -221,6 +225,7 @@ public class BillingService {
                 OrganizationSubscriptionStatus oldStatus = sub.getStatus();
                 sub.setStatus(newStatus);
                 subscriptionRepository.save(sub);
+                subscriptionStatusCache.evict(sub.getOrganizationId());
                 log.info("Subscription={} org={} transitioned {} -> {}",
                         sub.getId(), sub.getOrganizationId(), oldStatus, newStatus);
             }
@@ -307,6 +312,7 @@ public class BillingService {
         sub.setLockDate(newDueDate.plusDays(LOCK_DAYS_AFTER_DUE).atStartOfDay());
 
         subscriptionRepository.save(sub);
+        subscriptionStatusCache.evict(sub.getOrganizationId());
         log.info("Restored subscription={} to ACTIVE, next_due_date={}", sub.getId(), newEnd);
     }
 
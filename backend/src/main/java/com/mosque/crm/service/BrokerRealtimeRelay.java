@@ -0,0 +1,25 @@
+package com.mosque.crm.service;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relay through the configured STOMP broker. With the in-memory simple broker
+ * this reaches sessions on the local node only; with the external broker relay
+ * enabled in {@code WebSocketConfig}, user destinations are resolved across
+ * every node connected to the broker.
+ */
+@Component
+public class BrokerRealtimeRelay implements RealtimeRelay {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public BrokerRealtimeRelay(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public void sendToUser(String userId, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(userId, destination, payload);
+    }
+}
@@ -0,0 +1,230 @@
+package com.mosque.crm.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.mosque.crm.entity.CommunicationMessage;
+import com.mosque.crm.entity.CommunicationRecipient;
+import com.mosque.crm.enums.EmailDeliveryStatus;
+import com.mosque.crm.exception.MailDeliveryException;
+import com.mosque.crm.repository.CommunicationMessageRepository;
+import com.mosque.crm.repository.CommunicationRecipientRepository;
+import com.mosque.crm.util.RateLimiter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sends queued bulk communications to their recipients in the background.
+ * <p>
+ * A dispatch run claims a batch of due recipients, splits each message's
+ * share into chunks of {@code chunk-size} addresses and hands the chunks to
+ * the worker pool of a {@link BatchDispatchLoop}; all workers of a node share
+ * one rate limit. A chunk
+ * the mail server rejects with a transient error is put back in the queue
+ * with exponential backoff until {@code max-attempts}, other failures are
+ * final. Once a message has no pending recipients left, its status becomes
+ * SENT, PARTIALLY_SENT or FAILED.
+ */
+@Service
+public class BulkEmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkEmailDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final CommunicationRecipientRepository recipientRepository;
+    private final CommunicationMessageRepository messageRepository;
+    private final EmailService emailService;
+    private final int batchSize;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration claimTtl;
+    private final RateLimiter rateLimiter;
+
+    private final BatchDispatchLoop loop;
+
+    public BulkEmailDispatcher(CommunicationRecipientRepository recipientRepository,
+                               CommunicationMessageRepository messageRepository,
+                               EmailService emailService,
+                               @Value("${communication.bulk-email.batch-size:500}") int batchSize,
+                               @Value("${communication.bulk-email.chunk-size:50}") int chunkSize,
+                               @Value("${communication.bulk-email.workers:4}") int workerCount,
+                               @Value("${communication.bulk-email.rate-per-second:100}") double ratePerSecond,
+                               @Value("${communication.bulk-email.max-attempts:5}") int maxAttempts,
+                               @Value("${communication.bulk-email.backoff-base-ms:30000}") long backoffBaseMs,
+                               @Value("${communication.bulk-email.backoff-max-ms:1800000}") long backoffMaxMs,
+                               @Value("${communication.bulk-email.claim-ttl-ms:300000}") long claimTtlMs) {
+        this.recipientRepository = recipientRepository;
+        this.messageRepository = messageRepository;
+        this.emailService = emailService;
+        this.batchSize = batchSize;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofMillis(backoffBaseMs);
+        this.backoffMax = Duration.ofMillis(backoffMaxMs);
+        this.claimTtl = Duration.ofMillis(claimTtlMs);
+        this.rateLimiter = new RateLimiter(ratePerSecond);
+
+        this.loop = new BatchDispatchLoop("bulk-email", batchSize, workerCount,
+                Math.max(1, batchSize / this.chunkSize), this::dispatchBatch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loop.shutdown();
+    }
+
+    /** Start sending once the message and its recipients are committed, without making the request wait. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkEmailQueued(BulkEmailQueuedEvent event) {
+        loop.wake();
+    }
+
+    @Scheduled(fixedDelayString = "${communication.bulk-email.poll-interval-ms:5000}")
+    public void poll() {
+        loop.poll();
+    }
+
+    /**
+     * Send batches on the calling thread until no recipient is due. A run
+     * already in progress on this node picks up newly queued recipients instead.
+     *
+     * @return number of recipients handled (sent, failed or rescheduled)
+     */
+    public int dispatchPending() {
+        return loop.drain();
+    }
+
+    private int dispatchBatch() {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (recipientRepository.claimBatch(token, now.plus(claimTtl), now, batchSize) == 0) {
+            return 0;
+        }
+        List<CommunicationRecipient> claimed = recipientRepository.findByClaimTokenOrderByMessageIdAscIdAsc(token);
+
+        Map<Long, List<CommunicationRecipient>> byMessage = new LinkedHashMap<>();
+        for (CommunicationRecipient recipient : claimed) {
+            byMessage.computeIfAbsent(recipient.getMessageId(), k -> new ArrayList<>()).add(recipient);
+        }
+        Map<Long, CommunicationMessage> messages = new HashMap<>();
+        for (CommunicationMessage message : messageRepository.findAllById(byMessage.keySet())) {
+            messages.put(message.getId(), message);
+        }
+
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (Map.Entry<Long, List<CommunicationRecipient>> entry : byMessage.entrySet()) {
+            CommunicationMessage message = messages.get(entry.getKey());
+            List<CommunicationRecipient> recipients = entry.getValue();
+            if (message == null) {
+                recipientRepository.markFailed(ids(recipients), "Message no longer exists");
+                continue;
+            }
+            for (int from = 0; from < recipients.size(); from += chunkSize) {
+                List<CommunicationRecipient> chunk = recipients.subList(from, Math.min(from + chunkSize, recipients.size()));
+                sends.add(CompletableFuture.runAsync(() -> sendChunk(message, chunk), loop.workers()));
+            }
+        }
+        loop.await(sends, claimTtl);
+
+        finishCompleted(byMessage.keySet());
+        return claimed.size();
+    }
+
+    /** Send one chunk and record the outcome for each of its recipients. */
+    private void sendChunk(CommunicationMessage message, List<CommunicationRecipient> chunk) {
+        List<String> emails = chunk.stream().map(CommunicationRecipient::getEmail).toList();
+        try {
+            rateLimiter.acquire(emails.size());
+            emailService.sendBulkChunk(emails, message.getSubject(), message.getBodyHtml());
+            recipientRepository.markSent(ids(chunk), LocalDateTime.now());
+        } catch (MailDeliveryException e) {
+            log.debug("Bulk email chunk of message {} failed: {}", message.getId(), e.getMessage());
+            recordFailure(chunk, truncate(e.getMessage()), e.isRetryable());
+        } catch (InterruptedException e) {
+            // Shutting down: the chunk stays claimed and is sent after the claim expires
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Could not record bulk email chunk of message {}: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * A transient failure reschedules each recipient after a backoff that
+     * doubles with its attempt count; recipients out of attempts and
+     * permanent failures are marked FAILED.
+     */
+    private void recordFailure(List<CommunicationRecipient> chunk, String error, boolean retryable) {
+        if (!retryable) {
+            recipientRepository.markFailed(ids(chunk), error);
+            return;
+        }
+        Map<Integer, List<Long>> byAttempt = new HashMap<>();
+        for (CommunicationRecipient recipient : chunk) {
+            byAttempt.computeIfAbsent(recipient.getAttempts() + 1, k -> new ArrayList<>()).add(recipient.getId());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        byAttempt.forEach((attempt, ids) -> {
+            if (attempt >= maxAttempts) {
+                recipientRepository.markFailed(ids, error);
+            } else {
+                recipientRepository.scheduleRetry(ids, error, now.plus(backoffAfter(attempt)));
+            }
+        });
+    }
+
+    /** Delay before the next try after {@code attempt} failed attempts: base, 2 x base, 4 x base, ... up to the maximum. */
+    Duration backoffAfter(int attempt) {
+        int doublings = Math.min(Math.max(attempt - 1, 0), 30);
+        Duration delay = backoffBase.multipliedBy(1L << doublings);
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    /** Settle the status of messages whose recipients have all been handled. */
+    private void finishCompleted(Collection<Long> messageIds) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long messageId : messageIds) {
+            Map<EmailDeliveryStatus, Long> counts = new HashMap<>();
+            for (Object[] row : recipientRepository.countByStatus(messageId)) {
+                counts.put((EmailDeliveryStatus) row[0], ((Number) row[1]).longValue());
+            }
+            if (counts.getOrDefault(EmailDeliveryStatus.PENDING, 0L) > 0) {
+                continue;
+            }
+            long sent = counts.getOrDefault(EmailDeliveryStatus.SENT, 0L);
+            long failed = counts.getOrDefault(EmailDeliveryStatus.FAILED, 0L);
+            String status = sent == 0 ? "FAILED" : failed == 0 ? "SENT" : "PARTIALLY_SENT";
+            if (messageRepository.finishQueued(messageId, status, now) > 0) {
+                log.info("Bulk email {} finished: {} sent, {} failed", messageId, sent, failed);
+            }
+        }
+    }
+
+    private static List<Long> ids(List<CommunicationRecipient> recipients) {
+        return recipients.stream().map(CommunicationRecipient::getId).toList();
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return "unknown error";
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,9 @@
+package com.mosque.crm.service;
+
+/**
+ * Published when a bulk communication was queued for its recipients. Once the
+ * queuing transaction commits, {@link BulkEmailDispatcher} starts sending
+ * instead of waiting for its next poll.
+ */
+public record BulkEmailQueuedEvent(Long messageId, int recipients) {
+}
@@ -46,11 +46,11 @@ import com.mosque.crm.repository.OrganizationRepository;
 import com.mosque.crm.repository.OrganizationShareSettingRepository;
 import com.mosque.crm.repository.PersonRepository;
 import com.mosque.crm.repository.UserMemberLinkRepository;
+import com.mosque.crm.service.ImageVariantService.StoredImage;
+import com.mosque.crm.service.ImageVariantService.Variant;
 import com.mosque.crm.subscription.FeatureKeys;
 import com.mosque.crm.subscription.PlanLimitExceededException;
 
-import software.amazon.awssdk.core.ResponseInputStream;
-import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
 @Service
 @Transactional
@@ -70,7 +70,7 @@ public class BusinessDirectoryService {
     private final TenantSettingService tenantSettingService;
     private final BusinessCategoryService businessCategoryService;
     private final OrganizationSubscriptionService organizationSubscriptionService;
-    private final StorageService storageService;
+    private final ImageVariantService imageVariantService;
     private final StorageProperties storageProperties;
 
     public BusinessDirectoryService(
@@ -86,7 +86,7 @@ public class BusinessDirectoryService {
             TenantSettingService tenantSettingService,
             BusinessCategoryService businessCategoryService,
             OrganizationSubscriptionService organizationSubscriptionService,
-            StorageService storageService,
+            ImageVariantService imageVariantService,
             StorageProperties storageProperties) {
         this.businessRepository = businessRepository;
         this.businessListingRepository = businessListingRepository;
@@ -100,7 +100,7 @@ public class BusinessDirectoryService {
         this.tenantSettingService = tenantSettingService;
         this.businessCategoryService = businessCategoryService;
         this.organizationSubscriptionService = organizationSubscriptionService;
-        this.storageService = storageService;
+        this.imageVariantService = imageVariantService;
         this.storageProperties = storageProperties;
     }
 
@@ -657,18 +657,18 @@ public class BusinessDirectoryService {
         deleteLogoForBusiness(business);
     }
 
-    public StoredImage getLogo(Long businessId) {
+    public StoredImage getLogo(Long businessId, Variant variant) {
         requireViewPermission();
         Long orgId = requireOrganizationId();
         return authorizationService.withoutOrganizationFilter(() -> {
             Business business = businessRepository.findById(businessId)
                     .orElseThrow(() -> new IllegalArgumentException("Business not found: " + businessId));
             assertCanViewLogo(business, orgId);
-            return loadStoredImage(business);
+            return loadStoredImage(business, variant);
         });
     }
 
-    public StoredImage getPublicLogo(String orgHandle, Long businessId) {
+    public StoredImage getPublicLogo(String orgHandle, Long businessId, Variant variant) {
         Organization organization = organizationRepository.findByHandle(orgHandle.trim())
                 .orElseThrow(() -> new IllegalArgumentException("Organization not found: " + orgHandle));
         if (!isPublicDirectoryAvailable(organization.getId())) {
@@ -685,13 +685,10 @@ public class BusinessDirectoryService {
             if (!BusinessListing.Status.PUBLISHED.name().equals(listing.getStatus())) {
                 throw new AccessDeniedException("Business is not publicly visible.");
             }
-            return loadStoredImage(business);
+            return loadStoredImage(business, variant);
         });
     }
 
-    public record StoredImage(byte[] bytes, String contentType) {
-    }
-
     private String uploadLogoForBusiness(Business business, MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
@@ -710,7 +707,7 @@ public class BusinessDirectoryService {
         try {
             if (business.getLogoImageKey() != null) {
                 try {
-                    storageService.delete(business.getLogoImageKey());
+                    imageVariantService.delete(business.getLogoImageKey());
                 } catch (Exception e) {
                     log.warn("Failed to delete old logo for business {}: {}", business.getId(), e.getMessage());
                 }
@@ -718,7 +715,7 @@ public class BusinessDirectoryService {
             String extension = logoExtension(file.getOriginalFilename(), contentType);
             String key = "business-logos/" + business.getOrganizationId() + "/" + business.getId()
                     + "/" + UUID.randomUUID() + extension;
-            storageService.upload(key, file.getInputStream(), contentType, file.getSize());
+            imageVariantService.store(key, file.getBytes(), contentType);
             business.setLogoImageKey(key);
             businessRepository.save(business);
             return "/api/business-directory/" + business.getId() + "/logo";
@@ -734,7 +731,7 @@ public class BusinessDirectoryService {
             return;
         }
         try {
-            storageService.delete(business.getLogoImageKey());
+            imageVariantService.delete(business.getLogoImageKey());
         } catch (Exception e) {
             log.warn("Failed to delete logo object for business {}: {}", business.getId(), e.getMessage());
         }
@@ -742,14 +739,12 @@ public class BusinessDirectoryService {
         businessRepository.save(business);
     }
 
-    private StoredImage loadStoredImage(Business business) {
+    private StoredImage loadStoredImage(Business business, Variant variant) {
         if (business.getLogoImageKey() == null || business.getLogoImageKey().isBlank()) {
             return null;
         }
         try {
-            ResponseInputStream<GetObjectResponse> response = storageService.download(business.getLogoImageKey());
-            GetObjectResponse metadata = response.response();
-            return new StoredImage(response.readAllBytes(), metadata.contentType());
+            return imageVariantService.load(business.getLogoImageKey(), variant);
         } catch (Exception e) {
             log.error("Failed to serve logo for business {}: {}", business.getId(), e.getMessage());
             return null;
@@ -867,7 +862,7 @@ public class BusinessDirectoryService {
     private void deleteBusinessInternal(Business business) {
         if (business.getLogoImageKey() != null) {
             try {
-                storageService.delete(business.getLogoImageKey());
+                imageVariantService.delete(business.getLogoImageKey());
             } catch (Exception e) {
                 log.warn("Failed to delete logo for business {}: {}", business.getId(), e.getMessage());
             }
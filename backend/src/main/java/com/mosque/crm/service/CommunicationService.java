@@ -1,25 +1,34 @@
 package com.mosque.crm.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.mosque.crm.dto.CommunicationMessageDTO;
+import com.mosque.crm.dto.CommunicationProgressDTO;
 import com.mosque.crm.dto.CommunicationTemplateDTO;
 import com.mosque.crm.dto.SendMessageRequest;
 import com.mosque.crm.entity.CommunicationMessage;
+import com.mosque.crm.entity.CommunicationRecipient;
 import com.mosque.crm.entity.CommunicationTemplate;
 import com.mosque.crm.entity.Person;
+import com.mosque.crm.enums.EmailDeliveryStatus;
 import com.mosque.crm.enums.PersonStatus;
 import com.mosque.crm.repository.CommunicationMessageRepository;
+import com.mosque.crm.repository.CommunicationRecipientRepository;
 import com.mosque.crm.repository.CommunicationTemplateRepository;
 import com.mosque.crm.repository.PersonRepository;
 
@@ -31,56 +40,91 @@ public class CommunicationService {
     private final CommunicationMessageRepository messageRepository;
     private final CommunicationTemplateRepository templateRepository;
     private final PersonRepository personRepository;
-    private final EmailService emailService;
+    private final CommunicationRecipientRepository recipientRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CommunicationService(CommunicationMessageRepository messageRepository,
                                  CommunicationTemplateRepository templateRepository,
                                  PersonRepository personRepository,
-                                 EmailService emailService) {
+                                 CommunicationRecipientRepository recipientRepository,
+                                 ApplicationEventPublisher eventPublisher) {
         this.messageRepository = messageRepository;
         this.templateRepository = templateRepository;
         this.personRepository = personRepository;
-        this.emailService = emailService;
+        this.recipientRepository = recipientRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // ==================== Messages ====================
 
+    /**
+     * Queue a bulk communication: the message and one PENDING row per distinct address are
+     * stored, and {@link BulkEmailDispatcher} sends them after commit. The returned message id
+     * is the job id for {@link #getProgress(Long)}.
+     */
     @Transactional
     public CommunicationMessageDTO sendMessage(SendMessageRequest request, Long createdByUserId) {
         List<Person> recipients = resolveRecipients(request.getRecipientType());
-        List<String> emailAddresses = recipients.stream()
-            .map(Person::getEmail)
-            .filter(email -> email != null && !email.isBlank())
-            .distinct()
-            .collect(Collectors.toList());
+        Map<String, Person> byAddress = new LinkedHashMap<>();
+        for (Person person : recipients) {
+            String email = person.getEmail();
+            if (email != null && !email.isBlank()) {
+                byAddress.putIfAbsent(email.trim().toLowerCase(Locale.ROOT), person);
+            }
+        }
 
         CommunicationMessage message = new CommunicationMessage();
         message.setSubject(request.getSubject());
         message.setBodyHtml(request.getBodyHtml());
         message.setRecipientType(request.getRecipientType());
-        message.setTotalRecipients(emailAddresses.size());
+        message.setTotalRecipients(byAddress.size());
         message.setTemplateId(request.getTemplateId());
         message.setCreatedBy(createdByUserId);
 
-        if (emailAddresses.isEmpty()) {
+        if (byAddress.isEmpty()) {
             log.warn("No email addresses found for recipient type: {}", request.getRecipientType());
             message.setStatus("FAILED");
-        } else {
-            int sent = emailService.sendBulkEmail(emailAddresses, request.getSubject(), request.getBodyHtml());
-            if (sent > 0) {
-                message.setStatus("SENT");
-                message.setSentAt(LocalDateTime.now());
-                log.info("Bulk email sent to {} recipients. Subject: {}", sent, request.getSubject());
-            } else {
-                message.setStatus("FAILED");
-                log.error("Bulk email failed for subject: {}", request.getSubject());
-            }
+            return toMessageDTO(messageRepository.save(message));
         }
 
+        message.setStatus("QUEUED");
         CommunicationMessage saved = messageRepository.save(message);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CommunicationRecipient> rows = new ArrayList<>(byAddress.size());
+        for (Person person : byAddress.values()) {
+            CommunicationRecipient row = new CommunicationRecipient();
+            row.setMessageId(saved.getId());
+            row.setPersonId(person.getId());
+            row.setEmail(person.getEmail().trim());
+            row.setNextAttemptAt(now);
+            row.setOrganizationId(saved.getOrganizationId());
+            rows.add(row);
+        }
+        recipientRepository.saveAll(rows);
+        eventPublisher.publishEvent(new BulkEmailQueuedEvent(saved.getId(), rows.size()));
+        log.info("Bulk email queued for {} recipients. Subject: {}", rows.size(), request.getSubject());
         return toMessageDTO(saved);
     }
 
+    public Optional<CommunicationProgressDTO> getProgress(Long messageId) {
+        return messageRepository.findById(messageId).map(message -> {
+            CommunicationProgressDTO progress = new CommunicationProgressDTO();
+            progress.setMessageId(message.getId());
+            progress.setStatus(message.getStatus());
+            for (Object[] row : recipientRepository.countByStatus(messageId)) {
+                long count = ((Number) row[1]).longValue();
+                switch ((EmailDeliveryStatus) row[0]) {
+                    case SENT -> progress.setSent(count);
+                    case FAILED -> progress.setFailed(count);
+                    case PENDING -> progress.setPending(count);
+                }
+                progress.setTotal(progress.getTotal() + count);
+            }
+            return progress;
+        });
+    }
+
     public Page<CommunicationMessageDTO> listMessages(Pageable pageable) {
         return messageRepository.findAllByOrderByCreatedAtDesc(pageable).map(this::toMessageDTO);
     }
@@ -0,0 +1,215 @@
+package com.mosque.crm.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mosque.crm.repository.ConfigurationRepository;
+
+/**
+ * In-memory snapshot of the configurations table for {@link ConfigurationService}:
+ * the global values and each organization's overrides, so reads are map lookups
+ * instead of a query per value.
+ * <p>
+ * The snapshot is replaced, never modified. It is reloaded
+ * <ul>
+ *   <li>on the first read after a transaction that wrote configuration through
+ *       {@link ConfigurationService} completes; until then that transaction
+ *       reads from the database, so it sees its own writes;</li>
+ *   <li>when the poll sees that the configuration version in
+ *       {@code cache_versions} changed, i.e. another node wrote configuration;</li>
+ *   <li>when it is older than {@code configuration.cache.max-age-ms}, for rows
+ *       changed outside the application.</li>
+ * </ul>
+ */
+@Component
+public class ConfigurationCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigurationCache.class);
+
+    private final ConfigurationRepository configurationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long maxAgeMs;
+
+    private volatile Snapshot snapshot;
+
+    /** Incremented whenever the snapshot is dropped; a load that raced with a drop is not kept. */
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+
+    public ConfigurationCache(ConfigurationRepository configurationRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${configuration.cache.max-age-ms:600000}") long maxAgeMs) {
+        this.configurationRepository = configurationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    // ─── lookups ─────────────────────────────────────────────────────────
+
+    /**
+     * False inside a transaction that wrote configuration: the snapshot does
+     * not hold its writes yet, so the caller must read from the database.
+     */
+    public boolean isUsable() {
+        return !TransactionSynchronizationManager.hasResource(this);
+    }
+
+    /** The global value, or null. */
+    public String getGlobal(String name) {
+        return current().global.get(name);
+    }
+
+    /** The organization's override, otherwise the global value; null if neither is set. */
+    public String getEffective(String name, Long organizationId) {
+        Snapshot current = current();
+        if (organizationId != null) {
+            Map<String, String> overrides = current.tenants.get(organizationId);
+            if (overrides != null) {
+                String value = overrides.get(name);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return current.global.get(name);
+    }
+
+    /**
+     * Number of the loaded snapshot, incremented on every reload. Lets callers
+     * that derive state from configuration (e.g. a storage client) rebuild it
+     * only when configuration may have changed.
+     */
+    public long getGeneration() {
+        return current().generation;
+    }
+
+    // ─── invalidation ────────────────────────────────────────────────────
+
+    /**
+     * Record a configuration write. The shared version is bumped in the writing
+     * transaction, so other nodes reload after it commits; this node drops its
+     * snapshot once the transaction completes.
+     */
+    public void onWrite() {
+        configurationRepository.incrementCacheVersion();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ConfigurationCache.this);
+                    // Committed (or rolled back): the next read loads the current rows
+                    invalidate();
+                }
+            });
+        }
+    }
+
+    /** Reload when another node changed configuration, or the snapshot is too old. */
+    @Scheduled(fixedDelayString = "${configuration.cache.poll-interval-ms:5000}")
+    public void poll() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        try {
+            Long version = configurationRepository.findCacheVersion();
+            if ((version != null && version != current.version)
+                    || System.currentTimeMillis() - current.loadedAt > maxAgeMs) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("Could not check configuration version: {}", e.getMessage());
+        }
+    }
+
+    /** Sizes and reload counter. */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("globalValues", current != null ? current.global.size() : 0);
+        stats.put("organizations", current != null ? current.tenants.size() : 0);
+        stats.put("version", current != null ? current.version : null);
+        stats.put("reloads", reloads.get());
+        return stats;
+    }
+
+    // ─── internal ────────────────────────────────────────────────────────
+
+    private void invalidate() {
+        invalidations.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    private synchronized Snapshot reload() {
+        long invalidation = invalidations.get();
+        // Version first: a write committing while the rows are read makes the next poll reload again
+        Snapshot loaded = readOnlyTransaction.execute(status -> {
+            Long version = configurationRepository.findCacheVersion();
+            Map<String, String> global = new HashMap<>();
+            Map<Long, Map<String, String>> tenants = new HashMap<>();
+            for (Object[] row : configurationRepository.findAllNameValueRows()) {
+                String name = (String) row[0];
+                String value = (String) row[1];
+                if (value == null) {
+                    continue;
+                }
+                Long organizationId = row[2] != null ? ((Number) row[2]).longValue() : null;
+                if (organizationId == null) {
+                    global.put(name, value);
+                } else {
+                    tenants.computeIfAbsent(organizationId, k -> new HashMap<>()).put(name, value);
+                }
+            }
+            return new Snapshot(version != null ? version : 0L, generations.incrementAndGet(),
+                    System.currentTimeMillis(), global, tenants);
+        });
+        if (invalidations.get() == invalidation) {
+            snapshot = loaded;
+        }
+        reloads.incrementAndGet();
+        log.debug("Loaded configuration snapshot v{}: {} global values, {} organizations with overrides",
+                loaded.version, loaded.global.size(), loaded.tenants.size());
+        return loaded;
+    }
+
+    private static final class Snapshot {
+        final long version;
+        final long generation;
+        final long loadedAt;
+        final Map<String, String> global;
+        final Map<Long, Map<String, String>> tenants;
+
+        Snapshot(long version, long generation, long loadedAt, Map<String, String> global,
+                 Map<Long, Map<String, String>> tenants) {
+            this.version = version;
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+            this.global = global;
+            this.tenants = tenants;
+        }
+    }
+}
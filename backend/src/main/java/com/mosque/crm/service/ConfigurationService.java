@@ -12,24 +12,41 @@ import com.mosque.crm.entity.Configuration;
 import com.mosque.crm.multitenancy.TenantContext;
 import com.mosque.crm.repository.ConfigurationRepository;
 
+/**
+ * Configuration values, global and per organization. Reads are served from the
+ * {@link ConfigurationCache} snapshot; writes go to the database and refresh it.
+ */
 @Service
 public class ConfigurationService {
 
     private static final Logger log = LoggerFactory.getLogger(ConfigurationService.class);
 
     private final ConfigurationRepository configurationRepository;
+    private final ConfigurationCache configurationCache;
 
-    public ConfigurationService(ConfigurationRepository configurationRepository) {
+    public ConfigurationService(ConfigurationRepository configurationRepository,
+                                ConfigurationCache configurationCache) {
         this.configurationRepository = configurationRepository;
+        this.configurationCache = configurationCache;
     }
 
     /**
      * Get the system-wide (global) configuration value.
-     * Uses a native query that bypasses the Hibernate org filter.
      */
     public Optional<String> getValue(String name) {
-        return configurationRepository.findGlobalByName(name)
-                .map(Configuration::getValue);
+        return Optional.ofNullable(getValue(name, null));
+    }
+
+    /**
+     * Get the system-wide (global) configuration value, or {@code defaultValue}
+     * when it is not set. A map lookup in the snapshot; inside a transaction that
+     * wrote configuration, a native query that bypasses the Hibernate org filter.
+     */
+    public String getValue(String name, String defaultValue) {
+        String value = configurationCache.isUsable()
+                ? configurationCache.getGlobal(name)
+                : configurationRepository.findGlobalByName(name).map(Configuration::getValue).orElse(null);
+        return value != null ? value : defaultValue;
     }
 
     /**
@@ -52,6 +69,9 @@ public class ConfigurationService {
      * Returns the org-specific override if present, otherwise the global default.
      */
     public Optional<String> getValueTenantAware(String name, Long organizationId) {
+        if (configurationCache.isUsable()) {
+            return Optional.ofNullable(configurationCache.getEffective(name, organizationId));
+        }
         if (organizationId != null) {
             Optional<String> tenantValue = configurationRepository
                     .findTenantByName(name, organizationId)
@@ -75,12 +95,14 @@ public class ConfigurationService {
             Configuration config = existing.get();
             config.setValue(value);
             log.info("Updated global configuration: {}", name);
+            configurationCache.onWrite();
             return configurationRepository.save(config);
         } else {
             Configuration config = new Configuration(name, value);
             // Explicitly null out org_id so OrganizationEntityListener does not assign one
             config.setOrganizationId(null);
             log.info("Created global configuration: {}", name);
+            configurationCache.onWrite();
             return configurationRepository.save(config);
         }
     }
@@ -97,11 +119,13 @@ public class ConfigurationService {
             Configuration config = existing.get();
             config.setValue(value);
             log.info("Updated tenant configuration: {} for organization_id={}", name, organizationId);
+            configurationCache.onWrite();
             return configurationRepository.save(config);
         } else {
             Configuration config = new Configuration(name, value);
             config.setOrganizationId(organizationId);
             log.info("Created tenant configuration: {} for organization_id={}", name, organizationId);
+            configurationCache.onWrite();
             return configurationRepository.save(config);
         }
     }
@@ -113,25 +137,26 @@ public class ConfigurationService {
     public void deleteConfiguration(String name) {
         configurationRepository.findGlobalByName(name).ifPresent(config -> {
             configurationRepository.delete(config);
+            configurationCache.onWrite();
             log.info("Deleted global configuration: {}", name);
         });
     }
 
     // Mail server configuration helpers (system-wide)
     public String getMailServerHost() {
-        return getValue("MAIL_SERVER_HOST").orElse("");
+        return getValue("MAIL_SERVER_HOST", "");
     }
 
     public String getMailServerUsername() {
-        return getValue("MAIL_SERVER_USERNAME").orElse("");
+        return getValue("MAIL_SERVER_USERNAME", "");
     }
 
     public String getMailServerPassword() {
-        return getValue("MAIL_SERVER_PASSWORD").orElse("");
+        return getValue("MAIL_SERVER_PASSWORD", "");
     }
 
     public String getMailServerProjectUuid() {
-        return getValue("MAIL_SERVER_PROJECT_UUID").orElse("");
+        return getValue("MAIL_SERVER_PROJECT_UUID", "");
     }
 
     // Application settings helpers
@@ -141,14 +166,22 @@ public class ConfigurationService {
     }
 
     public String getAppBaseUrl() {
-        return getValue("APP_BASE_URL").orElse("http://localhost:3000");
+        return getValue("APP_BASE_URL", "http://localhost:3000");
     }
 
     public String getFrontendBaseDomain() {
-        return getValue("APP_FRONTEND_BASE_DOMAIN").orElse("lvh.me:3002");
+        return getValue("APP_FRONTEND_BASE_DOMAIN", "lvh.me:3002");
     }
 
     public String getFrontendProtocol() {
-        return getValue("APP_FRONTEND_PROTOCOL").orElse("http");
+        return getValue("APP_FRONTEND_PROTOCOL", "http");
+    }
+
+    /**
+     * Number of the configuration snapshot in use; changes whenever configuration
+     * may have changed. See {@link ConfigurationCache#getGeneration()}.
+     */
+    public long getConfigurationGeneration() {
+        return configurationCache.getGeneration();
     }
 }
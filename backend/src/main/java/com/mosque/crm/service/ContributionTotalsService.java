@@ -0,0 +1,200 @@
+package com.mosque.crm.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mosque.crm.entity.MemberPayment;
+
+/**
+ * Maintains the {@code contribution_totals} table: member payment sums per
+ * organization, year, contribution type and currency.
+ *
+ * <ul>
+ *   <li>{@link #recordPayment} / {@link #removePayment} apply a payment's
+ *       amount as an atomic upsert in the caller's transaction, so the totals
+ *       commit or roll back together with the payment.</li>
+ *   <li>{@link #rebuild} recomputes one organization from member_payments;
+ *       used after bulk SQL inserts (demo data) and by the nightly
+ *       {@link #reconcileAll} job when {@link #verify} finds drift.</li>
+ * </ul>
+ * Payments without an organization are not aggregated.
+ */
+@Service
+public class ContributionTotalsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContributionTotalsService.class);
+
+    /** Same year rule as the reports: the period start, falling back to the payment date (effective_date). */
+    private static final String PERIOD_YEAR_SQL = "YEAR(mp.effective_date)";
+
+    private static final String AGGREGATE_SQL =
+            "SELECT mp.organization_id, " + PERIOD_YEAR_SQL + " AS period_year, mp.contribution_type_id, "
+                    + "COALESCE(c.code, '') AS currency_code, "
+                    + "SUM(CASE WHEN mp.is_reversal = 0 THEN mp.amount ELSE 0 END) AS total_amount, "
+                    + "SUM(CASE WHEN mp.is_reversal = 1 THEN mp.amount ELSE 0 END) AS reversal_amount, "
+                    + "SUM(CASE WHEN mp.is_reversal = 0 THEN 1 ELSE 0 END) AS payment_count "
+                    + "FROM member_payments mp "
+                    + "LEFT JOIN currencies c ON c.id = mp.currency_id "
+                    + "WHERE mp.organization_id = ? "
+                    + "GROUP BY mp.organization_id, " + PERIOD_YEAR_SQL + ", mp.contribution_type_id, COALESCE(c.code, '')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ContributionTotalsService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ─── incremental maintenance ─────────────────────────────────────────
+
+    /** Add a saved payment to the totals. */
+    public void recordPayment(MemberPayment payment) {
+        apply(payment, 1);
+    }
+
+    /**
+     * Subtract a payment from the totals. Call before deleting it, and before
+     * changing any of its amount, type, currency, dates or reversal flag.
+     */
+    public void removePayment(MemberPayment payment) {
+        apply(payment, -1);
+    }
+
+    private void apply(MemberPayment payment, int sign) {
+        if (payment.getOrganizationId() == null || payment.getContributionType() == null
+                || payment.getAmount() == null) {
+            return;
+        }
+        LocalDate periodDate = payment.getPeriodFrom() != null ? payment.getPeriodFrom() : payment.getPaymentDate();
+        if (periodDate == null) {
+            return;
+        }
+        boolean reversal = Boolean.TRUE.equals(payment.getIsReversal());
+        BigDecimal amount = sign < 0 ? payment.getAmount().negate() : payment.getAmount();
+
+        jdbcTemplate.update(
+                "INSERT INTO contribution_totals (organization_id, period_year, contribution_type_id, currency_code, "
+                        + "total_amount, reversal_amount, payment_count) VALUES (?, ?, ?, ?, ?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), "
+                        + "reversal_amount = reversal_amount + VALUES(reversal_amount), "
+                        + "payment_count = payment_count + VALUES(payment_count)",
+                payment.getOrganizationId(),
+                periodDate.getYear(),
+                payment.getContributionType().getId(),
+                payment.getCurrency() != null ? payment.getCurrency().getCode() : "",
+                reversal ? BigDecimal.ZERO : amount,
+                reversal ? amount : BigDecimal.ZERO,
+                reversal ? 0 : sign);
+    }
+
+    // ─── rebuild / verify ────────────────────────────────────────────────
+
+    /**
+     * Recompute every total of one organization from member_payments. Joins the
+     * caller's transaction, or runs in its own so readers never see the table empty.
+     */
+    public void rebuild(Long organizationId) {
+        Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM contribution_totals WHERE organization_id = ?", organizationId);
+            return jdbcTemplate.update(
+                    "INSERT INTO contribution_totals (organization_id, period_year, contribution_type_id, currency_code, "
+                            + "total_amount, reversal_amount, payment_count) " + AGGREGATE_SQL,
+                    organizationId);
+        });
+        log.info("Rebuilt contribution totals for organization {}: {} row(s)", organizationId, rows);
+    }
+
+    /**
+     * Compare the stored totals of one organization with a fresh aggregate.
+     *
+     * @return the number of keys whose stored amounts or count differ
+     */
+    public int verify(Long organizationId) {
+        Map<String, String> expected = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(AGGREGATE_SQL, organizationId)) {
+            expected.put(key(row), amounts(row));
+        }
+        Map<String, String> actual = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT period_year, contribution_type_id, currency_code, total_amount, reversal_amount, payment_count "
+                        + "FROM contribution_totals WHERE organization_id = ?", organizationId)) {
+            String amounts = amounts(row);
+            // Keys whose payments were all deleted keep a zero row; equivalent to no row
+            if (!amounts.equals(amounts(BigDecimal.ZERO, BigDecimal.ZERO, 0))) {
+                actual.put(key(row), amounts);
+            }
+        }
+
+        int mismatches = 0;
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            if (!Objects.equals(entry.getValue(), actual.remove(entry.getKey()))) {
+                mismatches++;
+            }
+        }
+        return mismatches + actual.size();
+    }
+
+    /**
+     * Nightly reconciliation: verify every organization that has payments or
+     * totals and rebuild those that drifted (e.g. rows written by SQL scripts).
+     */
+    @Scheduled(cron = "${contribution-totals.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        List<Long> organizationIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT organization_id FROM member_payments WHERE organization_id IS NOT NULL "
+                        + "UNION SELECT DISTINCT organization_id FROM contribution_totals",
+                Long.class);
+        int rebuilt = 0;
+        for (Long organizationId : organizationIds) {
+            try {
+                int mismatches = verify(organizationId);
+                if (mismatches > 0) {
+                    log.warn("Contribution totals of organization {} drifted ({} key(s)); rebuilding",
+                            organizationId, mismatches);
+                    rebuild(organizationId);
+                    rebuilt++;
+                }
+            } catch (Exception e) {
+                log.error("Failed to reconcile contribution totals for organization {}: {}",
+                        organizationId, e.getMessage());
+            }
+        }
+        log.info("Contribution totals reconciled for {} organization(s), {} rebuilt", organizationIds.size(), rebuilt);
+    }
+
+    private static String key(Map<String, Object> row) {
+        return ((Number) row.get("period_year")).intValue() + "|"
+                + ((Number) row.get("contribution_type_id")).longValue() + "|"
+                + row.get("currency_code");
+    }
+
+    private static String amounts(Map<String, Object> row) {
+        return amounts(toBigDecimal(row.get("total_amount")), toBigDecimal(row.get("reversal_amount")),
+                ((Number) row.get("payment_count")).longValue());
+    }
+
+    private static String amounts(BigDecimal total, BigDecimal reversal, long count) {
+        return total.stripTrailingZeros().toPlainString() + "|" + reversal.stripTrailingZeros().toPlainString()
+                + "|" + count;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal bd ? bd : new BigDecimal(value.toString());
+    }
+}
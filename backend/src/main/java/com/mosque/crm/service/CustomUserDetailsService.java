@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 
 import com.mosque.crm.entity.User;
 import com.mosque.crm.repository.UserRepository;
+import com.mosque.crm.security.AuthenticatedUser;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
@@ -23,16 +24,16 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getOrganizationId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.isAccountEnabled(),
+                !user.isAccountLocked(),
+                !user.isCredentialsExpired(),
+                user.getRoles().stream()
                         .map(role -> new SimpleGrantedAuthority(role.getName()))
-                        .collect(Collectors.toList()))
-                .accountExpired(false)
-                .accountLocked(user.isAccountLocked())
-                .credentialsExpired(user.isCredentialsExpired())
-                .disabled(!user.isAccountEnabled())
-                .build();
+                        .collect(Collectors.toList()));
     }
 }
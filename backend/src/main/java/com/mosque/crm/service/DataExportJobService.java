@@ -0,0 +1,257 @@
+package com.mosque.crm.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mosque.crm.dto.DataExportJobDTO;
+import com.mosque.crm.entity.DataExportJob;
+import com.mosque.crm.enums.ExportFormat;
+import com.mosque.crm.enums.ExportJobStatus;
+import com.mosque.crm.enums.ExportScope;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.repository.DataExportJobRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Background data exports for organizations too large to export within one
+ * request.
+ * <p>
+ * A requested job is queued and started on a small worker pool once the
+ * request commits; the poll picks up jobs queued while no node was running.
+ * The worker writes the export straight into object storage as a multipart
+ * upload, recording rows written against the row count so clients can poll
+ * progress. Files and job rows are removed after {@code retention-hours}; a
+ * running job that stops reporting progress (its node went down) is failed.
+ */
+@Service
+public class DataExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataExportJobService.class);
+
+    private static final Duration PROGRESS_WRITE_INTERVAL = Duration.ofSeconds(1);
+
+    private final DataExportJobRepository jobRepository;
+    private final DataExportService dataExportService;
+    private final StorageService storageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate progressTransaction;
+    private final int partSize;
+    private final Duration retention;
+    private final Duration staleAfter;
+
+    private final BackgroundJobRunner runner;
+
+    public DataExportJobService(DataExportJobRepository jobRepository,
+                                DataExportService dataExportService,
+                                StorageService storageService,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${data-export.jobs.workers:2}") int workerCount,
+                                @Value("${data-export.jobs.part-size-bytes:8388608}") int partSize,
+                                @Value("${data-export.jobs.retention-hours:24}") long retentionHours,
+                                @Value("${data-export.jobs.stale-after-ms:600000}") long staleAfterMs) {
+        this.jobRepository = jobRepository;
+        this.dataExportService = dataExportService;
+        this.storageService = storageService;
+        this.eventPublisher = eventPublisher;
+        // Progress is written beside the export's read-only transaction, whose connection holds the open cursor
+        this.progressTransaction = new TransactionTemplate(transactionManager);
+        this.progressTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.partSize = partSize;
+        this.retention = Duration.ofHours(retentionHours);
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+
+        this.runner = new BackgroundJobRunner("data-export", "export job", workerCount, this::run);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
+    }
+
+    // ─── requests ────────────────────────────────────────────────────────
+
+    @Transactional
+    public DataExportJobDTO requestJob(ExportScope scope, ExportFormat format, Long userId) {
+        DataExportJob job = new DataExportJob();
+        job.setScope(scope);
+        job.setFormat(format);
+        job.setFileName(scope.fileName(format));
+        job.setRequestedByUserId(userId);
+        job = jobRepository.save(job);
+        eventPublisher.publishEvent(new DataExportRequestedEvent(job.getId()));
+        log.info("Queued {} export job {} ({})", scope, job.getId(), format);
+        return toDTO(job);
+    }
+
+    public DataExportJobDTO getJob(Long id) {
+        return toDTO(findJob(id));
+    }
+
+    public List<DataExportJobDTO> listJobs() {
+        return jobRepository.findTop20ByOrganizationIdOrderByCreatedAtDesc(TenantContext.getCurrentOrganizationId())
+                .stream().map(this::toDTO).toList();
+    }
+
+    /**
+     * Stream the file of a completed job to the response.
+     */
+    public void download(Long id, HttpServletResponse response) throws IOException {
+        DataExportJob job = findJob(id);
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            throw new RuntimeException("Export job is not completed: " + id);
+        }
+        response.setContentType(job.getFormat().getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getFileName() + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
+        if (job.getFileSize() != null) {
+            response.setContentLengthLong(job.getFileSize());
+        }
+        try (InputStream in = storageService.download(job.getStorageKey())) {
+            OutputStream out = response.getOutputStream();
+            in.transferTo(out);
+            out.flush();
+        }
+    }
+
+    private DataExportJob findJob(Long id) {
+        return jobRepository.findByIdAndOrganizationId(id, TenantContext.getCurrentOrganizationId())
+                .orElseThrow(() -> new RuntimeException("Export job not found: " + id));
+    }
+
+    // ─── execution ───────────────────────────────────────────────────────
+
+    /** Start the job once the request that queued it has committed. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExportRequested(DataExportRequestedEvent event) {
+        runner.submit(event.jobId());
+    }
+
+    /**
+     * Fail jobs whose node stopped reporting, and start jobs no node has picked up.
+     * A stale export is failed rather than queued again: its half-written
+     * multipart upload belonged to the node that stopped and cannot be resumed,
+     * so the client requests a new export.
+     */
+    @Scheduled(fixedDelayString = "${data-export.jobs.poll-interval-ms:30000}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        runner.poll(jobRepository.findStaleRunningIds(now.minus(staleAfter)),
+                id -> jobRepository.fail(id, ExportJobStatus.RUNNING, "Export was interrupted", now, now.plus(retention)),
+                "marked FAILED", jobRepository::findQueuedIds);
+    }
+
+    @Scheduled(fixedDelayString = "${data-export.jobs.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        runner.deleteExpired(jobRepository.findExpired(LocalDateTime.now()), DataExportJob::getId, job -> {
+            if (job.getStorageKey() != null) {
+                storageService.delete(job.getStorageKey());
+            }
+            jobRepository.delete(job);
+        });
+    }
+
+    /**
+     * Run a queued job, unless another node already started it. The export
+     * runs for the job's organization, as if requested by it.
+     */
+    void run(Long jobId) {
+        if (jobRepository.start(jobId, LocalDateTime.now()) == 0) {
+            return;
+        }
+        DataExportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        String key = "exports/" + job.getOrganizationId() + "/" + jobId + "/" + job.getFileName();
+        StorageUploadOutputStream out = new StorageUploadOutputStream(
+                storageService, key, job.getFormat().getContentType(), partSize);
+        TenantContext.setCurrentOrganizationId(job.getOrganizationId());
+        try {
+            long total = dataExportService.countRows(job.getScope());
+            ProgressWriter progress = new ProgressWriter(jobId, total);
+            progress.write(0);
+            long rows = dataExportService.export(job.getScope(), job.getFormat(), out, progress::report);
+            out.close();
+
+            LocalDateTime now = LocalDateTime.now();
+            jobRepository.complete(jobId, rows, key, out.size(), now, now.plus(retention));
+            log.info("Export job {} completed: {} rows, {} bytes", jobId, rows, out.size());
+        } catch (Exception e) {
+            // Record the failure first: an abort that fails too must not leave the job RUNNING until it goes stale
+            LocalDateTime now = LocalDateTime.now();
+            jobRepository.fail(jobId, ExportJobStatus.RUNNING, BackgroundJobRunner.truncate(e.getMessage()),
+                    now, now.plus(retention));
+            log.warn("Export job {} failed: {}", jobId, e.getMessage());
+            try {
+                out.abort();
+            } catch (Exception abortFailure) {
+                log.warn("Could not abort the upload of export job {}: {}", jobId, abortFailure.getMessage());
+            }
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /** Records progress at most once per {@link #PROGRESS_WRITE_INTERVAL}, in its own transaction. */
+    private final class ProgressWriter {
+        private final Long jobId;
+        private final long total;
+        private long lastWrite;
+
+        ProgressWriter(Long jobId, long total) {
+            this.jobId = jobId;
+            this.total = total;
+        }
+
+        void report(long rows) {
+            long now = System.nanoTime();
+            if (now - lastWrite >= PROGRESS_WRITE_INTERVAL.toNanos()) {
+                write(rows);
+            }
+        }
+
+        void write(long rows) {
+            lastWrite = System.nanoTime();
+            progressTransaction.executeWithoutResult(status ->
+                    jobRepository.updateProgress(jobId, total, rows, LocalDateTime.now()));
+        }
+    }
+
+    private DataExportJobDTO toDTO(DataExportJob job) {
+        DataExportJobDTO dto = new DataExportJobDTO();
+        dto.setId(job.getId());
+        dto.setScope(job.getScope() != null ? job.getScope().name() : null);
+        dto.setFormat(job.getFormat() != null ? job.getFormat().name() : null);
+        dto.setStatus(job.getStatus() != null ? job.getStatus().name() : null);
+        dto.setTotalRows(job.getTotalRows());
+        dto.setRowsWritten(job.getRowsWritten());
+        dto.setFileName(job.getFileName());
+        dto.setFileSize(job.getFileSize());
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        dto.setExpiresAt(job.getExpiresAt());
+        return dto;
+    }
+}
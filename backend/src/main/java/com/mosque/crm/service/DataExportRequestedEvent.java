@@ -0,0 +1,9 @@
+package com.mosque.crm.service;
+
+/**
+ * Published when a background data export was requested. Once the job row is
+ * committed, {@link DataExportJobService} starts it instead of waiting for its
+ * next poll.
+ */
+public record DataExportRequestedEvent(Long jobId) {
+}
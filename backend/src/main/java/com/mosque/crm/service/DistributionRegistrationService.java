@@ -229,12 +229,16 @@ public class DistributionRegistrationService {
                 .orElseThrow(() -> new RuntimeException("Registration not found: " + id));
     }
 
-    public void applyDistribution(DistributionRegistration reg, int parcelCount) {
-        reg.setDistributedParcelCount(reg.getDistributedParcelCount() + parcelCount);
-        if (reg.getDistributedParcelCount() >= reg.getPlannedParcelCount()) {
-            reg.setStatus(RegistrationStatus.COLLECTED);
+    /**
+     * Record parcels handed to a registration in one conditional update, so two
+     * desks serving the same registration cannot both fulfil it.
+     */
+    public void applyDistribution(Long registrationId, int parcelCount) {
+        int updated = registrationRepository.applyDistribution(registrationId, parcelCount,
+                RegistrationStatus.REGISTERED, RegistrationStatus.COLLECTED);
+        if (updated == 0) {
+            throw new RuntimeException("Registration has already been fulfilled");
         }
-        registrationRepository.save(reg);
     }
 
     public String formatRecipientLabel(DistributionRegistration reg) {
@@ -8,8 +8,12 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.mosque.crm.dto.DistributionEventCreateDTO;
 import com.mosque.crm.dto.DistributionEventDTO;
@@ -21,6 +25,7 @@ import com.mosque.crm.dto.NonMemberRecipientDTO;
 import com.mosque.crm.dto.NonMemberRecipientUpdateDTO;
 import com.mosque.crm.dto.ParcelCategoryCreateDTO;
 import com.mosque.crm.dto.ParcelCategoryDTO;
+import com.mosque.crm.dto.ParcelDistributionBatchResultDTO;
 import com.mosque.crm.dto.ParcelDistributionCreateDTO;
 import com.mosque.crm.dto.ParcelDistributionDTO;
 import com.mosque.crm.entity.DistributionEvent;
@@ -67,6 +72,7 @@ public class DistributionService {
     private final EventFeatureCleanupService eventFeatureCleanupService;
     private final DistributionRegistrationService distributionRegistrationService;
     private final DistributionRegistrationRepository distributionRegistrationRepository;
+    private final TransactionTemplate itemTransaction;
 
     public DistributionService(
             DistributionEventRepository distributionEventRepository,
@@ -80,7 +86,8 @@ public class DistributionService {
             EventResourceAssignmentService eventResourceAssignmentService,
             EventFeatureCleanupService eventFeatureCleanupService,
             DistributionRegistrationService distributionRegistrationService,
-            DistributionRegistrationRepository distributionRegistrationRepository) {
+            DistributionRegistrationRepository distributionRegistrationRepository,
+            PlatformTransactionManager transactionManager) {
         this.distributionEventRepository = distributionEventRepository;
         this.generalEventRepository = generalEventRepository;
         this.parcelCategoryRepository = parcelCategoryRepository;
@@ -93,6 +100,8 @@ public class DistributionService {
         this.eventFeatureCleanupService = eventFeatureCleanupService;
         this.distributionRegistrationService = distributionRegistrationService;
         this.distributionRegistrationRepository = distributionRegistrationRepository;
+        this.itemTransaction = new TransactionTemplate(transactionManager);
+        this.itemTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     // ========================
@@ -483,8 +492,69 @@ public class DistributionService {
     // Parcel Distribution
     // ========================
 
-    @Transactional
     public ParcelDistributionDTO distribute(ParcelDistributionCreateDTO dto) {
+        return distributeInOwnTransaction(dto);
+    }
+
+    /**
+     * Record several distributions in one call. Each item commits or rolls back
+     * on its own, so one refused item (stock exhausted, already collected) does
+     * not undo the others; the result lists the outcome per item, in order.
+     */
+    public ParcelDistributionBatchResultDTO distributeBatch(List<ParcelDistributionCreateDTO> items) {
+        ParcelDistributionBatchResultDTO result = new ParcelDistributionBatchResultDTO();
+        for (int i = 0; i < items.size(); i++) {
+            ParcelDistributionCreateDTO item = items.get(i);
+            ParcelDistributionBatchResultDTO.Item outcome = new ParcelDistributionBatchResultDTO.Item();
+            outcome.setIndex(i);
+            outcome.setRequestKey(item.getRequestKey());
+            try {
+                outcome.setDistribution(distributeInOwnTransaction(item));
+                result.setSucceeded(result.getSucceeded() + 1);
+            } catch (RuntimeException e) {
+                outcome.setError(e.getMessage());
+                result.setFailed(result.getFailed() + 1);
+            }
+            result.getResults().add(outcome);
+        }
+        return result;
+    }
+
+    /**
+     * Run one distribution in its own transaction. A request sent again while
+     * the first attempt is still running waits on the recipient row and is then
+     * refused (already collected) or hits the request-key unique index; either
+     * way the distribution the other attempt recorded is returned. The lookup
+     * runs in a new transaction, whose snapshot includes that commit.
+     */
+    private ParcelDistributionDTO distributeInOwnTransaction(ParcelDistributionCreateDTO dto) {
+        try {
+            return itemTransaction.execute(status -> distributeOne(dto));
+        } catch (RuntimeException e) {
+            ParcelDistributionDTO replay = itemTransaction.execute(status -> findByRequestKey(dto.getRequestKey()));
+            if (replay != null) {
+                return replay;
+            }
+            if (e instanceof DataIntegrityViolationException) {
+                throw new RuntimeException("Distribution could not be recorded", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Hand out parcels to one recipient. The recipient's status change and the
+     * category stock are both conditional updates, checked by the database
+     * rather than read-then-written here, and the stock row is reserved last
+     * to keep its lock short. A request key seen before returns the recorded
+     * distribution unchanged.
+     */
+    private ParcelDistributionDTO distributeOne(ParcelDistributionCreateDTO dto) {
+        ParcelDistributionDTO replay = findByRequestKey(dto.getRequestKey());
+        if (replay != null) {
+            return replay;
+        }
+
         DistributionEvent event = distributionEventRepository.findById(dto.getDistributionEventId())
                 .orElseThrow(() -> new RuntimeException("Distribution event not found: " + dto.getDistributionEventId()));
 
@@ -500,9 +570,6 @@ public class DistributionService {
         if (useCategoryInventory) {
             category = parcelCategoryRepository.findById(dto.getParcelCategoryId())
                     .orElseThrow(() -> new RuntimeException("Parcel category not found: " + dto.getParcelCategoryId()));
-            if (parcelCount > category.getRemainingParcels()) {
-                throw new RuntimeException("Not enough parcels available. Remaining: " + category.getRemainingParcels());
-            }
         } else {
             category = getOrCreateDefaultCategory(event);
         }
@@ -510,41 +577,37 @@ public class DistributionService {
         String recipientName;
         if (recipientType == RecipientType.REGISTRATION) {
             DistributionRegistration reg = distributionRegistrationService.getRegistrationEntity(dto.getRecipientId());
-            if (reg.getStatus() != RegistrationStatus.REGISTERED) {
-                throw new RuntimeException("Registration has already been fulfilled");
-            }
-            distributionRegistrationService.applyDistribution(reg, parcelCount);
+            distributionRegistrationService.applyDistribution(reg.getId(), parcelCount);
             recipientName = distributionRegistrationService.formatRecipientLabel(reg);
         } else if (recipientType == RecipientType.MEMBER) {
             MemberDistributionRegistration reg = memberRegistrationRepository.findById(dto.getRecipientId())
                     .orElseThrow(() -> new RuntimeException("Member registration not found: " + dto.getRecipientId()));
 
-            if (reg.getStatus() != RegistrationStatus.REGISTERED) {
+            if (memberRegistrationRepository.transitionStatus(reg.getId(),
+                    RegistrationStatus.REGISTERED, RegistrationStatus.COLLECTED) == 0) {
                 throw new RuntimeException("Member has already collected parcels");
             }
 
-            reg.setStatus(RegistrationStatus.COLLECTED);
-            memberRegistrationRepository.save(reg);
-
             recipientName = reg.getWorkerName();
         } else {
             NonMemberRecipient recipient = nonMemberRecipientRepository.findById(dto.getRecipientId())
                     .orElseThrow(() -> new RuntimeException("Non-member recipient not found: " + dto.getRecipientId()));
 
-            if (recipient.getStatus() == RecipientStatus.COLLECTED) {
+            if (recipient.getStatus() == RecipientStatus.CANCELLED) {
+                throw new RuntimeException("Non-member recipient is cancelled");
+            }
+            // Mark as collected; a refusal now means another desk collected first
+            if (nonMemberRecipientRepository.transitionStatus(recipient.getId(),
+                    RecipientStatus.REGISTERED, RecipientStatus.COLLECTED) == 0) {
                 throw new RuntimeException("Non-member already collected parcels");
             }
 
-            // Mark as collected
-            recipient.setStatus(RecipientStatus.COLLECTED);
-            nonMemberRecipientRepository.save(recipient);
-
             recipientName = recipient.getDistributionNumber() + " — " + recipient.getName();
         }
 
-        if (useCategoryInventory) {
-            category.setDistributedParcels(category.getDistributedParcels() + parcelCount);
-            parcelCategoryRepository.save(category);
+        if (useCategoryInventory && parcelCategoryRepository.reserveParcels(category.getId(), parcelCount) == 0) {
+            Integer remaining = parcelCategoryRepository.findRemainingParcels(category.getId());
+            throw new RuntimeException("Not enough parcels available. Remaining: " + (remaining != null ? remaining : 0));
         }
 
         // Create distribution record
@@ -556,6 +619,7 @@ public class DistributionService {
         dist.setParcelCount(parcelCount);
         dist.setDistributedBy(dto.getDistributedBy());
         dist.setDistributedAt(LocalDateTime.now());
+        dist.setRequestKey(dto.getRequestKey());
         dist = parcelDistributionRepository.save(dist);
 
         log.info("Distributed {} parcels of {} to {} {} (id={})",
@@ -567,6 +631,15 @@ public class DistributionService {
         return result;
     }
 
+    private ParcelDistributionDTO findByRequestKey(String requestKey) {
+        if (requestKey == null || requestKey.isBlank()) {
+            return null;
+        }
+        return parcelDistributionRepository.findByRequestKey(requestKey)
+                .map(this::convertToDistributionDTO)
+                .orElse(null);
+    }
+
     @Transactional(readOnly = true)
     public List<ParcelDistributionDTO> listDistributionsByEvent(Long eventId) {
         List<ParcelDistribution> dists = parcelDistributionRepository.findByDistributionEventIdOrderByDistributedAtDesc(eventId);
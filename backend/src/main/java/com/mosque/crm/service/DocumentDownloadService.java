@@ -0,0 +1,162 @@
+package com.mosque.crm.service;
+
+import com.mosque.crm.entity.Document;
+import com.mosque.crm.enums.DocumentAuditEventType;
+import com.mosque.crm.enums.DocumentType;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.util.ETags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Streams document files from object storage to the servlet response through a
+ * fixed-size buffer, so memory use per download does not depend on file size.
+ * <p>
+ * Supports a single {@code Range} (206 / 416), {@code If-Range} and
+ * {@code If-None-Match} (304). The ETag is derived from the storage key, which
+ * is new for every uploaded version, so it is a strong validator. Bandwidth is
+ * charged for the bytes actually written, including partially sent responses.
+ */
+@Service
+public class DocumentDownloadService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentDownloadService.class);
+
+    private final DocumentService documentService;
+    private final DocumentAuditService auditService;
+    private final DocumentQuotaService quotaService;
+    private final StorageService storageService;
+    private final int bufferSize;
+
+    public DocumentDownloadService(DocumentService documentService,
+                                   DocumentAuditService auditService,
+                                   DocumentQuotaService quotaService,
+                                   StorageService storageService,
+                                   @Value("${document.download.buffer-size:65536}") int bufferSize) {
+        this.documentService = documentService;
+        this.auditService = auditService;
+        this.quotaService = quotaService;
+        this.storageService = storageService;
+        this.bufferSize = Math.max(1024, bufferSize);
+    }
+
+    public void stream(Long documentId, Long userId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Document doc = documentService.requireDocumentEntity(documentId);
+        if (doc.getDocumentType() != DocumentType.FILE || doc.getStorageKey() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Document has no file to stream");
+        }
+        Long orgId = doc.getOrganizationId() != null ? doc.getOrganizationId() : TenantContext.getCurrentOrganizationId();
+        long size = doc.getFileSize();
+        String etag = etagOf(doc);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Private: documents are per-user; no-cache: always revalidate, which is a cheap 304
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (ETags.matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && size > 0 && ifRangeAllows(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of(); // malformed: ignore and send the full body
+            }
+            // Multiple ranges would need multipart/byteranges; the full body is an allowed answer
+            if (ranges.size() == 1) {
+                boolean satisfiable;
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    // getRangeStart does not reject a start past the end; getRangeEnd clamps below it
+                    satisfiable = start < size && start <= end;
+                } catch (IllegalArgumentException e) {
+                    satisfiable = false;
+                }
+                if (!satisfiable) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                partial = true;
+            }
+        }
+
+        response.setContentType(doc.getMimeType() != null ? doc.getMimeType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(doc.getOriginalFilename() != null ? doc.getOriginalFilename() : "document", StandardCharsets.UTF_8)
+                .build().toString());
+        if (partial) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            response.setContentLengthLong(end - start + 1);
+        } else {
+            response.setStatus(HttpStatus.OK.value());
+            if (size > 0) {
+                response.setContentLengthLong(size);
+            }
+        }
+
+        // Resumes and media seeks send many ranges; only a read from the first byte counts as a download
+        if (start == 0) {
+            auditService.record(documentId, orgId, DocumentAuditEventType.DOWNLOADED, userId, "stream");
+        }
+
+        long sent = 0;
+        try (InputStream in = partial
+                ? storageService.download(doc.getStorageKey(), start, end)
+                : storageService.download(doc.getStorageKey())) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[bufferSize];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                sent += read;
+            }
+            out.flush();
+        } catch (IOException e) {
+            // Most often the client went away (cancelled or seeking); charge what was sent
+            log.debug("Download of document {} stopped after {} bytes: {}", documentId, sent, e.getMessage());
+            throw e;
+        } finally {
+            if (sent > 0) {
+                quotaService.incrementBandwidth(orgId, sent);
+            }
+        }
+    }
+
+    static String etagOf(Document doc) {
+        return "\"" + DigestUtils.md5DigestAsHex(doc.getStorageKey().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /** {@code If-Range} needs a strong match; a date or a stale ETag means "send the full body". */
+    static boolean ifRangeAllows(String ifRange, String etag) {
+        return ifRange == null || ifRange.trim().equals(etag);
+    }
+}
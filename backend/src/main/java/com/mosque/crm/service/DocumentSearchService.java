@@ -0,0 +1,207 @@
+package com.mosque.crm.service;
+
+import com.mosque.crm.entity.Document;
+import com.mosque.crm.entity.DocumentSearchEntry;
+import com.mosque.crm.enums.DocumentStatus;
+import com.mosque.crm.enums.DocumentType;
+import com.mosque.crm.repository.DocumentRepository;
+import com.mosque.crm.repository.DocumentSearchEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the full-text search rows of documents and runs ranked searches
+ * against them (MariaDB FULLTEXT, boolean mode).
+ * <p>
+ * {@link DocumentService} calls {@link #index(Document)} whenever a document's
+ * title, filename, description or content changes. Rich-text bodies are indexed
+ * immediately; file bodies are queued by {@link #indexBacklog()}, which also
+ * picks up documents created before the index existed, and extracted on a small
+ * bounded pool of {@code extract-workers} threads. Trashed documents keep
+ * their row and are excluded by the search query, so trash and restore cost
+ * no re-extraction.
+ */
+@Service
+public class DocumentSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentSearchService.class);
+
+    /** Shortest word InnoDB indexes by default ({@code innodb_ft_min_token_size}). */
+    static final int MIN_TOKEN_LENGTH = 3;
+    static final int MAX_TERMS = 10;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final DocumentSearchEntryRepository entryRepository;
+    private final DocumentRepository documentRepository;
+    private final StorageService storageService;
+    private final DocumentTextExtractor textExtractor;
+    private final int batchSize;
+    private final long maxExtractBytes;
+
+    /** Extraction pool; its queue holds at most one batch, so a slow run never piles up work. */
+    private final ThreadPoolExecutor extractors;
+
+    /** Documents queued or being extracted on this node, so a later run does not queue them again. */
+    private final Set<Long> extracting = ConcurrentHashMap.newKeySet();
+
+    public DocumentSearchService(DocumentSearchEntryRepository entryRepository,
+                                 DocumentRepository documentRepository,
+                                 StorageService storageService,
+                                 DocumentTextExtractor textExtractor,
+                                 @Value("${document.search.index-batch-size:50}") int batchSize,
+                                 @Value("${document.search.max-extract-bytes:52428800}") long maxExtractBytes,
+                                 @Value("${document.search.extract-workers:2}") int extractWorkers) {
+        this.entryRepository = entryRepository;
+        this.documentRepository = documentRepository;
+        this.storageService = storageService;
+        this.textExtractor = textExtractor;
+        this.batchSize = batchSize;
+        this.maxExtractBytes = maxExtractBytes;
+
+        int workers = Math.max(1, extractWorkers);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.extractors = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, batchSize)), r -> {
+                    Thread thread = new Thread(r, "document-extract-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        extractors.shutdownNow();
+    }
+
+    /**
+     * Ranked matches for a boolean-mode expression from {@link #toBooleanQuery(String)}.
+     */
+    public Page<Document> search(Long organizationId, String terms, int page, int size) {
+        return documentRepository.searchFullText(organizationId, DocumentStatus.TRASHED.name(), terms, PageRequest.of(page, size));
+    }
+
+    /**
+     * Brings the search row of a saved document up to date. Joins the caller's
+     * transaction. A file body is re-extracted in the background only when the
+     * document points at a different stored file than the one last indexed.
+     */
+    public void index(Document doc) {
+        DocumentSearchEntry entry = entryRepository.findById(doc.getId()).orElseGet(() -> {
+            DocumentSearchEntry created = new DocumentSearchEntry();
+            created.setDocumentId(doc.getId());
+            return created;
+        });
+        entry.setOrganizationId(doc.getOrganizationId());
+        entry.setTitle(doc.getTitle());
+        entry.setOriginalFilename(doc.getOriginalFilename());
+        entry.setDescription(doc.getDescription());
+        if (doc.getDocumentType() == DocumentType.RICH_TEXT) {
+            entry.setBody(textExtractor.fromHtml(doc.getContentHtml()));
+            entry.setBodyPending(false);
+        } else if (doc.getStorageKey() != null && !doc.getStorageKey().equals(entry.getIndexedStorageKey())) {
+            entry.setBodyPending(true);
+        }
+        entry.setIndexedAt(LocalDateTime.now());
+        entryRepository.save(entry);
+    }
+
+    /**
+     * Creates rows for documents that have none and queues pending file bodies
+     * for extraction, {@code batchSize} of each per run. Downloading and parsing
+     * happen on the extraction pool, never on the scheduler thread.
+     */
+    @Scheduled(fixedDelayString = "${document.search.index-interval-ms:30000}")
+    public void indexBacklog() {
+        for (Long documentId : entryRepository.findUnindexedDocumentIds(batchSize)) {
+            documentRepository.findById(documentId).ifPresent(this::index);
+        }
+        for (DocumentSearchEntry entry : entryRepository.findByBodyPendingTrueOrderByIndexedAtAsc(PageRequest.of(0, batchSize))) {
+            Long documentId = entry.getDocumentId();
+            if (!extracting.add(documentId)) {
+                continue;
+            }
+            try {
+                extractors.execute(() -> {
+                    try {
+                        documentRepository.findById(documentId).ifPresent(this::extractBody);
+                    } catch (Exception e) {
+                        log.warn("Could not index body of document {}: {}", documentId, e.getMessage());
+                    } finally {
+                        extracting.remove(documentId);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Queue full (or shutting down): the rest stays pending for the next run
+                extracting.remove(documentId);
+                break;
+            }
+        }
+    }
+
+    private void extractBody(Document doc) {
+        String storageKey = doc.getStorageKey();
+        if (storageKey == null) {
+            return;
+        }
+        String body = "";
+        if (doc.getFileSize() <= maxExtractBytes && textExtractor.supports(doc.getMimeType(), doc.getOriginalFilename())) {
+            InputStream in;
+            try {
+                in = storageService.download(storageKey);
+            } catch (Exception e) {
+                // Storage unavailable: leave the row pending and retry on the next run
+                log.warn("Could not read document {} for indexing: {}", doc.getId(), e.getMessage());
+                return;
+            }
+            try (InputStream stream = in) {
+                body = textExtractor.extract(stream, doc.getMimeType(), doc.getOriginalFilename());
+            } catch (Exception e) {
+                // Corrupt or encrypted file: index its metadata only
+                log.info("No text extracted from document {}: {}", doc.getId(), e.getMessage());
+            }
+        }
+        entryRepository.storeBody(doc.getId(), storageKey, body, LocalDateTime.now());
+    }
+
+    /**
+     * Boolean-mode expression requiring every word of the user's query as a
+     * prefix ({@code +word*}), or {@code null} when no word is long enough to be
+     * in the full-text index — callers then fall back to a substring match.
+     * Operators typed by the user are dropped along with other punctuation.
+     */
+    static String toBooleanQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        StringJoiner terms = new StringJoiner(" ");
+        int count = 0;
+        for (String word : NON_WORD.split(query.toLowerCase(Locale.ROOT))) {
+            if (word.length() >= MIN_TOKEN_LENGTH && count < MAX_TERMS) {
+                terms.add("+" + word + "*");
+                count++;
+            }
+        }
+        return count == 0 ? null : terms.toString();
+    }
+}
@@ -66,6 +66,7 @@ public class DocumentService {
     private final DocumentAuditService auditService;
     private final DocumentQuotaService quotaService;
     private final StorageService storageService;
+    private final DocumentSearchService searchService;
 
     public DocumentService(DocumentFolderRepository folderRepository,
                            DocumentRepository documentRepository,
@@ -75,7 +76,8 @@ public class DocumentService {
                            DocumentLinkRepository linkRepository,
                            DocumentAuditService auditService,
                            DocumentQuotaService quotaService,
-                           StorageService storageService) {
+                           StorageService storageService,
+                           DocumentSearchService searchService) {
         this.folderRepository = folderRepository;
         this.documentRepository = documentRepository;
         this.shareRepository = shareRepository;
@@ -85,6 +87,7 @@ public class DocumentService {
         this.auditService = auditService;
         this.quotaService = quotaService;
         this.storageService = storageService;
+        this.searchService = searchService;
     }
 
     // ==================== Folders ====================
@@ -142,23 +145,34 @@ public class DocumentService {
         Long orgId = TenantContext.getCurrentOrganizationId();
         quotaService.checkAndIncrementStorage(orgId, file.getSize());
 
-        String storageKey = "orgs/" + orgId + "/documents/" + UUID.randomUUID() + "-" + file.getOriginalFilename();
+        String storageKey = newStorageKey(orgId, file.getOriginalFilename());
         try {
             storageService.upload(storageKey, file.getInputStream(), file.getContentType(), file.getSize());
         } catch (IOException e) {
             quotaService.decrementStorage(orgId, file.getSize());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "File upload failed", e);
         }
+        return createFileDocument(storageKey, file.getContentType(), file.getSize(), file.getOriginalFilename(),
+            meta, ownerUserId);
+    }
 
+    /**
+     * Create a FILE document for an object that is already in storage.
+     * The caller has reserved the storage quota for {@code fileSize}.
+     */
+    @Transactional
+    public DocumentDTO createFileDocument(String storageKey, String mimeType, long fileSize, String originalFilename,
+                                          DocumentCreateDTO meta, Long ownerUserId) {
+        Long orgId = TenantContext.getCurrentOrganizationId();
         Document doc = new Document();
         doc.setFolderId(meta.getFolderId());
-        doc.setTitle(meta.getTitle() != null ? meta.getTitle() : file.getOriginalFilename());
+        doc.setTitle(meta.getTitle() != null ? meta.getTitle() : originalFilename);
         doc.setDescription(meta.getDescription());
         doc.setDocumentType(DocumentType.FILE);
-        doc.setMimeType(file.getContentType());
+        doc.setMimeType(mimeType);
         doc.setStorageKey(storageKey);
-        doc.setFileSize(file.getSize());
-        doc.setOriginalFilename(file.getOriginalFilename());
+        doc.setFileSize(fileSize);
+        doc.setOriginalFilename(originalFilename);
         doc.setStatus(DocumentStatus.PUBLISHED);
         doc.setVisibility(meta.getVisibility() != null ? meta.getVisibility() : DocumentVisibility.PRIVATE);
         doc.setOwnerUserId(ownerUserId);
@@ -167,14 +181,19 @@ public class DocumentService {
             doc.setExpiresAt(LocalDateTime.parse(meta.getExpiresAt()));
         }
         Document saved = documentRepository.save(doc);
+        searchService.index(saved);
 
         // Save initial version snapshot
         saveVersionSnapshot(saved, ownerUserId, null);
 
-        auditService.record(saved.getId(), orgId, DocumentAuditEventType.CREATED, ownerUserId, "File: " + file.getOriginalFilename());
+        auditService.record(saved.getId(), orgId, DocumentAuditEventType.CREATED, ownerUserId, "File: " + originalFilename);
         return toDTO(saved);
     }
 
+    public String newStorageKey(Long orgId, String originalFilename) {
+        return "orgs/" + orgId + "/documents/" + UUID.randomUUID() + "-" + originalFilename;
+    }
+
     // ==================== Documents (rich text) ====================
 
     @Transactional
@@ -194,6 +213,7 @@ public class DocumentService {
             doc.setExpiresAt(LocalDateTime.parse(meta.getExpiresAt()));
         }
         Document saved = documentRepository.save(doc);
+        searchService.index(saved);
         auditService.record(saved.getId(), orgId, DocumentAuditEventType.CREATED, ownerUserId, "Rich text document");
         return toDTO(saved);
     }
@@ -206,6 +226,7 @@ public class DocumentService {
         doc.setStatus(DocumentStatus.PUBLISHED);
         doc.setVersionCount(doc.getVersionCount() + 1);
         Document saved = documentRepository.save(doc);
+        searchService.index(saved);
 
         // Save version snapshot
         DocumentVersion version = new DocumentVersion();
@@ -266,12 +287,16 @@ public class DocumentService {
         int safeSize = Math.max(1, Math.min(size, 100));
         String normalizedQuery = query != null && !query.trim().isEmpty() ? query.trim() : null;
 
-        Page<Document> resultPage = documentRepository.searchDocuments(
-                orgId,
-                DocumentStatus.TRASHED,
-                normalizedQuery,
-                PageRequest.of(safePage, safeSize, Sort.by(Sort.Direction.DESC, "updatedAt"))
-        );
+        // Ranked full-text search; queries with only very short words (and no query) keep the substring match
+        String terms = DocumentSearchService.toBooleanQuery(normalizedQuery);
+        Page<Document> resultPage = terms != null
+                ? searchService.search(orgId, terms, safePage, safeSize)
+                : documentRepository.searchDocuments(
+                        orgId,
+                        DocumentStatus.TRASHED,
+                        normalizedQuery,
+                        PageRequest.of(safePage, safeSize, Sort.by(Sort.Direction.DESC, "updatedAt"))
+                );
 
         DocumentSearchResponseDTO dto = new DocumentSearchResponseDTO();
         dto.setItems(resultPage.getContent().stream().map(this::toDTO).collect(Collectors.toList()));
@@ -294,6 +319,7 @@ public class DocumentService {
             doc.setExpiresAt(LocalDateTime.parse(dto.getExpiresAt()));
         }
         Document saved = documentRepository.save(doc);
+        searchService.index(saved);
         auditService.record(saved.getId(), orgId, DocumentAuditEventType.UPDATED, userId, "Metadata update");
         return toDTO(saved);
     }
@@ -343,10 +369,9 @@ public class DocumentService {
         if (doc.getDocumentType() != DocumentType.FILE || doc.getStorageKey() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Document has no file to download");
         }
-        quotaService.incrementBandwidth(orgId, doc.getFileSize());
         auditService.record(id, orgId, DocumentAuditEventType.DOWNLOADED, userId, null);
 
-        // Build a backend proxy download URL
+        // Build a backend proxy download URL; bandwidth is charged there for the bytes actually sent
         String downloadUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
             .path("/api/documents/{id}/download-stream")
             .buildAndExpand(id)
@@ -366,19 +391,30 @@ public class DocumentService {
     @Transactional
     public DocumentDTO uploadNewVersion(Long id, MultipartFile file, String changeNote, Long userId) {
         Long orgId = TenantContext.getCurrentOrganizationId();
-        Document doc = requireDocument(id);
-        if (doc.getDocumentType() != DocumentType.FILE) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Version uploads are only for file documents");
-        }
+        requireFileDocument(id);
         quotaService.checkAndIncrementStorage(orgId, file.getSize());
 
-        String storageKey = "orgs/" + orgId + "/documents/" + UUID.randomUUID() + "-" + file.getOriginalFilename();
+        String storageKey = newStorageKey(orgId, file.getOriginalFilename());
         try {
             storageService.upload(storageKey, file.getInputStream(), file.getContentType(), file.getSize());
         } catch (IOException e) {
             quotaService.decrementStorage(orgId, file.getSize());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "File upload failed", e);
         }
+        return attachNewVersion(id, storageKey, file.getContentType(), file.getSize(), file.getOriginalFilename(),
+            changeNote, userId);
+    }
+
+    /**
+     * Make an object that is already in storage the current version of a FILE document.
+     * The caller has reserved the storage quota for {@code fileSize}; the previous file's
+     * size is released and its object deleted.
+     */
+    @Transactional
+    public DocumentDTO attachNewVersion(Long id, String storageKey, String mimeType, long fileSize,
+                                        String originalFilename, String changeNote, Long userId) {
+        Long orgId = TenantContext.getCurrentOrganizationId();
+        Document doc = requireFileDocument(id);
 
         // Decrement old file size, update doc
         quotaService.decrementStorage(orgId, doc.getFileSize());
@@ -387,18 +423,19 @@ public class DocumentService {
         }
 
         doc.setStorageKey(storageKey);
-        doc.setFileSize(file.getSize());
-        doc.setMimeType(file.getContentType());
-        doc.setOriginalFilename(file.getOriginalFilename());
+        doc.setFileSize(fileSize);
+        doc.setMimeType(mimeType);
+        doc.setOriginalFilename(originalFilename);
         doc.setVersionCount(doc.getVersionCount() + 1);
         Document saved = documentRepository.save(doc);
+        searchService.index(saved);
 
         DocumentVersion version = new DocumentVersion();
         version.setDocumentId(saved.getId());
         version.setOrganizationId(orgId);
         version.setVersionNumber(saved.getVersionCount());
         version.setStorageKey(storageKey);
-        version.setFileSize(file.getSize());
+        version.setFileSize(fileSize);
         version.setChangeNote(changeNote);
         version.setChangedByUserId(userId);
         versionRepository.save(version);
@@ -407,6 +444,14 @@ public class DocumentService {
         return toDTO(saved);
     }
 
+    public Document requireFileDocument(Long id) {
+        Document doc = requireDocument(id);
+        if (doc.getDocumentType() != DocumentType.FILE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Version uploads are only for file documents");
+        }
+        return doc;
+    }
+
     // ==================== Sharing ====================
 
     @Transactional
@@ -507,20 +552,6 @@ public class DocumentService {
             }).collect(Collectors.toList());
     }
 
-    // ==================== Storage stream (for download) ====================
-
-    public software.amazon.awssdk.core.ResponseInputStream<software.amazon.awssdk.services.s3.model.GetObjectResponse>
-        streamDocument(Long id, Long userId) {
-        Long orgId = TenantContext.getCurrentOrganizationId();
-        Document doc = requireDocument(id);
-        if (doc.getDocumentType() != DocumentType.FILE || doc.getStorageKey() == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Document has no file to stream");
-        }
-        auditService.record(id, orgId, DocumentAuditEventType.DOWNLOADED, userId, "stream");
-        quotaService.incrementBandwidth(orgId, doc.getFileSize());
-        return storageService.download(doc.getStorageKey());
-    }
-
     public Document requireDocumentEntity(Long id) {
         return requireDocument(id);
     }
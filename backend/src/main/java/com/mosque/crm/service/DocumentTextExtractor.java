@@ -0,0 +1,116 @@
+package com.mosque.crm.service;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.apache.poi.extractor.ExtractorFactory;
+import org.apache.poi.extractor.POITextExtractor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns document content into plain text for the search index: PDFs (OpenPDF),
+ * Office files (Apache POI: OOXML and the OLE2 formats POI reads without
+ * scratchpad), plain text/CSV, and HTML from rich-text documents.
+ * Output is whitespace-collapsed and capped at {@code maxChars}.
+ */
+@Component
+public class DocumentTextExtractor {
+
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern SCRIPT_OR_STYLE = Pattern.compile("(?is)<(script|style)[^>]*>.*?</\\1>");
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s\\u00A0]+");
+
+    private final int maxChars;
+
+    public DocumentTextExtractor(@Value("${document.search.max-body-chars:1000000}") int maxChars) {
+        this.maxChars = maxChars;
+    }
+
+    /** Whether {@link #extract} understands this file type. */
+    public boolean supports(String mimeType, String filename) {
+        return kindOf(mimeType, filename) != Kind.UNSUPPORTED;
+    }
+
+    /**
+     * Extracts the text of a stored file. Returns an empty string for types that
+     * are not supported (images, archives, ...). The stream is not closed.
+     */
+    public String extract(InputStream in, String mimeType, String filename) throws IOException {
+        switch (kindOf(mimeType, filename)) {
+            case PDF:
+                return normalize(pdfText(in));
+            case OFFICE:
+                try (POITextExtractor extractor = ExtractorFactory.createExtractor(in)) {
+                    return normalize(extractor.getText());
+                }
+            case TEXT:
+                return normalize(new String(in.readNBytes(maxChars * 4), StandardCharsets.UTF_8));
+            case HTML:
+                return fromHtml(new String(in.readNBytes(maxChars * 4), StandardCharsets.UTF_8));
+            default:
+                return "";
+        }
+    }
+
+    /** Plain text of rich-text HTML: tags, scripts and styles dropped, entities decoded. */
+    public String fromHtml(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        String text = SCRIPT_OR_STYLE.matcher(html).replaceAll(" ");
+        text = TAG.matcher(text).replaceAll(" ");
+        return normalize(HtmlUtils.htmlUnescape(text));
+    }
+
+    private String pdfText(InputStream in) throws IOException {
+        PdfReader reader = new PdfReader(in);
+        try {
+            PdfTextExtractor extractor = new PdfTextExtractor(reader);
+            StringBuilder text = new StringBuilder();
+            for (int page = 1; page <= reader.getNumberOfPages() && text.length() < maxChars; page++) {
+                text.append(extractor.getTextFromPage(page)).append('\n');
+            }
+            return text.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String collapsed = WHITESPACE.matcher(text).replaceAll(" ").trim();
+        return collapsed.length() > maxChars ? collapsed.substring(0, maxChars) : collapsed;
+    }
+
+    private enum Kind { PDF, OFFICE, TEXT, HTML, UNSUPPORTED }
+
+    private static Kind kindOf(String mimeType, String filename) {
+        String mime = mimeType != null ? mimeType.toLowerCase(Locale.ROOT) : "";
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (mime.equals("application/pdf") || name.endsWith(".pdf")) {
+            return Kind.PDF;
+        }
+        if (mime.startsWith("application/vnd.openxmlformats-officedocument.")
+                || mime.equals("application/vnd.ms-excel")
+                || name.endsWith(".docx") || name.endsWith(".xlsx") || name.endsWith(".pptx")
+                || name.endsWith(".xls")) {
+            return Kind.OFFICE;
+        }
+        if (mime.equals("text/html") || name.endsWith(".html") || name.endsWith(".htm")) {
+            return Kind.HTML;
+        }
+        if (mime.startsWith("text/") || name.endsWith(".txt") || name.endsWith(".csv") || name.endsWith(".md")) {
+            return Kind.TEXT;
+        }
+        return Kind.UNSUPPORTED;
+    }
+}
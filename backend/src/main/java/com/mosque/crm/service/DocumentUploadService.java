@@ -0,0 +1,315 @@
+package com.mosque.crm.service;
+
+import com.mosque.crm.dto.DocumentCreateDTO;
+import com.mosque.crm.dto.DocumentDTO;
+import com.mosque.crm.dto.DocumentUploadSessionDTO;
+import com.mosque.crm.dto.DocumentUploadStartDTO;
+import com.mosque.crm.entity.DocumentUploadSession;
+import com.mosque.crm.enums.DocumentUploadStatus;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.repository.DocumentUploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.Part;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumable chunked document uploads on top of S3 multipart upload.
+ * <p>
+ * {@link #start} reserves the storage quota for the whole file and opens the
+ * multipart upload; the client then PUTs parts (in parallel if it likes) whose
+ * request bodies are streamed straight to storage, so neither heap nor temp
+ * disk grows with the file. Uploaded parts are tracked by the object store
+ * (ListParts), which is what makes an interrupted upload resumable.
+ * <p>
+ * Part uploads in flight on this node are bounded by
+ * {@code document.upload.max-concurrent-parts}; when no slot frees up within
+ * {@code document.upload.part-wait-ms} the part is rejected with 503 and the
+ * client retries it. The reservation is released when the upload is aborted,
+ * fails to complete, or expires ({@link #expireStaleUploads}).
+ */
+@Service
+public class DocumentUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentUploadService.class);
+
+    /** S3 limits: parts other than the last must be at least 5 MiB, and at most 10,000 parts. */
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    static final int MAX_PARTS = 10_000;
+
+    private final DocumentUploadSessionRepository sessionRepository;
+    private final DocumentService documentService;
+    private final DocumentQuotaService quotaService;
+    private final StorageService storageService;
+    private final long defaultPartSize;
+    private final long partWaitMs;
+    private final long sessionTtlHours;
+    private final Semaphore partSlots;
+
+    public DocumentUploadService(DocumentUploadSessionRepository sessionRepository,
+                                 DocumentService documentService,
+                                 DocumentQuotaService quotaService,
+                                 StorageService storageService,
+                                 @Value("${document.upload.part-size-bytes:8388608}") long defaultPartSize,
+                                 @Value("${document.upload.max-concurrent-parts:8}") int maxConcurrentParts,
+                                 @Value("${document.upload.part-wait-ms:2000}") long partWaitMs,
+                                 @Value("${document.upload.session-ttl-hours:24}") long sessionTtlHours) {
+        this.sessionRepository = sessionRepository;
+        this.documentService = documentService;
+        this.quotaService = quotaService;
+        this.storageService = storageService;
+        this.defaultPartSize = Math.max(MIN_PART_SIZE, defaultPartSize);
+        this.partWaitMs = partWaitMs;
+        this.sessionTtlHours = sessionTtlHours;
+        this.partSlots = new Semaphore(Math.max(1, maxConcurrentParts), true);
+    }
+
+    // ==================== Lifecycle ====================
+
+    public DocumentUploadSessionDTO start(DocumentUploadStartDTO dto, Long userId) {
+        Long orgId = TenantContext.getCurrentOrganizationId();
+        if (dto.getFileSize() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fileSize must be positive");
+        }
+        if (dto.getFilename() == null || dto.getFilename().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "filename is required");
+        }
+        if (dto.getDocumentId() != null) {
+            documentService.requireFileDocument(dto.getDocumentId());
+        }
+        long partSize = partSizeFor(dto.getFileSize(), defaultPartSize);
+        int partCount = (int) ((dto.getFileSize() + partSize - 1) / partSize);
+
+        // Reserve up front (committed on its own), so parallel uploads cannot overshoot the quota
+        quotaService.checkAndIncrementStorage(orgId, dto.getFileSize());
+
+        String storageKey = documentService.newStorageKey(orgId, dto.getFilename());
+        String storageUploadId;
+        try {
+            storageUploadId = storageService.createMultipartUpload(storageKey, dto.getContentType());
+        } catch (RuntimeException e) {
+            quotaService.decrementStorage(orgId, dto.getFileSize());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not start upload", e);
+        }
+
+        DocumentUploadSession session = new DocumentUploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setOrganizationId(orgId);
+        session.setOwnerUserId(userId);
+        session.setDocumentId(dto.getDocumentId());
+        session.setStorageKey(storageKey);
+        session.setStorageUploadId(storageUploadId);
+        session.setFileSize(dto.getFileSize());
+        session.setPartSize(partSize);
+        session.setPartCount(partCount);
+        session.setOriginalFilename(dto.getFilename());
+        session.setMimeType(dto.getContentType());
+        session.setTitle(dto.getTitle());
+        session.setDescription(dto.getDescription());
+        session.setFolderId(dto.getFolderId());
+        session.setVisibility(dto.getVisibility());
+        session.setChangeNote(dto.getChangeNote());
+        session.setExpiresAt(LocalDateTime.now().plusHours(sessionTtlHours));
+        try {
+            sessionRepository.save(session);
+        } catch (RuntimeException e) {
+            storageService.abortMultipartUpload(storageKey, storageUploadId);
+            quotaService.decrementStorage(orgId, dto.getFileSize());
+            throw e;
+        }
+        log.info("Started chunked upload {} for '{}' ({} bytes, {} parts of {})",
+            session.getId(), dto.getFilename(), dto.getFileSize(), partCount, partSize);
+        return toDTO(session, List.of());
+    }
+
+    public DocumentUploadSessionDTO getStatus(String uploadId, Long userId) {
+        DocumentUploadSession session = requireSession(uploadId, userId);
+        return toDTO(session, storageService.listParts(session.getStorageKey(), session.getStorageUploadId()));
+    }
+
+    /**
+     * Stream one part to storage. Re-sending a part number replaces the earlier upload of it.
+     */
+    public void uploadPart(String uploadId, int partNumber, InputStream body, long contentLength, Long userId) {
+        DocumentUploadSession session = requireSession(uploadId, userId);
+        if (session.getStatus() != DocumentUploadStatus.UPLOADING) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is already completing");
+        }
+        if (partNumber < 1 || partNumber > session.getPartCount()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Part number must be between 1 and " + session.getPartCount());
+        }
+        long expected = expectedPartSize(session, partNumber);
+        if (contentLength != expected) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Part " + partNumber + " must be exactly " + expected + " bytes (Content-Length " + contentLength + ")");
+        }
+
+        boolean acquired;
+        try {
+            acquired = partSlots.tryAcquire(partWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many parts in flight; retry this part");
+        }
+        try {
+            storageService.uploadPart(session.getStorageKey(), session.getStorageUploadId(), partNumber, body, expected);
+        } finally {
+            partSlots.release();
+        }
+    }
+
+    public DocumentDTO complete(String uploadId, Long userId) {
+        DocumentUploadSession session = requireSession(uploadId, userId);
+        if (sessionRepository.transition(uploadId, DocumentUploadStatus.UPLOADING, DocumentUploadStatus.COMPLETING) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is already completing");
+        }
+
+        List<Part> parts = storageService.listParts(session.getStorageKey(), session.getStorageUploadId());
+        List<CompletedPart> completed = new ArrayList<>(parts.size());
+        for (Part part : parts) {
+            if (part.partNumber() > session.getPartCount()
+                    || part.size() != expectedPartSize(session, part.partNumber())) {
+                continue;
+            }
+            completed.add(CompletedPart.builder().partNumber(part.partNumber()).eTag(part.eTag()).build());
+        }
+        if (completed.size() != session.getPartCount()) {
+            // Let the client upload what is missing and try again
+            sessionRepository.transition(uploadId, DocumentUploadStatus.COMPLETING, DocumentUploadStatus.UPLOADING);
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Upload is incomplete: " + completed.size() + " of " + session.getPartCount() + " parts received");
+        }
+
+        try {
+            storageService.completeMultipartUpload(session.getStorageKey(), session.getStorageUploadId(), completed);
+        } catch (RuntimeException e) {
+            sessionRepository.transition(uploadId, DocumentUploadStatus.COMPLETING, DocumentUploadStatus.UPLOADING);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Storage could not assemble the upload", e);
+        }
+
+        DocumentDTO result;
+        try {
+            if (session.getDocumentId() != null) {
+                result = documentService.attachNewVersion(session.getDocumentId(), session.getStorageKey(),
+                    session.getMimeType(), session.getFileSize(), session.getOriginalFilename(),
+                    session.getChangeNote(), userId);
+            } else {
+                DocumentCreateDTO meta = new DocumentCreateDTO();
+                meta.setTitle(session.getTitle());
+                meta.setDescription(session.getDescription());
+                meta.setFolderId(session.getFolderId());
+                meta.setVisibility(session.getVisibility());
+                result = documentService.createFileDocument(session.getStorageKey(), session.getMimeType(),
+                    session.getFileSize(), session.getOriginalFilename(), meta, userId);
+            }
+        } catch (RuntimeException e) {
+            // The object exists but no document refers to it: remove it and give the quota back
+            try { storageService.delete(session.getStorageKey()); } catch (Exception ignored) {}
+            quotaService.decrementStorage(session.getOrganizationId(), session.getFileSize());
+            sessionRepository.deleteById(uploadId);
+            throw e;
+        }
+        sessionRepository.deleteById(uploadId);
+        log.info("Completed chunked upload {} as document {}", uploadId, result.getId());
+        return result;
+    }
+
+    public void abort(String uploadId, Long userId) {
+        DocumentUploadSession session = requireSession(uploadId, userId);
+        if (sessionRepository.transition(uploadId, DocumentUploadStatus.UPLOADING, DocumentUploadStatus.COMPLETING) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is already completing");
+        }
+        release(session);
+        log.info("Aborted chunked upload {}", uploadId);
+    }
+
+    /**
+     * Abort uploads past their expiry and release their quota reservations.
+     * Runs without a tenant context, so it sees every organization's sessions.
+     */
+    @Scheduled(fixedDelayString = "${document.upload.cleanup-interval-ms:900000}")
+    public void expireStaleUploads() {
+        for (DocumentUploadSession session : sessionRepository.findByExpiresAtBefore(LocalDateTime.now())) {
+            if (session.getStatus() == DocumentUploadStatus.UPLOADING
+                    && sessionRepository.transition(session.getId(), DocumentUploadStatus.UPLOADING,
+                        DocumentUploadStatus.COMPLETING) == 1) {
+                try {
+                    release(session);
+                    log.info("Expired chunked upload {} ({} bytes released)", session.getId(), session.getFileSize());
+                } catch (RuntimeException e) {
+                    sessionRepository.transition(session.getId(), DocumentUploadStatus.COMPLETING,
+                        DocumentUploadStatus.UPLOADING);
+                    log.warn("Could not expire chunked upload {}: {}", session.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    /** Configured part size, grown when needed so the file fits in {@link #MAX_PARTS} parts. */
+    static long partSizeFor(long fileSize, long configuredPartSize) {
+        long minForCount = (fileSize + MAX_PARTS - 1) / MAX_PARTS;
+        return Math.max(Math.max(MIN_PART_SIZE, configuredPartSize), minForCount);
+    }
+
+    static long expectedPartSize(DocumentUploadSession session, int partNumber) {
+        long offset = (long) (partNumber - 1) * session.getPartSize();
+        return Math.min(session.getPartSize(), session.getFileSize() - offset);
+    }
+
+    private void release(DocumentUploadSession session) {
+        storageService.abortMultipartUpload(session.getStorageKey(), session.getStorageUploadId());
+        quotaService.decrementStorage(session.getOrganizationId(), session.getFileSize());
+        sessionRepository.deleteById(session.getId());
+    }
+
+    private DocumentUploadSession requireSession(String uploadId, Long userId) {
+        DocumentUploadSession session = sessionRepository.findById(uploadId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+        Long orgId = TenantContext.getCurrentOrganizationId();
+        if ((orgId != null && !orgId.equals(session.getOrganizationId())) || !session.getOwnerUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Upload has expired");
+        }
+        return session;
+    }
+
+    private DocumentUploadSessionDTO toDTO(DocumentUploadSession session, List<Part> parts) {
+        List<Integer> uploaded = new ArrayList<>(parts.size());
+        long uploadedBytes = 0;
+        for (Part part : parts) {
+            uploaded.add(part.partNumber());
+            uploadedBytes += part.size();
+        }
+        DocumentUploadSessionDTO dto = new DocumentUploadSessionDTO();
+        dto.setUploadId(session.getId());
+        dto.setDocumentId(session.getDocumentId());
+        dto.setFileSize(session.getFileSize());
+        dto.setPartSize(session.getPartSize());
+        dto.setPartCount(session.getPartCount());
+        dto.setUploadedParts(uploaded);
+        dto.setUploadedBytes(uploadedBytes);
+        dto.setExpiresAt(session.getExpiresAt().toString());
+        return dto;
+    }
+}
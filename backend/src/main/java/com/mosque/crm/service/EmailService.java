@@ -4,6 +4,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -16,9 +17,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import com.mosque.crm.exception.MailDeliveryException;
+
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 
@@ -589,17 +593,18 @@ public class EmailService {
     }
 
     /**
-     * Send a bulk email to a list of recipients (used by the communications module).
+     * Send one chunk of a bulk communication to a list of recipients (used by the
+     * communications module's background dispatcher).
      *
-     * @param recipients list of recipient email addresses
+     * @param recipients recipient email addresses of this chunk
      * @param subject    email subject
      * @param bodyHtml   HTML body (may contain {{organizationName}} placeholders already resolved)
-     * @return number of successfully dispatched emails (0 or recipients.size())
+     * @throws MailDeliveryException when the mail server did not accept the chunk; retryable for
+     *                               timeouts, throttling (429) and server errors
      */
-    public int sendBulkEmail(java.util.List<String> recipients, String subject, String bodyHtml) {
+    public void sendBulkChunk(List<String> recipients, String subject, String bodyHtml) {
         if (recipients == null || recipients.isEmpty()) {
-            log.warn("sendBulkEmail called with empty recipient list");
-            return 0;
+            return;
         }
 
         String host = configurationService.getMailServerHost();
@@ -608,12 +613,11 @@ public class EmailService {
         String projectUuid = configurationService.getMailServerProjectUuid();
 
         if (host == null || host.isEmpty()) {
-            log.error("Mail server not configured. Cannot send bulk email.");
             log.info("=== BULK EMAIL (Fallback - Mail server not configured) ===");
             log.info("Subject: {}", subject);
             log.info("Recipients: {}", recipients);
             log.info("==========================================================");
-            return 0;
+            throw new MailDeliveryException("Mail server not configured", false);
         }
 
         Map<String, Object> payload = new HashMap<>();
@@ -622,34 +626,28 @@ public class EmailService {
         payload.put("text", bodyHtml);
         payload.put("projectId", projectUuid);
 
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            if (mailUsername != null && !mailUsername.isEmpty() &&
-                mailPassword != null && !mailPassword.isEmpty()) {
-                String auth = mailUsername + ":" + mailPassword;
-                byte[] encodedAuth = Base64.getEncoder().encode(auth.getBytes(StandardCharsets.UTF_8));
-                headers.set("Authorization", "Basic " + new String(encodedAuth));
-            }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
-            String mailEndpoint = host + "/rest/v1/api/register-mail";
+        if (mailUsername != null && !mailUsername.isEmpty() &&
+            mailPassword != null && !mailPassword.isEmpty()) {
+            String auth = mailUsername + ":" + mailPassword;
+            byte[] encodedAuth = Base64.getEncoder().encode(auth.getBytes(StandardCharsets.UTF_8));
+            headers.set("Authorization", "Basic " + new String(encodedAuth));
+        }
 
-            log.info("Sending bulk email to {} recipients. Subject: {}", recipients.size(), subject);
-            ResponseEntity<String> response = restTemplate.postForEntity(mailEndpoint, request, String.class);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
+        String mailEndpoint = host + "/rest/v1/api/register-mail";
 
-            HttpStatus status = (HttpStatus) response.getStatusCode();
-            if (status.is2xxSuccessful()) {
-                log.info("Bulk email sent successfully to {} recipients", recipients.size());
-                return recipients.size();
-            } else {
-                log.error("Failed to send bulk email. Status: {}, Response: {}", status, response.getBody());
-                return 0;
-            }
-        } catch (Exception e) {
-            log.error("Error sending bulk email: {}", e.getMessage());
-            return 0;
+        try {
+            restTemplate.postForEntity(mailEndpoint, request, String.class);
+            log.debug("Bulk email chunk of {} recipients accepted. Subject: {}", recipients.size(), subject);
+        } catch (HttpStatusCodeException e) {
+            boolean retryable = e.getStatusCode().is5xxServerError()
+                    || e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+            throw new MailDeliveryException("Mail server returned " + e.getStatusCode().value(), retryable, e);
+        } catch (RestClientException e) {
+            throw new MailDeliveryException("Mail server unreachable: " + e.getMessage(), true, e);
         }
     }
 }
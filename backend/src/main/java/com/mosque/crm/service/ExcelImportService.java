@@ -1,288 +1,645 @@
 package com.mosque.crm.service;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.mosque.crm.dto.ExcelImportResult;
 import com.mosque.crm.dto.PersonCreateDTO;
-import com.mosque.crm.dto.PersonDTO;
+import com.mosque.crm.entity.GedcomPersonLink;
 import com.mosque.crm.entity.Membership;
 import com.mosque.crm.entity.Person;
+import com.mosque.crm.entity.gedcom.Family;
+import com.mosque.crm.entity.gedcom.FamilyChild;
 import com.mosque.crm.entity.gedcom.Individual;
 import com.mosque.crm.enums.GenderEnum;
-import com.mosque.crm.models.PersonAndAge;
+import com.mosque.crm.enums.ImportIssueSeverity;
+import com.mosque.crm.enums.MembershipStatus;
+import com.mosque.crm.enums.MembershipType;
+import com.mosque.crm.enums.PersonStatus;
+import com.mosque.crm.enums.RelationshipType;
+import com.mosque.crm.models.ImportRowIssue;
 import com.mosque.crm.models.RowData;
+import com.mosque.crm.multitenancy.TenantContext;
 import com.mosque.crm.repository.FamilyChildRepository;
 import com.mosque.crm.repository.FamilyRepository;
 import com.mosque.crm.repository.GedcomPersonLinkRepository;
 import com.mosque.crm.repository.IndividualRepository;
 import com.mosque.crm.repository.MembershipRepository;
 import com.mosque.crm.repository.PersonRepository;
+import com.mosque.crm.subscription.FeatureKeys;
 import com.mosque.crm.util.HashUtil;
 import com.mosque.crm.util.ImportMembersExcelParser;
-
+import com.mosque.crm.util.PersonNameUtil;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Member import from the Excel member list (NAAM, VOORNAMEN, GEB.DAT., Gezinnen, ...).
+ * <p>
+ * The import runs in stages:
+ * <ol>
+ * <li>the first sheet is streamed into rows by {@link ImportMembersExcelParser};</li>
+ * <li>the organization's persons are loaded once into a {@link MatchIndex}
+ *     (name + date of birth, hashes, emails, GEDCOM links, memberships), so rows
+ *     are matched in memory instead of with queries per row;</li>
+ * <li>rows are written in chunks of {@code member-import.chunk-size}, one
+ *     transaction each. Matched persons are updated with one JDBC batch; new
+ *     persons, their GEDCOM individuals, links and memberships are persisted and
+ *     inserted as JDBC batches on commit. The members.max plan limit is checked
+ *     once per chunk;</li>
+ * <li>families are inferred per Gezinnen group, again in chunked transactions.</li>
+ * </ol>
+ * A chunk that fails is retried row by row, so a bad row is reported as that
+ * row's error instead of failing its neighbours.
+ */
 @Service
 public class ExcelImportService {
 
-	private final PersonService personService;
+	private static final Logger log = LoggerFactory.getLogger(ExcelImportService.class);
+
+	// Only values present in the sheet overwrite the person's, as when editing the entity field by field
+	private static final String UPDATE_PERSON_SQL = "UPDATE persons SET "
+			+ "first_name = COALESCE(?, first_name), last_name = COALESCE(?, last_name), "
+			+ "gender = COALESCE(?, gender), date_of_birth = COALESCE(?, date_of_birth), "
+			+ "date_of_death = COALESCE(?, date_of_death), email = COALESCE(?, email), phone = COALESCE(?, phone), "
+			+ "address = COALESCE(?, address), city = COALESCE(?, city), country = COALESCE(?, country), "
+			+ "postal_code = COALESCE(?, postal_code), id_number = COALESCE(?, id_number), "
+			+ "family_number = COALESCE(?, family_number), civil_state = COALESCE(?, civil_state), "
+			+ "status = COALESCE(?, status), hash = COALESCE(?, hash), updated_at = ? "
+			+ "WHERE id = ? AND organization_id = ?";
+
+	private static final String UPDATE_INDIVIDUAL_SQL = "UPDATE gedcom_individuals "
+			+ "SET given_name = ?, surname = ?, sex = ?, birth_date = ? WHERE id = ? AND organization_id = ?";
+
+	/** Minimum age difference between the younger parent and a child of an inferred family. */
+	private static final int MIN_PARENT_CHILD_AGE_GAP = 16;
+
+	private final PersonRepository personRepository;
 	private final IndividualRepository individualRepository;
 	private final FamilyRepository familyRepository;
 	private final GedcomPersonLinkRepository gedcomPersonLinkRepository;
 	private final FamilyChildRepository familyChildRepository;
 	private final MembershipRepository membershipRepository;
-	// Add PersonRepository as a dependency
-	private final PersonRepository personRepository;
+	private final OrganizationSubscriptionService organizationSubscriptionService;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate chunkTransaction;
+	private final ApplicationEventPublisher eventPublisher;
+	private final int chunkSize;
+
+	@PersistenceContext
+	private EntityManager entityManager;
 
-	public ExcelImportService(PersonService personService, IndividualRepository individualRepository,
+	public ExcelImportService(PersonRepository personRepository, IndividualRepository individualRepository,
 			FamilyRepository familyRepository, GedcomPersonLinkRepository gedcomPersonLinkRepository,
 			FamilyChildRepository familyChildRepository, MembershipRepository membershipRepository,
-			PersonRepository personRepository) {
-		this.personService = personService;
+			OrganizationSubscriptionService organizationSubscriptionService, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+			@Value("${member-import.chunk-size:500}") int chunkSize) {
+		this.personRepository = personRepository;
 		this.individualRepository = individualRepository;
 		this.familyRepository = familyRepository;
 		this.gedcomPersonLinkRepository = gedcomPersonLinkRepository;
 		this.familyChildRepository = familyChildRepository;
 		this.membershipRepository = membershipRepository;
-		this.personRepository = personRepository;
+		this.organizationSubscriptionService = organizationSubscriptionService;
+		this.jdbcTemplate = jdbcTemplate;
+		this.chunkTransaction = new TransactionTemplate(transactionManager);
+		this.eventPublisher = eventPublisher;
+		this.chunkSize = Math.max(1, chunkSize);
 	}
 
-	@Transactional
+	/**
+	 * Import an uploaded file for the current organization, in the calling thread.
+	 */
 	public ExcelImportResult importFromExcel(MultipartFile file) {
-		int successfullyProcessed = 0;
-		int skipped = 0;
+		Path temp = null;
+		try {
+			temp = Files.createTempFile("member-import-", ".upload");
+			file.transferTo(temp);
+			return importFile(temp.toFile(), file.getOriginalFilename(), MemberImportListener.NONE);
+		} catch (IOException e) {
+			ExcelImportResult result = new ExcelImportResult(0, 0, 0, new ArrayList<>(), new ArrayList<>());
+			result.addError("Error reading Excel file: " + e.getMessage());
+			return result;
+		} finally {
+			deleteQuietly(temp);
+		}
+	}
 
-		ImportMembersExcelParser parser = new ImportMembersExcelParser();
-		ExcelImportResult excelImportResult = parser.parseExcel(file);
+	/**
+	 * Import {@code file} for the current organization. Not transactional: each
+	 * chunk commits on its own, and {@code listener} hears about it.
+	 */
+	public ExcelImportResult importFile(File file, String fileName, MemberImportListener listener) {
+		long start = System.nanoTime();
+		ExcelImportResult result = new ImportMembersExcelParser().parseExcel(file, fileName);
+		List<RowData> rows = result.getRows();
+		listener.progress(result, 0, List.copyOf(result.getIssues()));
+		if (rows.isEmpty()) {
+			return result;
+		}
 
-		System.out.println("Total records to process: " + excelImportResult.getRows().size());
-		// Second pass: process each person and create/update them
-		for (RowData rowData : excelImportResult.getRows()) {
-			System.out.println("Processing row " + (rowData.getRowNumber() + 1));
-			try {
-				PersonCreateDTO personDto = rowData.getPersonDto();
-
-				// Check if person already exists by email first, then by name and date of birth
-				// if no email
-				Optional<Person> existingPersonOpt = Optional.empty();
-
-//					if (personDto.getEmail() != null && !personDto.getEmail().trim().isEmpty()) {
-//						// Try to find by email first
-//						Optional<PersonDTO> existingPersonDtoOpt = personService.getPersonByEmail(personDto.getEmail());
-//						if (existingPersonDtoOpt.isPresent()) {
-//							existingPersonOpt = personService.getPersonEntityById(existingPersonDtoOpt.get().getId());
-//						}
-//					}
-
-				// If not found by email (or no email provided), try to find by name and date of
-				// birth
-				if (!existingPersonOpt.isPresent() && personDto.getFirstName() != null
-						&& !personDto.getFirstName().trim().isEmpty()) {
-					// Try to find by exact name and date of birth combination
-					Optional<PersonDTO> exactMatchOpt = personService.findPersonByNameAndDateOfBirth(
-							personDto.getFirstName(), personDto.getLastName(), personDto.getDateOfBirth());
-
-					if (exactMatchOpt.isPresent()) {
-						existingPersonOpt = personService.getPersonEntityById(exactMatchOpt.get().getId());
-					}
-				}
+		Integer memberLimit = memberLimit();
+		MatchIndex index = loadIndex();
+		List<FamilyMember> familyMembers = new ArrayList<>();
 
-				Person processedPerson;
-				if (existingPersonOpt.isPresent()) {
-					// Update existing person
-					Person existingPerson = existingPersonOpt.get();
-					updateExistingPerson(existingPerson, personDto);
-					processedPerson = existingPerson;
-					successfullyProcessed++;
-				} else {
-					// Create new person
-					com.mosque.crm.dto.PersonDTO createdPerson = personService.createPerson(personDto);
-					// We need to fetch the Person entity to work with it
-					Optional<Person> newlyCreatedPerson = personService.getPersonEntityById(createdPerson.getId());
-					if (newlyCreatedPerson.isPresent()) {
-						processedPerson = newlyCreatedPerson.get();
-						successfullyProcessed++;
-					} else {
-						skipped++;
-						continue; // Skip this record if we couldn't get the created person
-					}
-				}
+		for (int from = 0; from < rows.size(); from += chunkSize) {
+			List<RowData> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+			int issuesBefore = result.getIssues().size();
+			index = importChunk(chunk, index, memberLimit, result, familyMembers);
+			listener.progress(result, from + chunk.size(),
+					List.copyOf(result.getIssues().subList(issuesBefore, result.getIssues().size())));
+		}
 
-				// Calculate hash for this person
-				String hash = HashUtil.generateHash(personDto);
-				// Check for duplicate by hash
-				if (personRepository.existsByHash(hash)) {
-					excelImportResult.getWarnings().add("Duplicate person skipped (hash): " + hash + " row: " + (rowData.getRowNumber() + 1));
-					skipped++;
-					continue;
-				}
+		int issuesBefore = result.getIssues().size();
+		int families = importFamilies(familyMembers, result);
+		// Individuals, links and families were written; drop the cached family graph
+		eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
+
+		result.setSuccessfullyProcessed(result.getCreated() + result.getUpdated());
+		listener.progress(result, rows.size(),
+				List.copyOf(result.getIssues().subList(issuesBefore, result.getIssues().size())));
+		log.info("Member import of {} rows: {} created, {} updated, {} skipped, {} families in {} ms",
+				rows.size(), result.getCreated(), result.getUpdated(), result.getSkipped(), families,
+				(System.nanoTime() - start) / 1_000_000);
+		return result;
+	}
+
+	// ─── persons ─────────────────────────────────────────────────────────
+
+	/**
+	 * Write one chunk in a transaction; if it fails, write its rows one by one.
+	 * Returns the index to continue with: after a rollback the in-memory index
+	 * may hold rows that were never written, so it is reloaded.
+	 */
+	private MatchIndex importChunk(List<RowData> chunk, MatchIndex index, Integer memberLimit,
+			ExcelImportResult result, List<FamilyMember> familyMembers) {
+		try {
+			apply(chunkTransaction.execute(status -> writeRows(chunk, index, memberLimit)), result, familyMembers);
+			return index;
+		} catch (RuntimeException e) {
+			if (chunk.size() == 1) {
+				result.addError(chunk.get(0).getRowNumber(), "Error processing person: " + rootMessage(e));
+				result.setSkipped(result.getSkipped() + 1);
+				return loadIndex();
+			}
+			log.warn("Member import chunk of {} rows failed, retrying row by row: {}", chunk.size(), rootMessage(e));
+			MatchIndex reloaded = loadIndex();
+			for (RowData row : chunk) {
+				reloaded = importChunk(List.of(row), reloaded, memberLimit, result, familyMembers);
+			}
+			return reloaded;
+		}
+	}
 
-				// Set hash on the person so future imports can detect duplicates
-				processedPerson.setHash(hash);
+	private ChunkOutcome writeRows(List<RowData> chunk, MatchIndex index, Integer memberLimit) {
+		ChunkOutcome outcome = new ChunkOutcome();
+		Long organizationId = TenantContext.getCurrentOrganizationId();
+		// The plan limit is checked once per chunk
+		long remaining = memberLimit == null ? Long.MAX_VALUE
+				: Math.max(0, memberLimit - personRepository.countAllPersons());
 
-				// Always create a GEDCOM Individual for every imported person
-				createOrUpdateGedcomIndividual(processedPerson);
+		List<Object[]> personUpdates = new ArrayList<>();
+		List<PendingGedcom> pending = new ArrayList<>();
+		List<Grouped> grouped = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
 
-				// Handle family relationships (grouping into families) only when gezinnenId is present
-				if (StringUtils.isNotBlank(rowData.getGezinnenId())) {
-					// Family creation and role assignment happens in assignFamilyRolesForAllGezinnen
-				}
+		for (RowData row : chunk) {
+			PersonCreateDTO dto = row.getPersonDto();
+			int rowNumber = row.getRowNumber();
+			String hash = HashUtil.generateHash(dto);
 
-				// Handle membership creation/update based on data in the Excel file
-				handleMembershipForImportedPerson(processedPerson, rowData.getPersonDto());
-			} catch (Exception e) {
-				excelImportResult.getErrors().add(
-						"Error processing person from row " + (rowData.getRowNumber() + 1) + ": " + e.getMessage());
-				skipped++;
-				e.printStackTrace();
+			Candidate match;
+			try {
+				match = index.find(dto.getFirstName(), dto.getLastName(), dto.getDateOfBirth());
+			} catch (IllegalStateException e) {
+				outcome.issues.add(issue(ImportIssueSeverity.ERROR, rowNumber, e.getMessage()));
+				outcome.skipped++;
+				continue;
 			}
-		}
 
-		// Third pass: assign family roles based on age and gender within each gezinnen
-		assignFamilyRolesForAllGezinnen(excelImportResult.getRows());
+			String email = StringUtils.trimToNull(dto.getEmail());
+			Long emailOwner = email != null ? index.emailOwner(email) : null;
+			if (emailOwner != null && (match == null || !emailOwner.equals(match.id))) {
+				outcome.issues.add(issue(ImportIssueSeverity.ERROR, rowNumber,
+						"Email " + email + " is already used by another person"));
+				outcome.skipped++;
+				continue;
+			}
 
-		excelImportResult.setSuccessfullyProcessed(successfullyProcessed);
-		excelImportResult.setSkipped(skipped);
+			if (match != null) {
+				// A person imported before with the same name and date of birth: update the details only
+				boolean alreadyImported = index.hashes.contains(hash);
+				personUpdates.add(updateParams(dto, alreadyImported ? null : hash, now, match.id, organizationId));
+				match.merge(dto);
+				if (email != null) {
+					index.emails.put(email.toLowerCase(Locale.ROOT), match.id);
+				}
+				outcome.updated++;
+				if (alreadyImported) {
+					outcome.issues.add(issue(ImportIssueSeverity.WARNING, rowNumber, "Person already imported; details updated"));
+				} else {
+					index.hashes.add(hash);
+					pending.add(new PendingGedcom(match, entityManager.getReference(Person.class, match.id)));
+				}
+				grouped.add(new Grouped(match, row));
+				continue;
+			}
 
-		return excelImportResult;
+			if (index.hashes.contains(hash)) {
+				outcome.issues.add(issue(ImportIssueSeverity.WARNING, rowNumber,
+						"Duplicate person skipped (hash): " + hash));
+				outcome.skipped++;
+				continue;
+			}
+			if (remaining <= 0) {
+				outcome.issues.add(issue(ImportIssueSeverity.ERROR, rowNumber,
+						"Member limit of " + memberLimit + " reached; person not imported"));
+				outcome.skipped++;
+				continue;
+			}
+			remaining--;
+
+			Person person = newPerson(dto, hash, now);
+			entityManager.persist(person);
+			Candidate created = index.add(person);
+			index.hashes.add(hash);
+			if (email != null) {
+				index.emails.put(email.toLowerCase(Locale.ROOT), person.getId());
+			}
+			pending.add(new PendingGedcom(created, person));
+			grouped.add(new Grouped(created, row));
+			outcome.created++;
+		}
+
+		if (!personUpdates.isEmpty()) {
+			// A row may update a person created earlier in this chunk
+			entityManager.flush();
+			jdbcTemplate.batchUpdate(UPDATE_PERSON_SQL, personUpdates);
+		}
+		writeGedcomAndMemberships(pending, index, organizationId);
+		for (Grouped g : grouped) {
+			if (StringUtils.isNotBlank(g.row.getGezinnenId())) {
+				Candidate c = g.candidate;
+				outcome.familyMembers.add(new FamilyMember(c.id, index.individualIds.get(c.id), g.row.getGezinnenId(),
+						g.row.getRowNumber(), c.gender, c.dateOfBirth));
+			}
+		}
+		return outcome;
 	}
 
-	private void updateExistingPerson(Person existingPerson, PersonCreateDTO updatedData) {
-		// Update fields from the DTO
-		if (updatedData.getFirstName() != null) {
-			existingPerson.setFirstName(com.mosque.crm.util.PersonNameUtil.normalize(updatedData.getFirstName()));
+	/**
+	 * Give each written person a GEDCOM individual and, if they have none, a
+	 * membership. New individuals use the @I{personId}@ xref; one query finds the
+	 * xrefs that already exist, which are linked instead of created.
+	 */
+	private void writeGedcomAndMemberships(List<PendingGedcom> pending, MatchIndex index, Long organizationId) {
+		List<String> newXrefs = new ArrayList<>();
+		for (PendingGedcom p : pending) {
+			if (!index.individualIds.containsKey(p.candidate.id)) {
+				newXrefs.add(generateGedcomId(p.candidate.id));
+			}
+		}
+		Map<String, Individual> existingIndividuals = new HashMap<>();
+		if (!newXrefs.isEmpty()) {
+			individualRepository.findAllById(newXrefs).forEach(i -> existingIndividuals.put(i.getId(), i));
 		}
-		if (updatedData.getLastName() != null) {
-			existingPerson.setLastName(com.mosque.crm.util.PersonNameUtil.normalize(updatedData.getLastName()));
+
+		List<Object[]> individualUpdates = new ArrayList<>();
+		Set<Long> written = new HashSet<>();
+		for (PendingGedcom p : pending) {
+			Candidate c = p.candidate;
+			if (!written.add(c.id)) {
+				continue;
+			}
+			String individualId = index.individualIds.get(c.id);
+			if (individualId != null) {
+				individualUpdates.add(new Object[] { c.firstName, c.lastName, sexOf(c.gender), toSqlDate(c.dateOfBirth),
+						individualId, organizationId });
+			} else {
+				String xref = generateGedcomId(c.id);
+				Individual individual = existingIndividuals.get(xref);
+				if (individual == null) {
+					individual = new Individual();
+					individual.setId(xref);
+					copyToIndividual(c, individual);
+					// Assigned id: persist, where save() would first select it
+					entityManager.persist(individual);
+				} else {
+					copyToIndividual(c, individual);
+				}
+				GedcomPersonLink link = new GedcomPersonLink();
+				link.setPerson(p.person);
+				link.setGedcomIndividual(individual);
+				entityManager.persist(link);
+				index.individualIds.put(c.id, xref);
+			}
+
+			if (index.withMembership.add(c.id)) {
+				Membership membership = new Membership();
+				membership.setPerson(p.person);
+				membership.setMembershipType(MembershipType.FULL); // Default type
+				membership.setStartDate(LocalDate.now()); // Default to current date
+				membership.setStatus(MembershipStatus.ACTIVE); // Default to active
+				entityManager.persist(membership);
+			}
 		}
-		if (updatedData.getGender() != null) {
-			existingPerson.setGender(updatedData.getGender());
+		if (!individualUpdates.isEmpty()) {
+			jdbcTemplate.batchUpdate(UPDATE_INDIVIDUAL_SQL, individualUpdates);
 		}
-		if (updatedData.getDateOfBirth() != null) {
-			existingPerson.setDateOfBirth(updatedData.getDateOfBirth());
+	}
+
+	private void apply(ChunkOutcome outcome, ExcelImportResult result, List<FamilyMember> familyMembers) {
+		result.setCreated(result.getCreated() + outcome.created);
+		result.setUpdated(result.getUpdated() + outcome.updated);
+		result.setSkipped(result.getSkipped() + outcome.skipped);
+		outcome.issues.forEach(result::addIssue);
+		familyMembers.addAll(outcome.familyMembers);
+	}
+
+	private Integer memberLimit() {
+		Long organizationId = TenantContext.getCurrentOrganizationId();
+		if (organizationId == null) {
+			return null;
 		}
-		if (updatedData.getDateOfDeath() != null) {
-			existingPerson.setDateOfDeath(updatedData.getDateOfDeath());
+		try {
+			return organizationSubscriptionService.getFeatureLimit(organizationId, FeatureKeys.MEMBERS_MAX);
+		} catch (RuntimeException e) {
+			// No active subscription — allow creation (graceful degradation)
+			return null;
 		}
-		if (updatedData.getEmail() != null) {
-			existingPerson.setEmail(updatedData.getEmail());
+	}
+
+	private MatchIndex loadIndex() {
+		return chunkTransaction.execute(status -> {
+			MatchIndex index = new MatchIndex();
+			for (Object[] row : personRepository.findImportIndexRows()) {
+				Candidate candidate = new Candidate((Long) row[0], (String) row[1], (String) row[2],
+						(LocalDate) row[3], (String) row[4]);
+				index.add(candidate);
+				if (row[5] != null) {
+					index.emails.put(((String) row[5]).trim().toLowerCase(Locale.ROOT), candidate.id);
+				}
+				if (row[6] != null) {
+					index.hashes.add((String) row[6]);
+				}
+			}
+			for (Object[] row : gedcomPersonLinkRepository.findGraphRows()) {
+				index.individualIds.put((Long) row[1], (String) row[0]);
+			}
+			index.withMembership.addAll(membershipRepository.findPersonIdsWithMembership());
+			return index;
+		});
+	}
+
+	// ─── families ────────────────────────────────────────────────────────
+
+	/**
+	 * Infer a family for each Gezinnen group of two or more persons and link
+	 * its children, a chunk of groups per transaction. Existing families keep
+	 * their parents; only missing children are added.
+	 *
+	 * @return the number of families created
+	 */
+	private int importFamilies(List<FamilyMember> members, ExcelImportResult result) {
+		Map<String, List<FamilyMember>> groups = new LinkedHashMap<>();
+		for (FamilyMember member : members) {
+			if (StringUtils.isNotBlank(member.gezinnenId())) {
+				groups.computeIfAbsent(member.gezinnenId(), k -> new ArrayList<>()).add(member);
+			}
 		}
-		if (updatedData.getPhone() != null) {
-			// Extract phone number from formats like "8407043/ +31616255904" to get just
-			// the phone part
-//			String phoneValue = extractPhoneNumber(updatedData.getPhone());
-//			if (phoneValue != null && phoneValue.length() > 20) {
-//				phoneValue = phoneValue.substring(0, 20);
-//			}
-			existingPerson.setPhone(updatedData.getPhone());
+		if (groups.isEmpty()) {
+			return 0;
 		}
-		if (updatedData.getAddress() != null) {
-			existingPerson.setAddress(updatedData.getAddress());
+
+		Set<String> existingChildren = chunkTransaction.execute(status -> {
+			Set<String> pairs = new HashSet<>();
+			for (Object[] row : familyChildRepository.findGraphRows()) {
+				pairs.add(row[1] + "|" + row[2]);
+			}
+			return pairs;
+		});
+
+		List<Map.Entry<String, List<FamilyMember>>> entries = new ArrayList<>(groups.entrySet());
+		int created = 0;
+		for (int from = 0; from < entries.size(); from += chunkSize) {
+			created += importFamilyChunk(entries.subList(from, Math.min(from + chunkSize, entries.size())),
+					existingChildren, result);
 		}
-		if (updatedData.getCity() != null) {
-			existingPerson.setCity(updatedData.getCity());
+		return created;
+	}
+
+	private int importFamilyChunk(List<Map.Entry<String, List<FamilyMember>>> groups, Set<String> existingChildren,
+			ExcelImportResult result) {
+		Set<String> pairsBefore = new HashSet<>(existingChildren);
+		try {
+			Integer created = chunkTransaction.execute(status -> writeFamilies(groups, existingChildren));
+			return created != null ? created : 0;
+		} catch (RuntimeException e) {
+			existingChildren.retainAll(pairsBefore);
+			if (groups.size() == 1) {
+				int rowNumber = groups.get(0).getValue().get(0).rowNumber();
+				result.addWarning(rowNumber, "Family " + groups.get(0).getKey() + " could not be created: " + rootMessage(e));
+				return 0;
+			}
+			int created = 0;
+			for (Map.Entry<String, List<FamilyMember>> group : groups) {
+				created += importFamilyChunk(List.of(group), existingChildren, result);
+			}
+			return created;
 		}
-		if (updatedData.getCountry() != null) {
-			existingPerson.setCountry(updatedData.getCountry());
+	}
+
+	private int writeFamilies(List<Map.Entry<String, List<FamilyMember>>> groups, Set<String> existingChildren) {
+		Map<String, String> familyIds = new LinkedHashMap<>();
+		for (Map.Entry<String, List<FamilyMember>> group : groups) {
+			familyIds.put(group.getKey(), "@F" + group.getKey() + "@");
 		}
-		if (updatedData.getPostalCode() != null) {
-			existingPerson.setPostalCode(updatedData.getPostalCode());
+		Set<String> existingFamilies = new HashSet<>();
+		familyRepository.findAllById(familyIds.values()).forEach(f -> existingFamilies.add(f.getId()));
+
+		LocalDate today = LocalDate.now();
+		int created = 0;
+		for (Map.Entry<String, List<FamilyMember>> group : groups) {
+			FamilyRoles roles = inferFamily(group.getValue(), today);
+			if (roles == null) {
+				log.debug("No family inferred for gezinnen {}: no male-female parent pair", group.getKey());
+				continue;
+			}
+			String familyId = familyIds.get(group.getKey());
+			if (!existingFamilies.contains(familyId)) {
+				Family family = new Family();
+				family.setId(familyId);
+				family.setMarriageDate(today);
+				family.setHusbandId(roles.father().individualId());
+				family.setWifeId(roles.mother().individualId());
+				entityManager.persist(family);
+				created++;
+			}
+			for (FamilyMember child : roles.children()) {
+				if (child.individualId() != null && existingChildren.add(familyId + "|" + child.individualId())) {
+					FamilyChild familyChild = new FamilyChild();
+					familyChild.setFamilyId(familyId);
+					familyChild.setChildId(child.individualId());
+					familyChild.setRelationshipType(RelationshipType.BIOLOGICAL);
+					entityManager.persist(familyChild);
+				}
+			}
 		}
-		if (updatedData.getIdNumber() != null) {
-			existingPerson.setIdNumber(updatedData.getIdNumber());
+		return created;
+	}
+
+	/**
+	 * Parents and children of one Gezinnen group: the two eldest are the parents
+	 * when they are a man and a woman, otherwise the eldest man and eldest woman.
+	 * Members at least {@value #MIN_PARENT_CHILD_AGE_GAP} years younger than the
+	 * younger parent are their children. Null when there is no such pair.
+	 */
+	static FamilyRoles inferFamily(List<FamilyMember> members, LocalDate today) {
+		if (members.size() < 2) {
+			return null;
 		}
-		if (updatedData.getFamilyNumber() != null) {
-			existingPerson.setFamilyNumber(updatedData.getFamilyNumber());
+		List<FamilyMember> byAge = new ArrayList<>(members);
+		Function<FamilyMember, Integer> age = m -> m.dateOfBirth() != null
+				? Period.between(m.dateOfBirth(), today).getYears() : null;
+		// Eldest first; unknown ages last
+		byAge.sort((a, b) -> {
+			Integer ageA = age.apply(a);
+			Integer ageB = age.apply(b);
+			if (ageA == null && ageB == null)
+				return 0;
+			if (ageA == null)
+				return 1;
+			if (ageB == null)
+				return -1;
+			return ageB - ageA;
+		});
+
+		FamilyMember father = null;
+		FamilyMember mother = null;
+		FamilyMember first = byAge.get(0);
+		FamilyMember second = byAge.get(1);
+		if (isMale(first.gender()) && isFemale(second.gender())) {
+			father = first;
+			mother = second;
+		} else if (isFemale(first.gender()) && isMale(second.gender())) {
+			mother = first;
+			father = second;
+		} else {
+			for (FamilyMember m : byAge) {
+				if (father == null && isMale(m.gender()))
+					father = m;
+				if (mother == null && isFemale(m.gender()))
+					mother = m;
+			}
 		}
-		if (updatedData.getCivilState() != null) {
-			existingPerson.setCivilState(updatedData.getCivilState());
+		if (father == null || mother == null) {
+			return null;
 		}
-		if (updatedData.getStatus() != null) {
-			existingPerson.setStatus(updatedData.getStatus());
+
+		Integer fatherAge = age.apply(father);
+		Integer motherAge = age.apply(mother);
+		int youngestParentAge = Math.min(fatherAge != null ? fatherAge : Integer.MAX_VALUE,
+				motherAge != null ? motherAge : Integer.MAX_VALUE);
+		List<FamilyMember> children = new ArrayList<>();
+		for (FamilyMember m : byAge) {
+			Integer memberAge = age.apply(m);
+			if (m != father && m != mother && memberAge != null
+					&& youngestParentAge - memberAge >= MIN_PARENT_CHILD_AGE_GAP) {
+				children.add(m);
+			}
 		}
+		return new FamilyRoles(father, mother, children);
+	}
 
-		// Save the updated person
-		// Note: We're not calling personRepository.save() here because the transaction
-		// will handle persistence automatically due to @Transactional annotation
+	private static boolean isMale(String gender) {
+		return gender != null && gender.trim().equalsIgnoreCase("M");
 	}
 
-	private void createOrUpdateFamilyRelationship(Person person, String gezinnenId) {
-		// This method handles creating family relationships based on the gezinnenId
-		// 1. Check if a GEDCOM Individual exists for this person
-		// 2. Create or update the GEDCOM Individual
-		// 3. Group all people with the same gezinnenId to determine family structure
-		// 4. Assign roles (parent/child) based on age and gender
+	private static boolean isFemale(String gender) {
+		return gender != null && gender.trim().equalsIgnoreCase("F");
+	}
 
-		if (person != null && gezinnenId != null) {
-			// Create or update GEDCOM Individual for this person
-			Individual individual = createOrUpdateGedcomIndividual(person);
-		}
+	// ─── helpers ─────────────────────────────────────────────────────────
+
+	private static Person newPerson(PersonCreateDTO dto, String hash, LocalDateTime now) {
+		Person person = new Person();
+		person.setFirstName(PersonNameUtil.normalize(dto.getFirstName()));
+		person.setLastName(PersonNameUtil.normalize(dto.getLastName()));
+		person.setGender(dto.getGender());
+		person.setDateOfBirth(dto.getDateOfBirth());
+		person.setDateOfDeath(dto.getDateOfDeath());
+		person.setEmail(StringUtils.trimToNull(dto.getEmail()));
+		person.setPhone(dto.getPhone());
+		person.setAddress(dto.getAddress());
+		person.setCity(dto.getCity());
+		person.setCountry(dto.getCountry());
+		person.setPostalCode(dto.getPostalCode());
+		person.setIdNumber(dto.getIdNumber());
+		person.setFamilyNumber(dto.getFamilyNumber());
+		person.setCivilState(dto.getCivilState());
+		person.setStatus(dto.getStatus() != null ? dto.getStatus() : PersonStatus.ACTIVE);
+		person.setHash(hash);
+		person.setCreatedAt(now);
+		person.setUpdatedAt(now);
+		return person;
 	}
 
-	private Individual createOrUpdateGedcomIndividual(Person person) {
-		// Check if a GEDCOM Individual already exists for this person
-		Optional<com.mosque.crm.entity.GedcomPersonLink> existingLink = gedcomPersonLinkRepository.findByPerson(person);
-
-		Individual individual;
-		if (existingLink.isPresent()) {
-			// Update existing individual
-			individual = existingLink.get().getGedcomIndividual();
-			individual.setGivenName(person.getFirstName());
-			individual.setSurname(person.getLastName());
-			individual.setSex(GenderEnum.mapToSexEnum(person.getGender()));
-			individual.setBirthDate(person.getDateOfBirth());
-			individual = individualRepository.save(individual);
-		} else {
-			// Check if an Individual already exists with the generated ID (could happen
-			// during import)
-			String candidateId = generateGedcomId(person.getId());
-
-			// Check if individual already exists in database with this ID
-			Optional<Individual> existingIndividual = individualRepository.findById(candidateId);
-			if (existingIndividual.isPresent()) {
-				// Update the existing individual with new person data
-				individual = existingIndividual.get();
-				individual.setGivenName(person.getFirstName());
-				individual.setSurname(person.getLastName());
-				individual.setSex(GenderEnum.mapToSexEnum(person.getGender()));
-				individual.setBirthDate(person.getDateOfBirth());
-				individual = individualRepository.save(individual);
-
-				// Create the link between Person and Individual
-				com.mosque.crm.entity.GedcomPersonLink link = new com.mosque.crm.entity.GedcomPersonLink();
-				link.setPerson(person);
-				link.setGedcomIndividual(individual);
+	private static Object[] updateParams(PersonCreateDTO dto, String hash, LocalDateTime now, Long personId,
+			Long organizationId) {
+		return new Object[] { PersonNameUtil.normalize(dto.getFirstName()), PersonNameUtil.normalize(dto.getLastName()),
+				dto.getGender(), toSqlDate(dto.getDateOfBirth()), toSqlDate(dto.getDateOfDeath()),
+				StringUtils.trimToNull(dto.getEmail()), dto.getPhone(), dto.getAddress(), dto.getCity(),
+				dto.getCountry(), dto.getPostalCode(), dto.getIdNumber(), dto.getFamilyNumber(), dto.getCivilState(),
+				dto.getStatus() != null ? dto.getStatus().name() : null, hash, now, personId, organizationId };
+	}
 
-				gedcomPersonLinkRepository.save(link);
-			} else {
-				// Create a new GEDCOM Individual for this person
-				individual = new Individual();
-				individual.setId(candidateId);
-				individual.setGivenName(person.getFirstName());
-				individual.setSurname(person.getLastName());
-				individual.setSex(GenderEnum.mapToSexEnum(person.getGender()));
-				individual.setBirthDate(person.getDateOfBirth());
-
-				// Save the individual
-				individual = individualRepository.save(individual);
-
-				// Create the link between Person and Individual
-				com.mosque.crm.entity.GedcomPersonLink link = new com.mosque.crm.entity.GedcomPersonLink();
-				link.setPerson(person);
-				link.setGedcomIndividual(individual);
+	private static void copyToIndividual(Candidate c, Individual individual) {
+		individual.setGivenName(c.firstName);
+		individual.setSurname(c.lastName);
+		individual.setSex(GenderEnum.mapToSexEnum(c.gender));
+		individual.setBirthDate(c.dateOfBirth);
+	}
 
-				gedcomPersonLinkRepository.save(link);
-			}
-		}
+	private static String sexOf(String gender) {
+		GenderEnum sex = GenderEnum.mapToSexEnum(gender);
+		return sex != null ? sex.name() : null;
+	}
+
+	private static ImportRowIssue issue(ImportIssueSeverity severity, int rowNumber, String message) {
+		return new ImportRowIssue(rowNumber, severity, message);
+	}
 
-		return individual;
+	private static Date toSqlDate(LocalDate date) {
+		return date != null ? Date.valueOf(date) : null;
 	}
 
 	private String generateGedcomId(Long personId) {
@@ -296,224 +653,124 @@ public class ExcelImportService {
 		return "@I" + idSuffix + "@";
 	}
 
-	private void handleMembershipForImportedPerson(Person person, PersonCreateDTO personDto) {
-		// Check if this person should have a membership based on the imported data
-		// Look for membership-related fields in the Excel data (like "Lid vanaf" -
-		// member since)
-
-		// For now, we'll create a basic membership if the person doesn't already have
-		// one
-		List<Membership> existingMemberships = membershipRepository.findByPerson(person);
-		if (existingMemberships.isEmpty()) {
-			// Create a new membership for this person
-			Membership membership = new Membership();
-			membership.setPerson(person);
-			membership.setMembershipType(com.mosque.crm.enums.MembershipType.FULL); // Default type
-			membership.setStartDate(java.time.LocalDate.now()); // Default to current date
-			membership.setStatus(com.mosque.crm.enums.MembershipStatus.ACTIVE); // Default to active
-
-			// If there's specific membership data in the personDto, use that instead
-			// This would require checking if the DTO has membership-specific fields
-			// For now, we'll just create a basic active membership
-
-			membershipRepository.save(membership);
-		}
+	private static String rootMessage(Throwable e) {
+		Throwable root = ExceptionUtils.getRootCause(e);
+		return (root != null ? root : e).getMessage();
 	}
 
-	// Method to assign family roles based on age and gender for all gezinnen
-	private void assignFamilyRolesForAllGezinnen(List<RowData> allRows) {
-		// Group all rows by gezinnenId
-		Map<String, List<RowData>> gezinnenGroups = new HashMap<>();
-		for (RowData rowData : allRows) {
-			if (StringUtils.isNotBlank(rowData.getGezinnenId())) {
-				gezinnenGroups.computeIfAbsent(rowData.getGezinnenId(), k -> new ArrayList<>()).add(rowData);
+	private static void deleteQuietly(Path path) {
+		if (path != null) {
+			try {
+				Files.deleteIfExists(path);
+			} catch (IOException e) {
+				log.warn("Could not delete import upload {}: {}", path, e.getMessage());
 			}
 		}
+	}
 
-		// Process each gezinnen group to assign family roles
-		for (Map.Entry<String, List<RowData>> entry : gezinnenGroups.entrySet()) {
-			String gezinnenId = entry.getKey();
-			List<RowData> groupRows = entry.getValue();
+	/** A person of the organization as far as matching import rows needs it. */
+	static final class Candidate {
+		final Long id;
+		String firstName;
+		String lastName;
+		LocalDate dateOfBirth;
+		String gender;
+
+		Candidate(Long id, String firstName, String lastName, LocalDate dateOfBirth, String gender) {
+			this.id = id;
+			this.firstName = firstName;
+			this.lastName = lastName;
+			this.dateOfBirth = dateOfBirth;
+			this.gender = gender;
+		}
 
-			try {
-				assignFamilyRolesForGezinnen(gezinnenId, groupRows);
-			} catch (Exception e) {
-				// Catch any exceptions during family assignment to prevent rollback of the
-				// entire import
-				System.err.println(
-						"Error processing family assignment for gezinnen " + gezinnenId + ": " + e.getMessage());
-				e.printStackTrace();
-			}
+		/** Apply the row's values the way the update statement does: only those present. */
+		void merge(PersonCreateDTO dto) {
+			if (dto.getFirstName() != null)
+				firstName = PersonNameUtil.normalize(dto.getFirstName());
+			if (dto.getLastName() != null)
+				lastName = PersonNameUtil.normalize(dto.getLastName());
+			if (dto.getDateOfBirth() != null)
+				dateOfBirth = dto.getDateOfBirth();
+			if (dto.getGender() != null)
+				gender = dto.getGender();
 		}
 	}
 
-	// Method to assign family roles within a specific gezinnen
-	private void assignFamilyRolesForGezinnen(String gezinnenId, List<RowData> groupRows) {
-		inferFamilyRelationships(gezinnenId, groupRows);
-	}
+	/**
+	 * The organization's persons by name (case-insensitive, as the database
+	 * compares them), with the hashes, emails, GEDCOM links and memberships an
+	 * import checks. Loaded once per import and kept current as rows are written.
+	 */
+	static final class MatchIndex {
+		private final Map<String, List<Candidate>> byName = new HashMap<>();
+		final Set<String> hashes = new HashSet<>();
+		final Map<String, Long> emails = new HashMap<>();
+		final Map<Long, String> individualIds = new HashMap<>();
+		final Set<Long> withMembership = new HashSet<>();
+
+		void add(Candidate candidate) {
+			byName.computeIfAbsent(nameKey(candidate.firstName, candidate.lastName), k -> new ArrayList<>(1))
+					.add(candidate);
+		}
 
-	// Implements the full inference logic as per copilot-instructions
-	private void inferFamilyRelationships(String gezinnenId, List<RowData> groupRows) {
-		try {
-			// 1. Collect all persons and calculate ages
-			List<PersonAndAge> peopleWithAges = new ArrayList<>();
-			for (RowData rowData : groupRows) {
-				Optional<Person> personOpt = Optional.empty();
-				if (StringUtils.isNotBlank(rowData.getPersonDto().getEmail())) {
-					Optional<PersonDTO> personDtoOpt = personService
-							.getPersonByEmail(rowData.getPersonDto().getEmail());
-					if (personDtoOpt.isPresent()) {
-						personOpt = personService.getPersonEntityById(personDtoOpt.get().getId());
-					}
-				}
-				if (!personOpt.isPresent() && StringUtils.isNotBlank(rowData.getPersonDto().getFirstName())) {
-					Optional<PersonDTO> personDtoOpt = personService.findPersonByNameAndDateOfBirth(
-							rowData.getPersonDto().getFirstName(), rowData.getPersonDto().getLastName(),
-							rowData.getPersonDto().getDateOfBirth());
-					if (personDtoOpt.isPresent()) {
-						personOpt = personService.getPersonEntityById(personDtoOpt.get().getId());
-					}
-				}
-				if (personOpt.isPresent()) {
-					Person person = personOpt.get();
-					Integer age = null;
-					if (person.getDateOfBirth() != null) {
-						age = java.time.Period.between(person.getDateOfBirth(), java.time.LocalDate.now()).getYears();
-					}
-					peopleWithAges.add(new PersonAndAge(person, age));
-				}
-			}
-			if (peopleWithAges.size() < 2) {
-				System.err.println("[FAMILY INFERENCE] Skipped gezinnenId=" + gezinnenId + ": less than 2 adults");
-				return;
-			}
-			// 2. Sort by age descending
-			peopleWithAges.sort((a, b) -> {
-				if (a.getAge() == null && b.getAge() == null)
-					return 0;
-				if (a.getAge() == null)
-					return 1;
-				if (b.getAge() == null)
-					return -1;
-				return b.getAge() - a.getAge();
-			});
-			// 3. Identify parents
-			PersonAndAge parent1 = peopleWithAges.get(0);
-			PersonAndAge parent2 = peopleWithAges.size() > 1 ? peopleWithAges.get(1) : null;
-			final PersonAndAge[] father = { null };
-			final PersonAndAge[] mother = { null };
-			if (parent1 != null && parent2 != null) {
-				String g1 = parent1.getPerson().getGender();
-				String g2 = parent2.getPerson().getGender();
-				if (isMale(g1) && isFemale(g2)) {
-					father[0] = parent1;
-					mother[0] = parent2;
-				} else if (isFemale(g1) && isMale(g2)) {
-					mother[0] = parent1;
-					father[0] = parent2;
-				} else {
-					// Pick eldest male and eldest female
-					for (PersonAndAge p : peopleWithAges) {
-						if (father[0] == null && isMale(p.getPerson().getGender()))
-							father[0] = p;
-						if (mother[0] == null && isFemale(p.getPerson().getGender()))
-							mother[0] = p;
+		Candidate add(Person person) {
+			Candidate candidate = new Candidate(person.getId(), person.getFirstName(), person.getLastName(),
+					person.getDateOfBirth(), person.getGender());
+			add(candidate);
+			return candidate;
+		}
+
+		/**
+		 * The person with this name and date of birth; without a date of birth,
+		 * the person with this name. Throws if more than one person matches.
+		 */
+		Candidate find(String firstName, String lastName, LocalDate dateOfBirth) {
+			List<Candidate> named = byName.getOrDefault(nameKey(PersonNameUtil.normalize(firstName),
+					PersonNameUtil.normalize(lastName)), List.of());
+			Candidate found = null;
+			for (Candidate c : named) {
+				if (dateOfBirth == null || dateOfBirth.equals(c.dateOfBirth)) {
+					if (found != null) {
+						throw new IllegalStateException("More than one person named " + firstName + " "
+								+ StringUtils.defaultString(lastName) + " matches; row not imported");
 					}
+					found = c;
 				}
 			}
-			if (father[0] == null || mother[0] == null) {
-				System.err.println(
-						"[FAMILY INFERENCE] Skipped gezinnenId=" + gezinnenId + ": no valid male-female parent pair");
-				return;
-			}
-			// 4. Identify children
-			int youngestParentAge = Math.min(father[0].getAge() != null ? father[0].getAge() : Integer.MAX_VALUE,
-					mother[0].getAge() != null ? mother[0].getAge() : Integer.MAX_VALUE);
-			List<PersonAndAge> children = new ArrayList<>();
-			List<PersonAndAge> otherAdults = new ArrayList<>();
-			for (PersonAndAge p : peopleWithAges) {
-				if (p == father[0] || p == mother[0])
-					continue;
-				if (p.getAge() != null && (youngestParentAge - p.getAge()) >= 16) {
-					children.add(p);
-				} else {
-					otherAdults.add(p);
-				}
-			}
-			// 5. Create or update family
-			String familyId = "@F" + gezinnenId + "@";
-			com.mosque.crm.entity.gedcom.Family family;
-			Optional<com.mosque.crm.entity.gedcom.Family> existingFamily = familyRepository.findById(familyId);
-			if (existingFamily.isPresent()) {
-				family = existingFamily.get();
-			} else {
-				com.mosque.crm.entity.gedcom.Family fam = new com.mosque.crm.entity.gedcom.Family();
-				fam.setId(familyId);
-				fam.setMarriageDate(java.time.LocalDate.now());
-				// Set husband/wife IDs
-				Optional<com.mosque.crm.entity.GedcomPersonLink> fLink = gedcomPersonLinkRepository
-						.findByPerson(father[0].getPerson());
-				Optional<com.mosque.crm.entity.GedcomPersonLink> mLink = gedcomPersonLinkRepository
-						.findByPerson(mother[0].getPerson());
-				if (fLink.isPresent()) {
-					fam.setHusbandId(fLink.get().getGedcomIndividual().getId());
-				}
-				if (mLink.isPresent()) {
-					fam.setWifeId(mLink.get().getGedcomIndividual().getId());
-				}
-				family = familyRepository.saveAndFlush(fam);
-			}
-			// 6. Link children to both parents
-			for (PersonAndAge child : children) {
-				addPersonToFamilyAsChildInferred(child.getPerson(), family);
-			}
-			// 7. Link other adults as siblings-in-law
-			for (PersonAndAge adult : otherAdults) {
-				String lastName = adult.getPerson().getLastName();
-				boolean matchesMother = lastName != null && mother[0].getPerson().getLastName() != null
-						&& lastName.equalsIgnoreCase(mother[0].getPerson().getLastName());
-				boolean matchesFather = lastName != null && father[0].getPerson().getLastName() != null
-						&& lastName.equalsIgnoreCase(father[0].getPerson().getLastName());
-				PersonAndAge linkTo = matchesMother ? mother[0] : (matchesFather ? father[0] : father[0]);
-				System.out.println("[FAMILY INFERENCE] Inferred sibling-in-law: " + adult.getPerson().getFirstName()
-						+ " linked to " + linkTo.getPerson().getFirstName());
-			}
-			// 8. Link parents as partners (if not already linked)
-			// (Assume handled by Family.husbandId/wifeId)
-		} catch (Exception e) {
-			System.err.println("[FAMILY INFERENCE] Error gezinnenId=" + gezinnenId + ": " + e.getMessage());
-			e.printStackTrace();
+			return found;
+		}
+
+		Long emailOwner(String email) {
+			return emails.get(email.toLowerCase(Locale.ROOT));
+		}
+
+		private static String nameKey(String firstName, String lastName) {
+			return StringUtils.trimToEmpty(firstName).toLowerCase(Locale.ROOT) + "|"
+					+ StringUtils.trimToEmpty(lastName).toLowerCase(Locale.ROOT);
 		}
 	}
 
-	private boolean isMale(String gender) {
-		if (gender == null)
-			return false;
-		String g = gender.trim().toUpperCase();
-		return g.equals("M");
+	/** A written row that belongs to a Gezinnen group. */
+	record FamilyMember(Long personId, String individualId, String gezinnenId, int rowNumber, String gender,
+			LocalDate dateOfBirth) {
 	}
 
-	private boolean isFemale(String gender) {
-		if (gender == null)
-			return false;
-		String g = gender.trim().toUpperCase();
-		return g.equals("F");
+	record FamilyRoles(FamilyMember father, FamilyMember mother, List<FamilyMember> children) {
 	}
 
-	// Helper method to add a person to a family as a child, with inferred flag
-	private void addPersonToFamilyAsChildInferred(Person person, com.mosque.crm.entity.gedcom.Family family) {
-		Optional<com.mosque.crm.entity.GedcomPersonLink> personLink = gedcomPersonLinkRepository.findByPerson(person);
-		if (personLink.isPresent()) {
-			String individualId = personLink.get().getGedcomIndividual().getId();
-			boolean alreadyExists = familyChildRepository.existsByFamilyIdAndChildId(family.getId(), individualId);
-			if (!alreadyExists) {
-				com.mosque.crm.entity.gedcom.FamilyChild familyChild = new com.mosque.crm.entity.gedcom.FamilyChild();
-				familyChild.setFamilyId(family.getId());
-				familyChild.setChildId(individualId);
-				familyChild.setRelationshipType(com.mosque.crm.enums.RelationshipType.BIOLOGICAL);
-				familyChildRepository.save(familyChild);
-			}
-		}
+	/** A written row with the person it matched or created; its Gezinnen group is resolved after the GEDCOM writes. */
+	private record Grouped(Candidate candidate, RowData row) {
+	}
+
+	private record PendingGedcom(Candidate candidate, Person person) {
 	}
 
-}
\ No newline at end of file
+	private static final class ChunkOutcome {
+		int created;
+		int updated;
+		int skipped;
+		final List<ImportRowIssue> issues = new ArrayList<>();
+		final List<FamilyMember> familyMembers = new ArrayList<>();
+	}
+}
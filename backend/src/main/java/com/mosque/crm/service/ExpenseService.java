@@ -244,7 +244,7 @@ public class ExpenseService {
 
     private Long currentUserId() {
         try {
-            return authorizationService.getCurrentUser().getId();
+            return authorizationService.getCurrentUserId();
         } catch (Exception e) {
             return null;
         }
@@ -0,0 +1,415 @@
+package com.mosque.crm.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mosque.crm.dto.GenealogyEdgeDTO;
+import com.mosque.crm.dto.GenealogyGraphDTO;
+import com.mosque.crm.dto.GenealogyNodeDTO;
+
+/**
+ * Immutable in-memory index of one organization's GEDCOM structure:
+ * individuals, families, family→children and individual→person links.
+ * <p>
+ * Individuals and families are numbered 0..n-1 in load order and all adjacency
+ * is kept in int arrays (compressed rows), so traversals touch no maps beyond
+ * the entry lookup. Person names are deliberately not part of the index; they
+ * change independently of the family structure and are resolved by the caller
+ * (see {@link FamilyGraphCache#loadPersonNames}).
+ * <p>
+ * Instances are built by {@link FamilyGraphCache} and shared between threads;
+ * array-returning accessors hand out copies.
+ */
+public final class FamilyGraph {
+
+    /** Traverse without a depth limit. */
+    public static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+    /** Index returned for unknown individuals and families. */
+    public static final int NONE = -1;
+
+    private final long version;
+
+    // individuals
+    private final String[] individualIds;
+    private final Map<String, Integer> individualIndex;
+    private final String[] givenNames;
+    private final String[] surnames;
+    private final String[] sexes;
+    private final LocalDate[] birthDates;
+    /** linked person id per individual, 0 when unlinked */
+    private final long[] personIds;
+    private final Map<Long, Integer> individualByPerson;
+
+    // families
+    private final String[] familyIds;
+    private final Map<String, Integer> familyIndex;
+    private final String[] husbandIds;
+    private final String[] wifeIds;
+    /** husband/wife individual index, NONE when absent or not loaded */
+    private final int[] husbands;
+    private final int[] wives;
+
+    // family → children, compressed rows: slots childOffsets[f] .. childOffsets[f + 1]
+    private final int[] childOffsets;
+    private final String[] childIds;
+    private final int[] childIndividuals;
+    private final long[] familyChildIds;
+
+    // individual → families as spouse / as child, compressed rows
+    private final int[] spouseOffsets;
+    private final int[] spouseFamilies;
+    private final int[] parentOffsets;
+    private final int[] parentFamilies;
+
+    private FamilyGraph(long version, int individualCount, int familyCount, int childCount) {
+        this.version = version;
+        this.individualIds = new String[individualCount];
+        this.individualIndex = new HashMap<>(capacity(individualCount));
+        this.givenNames = new String[individualCount];
+        this.surnames = new String[individualCount];
+        this.sexes = new String[individualCount];
+        this.birthDates = new LocalDate[individualCount];
+        this.personIds = new long[individualCount];
+        this.individualByPerson = new HashMap<>();
+        this.familyIds = new String[familyCount];
+        this.familyIndex = new HashMap<>(capacity(familyCount));
+        this.husbandIds = new String[familyCount];
+        this.wifeIds = new String[familyCount];
+        this.husbands = new int[familyCount];
+        this.wives = new int[familyCount];
+        this.childOffsets = new int[familyCount + 1];
+        this.childIds = new String[childCount];
+        this.childIndividuals = new int[childCount];
+        this.familyChildIds = new long[childCount];
+        this.spouseOffsets = new int[individualCount + 1];
+        this.parentOffsets = new int[individualCount + 1];
+        this.spouseFamilies = new int[2 * familyCount];
+        this.parentFamilies = new int[childCount];
+    }
+
+    /**
+     * Build the index from projection rows.
+     *
+     * @param version         the cache version this snapshot was loaded at
+     * @param individualRows  [id, givenName, surname, sex, birthDate]
+     * @param familyRows      [id, husbandId, wifeId]
+     * @param familyChildRows [familyChildId, familyId, childId], in child order
+     * @param personLinkRows  [individualId, personId]
+     */
+    public static FamilyGraph build(long version, Collection<Object[]> individualRows, Collection<Object[]> familyRows,
+                                    Collection<Object[]> familyChildRows, Collection<Object[]> personLinkRows) {
+        // Children of families that are not loaded are dropped up front
+        Map<String, List<Object[]>> childrenByFamily = new HashMap<>(capacity(familyRows.size()));
+        int childCount = 0;
+        for (Object[] row : familyChildRows) {
+            childrenByFamily.computeIfAbsent((String) row[1], k -> new ArrayList<>(2)).add(row);
+        }
+        for (Object[] row : familyRows) {
+            List<Object[]> children = childrenByFamily.get((String) row[0]);
+            childCount += children != null ? children.size() : 0;
+        }
+
+        FamilyGraph g = new FamilyGraph(version, individualRows.size(), familyRows.size(), childCount);
+
+        int i = 0;
+        for (Object[] row : individualRows) {
+            g.individualIds[i] = (String) row[0];
+            g.givenNames[i] = (String) row[1];
+            g.surnames[i] = (String) row[2];
+            g.sexes[i] = row[3] != null ? row[3].toString() : null;
+            g.birthDates[i] = (LocalDate) row[4];
+            g.individualIndex.put(g.individualIds[i], i);
+            i++;
+        }
+
+        int[] spouseCounts = new int[g.individualIds.length];
+        int[] parentCounts = new int[g.individualIds.length];
+        int f = 0;
+        int slot = 0;
+        for (Object[] row : familyRows) {
+            g.familyIds[f] = (String) row[0];
+            g.husbandIds[f] = (String) row[1];
+            g.wifeIds[f] = (String) row[2];
+            g.husbands[f] = g.individualIndex(g.husbandIds[f]);
+            g.wives[f] = g.individualIndex(g.wifeIds[f]);
+            g.familyIndex.put(g.familyIds[f], f);
+            if (g.husbands[f] != NONE) {
+                spouseCounts[g.husbands[f]]++;
+            }
+            if (g.wives[f] != NONE && g.wives[f] != g.husbands[f]) {
+                spouseCounts[g.wives[f]]++;
+            }
+
+            g.childOffsets[f] = slot;
+            List<Object[]> children = childrenByFamily.getOrDefault(g.familyIds[f], List.of());
+            for (Object[] child : children) {
+                g.familyChildIds[slot] = ((Number) child[0]).longValue();
+                g.childIds[slot] = (String) child[2];
+                g.childIndividuals[slot] = g.individualIndex(g.childIds[slot]);
+                if (g.childIndividuals[slot] != NONE) {
+                    parentCounts[g.childIndividuals[slot]]++;
+                }
+                slot++;
+            }
+            f++;
+        }
+        g.childOffsets[f] = slot;
+
+        // Second pass: fill the individual → family rows in family order
+        prefixSums(spouseCounts, g.spouseOffsets);
+        prefixSums(parentCounts, g.parentOffsets);
+        int[] spouseFill = Arrays.copyOf(g.spouseOffsets, g.spouseOffsets.length);
+        int[] parentFill = Arrays.copyOf(g.parentOffsets, g.parentOffsets.length);
+        for (f = 0; f < g.familyIds.length; f++) {
+            if (g.husbands[f] != NONE) {
+                g.spouseFamilies[spouseFill[g.husbands[f]]++] = f;
+            }
+            if (g.wives[f] != NONE && g.wives[f] != g.husbands[f]) {
+                g.spouseFamilies[spouseFill[g.wives[f]]++] = f;
+            }
+            for (slot = g.childOffsets[f]; slot < g.childOffsets[f + 1]; slot++) {
+                int child = g.childIndividuals[slot];
+                if (child != NONE) {
+                    g.parentFamilies[parentFill[child]++] = f;
+                }
+            }
+        }
+
+        for (Object[] row : personLinkRows) {
+            int individual = g.individualIndex((String) row[0]);
+            if (individual == NONE || row[1] == null) {
+                continue;
+            }
+            long personId = ((Number) row[1]).longValue();
+            g.personIds[individual] = personId;
+            g.individualByPerson.put(personId, individual);
+        }
+        return g;
+    }
+
+    // ─── lookups ─────────────────────────────────────────────────────────
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int individualCount() {
+        return individualIds.length;
+    }
+
+    public int familyCount() {
+        return familyIds.length;
+    }
+
+    /** Index of an individual, or {@link #NONE}. */
+    public int individualIndex(String individualId) {
+        Integer index = individualId != null ? individualIndex.get(individualId) : null;
+        return index != null ? index : NONE;
+    }
+
+    /** Index of the individual linked to a person, or {@link #NONE}. */
+    public int individualIndexOfPerson(Long personId) {
+        Integer index = personId != null ? individualByPerson.get(personId) : null;
+        return index != null ? index : NONE;
+    }
+
+    /** The GEDCOM individual linked to a person, or {@code null}. */
+    public String findIndividualIdByPersonId(Long personId) {
+        int index = individualIndexOfPerson(personId);
+        return index != NONE ? individualIds[index] : null;
+    }
+
+    public String individualId(int individual) {
+        return individualIds[individual];
+    }
+
+    /** The person linked to an individual, or {@code null}; NONE-safe. */
+    public Long personIdOf(int individual) {
+        return individual != NONE && personIds[individual] != 0 ? personIds[individual] : null;
+    }
+
+    /** Index of a family, or {@link #NONE}. */
+    public int familyIndex(String familyId) {
+        Integer index = familyId != null ? familyIndex.get(familyId) : null;
+        return index != null ? index : NONE;
+    }
+
+    public String familyId(int family) {
+        return familyIds[family];
+    }
+
+    /** Husband's individual index, or {@link #NONE} when absent or not loaded. */
+    public int husband(int family) {
+        return husbands[family];
+    }
+
+    /** Wife's individual index, or {@link #NONE} when absent or not loaded. */
+    public int wife(int family) {
+        return wives[family];
+    }
+
+    /** Families in which the individual is husband or wife, in family order. */
+    public int[] spouseFamiliesOf(int individual) {
+        return Arrays.copyOfRange(spouseFamilies, spouseOffsets[individual], spouseOffsets[individual + 1]);
+    }
+
+    /** Families in which the individual is a child, in family order. */
+    public int[] parentFamiliesOf(int individual) {
+        return Arrays.copyOfRange(parentFamilies, parentOffsets[individual], parentOffsets[individual + 1]);
+    }
+
+    /** First child slot of a family; children occupy {@code childStart(f) .. childStart(f + 1)}. */
+    public int childStart(int family) {
+        return childOffsets[family];
+    }
+
+    /** One past the last child slot of a family. */
+    public int childEnd(int family) {
+        return childOffsets[family + 1];
+    }
+
+    /** Child individual index at a slot, or {@link #NONE} when that individual is not loaded. */
+    public int childAt(int slot) {
+        return childIndividuals[slot];
+    }
+
+    /** The family_children row id at a slot. */
+    public long familyChildIdAt(int slot) {
+        return familyChildIds[slot];
+    }
+
+    // ─── graph DTOs ──────────────────────────────────────────────────────
+
+    /**
+     * Breadth-first traversal over spouses, children, parents and siblings,
+     * starting at the given individual. Individuals more than {@code maxDepth}
+     * hops away are not included; the families of those exactly at the limit
+     * are not expanded. PERSON nodes carry the individual's gender and birth
+     * date; their labels are left for the caller to fill in from the linked
+     * person (see {@link #personIdOf}).
+     */
+    public GenealogyGraphDTO traverse(String startIndividualId, int maxDepth) {
+        List<GenealogyNodeDTO> nodes = new ArrayList<>();
+        List<GenealogyEdgeDTO> edges = new ArrayList<>();
+        int start = individualIndex(startIndividualId);
+        if (start == NONE) {
+            return new GenealogyGraphDTO(nodes, edges);
+        }
+
+        int[] depths = new int[individualIds.length];
+        Arrays.fill(depths, NONE);
+        boolean[] processedFamilies = new boolean[familyIds.length];
+        int[] queue = new int[individualIds.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        depths[start] = 0;
+
+        while (head < tail) {
+            int individual = queue[head++];
+            int nextDepth = depths[individual] + 1;
+
+            nodes.add(new GenealogyNodeDTO(individualIds[individual], "PERSON", null,
+                    sexes[individual] != null ? sexes[individual] : "U", birthDates[individual]));
+
+            if (depths[individual] >= maxDepth) {
+                continue;
+            }
+
+            // Families where this individual is a spouse
+            for (int s = spouseOffsets[individual]; s < spouseOffsets[individual + 1]; s++) {
+                int family = spouseFamilies[s];
+                if (processedFamilies[family]) {
+                    continue;
+                }
+                processedFamilies[family] = true;
+                nodes.add(new GenealogyNodeDTO(familyIds[family], "FAMILY", null, null));
+                tail = addSpouses(family, edges, queue, tail, depths, nextDepth);
+                for (int slot = childOffsets[family]; slot < childOffsets[family + 1]; slot++) {
+                    edges.add(new GenealogyEdgeDTO(familyIds[family], childIds[slot]));
+                    tail = enqueue(childIndividuals[slot], queue, tail, depths, nextDepth);
+                }
+            }
+
+            // Families where this individual is a child (parents and siblings)
+            for (int p = parentOffsets[individual]; p < parentOffsets[individual + 1]; p++) {
+                int family = parentFamilies[p];
+                if (processedFamilies[family]) {
+                    continue;
+                }
+                processedFamilies[family] = true;
+                nodes.add(new GenealogyNodeDTO(familyIds[family], "FAMILY", null, null));
+                tail = addSpouses(family, edges, queue, tail, depths, nextDepth);
+                edges.add(new GenealogyEdgeDTO(familyIds[family], individualIds[individual]));
+                for (int slot = childOffsets[family]; slot < childOffsets[family + 1]; slot++) {
+                    tail = enqueue(childIndividuals[slot], queue, tail, depths, nextDepth);
+                    edges.add(new GenealogyEdgeDTO(familyIds[family], childIds[slot]));
+                }
+            }
+        }
+        return new GenealogyGraphDTO(nodes, edges);
+    }
+
+    /** Every individual and family with all spouse and child edges. */
+    public GenealogyGraphDTO complete() {
+        List<GenealogyNodeDTO> nodes = new ArrayList<>(individualIds.length + familyIds.length);
+        List<GenealogyEdgeDTO> edges = new ArrayList<>(2 * familyIds.length + childIds.length);
+        for (int i = 0; i < individualIds.length; i++) {
+            nodes.add(new GenealogyNodeDTO(individualIds[i], "PERSON",
+                    givenNames[i] + " " + surnames[i], sexes[i], birthDates[i]));
+        }
+        for (int f = 0; f < familyIds.length; f++) {
+            nodes.add(new GenealogyNodeDTO(familyIds[f], "FAMILY"));
+            if (husbandIds[f] != null) {
+                edges.add(new GenealogyEdgeDTO(husbandIds[f], familyIds[f]));
+            }
+            if (wifeIds[f] != null) {
+                edges.add(new GenealogyEdgeDTO(wifeIds[f], familyIds[f]));
+            }
+            for (int slot = childOffsets[f]; slot < childOffsets[f + 1]; slot++) {
+                edges.add(new GenealogyEdgeDTO(familyIds[f], childIds[slot]));
+            }
+        }
+        return new GenealogyGraphDTO(nodes, edges);
+    }
+
+    // ─── internal ────────────────────────────────────────────────────────
+
+    private int addSpouses(int family, List<GenealogyEdgeDTO> edges, int[] queue, int tail, int[] depths, int depth) {
+        if (husbandIds[family] != null) {
+            edges.add(new GenealogyEdgeDTO(husbandIds[family], familyIds[family]));
+            tail = enqueue(husbands[family], queue, tail, depths, depth);
+        }
+        if (wifeIds[family] != null) {
+            edges.add(new GenealogyEdgeDTO(wifeIds[family], familyIds[family]));
+            tail = enqueue(wives[family], queue, tail, depths, depth);
+        }
+        return tail;
+    }
+
+    /** Enqueue a loaded, unvisited individual; returns the new queue tail. */
+    private static int enqueue(int individual, int[] queue, int tail, int[] depths, int depth) {
+        if (individual == NONE || depths[individual] != NONE) {
+            return tail;
+        }
+        depths[individual] = depth;
+        queue[tail] = individual;
+        return tail + 1;
+    }
+
+    private static void prefixSums(int[] counts, int[] offsets) {
+        for (int i = 0; i < counts.length; i++) {
+            offsets[i + 1] = offsets[i] + counts[i];
+        }
+    }
+
+    private static int capacity(int size) {
+        return Math.max(16, (int) (size / 0.75f) + 1);
+    }
+}
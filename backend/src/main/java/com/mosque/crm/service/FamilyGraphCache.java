@@ -0,0 +1,216 @@
+package com.mosque.crm.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.repository.FamilyChildRepository;
+import com.mosque.crm.repository.FamilyRepository;
+import com.mosque.crm.repository.GedcomPersonLinkRepository;
+import com.mosque.crm.repository.IndividualRepository;
+import com.mosque.crm.repository.PersonRepository;
+
+/**
+ * Per-organization cache of {@link FamilyGraph} snapshots, shared by
+ * {@link GenealogyGraphService}, {@link RelationshipService} and
+ * {@link MemberDirectoryFamilyResolver}.
+ * <p>
+ * A snapshot is loaded with four projection queries on first use and kept until
+ * a {@link FamilyGraphChangedEvent} for its organization commits, it is older
+ * than {@code family-graph.cache.ttl-ms}, or it is evicted as least recently
+ * used beyond {@code family-graph.cache.max-organizations}. Each organization
+ * has a version counter that every invalidation bumps; a load that raced with
+ * an invalidation is handed out once but never cached.
+ * <p>
+ * The super administrator context (no organization) has its own snapshot across
+ * all organizations, dropped on any change.
+ */
+@Component
+public class FamilyGraphCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FamilyGraphCache.class);
+
+    /** Cache key of the unfiltered, all-organizations graph. */
+    private static final Long ALL_ORGANIZATIONS = 0L;
+
+    private static final int PERSON_NAME_CHUNK_SIZE = 1000;
+
+    private final IndividualRepository individualRepository;
+    private final FamilyRepository familyRepository;
+    private final FamilyChildRepository familyChildRepository;
+    private final GedcomPersonLinkRepository linkRepository;
+    private final PersonRepository personRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final int maxOrganizations;
+    private final long ttlMs;
+
+    /** organizationId → Entry, access-ordered for LRU eviction; guarded by itself. */
+    private final LinkedHashMap<Long, Entry> graphs;
+
+    /** organizationId → version, bumped on every invalidation; guarded by {@link #graphs}. */
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public FamilyGraphCache(IndividualRepository individualRepository,
+                            FamilyRepository familyRepository,
+                            FamilyChildRepository familyChildRepository,
+                            GedcomPersonLinkRepository linkRepository,
+                            PersonRepository personRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${family-graph.cache.max-organizations:200}") int maxOrganizations,
+                            @Value("${family-graph.cache.ttl-ms:600000}") long ttlMs) {
+        this.individualRepository = individualRepository;
+        this.familyRepository = familyRepository;
+        this.familyChildRepository = familyChildRepository;
+        this.linkRepository = linkRepository;
+        this.personRepository = personRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxOrganizations = maxOrganizations;
+        this.ttlMs = ttlMs;
+        this.graphs = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > FamilyGraphCache.this.maxOrganizations;
+            }
+        };
+    }
+
+    // ─── lookups ─────────────────────────────────────────────────────────
+
+    /** The family graph of the current organization (all organizations for super administrators). */
+    public FamilyGraph get() {
+        Long key = cacheKey(TenantContext.getCurrentOrganizationId());
+        long now = System.currentTimeMillis();
+        long version;
+        synchronized (graphs) {
+            Entry entry = graphs.get(key);
+            if (entry != null && now < entry.expiresAt) {
+                hits.incrementAndGet();
+                return entry.graph;
+            }
+            version = versions.getOrDefault(key, 0L);
+        }
+
+        misses.incrementAndGet();
+        FamilyGraph graph = load(version);
+        synchronized (graphs) {
+            if (versions.getOrDefault(key, 0L) == version) {
+                graphs.put(key, new Entry(graph, now + ttlMs));
+            }
+        }
+        log.debug("Loaded family graph for organization {}: {} individuals, {} families",
+                key, graph.individualCount(), graph.familyCount());
+        return graph;
+    }
+
+    /**
+     * Current first and last names of the given persons. Names are not cached in
+     * the graph because they are edited independently of family structure.
+     */
+    public Map<Long, PersonName> loadPersonNames(Collection<Long> personIds) {
+        Map<Long, PersonName> names = new HashMap<>();
+        List<Long> ids = new ArrayList<>(personIds);
+        for (int from = 0; from < ids.size(); from += PERSON_NAME_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + PERSON_NAME_CHUNK_SIZE, ids.size()));
+            for (Object[] row : personRepository.findNamesByIdIn(chunk)) {
+                names.put((Long) row[0], new PersonName((String) row[1], (String) row[2]));
+            }
+        }
+        return names;
+    }
+
+    // ─── invalidation ────────────────────────────────────────────────────
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFamilyGraphChanged(FamilyGraphChangedEvent event) {
+        if (event.organizationId() == null) {
+            invalidateAll();
+        } else {
+            invalidate(event.organizationId());
+        }
+    }
+
+    /** Drop one organization's graph (and the all-organizations graph). */
+    public void invalidate(Long organizationId) {
+        synchronized (graphs) {
+            bump(cacheKey(organizationId));
+            bump(ALL_ORGANIZATIONS);
+        }
+        log.debug("Invalidated family graph for organization {}", organizationId);
+    }
+
+    /** Drop every cached graph. */
+    public void invalidateAll() {
+        synchronized (graphs) {
+            for (Long key : new ArrayList<>(graphs.keySet())) {
+                bump(key);
+            }
+            bump(ALL_ORGANIZATIONS);
+        }
+    }
+
+    /** Sizes and hit/miss counters. */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (graphs) {
+            stats.put("organizations", graphs.size());
+        }
+        stats.put("maxOrganizations", maxOrganizations);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    // ─── internal ────────────────────────────────────────────────────────
+
+    /** Caller holds the {@link #graphs} lock. */
+    private void bump(Long key) {
+        versions.merge(key, 1L, Long::sum);
+        graphs.remove(key);
+    }
+
+    private FamilyGraph load(long version) {
+        // One read-only transaction so the four queries see the same state
+        return readOnlyTransaction.execute(status -> FamilyGraph.build(
+                version,
+                individualRepository.findGraphRows(),
+                familyRepository.findGraphRows(),
+                familyChildRepository.findGraphRows(),
+                linkRepository.findGraphRows()));
+    }
+
+    private static Long cacheKey(Long organizationId) {
+        return organizationId != null ? organizationId : ALL_ORGANIZATIONS;
+    }
+
+    private static final class Entry {
+        final FamilyGraph graph;
+        final long expiresAt;
+
+        Entry(FamilyGraph graph, long expiresAt) {
+            this.graph = graph;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /** A person's current name. */
+    public record PersonName(String firstName, String lastName) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.mosque.crm.service;
+
+import com.mosque.crm.multitenancy.TenantContext;
+
+/**
+ * Published after GEDCOM individuals, families, family children or person
+ * links of an organization were written. {@link FamilyGraphCache} drops the
+ * organization's cached graph once the publishing transaction commits.
+ * <p>
+ * A {@code null} organization (super administrator context) drops every graph.
+ */
+public record FamilyGraphChangedEvent(Long organizationId) {
+
+    /** Event for the organization of the current request. */
+    public static FamilyGraphChangedEvent forCurrentOrganization() {
+        return new FamilyGraphChangedEvent(TenantContext.getCurrentOrganizationId());
+    }
+}
@@ -397,18 +397,18 @@ public class FederationNotificationService {
             String inAppBody = detailMessage != null && !detailMessage.isBlank()
                     ? bodyText + " " + detailMessage
                     : bodyText;
+            try {
+                userNotificationService.createForUsers(
+                        admins.stream().map(User::getId).toList(),
+                        orgId,
+                        notificationType,
+                        title,
+                        inAppBody,
+                        linkPath);
+            } catch (Exception e) {
+                log.warn("Failed to create in-app notifications for admins of organization {}: {}", orgId, e.getMessage());
+            }
             for (User admin : admins) {
-                try {
-                    userNotificationService.create(
-                            admin.getId(),
-                            orgId,
-                            notificationType,
-                            title,
-                            inAppBody,
-                            linkPath);
-                } catch (Exception e) {
-                    log.warn("Failed to create in-app notification for admin {}: {}", admin.getId(), e.getMessage());
-                }
                 if (admin.getEmail() == null || admin.getEmail().isBlank()) {
                     continue;
                 }
@@ -0,0 +1,91 @@
+package com.mosque.crm.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Allocates GEDCOM xrefs ({@code @I{n}@} for individuals, {@code @F{n}@} for
+ * families) from counter rows in {@code sequences_}, the table that also backs
+ * the Hibernate TableGenerators.
+ * <p>
+ * Each node reserves a block of {@code gedcom.id-allocator.block-size} numbers
+ * through {@link SequenceRangeAllocator}, then hands them out from memory.
+ * Blocks never overlap across nodes; numbers of a block left unused at
+ * shutdown are skipped. Liquibase changeset 227 seeds and re-syncs the
+ * counters from the current max xrefs.
+ * <p>
+ * Xrefs are primary keys across all organizations, and the Excel import
+ * derives some from person IDs, so a candidate that already exists is skipped.
+ */
+@Component
+public class GedcomIdAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(GedcomIdAllocator.class);
+
+    static final String INDIVIDUAL_SEQUENCE = "gedcom_individual_xref_seq";
+    static final String FAMILY_SEQUENCE = "gedcom_family_xref_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceRangeAllocator rangeAllocator;
+    private final int blockSize;
+
+    private final Block individualBlock = new Block();
+    private final Block familyBlock = new Block();
+
+    public GedcomIdAllocator(JdbcTemplate jdbcTemplate,
+                             SequenceRangeAllocator rangeAllocator,
+                             @Value("${gedcom.id-allocator.block-size:20}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rangeAllocator = rangeAllocator;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /** Next unused individual xref, e.g. {@code @I42@}. */
+    public String nextIndividualId() {
+        return nextFreeId(individualBlock, INDIVIDUAL_SEQUENCE, "@I", "gedcom_individuals");
+    }
+
+    /** Next unused family xref, e.g. {@code @F42@}. */
+    public String nextFamilyId() {
+        return nextFreeId(familyBlock, FAMILY_SEQUENCE, "@F", "gedcom_families");
+    }
+
+    // ─── internal ────────────────────────────────────────────────────────
+
+    private String nextFreeId(Block block, String sequence, String prefix, String table) {
+        while (true) {
+            String candidate = prefix + next(block, sequence) + "@";
+            Integer taken = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + table + " WHERE id = ?", Integer.class, candidate);
+            if (taken == null || taken == 0) {
+                return candidate;
+            }
+            log.debug("GEDCOM xref {} already exists; skipping", candidate);
+        }
+    }
+
+    private long next(Block block, String sequence) {
+        synchronized (block) {
+            if (block.next >= block.end) {
+                long end = reserve(sequence);
+                block.next = end - blockSize;
+                block.end = end;
+            }
+            return block.next++;
+        }
+    }
+
+    private long reserve(String sequence) {
+        long end = rangeAllocator.reserve(sequence, blockSize, 1) + blockSize;
+        log.debug("Reserved GEDCOM xref block [{}, {}) from {}", end - blockSize, end, sequence);
+        return end;
+    }
+
+    private static final class Block {
+        long next;
+        long end;
+    }
+}
@@ -2,6 +2,7 @@ package com.mosque.crm.service;
 
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,15 +17,20 @@ public class GedcomPersonLinkService {
 
     private final GedcomPersonLinkRepository gedcomPersonLinkRepository;
     private final IndividualRepository individualRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public GedcomPersonLinkService(GedcomPersonLinkRepository gedcomPersonLinkRepository,
-                                   IndividualRepository individualRepository) {
+                                   IndividualRepository individualRepository,
+                                   ApplicationEventPublisher eventPublisher) {
         this.gedcomPersonLinkRepository = gedcomPersonLinkRepository;
         this.individualRepository = individualRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public GedcomPersonLink createLink(Person person, Individual individual) {
+        eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
+
         // Check if a link already exists for this person
         Optional<GedcomPersonLink> existingLink = gedcomPersonLinkRepository.findByPerson(person);
         if (existingLink.isPresent()) {
@@ -53,5 +59,6 @@ public class GedcomPersonLinkService {
     public void removeLinkForPerson(Person person) {
         Optional<GedcomPersonLink> link = gedcomPersonLinkRepository.findByPerson(person);
         link.ifPresent(gedcomPersonLinkRepository::delete);
+        eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
     }
 }
\ No newline at end of file
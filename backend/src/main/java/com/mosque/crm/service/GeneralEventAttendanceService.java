@@ -1,11 +1,17 @@
 package com.mosque.crm.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,7 +23,6 @@ import com.mosque.crm.entity.GeneralEventRegistration;
 import com.mosque.crm.entity.GeneralEventSession;
 import com.mosque.crm.entity.Person;
 import com.mosque.crm.enums.AttendanceStatus;
-import com.mosque.crm.enums.RsvpStatus;
 import com.mosque.crm.multitenancy.TenantContext;
 import com.mosque.crm.repository.GeneralEventAttendanceRepository;
 import com.mosque.crm.repository.GeneralEventRegistrationRepository;
@@ -30,23 +35,42 @@ public class GeneralEventAttendanceService {
 
     private static final Logger log = LoggerFactory.getLogger(GeneralEventAttendanceService.class);
 
+    /** Counter row and start value of the {@link GeneralEventAttendance} TableGenerator. */
+    private static final String ATTENDANCE_SEQUENCE = "gen_event_attendance_seq";
+    private static final long ATTENDANCE_INITIAL_VALUE = 1000;
+
+    /**
+     * Confirmed registrations of an event (first parameter) in the organization (second parameter)
+     * without a row for the session (third parameter).
+     */
+    private static final String MISSING_REGISTRATIONS_SQL =
+            "WHERE r.general_event_id = ? AND r.organization_id = ? AND (r.rsvp_status = 'CONFIRMED' OR r.rsvp_status IS NULL) "
+                    + "AND NOT EXISTS (SELECT 1 FROM org_general_event_attendance a "
+                    + "WHERE a.session_id = ? AND a.registration_id = r.id)";
+
     private final GeneralEventAttendanceRepository attendanceRepository;
     private final GeneralEventSessionRepository sessionRepository;
     private final GeneralEventRepository eventRepository;
     private final GeneralEventRegistrationRepository registrationRepository;
     private final PersonRepository personRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceRangeAllocator rangeAllocator;
 
     public GeneralEventAttendanceService(
             GeneralEventAttendanceRepository attendanceRepository,
             GeneralEventSessionRepository sessionRepository,
             GeneralEventRepository eventRepository,
             GeneralEventRegistrationRepository registrationRepository,
-            PersonRepository personRepository) {
+            PersonRepository personRepository,
+            JdbcTemplate jdbcTemplate,
+            SequenceRangeAllocator rangeAllocator) {
         this.attendanceRepository = attendanceRepository;
         this.sessionRepository = sessionRepository;
         this.eventRepository = eventRepository;
         this.registrationRepository = registrationRepository;
         this.personRepository = personRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rangeAllocator = rangeAllocator;
     }
 
     public List<GeneralEventAttendanceDTO> listAttendance(Long eventId, Long sessionId) {
@@ -56,35 +80,38 @@ public class GeneralEventAttendanceService {
 
     /**
      * Pre-populate attendance rows from all confirmed registrations for this session.
-     * Each registration gets an ABSENT row. Idempotent — skips if row already exists.
+     * Each registration gets an ABSENT row. Idempotent — registrations that already
+     * have a row are skipped.
+     * <p>
+     * One anti-join INSERT ... SELECT writes all missing rows, with ids taken from a
+     * range reserved up front. A concurrent pre-population of the same session hits
+     * the (session, registration) unique key and is ignored.
      */
     @Transactional
     public int prepopulateFromRegistrations(Long eventId, Long sessionId) {
-        GeneralEventSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Session not found: " + sessionId));
-        GeneralEvent event = eventRepository.findById(eventId)
+        // Raw JDBC below is not filtered: the event, session and registrations must all be this tenant's
+        Long organizationId = TenantContext.getCurrentOrganizationId();
+        eventRepository.findByIdAndOrganizationId(eventId, organizationId)
                 .orElseThrow(() -> new RuntimeException("Event not found: " + eventId));
+        sessionRepository.findByIdAndGeneralEventIdAndOrganizationId(sessionId, eventId, organizationId)
+                .orElseThrow(() -> new RuntimeException("Session not found: " + sessionId));
 
-        List<GeneralEventRegistration> registrations = registrationRepository
-                .findByGeneralEventIdOrderByRegisteredAtDesc(eventId)
-                .stream()
-                .filter(r -> r.getRsvpStatus() == RsvpStatus.CONFIRMED || r.getRsvpStatus() == null)
-                .collect(Collectors.toList());
-
-        int created = 0;
-        for (GeneralEventRegistration reg : registrations) {
-            if (!attendanceRepository.existsBySessionIdAndRegistrationId(sessionId, reg.getId())) {
-                GeneralEventAttendance att = new GeneralEventAttendance();
-                att.setGeneralEvent(event);
-                att.setSession(session);
-                att.setRegistration(reg);
-                att.setPerson(reg.getPerson());
-                att.setStatus(AttendanceStatus.ABSENT);
-                att.setOrganizationId(TenantContext.getCurrentOrganizationId());
-                attendanceRepository.save(att);
-                created++;
-            }
+        Integer missing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM org_general_event_registrations r " + MISSING_REGISTRATIONS_SQL,
+                Integer.class, eventId, organizationId, sessionId);
+        if (missing == null || missing == 0) {
+            return 0;
         }
+        long firstId = rangeAllocator.reserve(ATTENDANCE_SEQUENCE, missing, ATTENDANCE_INITIAL_VALUE);
+        int created = jdbcTemplate.update(
+                "INSERT IGNORE INTO org_general_event_attendance (id, general_event_id, session_id, registration_id, "
+                        + "person_id, status, organization_id, created_at, updated_at) "
+                        + "SELECT ? + m.rn - 1, ?, ?, m.id, m.person_id, 'ABSENT', ?, NOW(), NOW() "
+                        + "FROM (SELECT r.id, r.person_id, ROW_NUMBER() OVER (ORDER BY r.id) AS rn "
+                        + "      FROM org_general_event_registrations r " + MISSING_REGISTRATIONS_SQL + ") m "
+                        // Registrations added since the count would run past the reserved range
+                        + "WHERE m.rn <= ?",
+                firstId, eventId, sessionId, organizationId, eventId, organizationId, sessionId, missing);
         log.info("Pre-populated {} attendance rows for session {}", created, sessionId);
         return created;
     }
@@ -100,15 +127,96 @@ public class GeneralEventAttendanceService {
         GeneralEvent event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found: " + eventId));
 
+        GeneralEventAttendance att = mark(event, session, dto, currentUserId);
+        log.info("Marked attendance id={} status={} for session {}", att.getId(), att.getStatus(), sessionId);
+        return toDTO(att);
+    }
+
+    /**
+     * Bulk update: accepts a list of {registrationId, status} pairs for a session.
+     * <p>
+     * Registered attendees are written as one JDBC batch of upserts on the
+     * (session, registration) key, after a single query that checks the
+     * registrations belong to the event. Walk-ins are created one by one, with
+     * the session and event loaded once for the whole list.
+     */
+    @Transactional
+    public int bulkMark(Long eventId, Long sessionId, List<GeneralEventAttendanceCreateDTO> items, Long currentUserId) {
+        // The batch below is raw JDBC, so look both up within the tenant
+        Long organizationId = TenantContext.getCurrentOrganizationId();
+        GeneralEvent event = eventRepository.findByIdAndOrganizationId(eventId, organizationId)
+                .orElseThrow(() -> new RuntimeException("Event not found: " + eventId));
+        GeneralEventSession session = sessionRepository
+                .findByIdAndGeneralEventIdAndOrganizationId(sessionId, eventId, organizationId)
+                .orElseThrow(() -> new RuntimeException("Session not found: " + sessionId));
+
+        List<GeneralEventAttendanceCreateDTO> registered = new ArrayList<>();
+        List<GeneralEventAttendanceCreateDTO> walkIns = new ArrayList<>();
+        for (GeneralEventAttendanceCreateDTO item : items) {
+            (item.getRegistrationId() != null ? registered : walkIns).add(item);
+        }
+
+        if (!registered.isEmpty()) {
+            Set<Long> registrationIds = registered.stream()
+                    .map(GeneralEventAttendanceCreateDTO::getRegistrationId)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            Map<Long, Long> personIds = new HashMap<>();
+            for (Object[] row : registrationRepository.findPersonIdsByEventAndIdIn(eventId, registrationIds)) {
+                personIds.put((Long) row[0], (Long) row[1]);
+            }
+            for (Long registrationId : registrationIds) {
+                if (!personIds.containsKey(registrationId)) {
+                    throw new RuntimeException("Registration not found: " + registrationId);
+                }
+            }
+            upsertRegistered(eventId, sessionId, registered, personIds, currentUserId);
+        }
+
+        for (GeneralEventAttendanceCreateDTO item : walkIns) {
+            mark(event, session, item, currentUserId);
+        }
+        log.info("Bulk-marked {} attendance rows ({} walk-ins) for session {}", items.size(), walkIns.size(), sessionId);
+        return items.size();
+    }
+
+    /**
+     * Insert or update the rows of registered attendees. Check-in time is only
+     * set for PRESENT and LATE and otherwise kept, as in {@link #mark}; ids
+     * reserved for rows that already existed are skipped.
+     */
+    private void upsertRegistered(Long eventId, Long sessionId, List<GeneralEventAttendanceCreateDTO> items,
+            Map<Long, Long> personIds, Long currentUserId) {
+        long firstId = rangeAllocator.reserve(ATTENDANCE_SEQUENCE, items.size(), ATTENDANCE_INITIAL_VALUE);
+        Long organizationId = TenantContext.getCurrentOrganizationId();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            GeneralEventAttendanceCreateDTO item = items.get(i);
+            AttendanceStatus status = statusOf(item);
+            rows.add(new Object[] {
+                    firstId + i, eventId, sessionId, item.getRegistrationId(), personIds.get(item.getRegistrationId()),
+                    status.name(), checkedInAt(status, item, now), currentUserId, item.getNotes(), organizationId,
+                    now, now
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO org_general_event_attendance (id, general_event_id, session_id, registration_id, person_id, "
+                        + "status, checked_in_at, checked_in_by_user_id, notes, organization_id, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE status = VALUES(status), "
+                        + "checked_in_at = COALESCE(VALUES(checked_in_at), checked_in_at), "
+                        + "checked_in_by_user_id = VALUES(checked_in_by_user_id), notes = VALUES(notes), "
+                        + "updated_at = VALUES(updated_at)",
+                rows);
+    }
+
+    private GeneralEventAttendance mark(GeneralEvent event, GeneralEventSession session,
+            GeneralEventAttendanceCreateDTO dto, Long currentUserId) {
         GeneralEventAttendance att;
 
         if (dto.getRegistrationId() != null) {
             // Update existing pre-populated row
-            att = attendanceRepository.findBySessionIdOrderByCreatedAtAsc(sessionId)
-                    .stream()
-                    .filter(a -> a.getRegistration() != null
-                            && a.getRegistration().getId().equals(dto.getRegistrationId()))
-                    .findFirst()
+            att = attendanceRepository.findBySessionIdAndRegistrationId(session.getId(), dto.getRegistrationId())
                     .orElseGet(() -> {
                         GeneralEventAttendance newAtt = new GeneralEventAttendance();
                         newAtt.setGeneralEvent(event);
@@ -134,31 +242,30 @@ public class GeneralEventAttendanceService {
             }
         }
 
-        AttendanceStatus newStatus = dto.getStatus() != null
-                ? AttendanceStatus.valueOf(dto.getStatus())
-                : AttendanceStatus.PRESENT;
+        AttendanceStatus newStatus = statusOf(dto);
         att.setStatus(newStatus);
         att.setNotes(dto.getNotes());
         att.setCheckedInByUserId(currentUserId);
-        if (newStatus == AttendanceStatus.PRESENT || newStatus == AttendanceStatus.LATE) {
-            att.setCheckedInAt(dto.getCheckedInAt() != null ? dto.getCheckedInAt() : LocalDateTime.now());
+        LocalDateTime checkedInAt = checkedInAt(newStatus, dto, LocalDateTime.now());
+        if (checkedInAt != null) {
+            att.setCheckedInAt(checkedInAt);
         }
-        att = attendanceRepository.save(att);
-        log.info("Marked attendance id={} status={} for session {}", att.getId(), newStatus, sessionId);
-        return toDTO(att);
+        return attendanceRepository.save(att);
     }
 
-    /**
-     * Bulk update: accepts a list of {registrationId, status} pairs for a session.
-     */
-    @Transactional
-    public int bulkMark(Long eventId, Long sessionId, List<GeneralEventAttendanceCreateDTO> items, Long currentUserId) {
-        int count = 0;
-        for (GeneralEventAttendanceCreateDTO item : items) {
-            markAttendance(eventId, sessionId, item, currentUserId);
-            count++;
+    private static AttendanceStatus statusOf(GeneralEventAttendanceCreateDTO dto) {
+        return dto.getStatus() != null
+                ? AttendanceStatus.valueOf(dto.getStatus())
+                : AttendanceStatus.PRESENT;
+    }
+
+    /** Check-in time for PRESENT and LATE (the given one, else now); null leaves the recorded time as it is. */
+    private static LocalDateTime checkedInAt(AttendanceStatus status, GeneralEventAttendanceCreateDTO dto,
+            LocalDateTime now) {
+        if (status == AttendanceStatus.PRESENT || status == AttendanceStatus.LATE) {
+            return dto.getCheckedInAt() != null ? dto.getCheckedInAt() : now;
         }
-        return count;
+        return null;
     }
 
     @Transactional
@@ -1,6 +1,10 @@
 package com.mosque.crm.service;
 
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -36,8 +40,13 @@ public class GeneralEventSessionService {
     }
 
     public List<GeneralEventSessionDTO> listSessions(Long eventId) {
-        return sessionRepository.findByGeneralEventIdOrderBySessionDateAscSessionOrderAsc(eventId)
-                .stream().map(this::toDTO).collect(Collectors.toList());
+        List<GeneralEventSession> sessions =
+                sessionRepository.findByGeneralEventIdOrderBySessionDateAscSessionOrderAsc(eventId);
+        Map<Long, Map<AttendanceStatus, Long>> counts = attendanceCounts(
+                sessions.stream().map(GeneralEventSession::getId).collect(Collectors.toList()));
+        return sessions.stream()
+                .map(session -> toDTO(session, counts.getOrDefault(session.getId(), Map.of())))
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -82,7 +91,27 @@ public class GeneralEventSessionService {
         session.setSessionOrder(dto.getSessionOrder());
     }
 
+    /** Attendance counts per session and status, read in one grouped query. */
+    private Map<Long, Map<AttendanceStatus, Long>> attendanceCounts(Collection<Long> sessionIds) {
+        Map<Long, Map<AttendanceStatus, Long>> counts = new HashMap<>();
+        if (sessionIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : attendanceRepository.countByStatusForSessions(sessionIds)) {
+            counts.computeIfAbsent((Long) row[0], k -> new EnumMap<>(AttendanceStatus.class))
+                    .put((AttendanceStatus) row[1], ((Number) row[2]).longValue());
+        }
+        return counts;
+    }
+
     GeneralEventSessionDTO toDTO(GeneralEventSession session) {
+        Map<AttendanceStatus, Long> counts = session.getId() != null
+                ? attendanceCounts(List.of(session.getId())).getOrDefault(session.getId(), Map.of())
+                : Map.of();
+        return toDTO(session, counts);
+    }
+
+    private GeneralEventSessionDTO toDTO(GeneralEventSession session, Map<AttendanceStatus, Long> counts) {
         GeneralEventSessionDTO dto = new GeneralEventSessionDTO();
         dto.setId(session.getId());
         dto.setGeneralEventId(session.getGeneralEvent() != null ? session.getGeneralEvent().getId() : null);
@@ -98,11 +127,10 @@ public class GeneralEventSessionService {
         dto.setUpdatedAt(session.getUpdatedAt());
 
         // Attendance summary counts
-        int present = (int) attendanceRepository.countBySessionIdAndStatus(session.getId(), AttendanceStatus.PRESENT)
-                + (int) attendanceRepository.countBySessionIdAndStatus(session.getId(), AttendanceStatus.LATE);
-        int absent = (int) attendanceRepository.countBySessionIdAndStatus(session.getId(), AttendanceStatus.ABSENT);
-        int total = (int) (present + absent
-                + attendanceRepository.countBySessionIdAndStatus(session.getId(), AttendanceStatus.EXCUSED));
+        int present = (int) (counts.getOrDefault(AttendanceStatus.PRESENT, 0L)
+                + counts.getOrDefault(AttendanceStatus.LATE, 0L));
+        int absent = counts.getOrDefault(AttendanceStatus.ABSENT, 0L).intValue();
+        int total = (int) (present + absent + counts.getOrDefault(AttendanceStatus.EXCUSED, 0L));
         dto.setPresentCount(present);
         dto.setAbsentCount(absent);
         dto.setTotalAttendance(total);
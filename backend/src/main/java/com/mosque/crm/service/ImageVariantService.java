@@ -0,0 +1,341 @@
+package com.mosque.crm.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+/**
+ * Stores uploaded images (profile photos, business logos) together with
+ * fixed-size variants and serves them through a bounded in-memory cache.
+ * <p>
+ * {@link #store} writes the original under its key and each resized variant
+ * under {@code {key}.{variant}}. Images stored before variants existed get
+ * theirs generated and uploaded on first request. Object keys contain a
+ * random UUID per upload and are never overwritten, so cached entries never go
+ * stale; {@link #delete} evicts them anyway.
+ * <p>
+ * Entries are evicted least recently used once their total size exceeds
+ * {@code image.cache.max-bytes}; images larger than
+ * {@code image.cache.max-entry-bytes} are served but not cached.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    /** Larger images are not decoded: a small upload may declare dimensions that would exhaust the heap. */
+    static final long MAX_SOURCE_PIXELS = 40_000_000L;
+
+    /** Sizes served to clients; resized variants fit within a square box, keeping the aspect ratio. */
+    public enum Variant {
+        THUMB(128),
+        MEDIUM(512),
+        ORIGINAL(0);
+
+        private final int maxDimension;
+
+        Variant(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        /** The variant for a {@code size} request parameter, or null if unknown. */
+        public static Variant fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return ORIGINAL;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    /** Image bytes with their content type and a strong ETag (quoted content hash). */
+    public record StoredImage(byte[] bytes, String contentType, String etag) {
+    }
+
+    private final StorageService storageService;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    /** variant object key → image, access-ordered for LRU eviction; guarded by itself. */
+    private final LinkedHashMap<String, StoredImage> cache = new LinkedHashMap<>(64, 0.75f, true);
+    /** Total size of the cached images; guarded by {@link #cache}. */
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+
+    public ImageVariantService(StorageService storageService,
+                               @Value("${image.cache.max-bytes:67108864}") long maxBytes,
+                               @Value("${image.cache.max-entry-bytes:2097152}") long maxEntryBytes) {
+        this.storageService = storageService;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    // ─── upload / delete ─────────────────────────────────────────────────
+
+    /**
+     * Upload an image and its resized variants. Formats that cannot be decoded
+     * (e.g. WebP) and images above {@link #MAX_SOURCE_PIXELS} are stored as the
+     * original only and served as such for every size.
+     */
+    public void store(String key, byte[] bytes, String contentType) {
+        Map<Variant, StoredImage> variants = resizeAll(bytes, key);
+        storageService.upload(key, new ByteArrayInputStream(bytes), contentType, bytes.length);
+        for (Map.Entry<Variant, StoredImage> entry : variants.entrySet()) {
+            StoredImage variant = entry.getValue();
+            storageService.upload(variantKey(key, entry.getKey()), new ByteArrayInputStream(variant.bytes()),
+                    variant.contentType(), variant.bytes().length);
+        }
+        log.debug("Stored image '{}' with {} variants", key, variants.size());
+    }
+
+    /** Delete an image and its variants from storage and the cache. */
+    public void delete(String key) {
+        for (Variant variant : Variant.values()) {
+            if (variant == Variant.ORIGINAL) {
+                continue;
+            }
+            try {
+                storageService.delete(variantKey(key, variant));
+            } catch (Exception e) {
+                log.warn("Failed to delete {} variant of image '{}': {}", variant, key, e.getMessage());
+            }
+        }
+        evict(key);
+        storageService.delete(key);
+    }
+
+    // ─── serving ─────────────────────────────────────────────────────────
+
+    /**
+     * The requested variant of an image, from the cache when possible.
+     *
+     * @throws NoSuchKeyException if the original no longer exists in storage
+     */
+    public StoredImage load(String key, Variant variant) throws IOException {
+        String cacheKey = variantKey(key, variant);
+        synchronized (cache) {
+            StoredImage cached = cache.get(cacheKey);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+
+        StoredImage image;
+        if (variant == Variant.ORIGINAL) {
+            image = download(key);
+        } else {
+            try {
+                image = download(cacheKey);
+            } catch (NoSuchKeyException e) {
+                image = generateMissing(key, variant);
+            }
+        }
+        put(cacheKey, image);
+        return image;
+    }
+
+    /** Sizes and hit/miss counters. */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (cache) {
+            stats.put("entries", cache.size());
+            stats.put("bytes", cachedBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("generated", generated.get());
+        return stats;
+    }
+
+    // ─── resizing ────────────────────────────────────────────────────────
+
+    /**
+     * Scale an image down to fit within {@code maxDimension} pixels. Images with
+     * transparency are encoded as PNG, others as JPEG; images already small
+     * enough are re-encoded at their own size. Returns null if the bytes cannot
+     * be decoded or declare more than {@link #MAX_SOURCE_PIXELS} pixels.
+     */
+    static StoredImage resize(byte[] bytes, int maxDimension) throws IOException {
+        BufferedImage source = decode(bytes);
+        if (source == null) {
+            return null;
+        }
+        boolean alpha = source.getColorModel().hasAlpha();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // Halve in steps: a single bilinear pass from a large original aliases badly
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight, alpha);
+        } while (currentWidth != width || currentHeight != height);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(current, alpha ? "png" : "jpg", out);
+        byte[] encoded = out.toByteArray();
+        return new StoredImage(encoded, alpha ? "image/png" : "image/jpeg", etag(encoded));
+    }
+
+    /** Decode the first image, after checking the dimensions its header declares. */
+    private static BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_SOURCE_PIXELS) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // ─── internal ────────────────────────────────────────────────────────
+
+    private Map<Variant, StoredImage> resizeAll(byte[] bytes, String key) {
+        Map<Variant, StoredImage> variants = new EnumMap<>(Variant.class);
+        for (Variant variant : Variant.values()) {
+            if (variant == Variant.ORIGINAL) {
+                continue;
+            }
+            try {
+                StoredImage resized = resize(bytes, variant.getMaxDimension());
+                if (resized == null) {
+                    log.debug("Image '{}' cannot be decoded or is too large; storing the original only", key);
+                    break;
+                }
+                variants.put(variant, resized);
+            } catch (Exception e) {
+                log.warn("Failed to create {} variant of image '{}': {}", variant, key, e.getMessage());
+            }
+        }
+        return variants;
+    }
+
+    /** A variant missing from storage: resize the original and upload the result for other nodes. */
+    private StoredImage generateMissing(String key, Variant variant) throws IOException {
+        StoredImage original = download(key);
+        StoredImage resized = resize(original.bytes(), variant.getMaxDimension());
+        if (resized == null) {
+            return original;
+        }
+        try {
+            storageService.upload(variantKey(key, variant), new ByteArrayInputStream(resized.bytes()),
+                    resized.contentType(), resized.bytes().length);
+            generated.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Failed to store {} variant of image '{}': {}", variant, key, e.getMessage());
+        }
+        return resized;
+    }
+
+    private StoredImage download(String key) throws IOException {
+        try (ResponseInputStream<GetObjectResponse> response = storageService.download(key)) {
+            byte[] bytes = response.readAllBytes();
+            return new StoredImage(bytes, response.response().contentType(), etag(bytes));
+        }
+    }
+
+    private void put(String cacheKey, StoredImage image) {
+        long size = image.bytes().length;
+        if (size > maxEntryBytes) {
+            return;
+        }
+        synchronized (cache) {
+            StoredImage previous = cache.put(cacheKey, image);
+            cachedBytes += size - (previous != null ? previous.bytes().length : 0);
+            var eldest = cache.entrySet().iterator();
+            while (cachedBytes > maxBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().getValue().bytes().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private void evict(String key) {
+        synchronized (cache) {
+            for (Variant variant : Variant.values()) {
+                StoredImage removed = cache.remove(variantKey(key, variant));
+                if (removed != null) {
+                    cachedBytes -= removed.bytes().length;
+                }
+            }
+        }
+    }
+
+    static String variantKey(String key, Variant variant) {
+        return variant == Variant.ORIGINAL ? key : key + "." + variant.name().toLowerCase(Locale.ROOT);
+    }
+
+    static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -12,52 +12,30 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
-import com.mosque.crm.entity.GedcomPersonLink;
 import com.mosque.crm.entity.Person;
-import com.mosque.crm.entity.gedcom.Family;
-import com.mosque.crm.entity.gedcom.FamilyChild;
-import com.mosque.crm.repository.FamilyChildRepository;
-import com.mosque.crm.repository.FamilyRepository;
-import com.mosque.crm.repository.GedcomPersonLinkRepository;
 
 /**
  * Resolves which family each person belongs to for the member directory report.
  * Uses GEDCOM families (from Excel Gezinnen import) first, then shared address.
+ * GEDCOM structure is read from the organization's cached {@link FamilyGraph}.
  */
 @Component
 public class MemberDirectoryFamilyResolver {
 
-    private final GedcomPersonLinkRepository gedcomPersonLinkRepository;
-    private final FamilyRepository familyRepository;
-    private final FamilyChildRepository familyChildRepository;
+    private final FamilyGraphCache familyGraphCache;
 
-    public MemberDirectoryFamilyResolver(GedcomPersonLinkRepository gedcomPersonLinkRepository,
-                                         FamilyRepository familyRepository,
-                                         FamilyChildRepository familyChildRepository) {
-        this.gedcomPersonLinkRepository = gedcomPersonLinkRepository;
-        this.familyRepository = familyRepository;
-        this.familyChildRepository = familyChildRepository;
+    public MemberDirectoryFamilyResolver(FamilyGraphCache familyGraphCache) {
+        this.familyGraphCache = familyGraphCache;
     }
 
     public Map<Long, FamilyAssignment> resolveAssignments(List<Person> persons) {
         Map<Long, Person> personById = persons.stream()
                 .collect(Collectors.toMap(Person::getId, p -> p, (a, b) -> a, LinkedHashMap::new));
 
-        Map<String, Long> individualToPerson = new HashMap<>();
-        Map<Long, String> personToIndividual = new HashMap<>();
-        for (GedcomPersonLink link : gedcomPersonLinkRepository.findAll()) {
-            if (link.getPerson() == null || link.getGedcomIndividual() == null) {
-                continue;
-            }
-            Long personId = link.getPerson().getId();
-            String individualId = link.getGedcomIndividual().getId();
-            individualToPerson.put(individualId, personId);
-            personToIndividual.put(personId, individualId);
-        }
-
-        Map<String, Set<Long>> gedcomFamilyMembers = buildGedcomFamilyMembers(individualToPerson);
+        FamilyGraph graph = familyGraphCache.get();
+        Map<String, Set<Long>> gedcomFamilyMembers = buildGedcomFamilyMembers(graph);
         Map<String, Set<Long>> primaryGedcomGroups = buildPrimaryGedcomGroups(
-                personById.keySet(), personToIndividual, gedcomFamilyMembers);
+                personById.keySet(), graph, gedcomFamilyMembers);
 
         Map<Long, FamilyAssignment> assignments = new LinkedHashMap<>();
         Set<Long> assigned = new HashSet<>();
@@ -122,39 +100,43 @@ public class MemberDirectoryFamilyResolver {
         return assignments;
     }
 
-    private Map<String, Set<Long>> buildGedcomFamilyMembers(Map<String, Long> individualToPerson) {
+    private Map<String, Set<Long>> buildGedcomFamilyMembers(FamilyGraph graph) {
         Map<String, Set<Long>> familyMembers = new HashMap<>();
 
-        for (Family family : familyRepository.findAll()) {
-            Set<Long> members = familyMembers.computeIfAbsent(family.getId(), k -> new HashSet<>());
-            addIfPresent(members, individualToPerson.get(family.getHusbandId()));
-            addIfPresent(members, individualToPerson.get(family.getWifeId()));
-        }
-
-        for (FamilyChild child : familyChildRepository.findAll()) {
-            Set<Long> members = familyMembers.computeIfAbsent(child.getFamilyId(), k -> new HashSet<>());
-            addIfPresent(members, individualToPerson.get(child.getChildId()));
+        for (int family = 0; family < graph.familyCount(); family++) {
+            Set<Long> members = new HashSet<>();
+            addIfPresent(members, graph.personIdOf(graph.husband(family)));
+            addIfPresent(members, graph.personIdOf(graph.wife(family)));
+            for (int slot = graph.childStart(family); slot < graph.childEnd(family); slot++) {
+                addIfPresent(members, graph.personIdOf(graph.childAt(slot)));
+            }
+            if (!members.isEmpty()) {
+                familyMembers.put(graph.familyId(family), members);
+            }
         }
-
-        familyMembers.entrySet().removeIf(e -> e.getValue().isEmpty());
         return familyMembers;
     }
 
     private Map<String, Set<Long>> buildPrimaryGedcomGroups(Set<Long> personIds,
-                                                             Map<Long, String> personToIndividual,
+                                                             FamilyGraph graph,
                                                              Map<String, Set<Long>> gedcomFamilyMembers) {
-        Map<Long, String> personPrimaryFamily = new HashMap<>();
+        Map<Long, List<String>> familiesByPerson = new HashMap<>();
+        for (Map.Entry<String, Set<Long>> entry : gedcomFamilyMembers.entrySet()) {
+            for (Long personId : entry.getValue()) {
+                if (personIds.contains(personId)) {
+                    familiesByPerson.computeIfAbsent(personId, k -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+        }
 
+        Map<Long, String> personPrimaryFamily = new HashMap<>();
         for (Long personId : personIds) {
-            List<String> families = gedcomFamilyMembers.entrySet().stream()
-                    .filter(e -> e.getValue().contains(personId))
-                    .map(Map.Entry::getKey)
-                    .sorted()
-                    .toList();
-            if (families.isEmpty()) {
+            List<String> families = familiesByPerson.get(personId);
+            if (families == null) {
                 continue;
             }
-            personPrimaryFamily.put(personId, pickPrimaryFamily(personId, families, personToIndividual));
+            families.sort(Comparator.naturalOrder());
+            personPrimaryFamily.put(personId, pickPrimaryFamily(personId, families, graph));
         }
 
         Map<String, Set<Long>> groups = new LinkedHashMap<>();
@@ -164,13 +146,13 @@ public class MemberDirectoryFamilyResolver {
         return groups;
     }
 
-    private String pickPrimaryFamily(Long personId, List<String> familyIds, Map<Long, String> personToIndividual) {
-        String individualId = personToIndividual.get(personId);
-        if (individualId != null) {
+    private String pickPrimaryFamily(Long personId, List<String> familyIds, FamilyGraph graph) {
+        int individual = graph.individualIndexOfPerson(personId);
+        if (individual != FamilyGraph.NONE) {
             for (String familyId : familyIds) {
-                Family family = familyRepository.findById(familyId).orElse(null);
-                if (family != null
-                        && (individualId.equals(family.getHusbandId()) || individualId.equals(family.getWifeId()))) {
+                int family = graph.familyIndex(familyId);
+                if (family != FamilyGraph.NONE
+                        && (graph.husband(family) == individual || graph.wife(family) == individual)) {
                     return familyId;
                 }
             }
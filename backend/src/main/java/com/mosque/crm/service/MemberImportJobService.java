@@ -0,0 +1,288 @@
+package com.mosque.crm.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.mosque.crm.dto.ExcelImportResult;
+import com.mosque.crm.dto.MemberImportJobDTO;
+import com.mosque.crm.entity.MemberImportJob;
+import com.mosque.crm.enums.ImportIssueSeverity;
+import com.mosque.crm.enums.ImportJobStatus;
+import com.mosque.crm.models.ImportRowIssue;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.repository.MemberImportJobRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background member imports, so a large member list is not imported within
+ * the upload request.
+ * <p>
+ * The upload is stored in object storage and a job queued; a worker starts it
+ * once the request commits, and the poll picks up jobs queued while no node
+ * was running. After every chunk the worker records the running counts and the
+ * chunk's row errors and warnings, so clients can poll progress and read the
+ * full report when the job is done. The upload is deleted once the job has
+ * run; job rows and their issues are removed after {@code retention-days}.
+ */
+@Service
+public class MemberImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberImportJobService.class);
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private static final String INSERT_ISSUE_SQL =
+            "INSERT INTO member_import_row_issues (job_id, row_num, severity, message) VALUES (?, ?, ?, ?)";
+
+    private final MemberImportJobRepository jobRepository;
+    private final ExcelImportService excelImportService;
+    private final StorageService storageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate progressTransaction;
+    private final Duration retention;
+    private final Duration staleAfter;
+
+    private final BackgroundJobRunner runner;
+
+    public MemberImportJobService(MemberImportJobRepository jobRepository,
+                                  ExcelImportService excelImportService,
+                                  StorageService storageService,
+                                  JdbcTemplate jdbcTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${member-import.jobs.workers:1}") int workerCount,
+                                  @Value("${member-import.jobs.retention-days:7}") long retentionDays,
+                                  @Value("${member-import.jobs.stale-after-ms:600000}") long staleAfterMs) {
+        this.jobRepository = jobRepository;
+        this.excelImportService = excelImportService;
+        this.storageService = storageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.progressTransaction = new TransactionTemplate(transactionManager);
+        this.retention = Duration.ofDays(retentionDays);
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+
+        this.runner = new BackgroundJobRunner("member-import", "member import job", workerCount, this::run);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
+    }
+
+    // ─── requests ────────────────────────────────────────────────────────
+
+    /**
+     * Store the upload and queue its import for the current organization.
+     */
+    @Transactional
+    public MemberImportJobDTO requestJob(MultipartFile file, Long userId) throws IOException {
+        MemberImportJob job = new MemberImportJob();
+        job.setFileName(fileName(file));
+        job.setRequestedByUserId(userId);
+        job = jobRepository.save(job);
+
+        String key = "imports/" + job.getOrganizationId() + "/" + job.getId() + "/" + job.getFileName();
+        try (InputStream in = file.getInputStream()) {
+            storageService.upload(key, in, file.getContentType(), file.getSize());
+        }
+        job.setStorageKey(key);
+        eventPublisher.publishEvent(new MemberImportRequestedEvent(job.getId()));
+        log.info("Queued member import job {} ({}, {} bytes)", job.getId(), job.getFileName(), file.getSize());
+        return toDTO(job);
+    }
+
+    public MemberImportJobDTO getJob(Long id) {
+        return toDTO(findJob(id));
+    }
+
+    public List<MemberImportJobDTO> listJobs() {
+        return jobRepository.findTop20ByOrganizationIdOrderByCreatedAtDesc(TenantContext.getCurrentOrganizationId())
+                .stream().map(this::toDTO).toList();
+    }
+
+    /**
+     * The result of a job as the synchronous import returns it: counts and
+     * every recorded error and warning, in the order they were found.
+     */
+    public ExcelImportResult getReport(Long id) {
+        MemberImportJob job = findJob(id);
+        ExcelImportResult result = new ExcelImportResult(
+                job.getTotalRows() != null ? job.getTotalRows() : 0,
+                job.getCreatedCount() + job.getUpdatedCount(), job.getSkippedCount(),
+                new ArrayList<>(), new ArrayList<>());
+        result.setJobId(job.getId());
+        result.setCreated(job.getCreatedCount());
+        result.setUpdated(job.getUpdatedCount());
+        jdbcTemplate.query("SELECT row_num, severity, message FROM member_import_row_issues "
+                        + "WHERE job_id = ? ORDER BY id",
+                (rs, rowNum) -> new ImportRowIssue(rs.getObject("row_num", Integer.class),
+                        ImportIssueSeverity.valueOf(rs.getString("severity")), rs.getString("message")),
+                job.getId())
+                .forEach(result::addIssue);
+        if (job.getStatus() == ImportJobStatus.FAILED && job.getError() != null) {
+            result.addError("Import failed: " + job.getError());
+        }
+        return result;
+    }
+
+    private MemberImportJob findJob(Long id) {
+        return jobRepository.findByIdAndOrganizationId(id, TenantContext.getCurrentOrganizationId())
+                .orElseThrow(() -> new RuntimeException("Import job not found: " + id));
+    }
+
+    // ─── execution ───────────────────────────────────────────────────────
+
+    /** Start the job once the request that queued it has committed. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImportRequested(MemberImportRequestedEvent event) {
+        runner.submit(event.jobId());
+    }
+
+    /**
+     * Fail jobs whose node stopped reporting, and start jobs no node has picked up.
+     * A stale import is failed rather than queued again: the chunks it committed
+     * are already imported with their counts and issues recorded, and a second
+     * run would start again at the first row and report those rows twice.
+     */
+    @Scheduled(fixedDelayString = "${member-import.jobs.poll-interval-ms:30000}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        runner.poll(jobRepository.findStaleRunningIds(now.minus(staleAfter)),
+                id -> jobRepository.fail(id, ImportJobStatus.RUNNING, "Import was interrupted", now, now.plus(retention)),
+                "marked FAILED", jobRepository::findQueuedIds);
+    }
+
+    @Scheduled(fixedDelayString = "${member-import.jobs.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        runner.deleteExpired(jobRepository.findExpired(LocalDateTime.now()), MemberImportJob::getId, job -> {
+            deleteUpload(job.getStorageKey());
+            // Row issues go with the job (ON DELETE CASCADE)
+            jobRepository.delete(job);
+        });
+    }
+
+    /**
+     * Run a queued job, unless another node already started it. The import
+     * runs for the job's organization, as if requested by it.
+     */
+    void run(Long jobId) {
+        if (jobRepository.start(jobId, LocalDateTime.now()) == 0) {
+            return;
+        }
+        MemberImportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        TenantContext.setCurrentOrganizationId(job.getOrganizationId());
+        Path temp = null;
+        try {
+            temp = Files.createTempFile("member-import-" + jobId + "-", ".upload");
+            try (InputStream in = storageService.download(job.getStorageKey())) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            ExcelImportResult result = excelImportService.importFile(temp.toFile(), job.getFileName(),
+                    (running, processedRows, newIssues) -> recordProgress(jobId, running, processedRows, newIssues));
+
+            LocalDateTime now = LocalDateTime.now();
+            jobRepository.complete(jobId, now, now.plus(retention));
+            log.info("Member import job {} completed: {} created, {} updated, {} skipped", jobId,
+                    result.getCreated(), result.getUpdated(), result.getSkipped());
+        } catch (Exception e) {
+            LocalDateTime now = LocalDateTime.now();
+            jobRepository.fail(jobId, ImportJobStatus.RUNNING, BackgroundJobRunner.truncate(e.getMessage()),
+                    now, now.plus(retention));
+            log.warn("Member import job {} failed: {}", jobId, e.getMessage());
+        } finally {
+            TenantContext.clear();
+            deleteUpload(job.getStorageKey());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete temp file of member import job {}: {}", jobId, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Store the running counts and the new issues of a chunk, in one transaction. */
+    private void recordProgress(Long jobId, ExcelImportResult result, int processedRows, List<ImportRowIssue> newIssues) {
+        progressTransaction.executeWithoutResult(status -> {
+            if (!newIssues.isEmpty()) {
+                List<Object[]> rows = new ArrayList<>(newIssues.size());
+                for (ImportRowIssue issue : newIssues) {
+                    rows.add(new Object[] { jobId, issue.rowNumber(), issue.severity().name(),
+                            BackgroundJobRunner.truncate(issue.message(), MAX_MESSAGE_LENGTH) });
+                }
+                jdbcTemplate.batchUpdate(INSERT_ISSUE_SQL, rows);
+            }
+            jobRepository.updateProgress(jobId, result.getRows().size(), processedRows, result.getCreated(),
+                    result.getUpdated(), result.getSkipped(), result.getErrors().size(),
+                    result.getWarnings().size(), LocalDateTime.now());
+        });
+    }
+
+    private void deleteUpload(String key) {
+        if (key == null) {
+            return;
+        }
+        try {
+            storageService.delete(key);
+        } catch (Exception e) {
+            log.warn("Could not delete member import upload {}: {}", key, e.getMessage());
+        }
+    }
+
+    private MemberImportJobDTO toDTO(MemberImportJob job) {
+        MemberImportJobDTO dto = new MemberImportJobDTO();
+        dto.setId(job.getId());
+        dto.setStatus(job.getStatus() != null ? job.getStatus().name() : null);
+        dto.setFileName(job.getFileName());
+        dto.setTotalRows(job.getTotalRows());
+        dto.setProcessedRows(job.getProcessedRows());
+        dto.setCreated(job.getCreatedCount());
+        dto.setUpdated(job.getUpdatedCount());
+        dto.setSkipped(job.getSkippedCount());
+        dto.setErrorCount(job.getErrorCount());
+        dto.setWarningCount(job.getWarningCount());
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        dto.setExpiresAt(job.getExpiresAt());
+        return dto;
+    }
+
+    /** The upload's name without any client path, as used in the storage key. */
+    private static String fileName(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        if (name == null || name.isBlank()) {
+            return "members.xlsx";
+        }
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        return BackgroundJobRunner.truncate(name, 255);
+    }
+}
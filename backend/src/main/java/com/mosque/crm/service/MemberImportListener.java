@@ -0,0 +1,24 @@
+package com.mosque.crm.service;
+
+import java.util.List;
+
+import com.mosque.crm.dto.ExcelImportResult;
+import com.mosque.crm.models.ImportRowIssue;
+
+/**
+ * Follows a member import as it progresses: called once the file is parsed and
+ * after each committed chunk of rows.
+ */
+@FunctionalInterface
+public interface MemberImportListener {
+
+	MemberImportListener NONE = (result, processedRows, newIssues) -> {
+	};
+
+	/**
+	 * @param result        running totals of the import
+	 * @param processedRows parsed rows written (or rejected) so far, out of {@code result.getRows().size()}
+	 * @param newIssues     errors and warnings recorded since the previous call
+	 */
+	void progress(ExcelImportResult result, int processedRows, List<ImportRowIssue> newIssues);
+}
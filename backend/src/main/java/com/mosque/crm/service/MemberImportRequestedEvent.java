@@ -0,0 +1,9 @@
+package com.mosque.crm.service;
+
+/**
+ * Published when a member list was uploaded for a background import. Once the
+ * job row is committed, {@link MemberImportJobService} starts it instead of
+ * waiting for its next poll.
+ */
+public record MemberImportRequestedEvent(Long jobId) {
+}
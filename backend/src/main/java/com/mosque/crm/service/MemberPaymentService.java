@@ -1,6 +1,7 @@
 package com.mosque.crm.service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +23,7 @@ import com.mosque.crm.entity.ContributionType;
 import com.mosque.crm.entity.Currency;
 import com.mosque.crm.entity.MemberPayment;
 import com.mosque.crm.entity.Person;
+import com.mosque.crm.repository.ContributionTotalRepository;
 import com.mosque.crm.repository.ContributionTypeRepository;
 import com.mosque.crm.repository.CurrencyRepository;
 import com.mosque.crm.repository.MemberPaymentRepository;
@@ -47,17 +49,23 @@ public class MemberPaymentService {
     private final ContributionTypeRepository contributionTypeRepository;
     private final CurrencyRepository currencyRepository;
     private final PaymentDocumentRepository paymentDocumentRepository;
+    private final ContributionTotalRepository contributionTotalRepository;
+    private final ContributionTotalsService contributionTotalsService;
 
     public MemberPaymentService(MemberPaymentRepository paymentRepository,
                                  PersonRepository personRepository,
                                  ContributionTypeRepository contributionTypeRepository,
                                  CurrencyRepository currencyRepository,
-                                 PaymentDocumentRepository paymentDocumentRepository) {
+                                 PaymentDocumentRepository paymentDocumentRepository,
+                                 ContributionTotalRepository contributionTotalRepository,
+                                 ContributionTotalsService contributionTotalsService) {
         this.paymentRepository = paymentRepository;
         this.personRepository = personRepository;
         this.contributionTypeRepository = contributionTypeRepository;
         this.currencyRepository = currencyRepository;
         this.paymentDocumentRepository = paymentDocumentRepository;
+        this.contributionTotalRepository = contributionTotalRepository;
+        this.contributionTotalsService = contributionTotalsService;
     }
 
     /**
@@ -83,7 +91,7 @@ public class MemberPaymentService {
      */
     @Transactional(readOnly = true)
     public Page<MemberPaymentDTO> getAllPayments(int year, Pageable pageable) {
-        return paymentRepository.findAllByYear(year, unsorted(pageable))
+        return paymentRepository.findAllByEffectiveDateRange(yearStart(year), yearStart(year + 1), unsorted(pageable))
                 .map(this::convertToDTO);
     }
 
@@ -131,7 +139,8 @@ public class MemberPaymentService {
      */
     @Transactional(readOnly = true)
     public Page<MemberPaymentDTO> getPaymentsByPerson(Long personId, int year, Pageable pageable) {
-        return paymentRepository.findByPersonIdAndYear(personId, year, unsorted(pageable))
+        return paymentRepository.findByPersonIdAndEffectiveDateRange(personId, yearStart(year), yearStart(year + 1),
+                unsorted(pageable))
                 .map(this::convertToDTO);
     }
 
@@ -159,7 +168,8 @@ public class MemberPaymentService {
      */
     @Transactional(readOnly = true)
     public Page<MemberPaymentDTO> getPaymentsByTypeAndYear(Long contributionTypeId, int year, Pageable pageable) {
-        return paymentRepository.findByContributionTypeIdAndYear(contributionTypeId, year, unsorted(pageable))
+        return paymentRepository.findByContributionTypeIdAndEffectiveDateRange(contributionTypeId,
+                yearStart(year), yearStart(year + 1), unsorted(pageable))
                 .map(this::convertToDTO);
     }
 
@@ -177,7 +187,8 @@ public class MemberPaymentService {
      */
     @Transactional(readOnly = true)
     public Page<MemberPaymentDTO> getPaymentsByPersonAndTypeAndYear(Long personId, Long contributionTypeId, int year, Pageable pageable) {
-        return paymentRepository.findByPersonIdAndContributionTypeIdAndYear(personId, contributionTypeId, year, unsorted(pageable))
+        return paymentRepository.findByPersonIdAndContributionTypeIdAndEffectiveDateRange(personId, contributionTypeId,
+                yearStart(year), yearStart(year + 1), unsorted(pageable))
                 .map(this::convertToDTO);
     }
 
@@ -221,6 +232,7 @@ public class MemberPaymentService {
         }
 
         payment = paymentRepository.save(payment);
+        contributionTotalsService.recordPayment(payment);
         log.info("Created payment: person={}, type={}, amount={}, date={}",
                 person.getId(), type.getCode(), payment.getAmount(), payment.getPaymentDate());
         return convertToDTO(payment);
@@ -233,6 +245,8 @@ public class MemberPaymentService {
     public MemberPaymentDTO updatePayment(Long id, MemberPaymentCreateDTO updateDTO) {
         MemberPayment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
+        // Take the old values out of the totals; the updated ones are added after save
+        contributionTotalsService.removePayment(payment);
 
         // If changing the contribution type, validate the new type
         if (!payment.getContributionType().getId().equals(updateDTO.getContributionTypeId())) {
@@ -267,6 +281,7 @@ public class MemberPaymentService {
         }
 
         payment = paymentRepository.save(payment);
+        contributionTotalsService.recordPayment(payment);
         log.info("Updated payment id={}", payment.getId());
         return convertToDTO(payment);
     }
@@ -278,6 +293,7 @@ public class MemberPaymentService {
     public void deletePayment(Long id) {
         MemberPayment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
+        contributionTotalsService.removePayment(payment);
         paymentRepository.delete(payment);
         log.info("Deleted payment id={}", id);
     }
@@ -315,6 +331,7 @@ public class MemberPaymentService {
         reversal.setReversedPayment(original);
 
         reversal = paymentRepository.save(reversal);
+        contributionTotalsService.recordPayment(reversal);
         log.info("Created reversal payment id={} for original payment id={}", reversal.getId(), originalPaymentId);
         return convertToDTO(reversal);
     }
@@ -383,7 +400,7 @@ public class MemberPaymentService {
      */
     @Transactional(readOnly = true)
     public Map<String, BigDecimal> getIncomeByContributionType(int year) {
-        List<Object[]> rows = paymentRepository.sumAmountByContributionTypeForYear(year);
+        List<Object[]> rows = contributionTotalRepository.sumByContributionTypeCode(year);
         Map<String, BigDecimal> result = new LinkedHashMap<>();
         for (Object[] row : rows) {
             String code = (String) row[0];
@@ -406,6 +423,11 @@ public class MemberPaymentService {
      */
     @Transactional(readOnly = true)
     public List<PaymentMonthlySummaryDTO> getMonthlySummary(int year) {
-        return paymentRepository.findMonthlySummaryByYear(year);
+        return paymentRepository.findMonthlySummaryByPaymentDateRange(yearStart(year), yearStart(year + 1));
+    }
+
+    /** Year filters are half-open date ranges [1 Jan year, 1 Jan year+1) so the date indexes apply. */
+    private static LocalDate yearStart(int year) {
+        return LocalDate.of(year, 1, 1);
     }
 }
@@ -10,6 +10,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -30,6 +31,7 @@ import com.mosque.crm.repository.PersonRepository;
 import com.mosque.crm.repository.RoleRepository;
 import com.mosque.crm.repository.UserMemberLinkRepository;
 import com.mosque.crm.repository.UserRepository;
+import com.mosque.crm.security.UserRolesChangedEvent;
 
 @Service
 @Transactional
@@ -68,6 +70,9 @@ public class MemberService {
     @Autowired
     private RoleGovernanceService roleGovernanceService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private AuthorizationService authorizationService;
 
@@ -211,6 +216,7 @@ public class MemberService {
                     user.getRoles().clear();
                     user.getRoles().addAll(roleSet);
                     userRepository.save(user);
+                    eventPublisher.publishEvent(new UserRolesChangedEvent(user.getId()));
 
                     // Create or update UserMemberLink (robust pattern)
                     UserMemberLink userLink = userMemberLinkRepository.findByUser(user).orElse(null);
@@ -261,6 +267,8 @@ public class MemberService {
             throw new AccessDeniedException("Insufficient permissions to delete members");
         }
         personRepository.deleteById(id);
+        // The person's GEDCOM link goes with it
+        eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
         log.info("Deleted member (person) id={}", id);
     }
 
@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.Set;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +29,7 @@ import com.mosque.crm.repository.PersonRepository;
 import com.mosque.crm.repository.RoleRepository;
 import com.mosque.crm.repository.UserMemberLinkRepository;
 import com.mosque.crm.repository.UserRepository;
+import com.mosque.crm.security.UserRolesChangedEvent;
 
 @Service
 public class MembershipCreationService {
@@ -40,6 +42,8 @@ public class MembershipCreationService {
     private final IndividualRepository individualRepository;
     private final GedcomPersonLinkRepository gedcomPersonLinkRepository;
     private final UserMemberLinkRepository userMemberLinkRepository;
+    private final GedcomIdAllocator gedcomIdAllocator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public MembershipCreationService(PersonRepository personRepository,
                                      MembershipRepository membershipRepository,
@@ -48,7 +52,9 @@ public class MembershipCreationService {
                                      PasswordEncoder passwordEncoder,
                                      IndividualRepository individualRepository,
                                      GedcomPersonLinkRepository gedcomPersonLinkRepository,
-                                     UserMemberLinkRepository userMemberLinkRepository) {
+                                     UserMemberLinkRepository userMemberLinkRepository,
+                                     GedcomIdAllocator gedcomIdAllocator,
+                                     ApplicationEventPublisher eventPublisher) {
         this.personRepository = personRepository;
         this.membershipRepository = membershipRepository;
         this.userRepository = userRepository;
@@ -57,6 +63,8 @@ public class MembershipCreationService {
         this.individualRepository = individualRepository;
         this.gedcomPersonLinkRepository = gedcomPersonLinkRepository;
         this.userMemberLinkRepository = userMemberLinkRepository;
+        this.gedcomIdAllocator = gedcomIdAllocator;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -116,6 +124,7 @@ public class MembershipCreationService {
             user.getRoles().clear();
             user.getRoles().add(role);
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserRolesChangedEvent(user.getId()));
 
             // Create or update UserMemberLink
             UserMemberLink link = user.getMemberLink();
@@ -195,8 +204,7 @@ public class MembershipCreationService {
     }
 
     private void createGedcomIndividualAndLink(Person person) {
-        // Generate GEDCOM xref like @I<8chars>@ to keep under 20 chars
-        String xref = "@I" + person.getId().toString().replace("-", "").substring(0, 8) + "@";
+        String xref = gedcomIdAllocator.nextIndividualId();
 
         Individual ind = new Individual();
         ind.setId(xref);
@@ -212,6 +220,7 @@ public class MembershipCreationService {
         link.setPerson(person);
         link.setGedcomIndividual(savedInd);
         gedcomPersonLinkRepository.save(link);
+        eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
     }
 
     @Transactional
@@ -253,6 +262,7 @@ public class MembershipCreationService {
             individual.setSex(mapSex(savedPerson.getGender()));
             individual.setBirthDate(savedPerson.getDateOfBirth());
             individualRepository.save(individual);
+            eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
         }
 
         // --- ACCOUNT MANAGEMENT LOGIC ---
@@ -276,6 +286,7 @@ public class MembershipCreationService {
             user.getRoles().clear();
             user.getRoles().add(role);
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserRolesChangedEvent(user.getId()));
 
             // Create or update UserMemberLink
             UserMemberLink userLink = user.getMemberLink();
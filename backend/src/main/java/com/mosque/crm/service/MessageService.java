@@ -1,12 +1,19 @@
 package com.mosque.crm.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,9 +23,13 @@ import com.mosque.crm.dto.InboxPageDTO;
 import com.mosque.crm.dto.MessageDTO;
 import com.mosque.crm.dto.SendMessageDTO;
 import com.mosque.crm.entity.Message;
+import com.mosque.crm.entity.MessageThread;
+import com.mosque.crm.entity.Person;
 import com.mosque.crm.entity.User;
 import com.mosque.crm.entity.UserMemberLink;
+import com.mosque.crm.enums.RealtimeChannel;
 import com.mosque.crm.repository.MessageRepository;
+import com.mosque.crm.repository.MessageThreadRepository;
 import com.mosque.crm.repository.UserMemberLinkRepository;
 import com.mosque.crm.repository.UserRepository;
 
@@ -29,46 +40,55 @@ public class MessageService {
     private static final Logger log = LoggerFactory.getLogger(MessageService.class);
 
     private final MessageRepository messageRepository;
+    private final MessageThreadRepository threadRepository;
     private final UserRepository userRepository;
     private final UserMemberLinkRepository userMemberLinkRepository;
+    private final RealtimeOutbox realtimeOutbox;
 
     public MessageService(
             MessageRepository messageRepository,
+            MessageThreadRepository threadRepository,
             UserRepository userRepository,
-            UserMemberLinkRepository userMemberLinkRepository) {
+            UserMemberLinkRepository userMemberLinkRepository,
+            RealtimeOutbox realtimeOutbox) {
         this.messageRepository = messageRepository;
+        this.threadRepository = threadRepository;
         this.userRepository = userRepository;
         this.userMemberLinkRepository = userMemberLinkRepository;
+        this.realtimeOutbox = realtimeOutbox;
     }
 
-    private static final java.util.regex.Pattern RE_PREFIX_PATTERN =
-            java.util.regex.Pattern.compile("^(RE: |Re: |re: )*");
-
+    /**
+     * One page of the user's threads from the message_threads summary rows:
+     * a page query, a count query and one batched display-name lookup,
+     * independent of the page size and of the user's message history.
+     */
     @Transactional(readOnly = true)
     public InboxPageDTO getInbox(Long userId, Long orgId, int page, int size) {
-        int offset = page * size;
-        List<Message> latestMessages = messageRepository.findLatestMessagePerConversationPaged(userId, orgId, size, offset);
-        long totalElements = messageRepository.countConversationThreads(userId, orgId);
-        int totalPages = (int) Math.ceil((double) totalElements / size);
+        Page<MessageThread> threads = threadRepository.findInboxPage(userId, orgId, PageRequest.of(page, size));
 
-        List<ConversationSummaryDTO> content = new ArrayList<>();
-        for (Message msg : latestMessages) {
-            Long otherUserId = userId.equals(msg.getSenderId()) ? msg.getRecipientId() : msg.getSenderId();
-            String baseSubject = stripRePrefix(msg.getSubject());
+        Set<Long> userIds = new HashSet<>();
+        for (MessageThread thread : threads) {
+            userIds.add(thread.getLastMessage().getSenderId());
+            userIds.add(thread.getLastMessage().getRecipientId());
+        }
+        Map<Long, String> names = displayNames(userIds);
 
-            long unreadCount = messageRepository.countUnreadByThread(userId, otherUserId, baseSubject);
+        List<ConversationSummaryDTO> content = new ArrayList<>();
+        for (MessageThread thread : threads) {
+            Long otherUserId = thread.getOtherUserId() == MessageThread.SYSTEM ? null : thread.getOtherUserId();
 
             ConversationSummaryDTO summary = new ConversationSummaryDTO();
             summary.setOtherUserId(otherUserId);
-            summary.setOtherUserName(getUserDisplayName(otherUserId));
-            summary.setBaseSubject(baseSubject);
-            summary.setLastMessage(toDTO(msg));
-            summary.setUnreadCount(unreadCount);
+            summary.setOtherUserName(names.getOrDefault(otherUserId, "Unknown"));
+            summary.setBaseSubject(thread.getBaseSubject());
+            summary.setLastMessage(toDTO(thread.getLastMessage(), names));
+            summary.setUnreadCount(thread.getUnreadCount());
 
             content.add(summary);
         }
 
-        return new InboxPageDTO(content, totalElements, totalPages, page, size);
+        return new InboxPageDTO(content, threads.getTotalElements(), threads.getTotalPages(), page, size);
     }
 
     @Transactional
@@ -77,14 +97,21 @@ public class MessageService {
         if (baseSubject != null && !baseSubject.isEmpty()) {
             messages = messageRepository.findConversationBySubject(currentUserId, otherUserId, baseSubject);
             // Mark incoming messages in this thread as read
-            messageRepository.markThreadAsRead(currentUserId, otherUserId, baseSubject);
+            markThreadAsRead(currentUserId, otherUserId, baseSubject);
         } else {
             messages = messageRepository.findConversation(currentUserId, otherUserId);
             // Mark all incoming messages as read (legacy fallback)
             messageRepository.markConversationAsRead(currentUserId, otherUserId);
+            threadRepository.markAllReadWith(currentUserId, counterpart(otherUserId));
         }
 
-        return messages.stream().map(this::toDTO).collect(Collectors.toList());
+        Set<Long> userIds = new HashSet<>();
+        for (Message m : messages) {
+            userIds.add(m.getSenderId());
+            userIds.add(m.getRecipientId());
+        }
+        Map<Long, String> names = displayNames(userIds);
+        return messages.stream().map(m -> toDTO(m, names)).collect(Collectors.toList());
     }
 
     public MessageDTO sendMessage(Long senderId, Long orgId, SendMessageDTO dto) {
@@ -98,7 +125,30 @@ public class MessageService {
         message.setReplyToId(dto.getReplyToId());
 
         Message saved = messageRepository.save(message);
-        return toDTO(saved);
+        recordInThreads(saved);
+        MessageDTO result = toDTO(saved, displayNames(Arrays.asList(saved.getSenderId(), saved.getRecipientId())));
+        // Pushed to the recipient after commit, with their unread count as of delivery
+        realtimeOutbox.enqueue(saved.getRecipientId(), RealtimeChannel.MESSAGES, result);
+        return result;
+    }
+
+    /**
+     * Add a saved message to the thread rows of both participants: the recipient
+     * gains an unread message, the sender's own copy of the thread does not.
+     */
+    private void recordInThreads(Message message) {
+        Long orgId = message.getOrganizationId();
+        if (orgId == null) {
+            // The inbox is organization-scoped; such messages were never listed
+            return;
+        }
+        String baseSubject = message.getBaseSubject();
+        threadRepository.recordMessage(orgId, message.getRecipientId(), counterpart(message.getSenderId()),
+                baseSubject, message.getId(), message.getCreatedAt(), 1);
+        if (message.getSenderId() != null && !message.getSenderId().equals(message.getRecipientId())) {
+            threadRepository.recordMessage(orgId, message.getSenderId(), message.getRecipientId(),
+                    baseSubject, message.getId(), message.getCreatedAt(), 0);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -108,60 +158,81 @@ public class MessageService {
 
     public void markRead(Long messageId, Long currentUserId) {
         messageRepository.findById(messageId).ifPresent(msg -> {
-            if (currentUserId.equals(msg.getRecipientId())) {
+            if (currentUserId.equals(msg.getRecipientId()) && !msg.isRead()) {
                 msg.setRead(true);
                 messageRepository.save(msg);
+                threadRepository.decrementUnread(currentUserId, counterpart(msg.getSenderId()), msg.getBaseSubject());
             }
         });
     }
 
     public void markThreadAsRead(Long userId, Long otherUserId, String baseSubject) {
-        messageRepository.markThreadAsRead(userId, otherUserId, baseSubject);
+        String key = Message.baseSubjectOf(baseSubject);
+        messageRepository.markThreadAsRead(userId, otherUserId, key);
+        threadRepository.markRead(userId, counterpart(otherUserId), key);
     }
 
     public void deleteThread(Long userId, Long otherUserId, String baseSubject) {
-        messageRepository.deleteThread(userId, otherUserId, baseSubject);
+        String key = Message.baseSubjectOf(baseSubject);
+        messageRepository.deleteThread(userId, otherUserId, key);
+        threadRepository.deleteThread(userId, counterpart(otherUserId), key);
     }
 
     public void batchMarkAsRead(Long userId, List<BatchThreadRequest.ThreadKey> threads) {
         for (BatchThreadRequest.ThreadKey t : threads) {
-            messageRepository.markThreadAsRead(userId, t.getOtherUserId(), t.getBaseSubject());
+            markThreadAsRead(userId, t.getOtherUserId(), t.getBaseSubject());
         }
     }
 
     public void batchDelete(Long userId, List<BatchThreadRequest.ThreadKey> threads) {
         for (BatchThreadRequest.ThreadKey t : threads) {
-            messageRepository.deleteThread(userId, t.getOtherUserId(), t.getBaseSubject());
+            deleteThread(userId, t.getOtherUserId(), t.getBaseSubject());
         }
     }
 
-    private String getUserDisplayName(Long userId) {
-        if (userId == null) {
-            return "System";
+    /** Thread counterpart key: system messages (no sender) share {@link MessageThread#SYSTEM}. */
+    private static Long counterpart(Long userId) {
+        return userId != null ? userId : MessageThread.SYSTEM;
+    }
+
+    /**
+     * Display names for a set of users in two queries: the linked person's full
+     * name, falling back to the username. A null id (system sender) is "System".
+     */
+    private Map<Long, String> displayNames(Collection<Long> userIds) {
+        Map<Long, String> names = new HashMap<>();
+        names.put(null, "System");
+        Set<Long> ids = userIds.stream().filter(id -> id != null).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return names;
         }
-        Optional<UserMemberLink> linkOpt = userMemberLinkRepository.findByUserId(userId);
-        if (linkOpt.isPresent() && linkOpt.get().getPerson() != null) {
-            com.mosque.crm.entity.Person person = linkOpt.get().getPerson();
+        for (UserMemberLink link : userMemberLinkRepository.findWithPersonByUserIdIn(ids)) {
+            Person person = link.getPerson();
             String firstName = person.getFirstName() != null ? person.getFirstName() : "";
             String lastName = person.getLastName() != null ? person.getLastName() : "";
             String fullName = (firstName + " " + lastName).trim();
             if (!fullName.isEmpty()) {
-                return fullName;
+                names.put(link.getUser().getId(), fullName);
             }
         }
-        return userRepository.findById(userId)
-                .map(User::getUsername)
-                .orElse("Unknown");
+        Set<Long> unnamed = new HashSet<>(ids);
+        unnamed.removeAll(names.keySet());
+        if (!unnamed.isEmpty()) {
+            for (User user : userRepository.findAllById(unnamed)) {
+                names.put(user.getId(), user.getUsername());
+            }
+        }
+        return names;
     }
 
-    private MessageDTO toDTO(Message m) {
+    private MessageDTO toDTO(Message m, Map<Long, String> names) {
         MessageDTO dto = new MessageDTO();
         dto.setId(m.getId());
         dto.setOrganizationId(m.getOrganizationId());
         dto.setSenderId(m.getSenderId());
-        dto.setSenderName(getUserDisplayName(m.getSenderId()));
+        dto.setSenderName(names.getOrDefault(m.getSenderId(), "Unknown"));
         dto.setRecipientId(m.getRecipientId());
-        dto.setRecipientName(getUserDisplayName(m.getRecipientId()));
+        dto.setRecipientName(names.getOrDefault(m.getRecipientId(), "Unknown"));
         dto.setSubject(m.getSubject());
         dto.setBody(m.getBody());
         dto.setRead(m.isRead());
@@ -169,9 +240,4 @@ public class MessageService {
         dto.setCreatedAt(m.getCreatedAt());
         return dto;
     }
-
-    private String stripRePrefix(String subject) {
-        if (subject == null) return "";
-        return RE_PREFIX_PATTERN.matcher(subject).replaceFirst("");
-    }
 }
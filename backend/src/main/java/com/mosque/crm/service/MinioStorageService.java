@@ -26,29 +26,35 @@ public class MinioStorageService {
     }
 
     public String getEndpoint() {
-        return configurationService.getValue("MINIO_ENDPOINT").orElse("");
+        return configurationService.getValue("MINIO_ENDPOINT", "");
     }
 
     public String getAccessKey() {
-        return configurationService.getValue("MINIO_ACCESS_KEY").orElse("");
+        return configurationService.getValue("MINIO_ACCESS_KEY", "");
     }
 
     public String getSecretKey() {
-        return configurationService.getValue("MINIO_SECRET_KEY").orElse("");
+        return configurationService.getValue("MINIO_SECRET_KEY", "");
     }
 
     public String getBucket() {
-        return configurationService.getValue("MINIO_BUCKET").orElse("");
+        return configurationService.getValue("MINIO_BUCKET", "");
     }
 
     public String getRegion() {
-        return configurationService.getValue("MINIO_REGION").orElse("us-east-1");
+        return configurationService.getValue("MINIO_REGION", "us-east-1");
     }
 
     public boolean isUseSsl() {
-        return configurationService.getValue("MINIO_USE_SSL")
-                .map(Boolean::parseBoolean)
-                .orElse(false);
+        return Boolean.parseBoolean(configurationService.getValue("MINIO_USE_SSL", "false"));
+    }
+
+    /**
+     * Changes whenever the stored configuration may have changed; settings read
+     * at the same generation are still current.
+     */
+    public long getSettingsGeneration() {
+        return configurationService.getConfigurationGeneration();
     }
 
     /**
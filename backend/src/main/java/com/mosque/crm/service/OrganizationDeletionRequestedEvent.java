@@ -0,0 +1,10 @@
+package com.mosque.crm.service;
+
+/**
+ * Published when the deletion of an organization was requested (or a failed
+ * deletion was requested again). Once the job row is committed,
+ * {@link OrganizationDeletionService} starts it instead of waiting for its
+ * next poll.
+ */
+public record OrganizationDeletionRequestedEvent(Long jobId) {
+}
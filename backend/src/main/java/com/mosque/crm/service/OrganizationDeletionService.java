@@ -1,108 +1,402 @@
 package com.mosque.crm.service;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.mosque.crm.dto.OrganizationDeletionJobDTO;
 import com.mosque.crm.entity.Organization;
+import com.mosque.crm.entity.OrganizationDeletionJob;
+import com.mosque.crm.enums.OrganizationDeletionStatus;
+import com.mosque.crm.repository.OrganizationDeletionJobRepository;
 import com.mosque.crm.repository.OrganizationRepository;
+import com.mosque.crm.service.OrganizationPurgePlan.ForeignKey;
+import com.mosque.crm.service.OrganizationPurgePlan.Step;
+import com.mosque.crm.subscription.SubscriptionStatusCache;
 
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Deletes an organization with all its data in the background.
+ * <p>
+ * A request deactivates the organization and queues a job, started once the
+ * request commits. The job first deletes the organization's storage objects
+ * (profile images, logos, documents, export and import files), then runs an
+ * {@link OrganizationPurgePlan} built from the schema's foreign keys. Each
+ * statement deletes at most {@code chunk-size} rows in its own short
+ * transaction, with a pause between chunks, so the purge of a large tenant
+ * neither holds long locks nor crowds out other tenants' queries.
+ * <p>
+ * Progress is recorded on the job. A running job whose node stops reporting
+ * is queued again and resumes at the step it reached; a failed job resumes
+ * when its organization's deletion is requested again. Each node runs one
+ * deletion at a time.
+ */
 @Service
 public class OrganizationDeletionService {
 
     private static final Logger log = LoggerFactory.getLogger(OrganizationDeletionService.class);
 
+    private static final Duration PROGRESS_WRITE_INTERVAL = Duration.ofSeconds(1);
+
+    /** Columns of organization tables holding storage object keys; images also have variants. */
+    private static final List<StorageKeyColumn> STORAGE_KEY_COLUMNS = List.of(
+            new StorageKeyColumn("persons", "profile_image_key", true),
+            new StorageKeyColumn("businesses", "logo_image_key", true),
+            new StorageKeyColumn("org_documents", "storage_key", false),
+            new StorageKeyColumn("org_document_versions", "storage_key", false),
+            new StorageKeyColumn("org_general_event_documents", "storage_key", false),
+            new StorageKeyColumn("payment_documents", "storage_key", false),
+            new StorageKeyColumn("data_export_jobs", "storage_key", false),
+            new StorageKeyColumn("member_import_jobs", "storage_key", false));
+
+    private static final String UPLOAD_SESSIONS = "org_document_upload_sessions";
+
     private final OrganizationRepository organizationRepository;
+    private final OrganizationDeletionJobRepository jobRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final StorageService storageService;
+    private final ImageVariantService imageVariantService;
+    private final SubscriptionStatusCache subscriptionStatusCache;
+    private final ConfigurationCache configurationCache;
+    private final FamilyGraphCache familyGraphCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final long chunkPauseMs;
+    private final Duration staleAfter;
 
-    public OrganizationDeletionService(OrganizationRepository organizationRepository, JdbcTemplate jdbcTemplate) {
+    private final BackgroundJobRunner runner;
+
+    public OrganizationDeletionService(OrganizationRepository organizationRepository,
+                                       OrganizationDeletionJobRepository jobRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       StorageService storageService,
+                                       ImageVariantService imageVariantService,
+                                       SubscriptionStatusCache subscriptionStatusCache,
+                                       ConfigurationCache configurationCache,
+                                       FamilyGraphCache familyGraphCache,
+                                       ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${organization-deletion.chunk-size:500}") int chunkSize,
+                                       @Value("${organization-deletion.chunk-pause-ms:20}") long chunkPauseMs,
+                                       @Value("${organization-deletion.stale-after-ms:300000}") long staleAfterMs) {
         this.organizationRepository = organizationRepository;
+        this.jobRepository = jobRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.storageService = storageService;
+        this.imageVariantService = imageVariantService;
+        this.subscriptionStatusCache = subscriptionStatusCache;
+        this.configurationCache = configurationCache;
+        this.familyGraphCache = familyGraphCache;
+        this.eventPublisher = eventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPauseMs = chunkPauseMs;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        this.runner = new BackgroundJobRunner("organization-deletion", "deletion job", 1, this::run);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
     }
 
+    // ─── requests ────────────────────────────────────────────────────────
+
+    /**
+     * Deactivate the organization and queue its deletion. Returns the existing
+     * job if one is queued or running, and queues a failed one again.
+     *
+     * @return empty if the organization does not exist
+     */
     @Transactional
-    public boolean deleteOrganizationCascade(Long organizationId) {
+    public Optional<OrganizationDeletionJobDTO> requestDeletion(Long organizationId, Long userId) {
+        Optional<OrganizationDeletionJob> unfinished = jobRepository.findUnfinished(organizationId);
+        if (unfinished.isPresent()) {
+            OrganizationDeletionJob job = unfinished.get();
+            if (job.getStatus() == OrganizationDeletionStatus.FAILED) {
+                job.setStatus(OrganizationDeletionStatus.QUEUED);
+                job.setCompletedAt(null);
+                job = jobRepository.save(job);
+                eventPublisher.publishEvent(new OrganizationDeletionRequestedEvent(job.getId()));
+                log.info("Queued deletion job {} of organization {} again", job.getId(), organizationId);
+            }
+            return Optional.of(toDTO(job));
+        }
+
         Optional<Organization> existing = organizationRepository.findById(organizationId);
         if (existing.isEmpty()) {
-            return false;
+            return Optional.empty();
+        }
+        Organization organization = existing.get();
+        // No new data while the purge runs
+        organization.setActive(false);
+        organizationRepository.save(organization);
+
+        OrganizationDeletionJob job = new OrganizationDeletionJob();
+        job.setTargetOrganizationId(organizationId);
+        job.setOrganizationName(organization.getName());
+        job.setRequestedByUserId(userId);
+        job = jobRepository.save(job);
+        eventPublisher.publishEvent(new OrganizationDeletionRequestedEvent(job.getId()));
+        log.info("Queued deletion job {} of organization {} ({})", job.getId(), organizationId, organization.getName());
+        return Optional.of(toDTO(job));
+    }
+
+    public OrganizationDeletionJobDTO getJob(Long id) {
+        return jobRepository.findById(id).map(this::toDTO)
+                .orElseThrow(() -> new RuntimeException("Deletion job not found: " + id));
+    }
+
+    public List<OrganizationDeletionJobDTO> listJobs() {
+        return jobRepository.findTop50ByOrderByCreatedAtDesc().stream().map(this::toDTO).toList();
+    }
+
+    // ─── execution ───────────────────────────────────────────────────────
+
+    /** Start the job once the request that queued it has committed. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeletionRequested(OrganizationDeletionRequestedEvent event) {
+        runner.submit(event.jobId());
+    }
+
+    /**
+     * Queue again jobs whose node stopped reporting, and start jobs no node has picked up.
+     * Unlike a stale export or import, a stale deletion is not failed: its
+     * organization is already deactivated and partly purged, every step is a
+     * DELETE by organization that can safely run again, and the job records
+     * the step it reached, so the purge simply resumes.
+     */
+    @Scheduled(fixedDelayString = "${organization-deletion.poll-interval-ms:30000}")
+    public void poll() {
+        LocalDateTime before = LocalDateTime.now().minus(staleAfter);
+        runner.poll(jobRepository.findStaleRunningIds(before), id -> jobRepository.requeueStale(id, before),
+                "queued again", jobRepository::findQueuedIds);
+    }
+
+    /**
+     * Run a queued job, unless another node already started it. Storage
+     * objects go first, while the rows naming them still exist.
+     */
+    void run(Long jobId) {
+        if (jobRepository.start(jobId, LocalDateTime.now()) == 0) {
+            return;
         }
+        OrganizationDeletionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        Long organizationId = job.getTargetOrganizationId();
+        try {
+            Set<String> organizationTables = new HashSet<>(loadOrganizationTables());
+            OrganizationPurgePlan plan = OrganizationPurgePlan.build(organizationTables, loadForeignKeys());
+            List<Step> steps = plan.steps();
+            Progress progress = new Progress(jobId, steps.size(), job.getRowsDeleted());
+
+            if (!job.isStorageCleared()) {
+                long objects = deleteStorageObjects(organizationId, organizationTables, progress);
+                jobRepository.storageCleared(jobId, objects, LocalDateTime.now());
+                log.info("Deletion job {}: deleted {} storage objects of organization {}", jobId, objects, organizationId);
+            }
+
+            // Resume at the step reached before, unless the schema (and so the plan) changed since
+            Integer stepsTotal = job.getStepsTotal();
+            int first = stepsTotal != null && stepsTotal == steps.size() ? job.getStepsDone() : 0;
+            for (int i = first; i < steps.size(); i++) {
+                Step step = steps.get(i);
+                progress.startStep(i, step.table());
+                runChunked(step, organizationId, progress);
+            }
+            progress.startStep(steps.size(), null);
+
+            jobRepository.complete(jobId, LocalDateTime.now());
+            subscriptionStatusCache.evict(organizationId);
+            familyGraphCache.invalidate(organizationId);
+            configurationCache.onWrite();
+            log.info("Deleted organization id={} and all tenant-scoped data ({} rows)", organizationId,
+                    progress.rowsDeleted);
+        } catch (JobStoppedException e) {
+            log.info("Deletion job {} stopped: {}", jobId, e.getMessage());
+        } catch (Exception e) {
+            jobRepository.fail(jobId, BackgroundJobRunner.truncate(e.getMessage()), LocalDateTime.now());
+            log.warn("Deletion job {} of organization {} failed: {}", jobId, organizationId, e.getMessage());
+        }
+    }
 
-        // Keep super-admin users intact if they only selected this tenant.
-        jdbcTemplate.update(
-                "UPDATE users SET selected_organization_id = NULL "
-                        + "WHERE selected_organization_id = ? "
-                        + "AND (organization_id IS NULL OR organization_id <> ?)",
-                organizationId, organizationId);
-
-        // These tables reference roles/users but don't carry organization_id.
-        jdbcTemplate.update(
-                "DELETE FROM role_assignable_roles "
-                        + "WHERE role_id IN (SELECT id FROM roles WHERE organization_id = ?) "
-                        + "OR assignable_role_id IN (SELECT id FROM roles WHERE organization_id = ?)",
-                organizationId, organizationId);
-        jdbcTemplate.update(
-                "DELETE FROM role_assignable_permissions "
-                        + "WHERE role_id IN (SELECT id FROM roles WHERE organization_id = ?)",
-                organizationId);
-        jdbcTemplate.update(
-                "DELETE FROM role_permissions "
-                        + "WHERE role_id IN (SELECT id FROM roles WHERE organization_id = ?)",
-                organizationId);
-        jdbcTemplate.update(
-                "DELETE FROM password_reset_tokens "
-                        + "WHERE user_id IN (SELECT id FROM users WHERE organization_id = ?)",
-                organizationId);
-        jdbcTemplate.update(
-                "DELETE FROM user_preferences "
-                        + "WHERE user_id IN (SELECT id FROM users WHERE organization_id = ?)",
-                organizationId);
-
-        List<String> organizationScopedTables = jdbcTemplate.queryForList(
+    /** Run one statement chunk by chunk, each chunk in its own transaction. */
+    private void runChunked(Step step, Long organizationId, Progress progress) {
+        String sql = step.sql() + " LIMIT " + chunkSize;
+        Object[] args = new Object[step.parameterCount()];
+        Arrays.fill(args, organizationId);
+        int affected;
+        do {
+            affected = chunkTransaction.execute(status -> jdbcTemplate.update(sql, args));
+            progress.report(step.detach() ? 0 : affected);
+            if (affected > 0) {
+                pause();
+            }
+        } while (affected >= chunkSize);
+    }
+
+    private long deleteStorageObjects(Long organizationId, Set<String> organizationTables, Progress progress) {
+        long deleted = 0;
+        for (StorageKeyColumn source : STORAGE_KEY_COLUMNS) {
+            if (!organizationTables.contains(source.table())) {
+                continue;
+            }
+            String sql = "SELECT id, `" + source.column() + "` FROM `" + source.table() + "` "
+                    + "WHERE organization_id = ? AND `" + source.column() + "` IS NOT NULL AND id > ? "
+                    + "ORDER BY id LIMIT ?";
+            long lastId = 0;
+            List<StoredKey> keys;
+            do {
+                keys = jdbcTemplate.query(sql, (rs, rowNum) -> new StoredKey(rs.getLong(1), rs.getString(2)),
+                        organizationId, lastId, chunkSize);
+                for (StoredKey key : keys) {
+                    if (source.image()) {
+                        imageVariantService.delete(key.key());
+                    } else {
+                        storageService.delete(key.key());
+                    }
+                    deleted++;
+                    lastId = key.id();
+                }
+                progress.report(0);
+            } while (keys.size() == chunkSize);
+        }
+
+        // Unfinished chunked uploads hold parts that only an abort removes
+        if (organizationTables.contains(UPLOAD_SESSIONS)) {
+            jdbcTemplate.query("SELECT storage_key, storage_upload_id FROM " + UPLOAD_SESSIONS
+                            + " WHERE organization_id = ?",
+                    rs -> {
+                        storageService.abortMultipartUpload(rs.getString(1), rs.getString(2));
+                    },
+                    organizationId);
+        }
+        return deleted;
+    }
+
+    private List<String> loadOrganizationTables() {
+        return jdbcTemplate.queryForList(
                 "SELECT DISTINCT table_name "
                         + "FROM information_schema.columns "
                         + "WHERE table_schema = DATABASE() "
                         + "AND column_name = 'organization_id' "
                         + "AND table_name <> 'organizations'",
                 String.class);
+    }
 
-        Set<String> remaining = new LinkedHashSet<>(organizationScopedTables);
-        int guard = Math.max(remaining.size() * 2, 10);
-
-        while (!remaining.isEmpty() && guard-- > 0) {
-            boolean progress = false;
-            Iterator<String> iterator = remaining.iterator();
-            while (iterator.hasNext()) {
-                String tableName = iterator.next();
-                try {
-                    jdbcTemplate.update("DELETE FROM `" + tableName + "` WHERE organization_id = ?", organizationId);
-                    iterator.remove();
-                    progress = true;
-                } catch (DataIntegrityViolationException ex) {
-                    // Parent row still referenced by another table; try again next pass.
-                }
+    private List<ForeignKey> loadForeignKeys() {
+        return jdbcTemplate.query(
+                "SELECT k.table_name, k.column_name, k.referenced_table_name, k.referenced_column_name, c.is_nullable "
+                        + "FROM information_schema.key_column_usage k "
+                        + "JOIN information_schema.columns c ON c.table_schema = k.table_schema "
+                        + "AND c.table_name = k.table_name AND c.column_name = k.column_name "
+                        + "WHERE k.table_schema = DATABASE() AND k.referenced_table_schema = DATABASE() "
+                        + "AND k.referenced_table_name IS NOT NULL",
+                (rs, rowNum) -> new ForeignKey(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        "YES".equals(rs.getString(5))));
+    }
+
+    private void pause() {
+        if (chunkPauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(chunkPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Left RUNNING: the poll of a running node queues it again
+            throw new JobStoppedException("interrupted");
+        }
+    }
+
+    /** Records progress at most once per {@link #PROGRESS_WRITE_INTERVAL}, and at every step. */
+    private final class Progress {
+        private final Long jobId;
+        private final int stepsTotal;
+        private int stepsDone;
+        private String currentTable;
+        private long rowsDeleted;
+        private long lastWrite;
+
+        Progress(Long jobId, int stepsTotal, long rowsDeleted) {
+            this.jobId = jobId;
+            this.stepsTotal = stepsTotal;
+            this.rowsDeleted = rowsDeleted;
+        }
+
+        void startStep(int step, String table) {
+            stepsDone = step;
+            currentTable = table;
+            write();
+        }
+
+        void report(long deleted) {
+            rowsDeleted += deleted;
+            if (System.nanoTime() - lastWrite >= PROGRESS_WRITE_INTERVAL.toNanos()) {
+                write();
             }
-            if (!progress) {
-                break;
+        }
+
+        private void write() {
+            lastWrite = System.nanoTime();
+            if (jobRepository.updateProgress(jobId, stepsTotal, stepsDone, currentTable, rowsDeleted,
+                    LocalDateTime.now()) == 0) {
+                throw new JobStoppedException("job is no longer running on this node");
             }
         }
+    }
 
-        if (!remaining.isEmpty()) {
-            List<String> blockedTables = new ArrayList<>(remaining);
-            throw new IllegalStateException("Unable to delete organization due to FK dependencies in: " + blockedTables);
+    /** The job was taken from this node (queued again as stale) or the node is shutting down. */
+    private static final class JobStoppedException extends RuntimeException {
+        JobStoppedException(String message) {
+            super(message);
         }
+    }
+
+    private record StorageKeyColumn(String table, String column, boolean image) {
+    }
+
+    private record StoredKey(long id, String key) {
+    }
 
-        organizationRepository.delete(existing.get());
-        log.info("Deleted organization id={} and all tenant-scoped data", organizationId);
-        return true;
+    private OrganizationDeletionJobDTO toDTO(OrganizationDeletionJob job) {
+        OrganizationDeletionJobDTO dto = new OrganizationDeletionJobDTO();
+        dto.setId(job.getId());
+        dto.setOrganizationId(job.getTargetOrganizationId());
+        dto.setOrganizationName(job.getOrganizationName());
+        dto.setStatus(job.getStatus() != null ? job.getStatus().name() : null);
+        dto.setStorageCleared(job.isStorageCleared());
+        dto.setObjectsDeleted(job.getObjectsDeleted());
+        dto.setStepsTotal(job.getStepsTotal());
+        dto.setStepsDone(job.getStepsDone());
+        dto.setCurrentTable(job.getCurrentTable());
+        dto.setRowsDeleted(job.getRowsDeleted());
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        return dto;
     }
 }
@@ -0,0 +1,213 @@
+package com.mosque.crm.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The statements that remove one organization's rows, in an order its foreign
+ * keys allow, derived once from the schema's FK metadata instead of retrying
+ * failed deletes.
+ * <p>
+ * Rows are selected by {@code organization_id}. Tables without that column are
+ * included when a NOT NULL foreign key ties their rows to removed rows (e.g.
+ * {@code role_permissions} to {@code roles}), recursively. Nullable references
+ * that deleting in order cannot satisfy are set to NULL first: self references,
+ * references closing a cycle, references from tables outside the organization,
+ * and other columns pointing at the organization itself (a super administrator's
+ * selected organization). Tables are then deleted children first and
+ * {@code organizations} last.
+ * <p>
+ * Every statement binds the organization id to each of its parameters and is
+ * run with a LIMIT until it affects fewer rows than that.
+ */
+final class OrganizationPurgePlan {
+
+    static final String ORGANIZATIONS = "organizations";
+    static final String ORGANIZATION_ID = "organization_id";
+
+    /** A single-column foreign key of the schema. */
+    record ForeignKey(String table, String column, String referencedTable, String referencedColumn,
+                      boolean nullable) {
+    }
+
+    /** One statement of the plan; {@code detach} statements set references to NULL, the others delete rows. */
+    record Step(String table, String sql, int parameterCount, boolean detach) {
+    }
+
+    private static final Comparator<ForeignKey> FK_ORDER = Comparator.comparing(ForeignKey::table)
+            .thenComparing(ForeignKey::column)
+            .thenComparing(ForeignKey::referencedTable);
+
+    private final List<Step> steps;
+
+    private OrganizationPurgePlan(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /** Detach steps first, then one delete step per table. */
+    List<Step> steps() {
+        return steps;
+    }
+
+    /**
+     * @param organizationTables tables with an {@code organization_id} column
+     * @param foreignKeys        all single-column foreign keys of the schema
+     * @throws IllegalStateException if NOT NULL foreign keys form a cycle
+     */
+    static OrganizationPurgePlan build(Collection<String> organizationTables, Collection<ForeignKey> foreignKeys) {
+        List<ForeignKey> keys = new ArrayList<>(foreignKeys);
+        keys.sort(FK_ORDER);
+        Map<String, String> conditions = conditions(organizationTables, keys);
+
+        List<Step> detach = new ArrayList<>();
+        List<ForeignKey> orderingEdges = new ArrayList<>();
+        for (ForeignKey fk : keys) {
+            String referenced = fk.referencedTable();
+            if (!conditions.containsKey(referenced)) {
+                continue;
+            }
+            boolean inside = conditions.containsKey(fk.table());
+            if (!inside) {
+                // Only nullable references remain outside: NOT NULL ones made their table a dependent
+                detach.add(new Step(fk.table(), "UPDATE " + quote(fk.table()) + " SET " + quote(fk.column())
+                        + " = NULL WHERE " + references(fk, conditions), countParameters(conditions.get(referenced)), true));
+            } else if (referenced.equals(ORGANIZATIONS) && !fk.column().equals(ORGANIZATION_ID)) {
+                if (fk.nullable()) {
+                    detach.add(new Step(fk.table(), "UPDATE " + quote(fk.table()) + " SET " + quote(fk.column())
+                            + " = NULL WHERE " + quote(fk.column()) + " = ?", 1, true));
+                }
+            } else if (referenced.equals(fk.table()) || fk.table().equals(ORGANIZATIONS)) {
+                // organizations goes last, so its own references to removed rows are cleared first
+                if (fk.nullable()) {
+                    detach.add(detachOwnRows(fk, conditions));
+                }
+            } else {
+                orderingEdges.add(fk);
+            }
+        }
+
+        List<String> order = topologicalOrder(conditions.keySet(), orderingEdges, detach, conditions);
+        List<Step> steps = new ArrayList<>(detach);
+        for (String table : order) {
+            String condition = conditions.get(table);
+            steps.add(new Step(table, "DELETE FROM " + quote(table) + " WHERE " + condition,
+                    countParameters(condition), false));
+        }
+        return new OrganizationPurgePlan(steps);
+    }
+
+    /**
+     * The WHERE condition selecting the organization's rows of every table to
+     * delete from: {@code organization_id = ?}, or for dependent tables their
+     * NOT NULL references into those rows.
+     */
+    private static Map<String, String> conditions(Collection<String> organizationTables, List<ForeignKey> keys) {
+        Map<String, String> conditions = new TreeMap<>();
+        conditions.put(ORGANIZATIONS, "id = ?");
+        for (String table : organizationTables) {
+            if (!table.equals(ORGANIZATIONS)) {
+                conditions.put(table, ORGANIZATION_ID + " = ?");
+            }
+        }
+        Set<String> scoped = new TreeSet<>(conditions.keySet());
+
+        Map<String, List<ForeignKey>> byTable = new TreeMap<>();
+        for (ForeignKey fk : keys) {
+            byTable.computeIfAbsent(fk.table(), k -> new ArrayList<>()).add(fk);
+        }
+        // Until no dependent is added or changed; a NOT NULL cycle would grow its conditions forever
+        for (int pass = 0; ; pass++) {
+            if (pass > byTable.size()) {
+                throw new IllegalStateException("NOT NULL foreign keys form a cycle between tables without "
+                        + ORGANIZATION_ID);
+            }
+            boolean changed = false;
+            for (Map.Entry<String, List<ForeignKey>> entry : byTable.entrySet()) {
+                String table = entry.getKey();
+                if (scoped.contains(table)) {
+                    continue;
+                }
+                List<String> parts = new ArrayList<>();
+                for (ForeignKey fk : entry.getValue()) {
+                    if (!fk.nullable() && !fk.referencedTable().equals(table)
+                            && conditions.containsKey(fk.referencedTable())) {
+                        parts.add(references(fk, conditions));
+                    }
+                }
+                if (!parts.isEmpty()) {
+                    String condition = parts.size() == 1 ? parts.get(0) : "(" + String.join(" OR ", parts) + ")";
+                    if (!condition.equals(conditions.put(table, condition))) {
+                        changed = true;
+                    }
+                }
+            }
+            if (!changed) {
+                return conditions;
+            }
+        }
+    }
+
+    /**
+     * Tables ordered so that every table comes before the tables it references;
+     * {@code organizations} is always last. A cycle is broken at a nullable
+     * reference, which is detached first.
+     */
+    private static List<String> topologicalOrder(Set<String> tables, List<ForeignKey> edges, List<Step> detach,
+                                                 Map<String, String> conditions) {
+        List<ForeignKey> remainingEdges = new ArrayList<>(edges);
+        TreeSet<String> remaining = new TreeSet<>(tables);
+        remaining.remove(ORGANIZATIONS);
+        List<String> order = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            String next = null;
+            for (String table : remaining) {
+                if (remainingEdges.stream().noneMatch(fk -> fk.referencedTable().equals(table)
+                        && remaining.contains(fk.table()))) {
+                    next = table;
+                    break;
+                }
+            }
+            if (next != null) {
+                order.add(next);
+                remaining.remove(next);
+                continue;
+            }
+            ForeignKey breakable = remainingEdges.stream()
+                    .filter(fk -> fk.nullable() && remaining.contains(fk.table())
+                            && remaining.contains(fk.referencedTable()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Foreign keys between " + remaining + " form a cycle without a nullable column"));
+            remainingEdges.remove(breakable);
+            detach.add(detachOwnRows(breakable, conditions));
+        }
+        order.add(ORGANIZATIONS);
+        return order;
+    }
+
+    private static Step detachOwnRows(ForeignKey fk, Map<String, String> conditions) {
+        String condition = conditions.get(fk.table());
+        return new Step(fk.table(), "UPDATE " + quote(fk.table()) + " SET " + quote(fk.column()) + " = NULL WHERE "
+                + quote(fk.column()) + " IS NOT NULL AND (" + condition + ")", countParameters(condition), true);
+    }
+
+    /** {@code column IN (rows of the referenced table being removed)}. */
+    private static String references(ForeignKey fk, Map<String, String> conditions) {
+        return quote(fk.column()) + " IN (SELECT " + quote(fk.referencedColumn()) + " FROM "
+                + quote(fk.referencedTable()) + " WHERE " + conditions.get(fk.referencedTable()) + ")";
+    }
+
+    private static int countParameters(String condition) {
+        return (int) condition.chars().filter(c -> c == '?').count();
+    }
+
+    private static String quote(String identifier) {
+        return "`" + identifier + "`";
+    }
+}
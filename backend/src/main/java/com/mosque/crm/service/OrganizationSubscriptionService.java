@@ -29,9 +29,11 @@ import com.mosque.crm.enums.PlanBillingCycle;
 import com.mosque.crm.multitenancy.TenantContext;
 import com.mosque.crm.repository.FeatureDefinitionRepository;
 import com.mosque.crm.repository.OrganizationSubscriptionRepository;
-import com.mosque.crm.repository.PlanEntitlementRepository;
 import com.mosque.crm.repository.SubscriptionPlanRepository;
 import com.mosque.crm.subscription.PlanEntitlementException;
+import com.mosque.crm.subscription.PlanEntitlementMatrix;
+import com.mosque.crm.subscription.SubscriptionStatusCache;
+import com.mosque.crm.subscription.SubscriptionStatusCache.SubscriptionState;
 
 @Service
 public class OrganizationSubscriptionService {
@@ -40,18 +42,21 @@ public class OrganizationSubscriptionService {
 
     private final OrganizationSubscriptionRepository organizationSubscriptionRepository;
     private final SubscriptionPlanRepository subscriptionPlanRepository;
-    private final PlanEntitlementRepository planEntitlementRepository;
     private final FeatureDefinitionRepository featureDefinitionRepository;
+    private final SubscriptionStatusCache subscriptionStatusCache;
+    private final PlanEntitlementMatrix planEntitlementMatrix;
 
     public OrganizationSubscriptionService(
             OrganizationSubscriptionRepository organizationSubscriptionRepository,
             SubscriptionPlanRepository subscriptionPlanRepository,
-            PlanEntitlementRepository planEntitlementRepository,
-            FeatureDefinitionRepository featureDefinitionRepository) {
+            FeatureDefinitionRepository featureDefinitionRepository,
+            SubscriptionStatusCache subscriptionStatusCache,
+            PlanEntitlementMatrix planEntitlementMatrix) {
         this.organizationSubscriptionRepository = organizationSubscriptionRepository;
         this.subscriptionPlanRepository = subscriptionPlanRepository;
-        this.planEntitlementRepository = planEntitlementRepository;
         this.featureDefinitionRepository = featureDefinitionRepository;
+        this.subscriptionStatusCache = subscriptionStatusCache;
+        this.planEntitlementMatrix = planEntitlementMatrix;
     }
 
     @Transactional(readOnly = true)
@@ -91,6 +96,7 @@ public class OrganizationSubscriptionService {
         }
 
         SubscriptionPlan saved = subscriptionPlanRepository.save(plan);
+        planEntitlementMatrix.invalidate();
         log.info("Created subscription plan code={} id={}", saved.getCode(), saved.getId());
         return saved;
     }
@@ -118,31 +124,34 @@ public class OrganizationSubscriptionService {
         return getCurrentSubscription(organizationId);
     }
 
-    @Transactional(readOnly = true)
+    /*
+     * Entitlement checks are served from SubscriptionStatusCache (organization → plan)
+     * and PlanEntitlementMatrix (plan → feature), so they are deliberately not
+     * @Transactional: in steady state they never touch the database.
+     */
+
     public boolean isFeatureEnabled(Long organizationId, String featureKey) {
-        OrganizationSubscription subscription = getCurrentSubscription(organizationId);
-        PlanEntitlement entitlement = planEntitlementRepository
-                .findByPlanIdAndFeatureKey(subscription.getPlan().getId(), featureKey)
-                .orElse(null);
-        return entitlement != null && Boolean.TRUE.equals(entitlement.getEnabled());
+        return resolveEntitlement(organizationId, featureKey).isEnabled();
     }
 
-    @Transactional(readOnly = true)
     public Integer getFeatureLimit(Long organizationId, String featureKey) {
-        OrganizationSubscription subscription = getCurrentSubscription(organizationId);
-        return planEntitlementRepository
-                .findByPlanIdAndFeatureKey(subscription.getPlan().getId(), featureKey)
-                .map(PlanEntitlement::getLimitValue)
-                .orElse(null);
+        return resolveEntitlement(organizationId, featureKey).getLimitValue();
     }
 
-    @Transactional(readOnly = true)
     public void assertFeatureEnabled(Long organizationId, String featureKey) {
         if (!isFeatureEnabled(organizationId, featureKey)) {
             throw new PlanEntitlementException(featureKey);
         }
     }
 
+    private PlanEntitlementMatrix.Entitlement resolveEntitlement(Long organizationId, String featureKey) {
+        SubscriptionState subscription = subscriptionStatusCache.get(organizationId);
+        if (!subscription.isPresent()) {
+            throw new RuntimeException("No active subscription found for organizationId: " + organizationId);
+        }
+        return planEntitlementMatrix.lookup(subscription.getPlanCode(), featureKey);
+    }
+
     @Transactional
     public OrganizationSubscription createSubscription(Long organizationId,
             String planCode,
@@ -171,6 +180,7 @@ public class OrganizationSubscriptionService {
         subscription.setBillingEnabled(billingEnabled != null ? billingEnabled : true);
 
         OrganizationSubscription saved = organizationSubscriptionRepository.save(subscription);
+        subscriptionStatusCache.evict(organizationId);
         log.info("Created subscription id={} for organizationId={} with plan={}",
                 saved.getId(), organizationId, planCode);
         return saved;
@@ -190,6 +200,7 @@ public class OrganizationSubscriptionService {
         }
 
         OrganizationSubscription saved = organizationSubscriptionRepository.save(subscription);
+        subscriptionStatusCache.evict(saved.getOrganizationId());
         log.info("Updated subscription id={} to status={}", saved.getId(), status);
         return saved;
     }
@@ -200,6 +211,7 @@ public class OrganizationSubscriptionService {
                 .orElseThrow(() -> new RuntimeException("Subscription not found with id: " + subscriptionId));
         subscription.setBillingEnabled(billingEnabled != null ? billingEnabled : true);
         OrganizationSubscription saved = organizationSubscriptionRepository.save(subscription);
+        subscriptionStatusCache.evict(saved.getOrganizationId());
         return saved;
     }
 
@@ -319,6 +331,7 @@ public class OrganizationSubscriptionService {
         }
 
         SubscriptionPlan saved = subscriptionPlanRepository.save(plan);
+        planEntitlementMatrix.invalidate();
         log.info("Updated subscription plan code={} id={}", saved.getCode(), saved.getId());
         return saved;
     }
@@ -333,6 +346,7 @@ public class OrganizationSubscriptionService {
         SubscriptionPlan plan = getPlanByCode(code.trim().toUpperCase());
         plan.setIsActive(false);
         SubscriptionPlan saved = subscriptionPlanRepository.save(plan);
+        planEntitlementMatrix.invalidate();
         log.info("Deactivated subscription plan code={} id={}", saved.getCode(), saved.getId());
         return saved;
     }
@@ -383,6 +397,7 @@ public class OrganizationSubscriptionService {
             if (applyChanges) {
                 current.setPlan(targetPlan);
                 saved = organizationSubscriptionRepository.save(current);
+                subscriptionStatusCache.evict(organizationId);
             }
 
             result.setAction(applyChanges ? "UPGRADE_IMMEDIATE" : "UPGRADE_PREVIEW");
@@ -409,6 +424,7 @@ public class OrganizationSubscriptionService {
             scheduled.setEndsAt(addCycle(periodEnd, current.getBillingCycle()));
             scheduled.setAutoRenew(Boolean.TRUE.equals(current.getAutoRenew()));
             organizationSubscriptionRepository.save(scheduled);
+            subscriptionStatusCache.evict(organizationId);
         }
 
         result.setAction(applyChanges ? "DOWNGRADE_SCHEDULED" : "DOWNGRADE_PREVIEW");
@@ -453,6 +469,7 @@ public class OrganizationSubscriptionService {
             row.setCanceledAt(now);
             organizationSubscriptionRepository.save(row);
         }
+        subscriptionStatusCache.evict(organizationId);
     }
 
     @Transactional
@@ -474,6 +491,7 @@ public class OrganizationSubscriptionService {
             organizationSubscriptionRepository.save(sub);
             log.info("Cancelled subscription={} for org={} before assigning new plan", sub.getId(), organizationId);
         }
+        subscriptionStatusCache.evict(organizationId);
     }
 
     private BigDecimal getPriceForCycle(SubscriptionPlan plan, PlanBillingCycle cycle) {
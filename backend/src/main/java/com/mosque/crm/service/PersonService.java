@@ -11,6 +11,7 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -45,15 +46,18 @@ public class PersonService {
     private final MembershipRepository membershipRepository;
     private final GedcomPersonLinkRepository gedcomPersonLinkRepository;
     private final OrganizationSubscriptionService organizationSubscriptionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PersonService(PersonRepository personRepository,
                         MembershipRepository membershipRepository,
                         GedcomPersonLinkRepository gedcomPersonLinkRepository,
-                        OrganizationSubscriptionService organizationSubscriptionService) {
+                        OrganizationSubscriptionService organizationSubscriptionService,
+                        ApplicationEventPublisher eventPublisher) {
         this.personRepository = personRepository;
         this.membershipRepository = membershipRepository;
         this.gedcomPersonLinkRepository = gedcomPersonLinkRepository;
         this.organizationSubscriptionService = organizationSubscriptionService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -414,6 +418,8 @@ public class PersonService {
             throw new RuntimeException("Person not found with id: " + id);
         }
         personRepository.deleteById(id);
+        // The person's GEDCOM link goes with it
+        eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
     }
 
     /**
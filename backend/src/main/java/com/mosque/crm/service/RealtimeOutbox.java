@@ -0,0 +1,71 @@
+package com.mosque.crm.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mosque.crm.entity.RealtimeOutboxEntry;
+import com.mosque.crm.enums.RealtimeChannel;
+import com.mosque.crm.repository.RealtimeOutboxRepository;
+
+/**
+ * Queues WebSocket pushes in the caller's transaction. Nothing is sent here:
+ * {@link RealtimeOutboxDispatcher} delivers the rows after commit, off the
+ * request thread, so a rolled-back change is never announced and a slow
+ * broker never holds a database transaction open.
+ */
+@Service
+public class RealtimeOutbox {
+
+    private final RealtimeOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RealtimeOutbox(RealtimeOutboxRepository outboxRepository,
+                          ObjectMapper objectMapper,
+                          ApplicationEventPublisher eventPublisher) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public void enqueue(Long userId, RealtimeChannel channel, Object payload) {
+        enqueueAll(channel, Map.of(userId, payload));
+    }
+
+    /** Queue one push per user, each with its own payload. */
+    @Transactional
+    public void enqueueAll(RealtimeChannel channel, Map<Long, ?> payloadByUser) {
+        if (payloadByUser.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<RealtimeOutboxEntry> entries = new ArrayList<>(payloadByUser.size());
+        payloadByUser.forEach((userId, payload) -> {
+            RealtimeOutboxEntry entry = new RealtimeOutboxEntry();
+            entry.setUserId(userId);
+            entry.setChannel(channel);
+            entry.setPayload(toJson(payload));
+            entry.setCreatedAt(now);
+            entries.add(entry);
+        });
+        outboxRepository.saveAll(entries);
+        eventPublisher.publishEvent(new RealtimeOutboxWrittenEvent(entries.size()));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Realtime payload is not serializable: " + e.getMessage(), e);
+        }
+    }
+}
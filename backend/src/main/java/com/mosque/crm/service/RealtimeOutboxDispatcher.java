@@ -0,0 +1,266 @@
+package com.mosque.crm.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mosque.crm.dto.MessageDTO;
+import com.mosque.crm.dto.RealtimeOutboxStatsDTO;
+import com.mosque.crm.dto.WsMessageNotification;
+import com.mosque.crm.entity.RealtimeOutboxEntry;
+import com.mosque.crm.enums.RealtimeChannel;
+import com.mosque.crm.repository.MessageRepository;
+import com.mosque.crm.repository.RealtimeOutboxRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Delivers the realtime outbox through the {@link RealtimeRelay}.
+ * <p>
+ * A dispatch run claims a batch of rows, groups it by user and hands each
+ * user's pushes to the worker pool of a {@link BatchDispatchLoop}, which
+ * throttles claiming to the broker's pace. Runs start right after a writing
+ * transaction commits and on a poll that picks up anything left behind
+ * (other nodes, retries, restarts).
+ * <p>
+ * Within a batch, coalesced channels send only each user's newest push, and
+ * the unread message counts of all recipients are read in one query.
+ */
+@Service
+public class RealtimeOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(RealtimeOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final RealtimeOutboxRepository outboxRepository;
+    private final MessageRepository messageRepository;
+    private final RealtimeRelay relay;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration claimTtl;
+    private final Duration retention;
+
+    private final BatchDispatchLoop loop;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong deliveryFailures = new AtomicLong();
+    private final AtomicLong lastLagMs = new AtomicLong();
+    private final AtomicLong maxLagMs = new AtomicLong();
+
+    public RealtimeOutboxDispatcher(RealtimeOutboxRepository outboxRepository,
+                                    MessageRepository messageRepository,
+                                    RealtimeRelay relay,
+                                    ObjectMapper objectMapper,
+                                    @Value("${realtime.outbox.batch-size:200}") int batchSize,
+                                    @Value("${realtime.outbox.workers:4}") int workerCount,
+                                    @Value("${realtime.outbox.queue-capacity:500}") int queueCapacity,
+                                    @Value("${realtime.outbox.max-attempts:5}") int maxAttempts,
+                                    @Value("${realtime.outbox.claim-ttl-ms:30000}") long claimTtlMs,
+                                    @Value("${realtime.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxRepository = outboxRepository;
+        this.messageRepository = messageRepository;
+        this.relay = relay;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.claimTtl = Duration.ofMillis(claimTtlMs);
+        this.retention = Duration.ofHours(retentionHours);
+
+        this.loop = new BatchDispatchLoop("realtime", batchSize, workerCount, queueCapacity, this::dispatchBatch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loop.shutdown();
+    }
+
+    /** Start a run once the writer has committed, without making the writer wait for it. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutboxWritten(RealtimeOutboxWrittenEvent event) {
+        loop.wake();
+    }
+
+    @Scheduled(fixedDelayString = "${realtime.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        loop.poll();
+    }
+
+    @Scheduled(fixedDelayString = "${realtime.outbox.cleanup-interval-ms:3600000}")
+    public void purgeFinished() {
+        int removed = outboxRepository.deleteFinishedBefore(LocalDateTime.now().minus(retention), maxAttempts);
+        if (removed > 0) {
+            log.debug("Removed {} finished realtime outbox rows", removed);
+        }
+    }
+
+    /**
+     * Deliver batches on the calling thread until the outbox is drained or a
+     * batch fails to go out (failed rows wait for the next poll). A run already
+     * in progress on this node picks up the new rows instead.
+     *
+     * @return number of rows delivered
+     */
+    public int dispatchPending() {
+        return loop.drain();
+    }
+
+    public RealtimeOutboxStatsDTO stats() {
+        RealtimeOutboxStatsDTO stats = new RealtimeOutboxStatsDTO();
+        stats.setPending(outboxRepository.countPending(maxAttempts));
+        stats.setFailed(outboxRepository.countFailed(maxAttempts));
+        LocalDateTime oldest = outboxRepository.findOldestPendingCreatedAt(maxAttempts);
+        stats.setOldestPendingAgeMs(oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() : 0);
+        stats.setLastDeliveryLagMs(lastLagMs.get());
+        stats.setMaxDeliveryLagMs(maxLagMs.get());
+        stats.setDelivered(delivered.get());
+        stats.setCoalesced(coalesced.get());
+        stats.setDeliveryFailures(deliveryFailures.get());
+        stats.setWorkerQueueSize(loop.workers().getThreadPoolExecutor().getQueue().size());
+        stats.setActiveWorkers(loop.workers().getActiveCount());
+        return stats;
+    }
+
+    private int dispatchBatch() {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (outboxRepository.claimBatch(token, now.plus(claimTtl), now, maxAttempts, batchSize) == 0) {
+            return 0;
+        }
+        List<RealtimeOutboxEntry> entries = outboxRepository.findByClaimTokenOrderByIdAsc(token);
+
+        Map<Long, List<RealtimeOutboxEntry>> byUser = new LinkedHashMap<>();
+        for (RealtimeOutboxEntry entry : entries) {
+            byUser.computeIfAbsent(entry.getUserId(), k -> new ArrayList<>()).add(entry);
+        }
+        Map<List<Long>, Long> unread = unreadMessageCounts(entries);
+
+        List<Long> deliveredIds = new ArrayList<>();
+        Map<String, List<Long>> failedIds = new ConcurrentHashMap<>();
+        List<CompletableFuture<List<Long>>> deliveries = new ArrayList<>();
+        for (Map.Entry<Long, List<RealtimeOutboxEntry>> user : byUser.entrySet()) {
+            deliveries.add(CompletableFuture.supplyAsync(
+                    () -> deliverToUser(user.getKey(), user.getValue(), unread, failedIds), loop.workers()));
+        }
+        loop.await(deliveries, claimTtl);
+        for (CompletableFuture<List<Long>> delivery : deliveries) {
+            if (delivery.isDone() && !delivery.isCompletedExceptionally()) {
+                deliveredIds.addAll(delivery.join());
+            }
+        }
+
+        LocalDateTime deliveredAt = LocalDateTime.now();
+        if (!deliveredIds.isEmpty()) {
+            outboxRepository.markDispatched(deliveredIds, deliveredAt);
+            recordLag(entries, new HashSet<>(deliveredIds), deliveredAt);
+        }
+        failedIds.forEach((error, ids) -> outboxRepository.markFailed(ids, error));
+        return deliveredIds.size();
+    }
+
+    /**
+     * Push one user's entries in order.
+     *
+     * @return ids of the delivered entries; on failure the user's ids are added to {@code failedIds}
+     */
+    private List<Long> deliverToUser(Long userId, List<RealtimeOutboxEntry> entries,
+                                     Map<List<Long>, Long> unread, Map<String, List<Long>> failedIds) {
+        List<Long> ids = entries.stream().map(RealtimeOutboxEntry::getId).toList();
+        try {
+            Map<RealtimeChannel, RealtimeOutboxEntry> newest = new HashMap<>();
+            for (RealtimeOutboxEntry entry : entries) {
+                RealtimeChannel channel = entry.getChannel();
+                if (channel.isCoalesced()) {
+                    if (newest.put(channel, entry) != null) {
+                        coalesced.incrementAndGet();
+                    }
+                    continue;
+                }
+                relay.sendToUser(userId.toString(), channel.getDestination(), framePayload(entry, unread));
+            }
+            for (RealtimeOutboxEntry entry : newest.values()) {
+                relay.sendToUser(userId.toString(), entry.getChannel().getDestination(), framePayload(entry, unread));
+            }
+            delivered.addAndGet(ids.size());
+            return ids;
+        } catch (Exception e) {
+            deliveryFailures.incrementAndGet();
+            log.debug("Could not push realtime events to user {}: {}", userId, e.getMessage());
+            failedIds.merge(truncate(e.getMessage()), new ArrayList<>(ids), (known, added) -> {
+                known.addAll(added);
+                return known;
+            });
+            return List.of();
+        }
+    }
+
+    /** Message pushes carry the recipient's unread count as of delivery, per organization. */
+    private Object framePayload(RealtimeOutboxEntry entry, Map<List<Long>, Long> unread) throws Exception {
+        if (entry.getChannel() != RealtimeChannel.MESSAGES) {
+            return objectMapper.readTree(entry.getPayload());
+        }
+        MessageDTO message = objectMapper.readValue(entry.getPayload(), MessageDTO.class);
+        long unreadCount = unread.getOrDefault(unreadKey(entry.getUserId(), message.getOrganizationId()), 0L);
+        return new WsMessageNotification(message, unreadCount);
+    }
+
+    private Map<List<Long>, Long> unreadMessageCounts(List<RealtimeOutboxEntry> entries) {
+        Set<Long> recipients = new HashSet<>();
+        for (RealtimeOutboxEntry entry : entries) {
+            if (entry.getChannel() == RealtimeChannel.MESSAGES) {
+                recipients.add(entry.getUserId());
+            }
+        }
+        Map<List<Long>, Long> counts = new HashMap<>();
+        if (recipients.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : messageRepository.countUnreadByRecipientIn(recipients)) {
+            counts.put(unreadKey((Long) row[0], (Long) row[1]), ((Number) row[2]).longValue());
+        }
+        return counts;
+    }
+
+    private static List<Long> unreadKey(Long userId, Long organizationId) {
+        return Arrays.asList(userId, organizationId);
+    }
+
+    private void recordLag(List<RealtimeOutboxEntry> entries, Set<Long> deliveredIds, LocalDateTime deliveredAt) {
+        long lag = 0;
+        for (RealtimeOutboxEntry entry : entries) {
+            if (deliveredIds.contains(entry.getId())) {
+                lag = Math.max(lag, Duration.between(entry.getCreatedAt(), deliveredAt).toMillis());
+            }
+        }
+        lastLagMs.set(lag);
+        maxLagMs.accumulateAndGet(lag, Math::max);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return "unknown error";
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,9 @@
+package com.mosque.crm.service;
+
+/**
+ * Published when pushes were added to the realtime outbox. Once the writing
+ * transaction commits, {@link RealtimeOutboxDispatcher} starts a dispatch run
+ * instead of waiting for its next poll.
+ */
+public record RealtimeOutboxWrittenEvent(int count) {
+}
@@ -0,0 +1,16 @@
+package com.mosque.crm.service;
+
+/**
+ * Delivers a push to the STOMP sessions of one user, wherever they are
+ * connected. {@link BrokerRealtimeRelay} sends through the application's
+ * message broker; tests substitute a recording relay or an embedded broker.
+ */
+public interface RealtimeRelay {
+
+    /**
+     * @param userId      user name the sessions were authenticated with
+     * @param destination user destination such as {@code /topic/notifications}
+     * @param payload     frame body, serialized by the relay
+     */
+    void sendToUser(String userId, String destination, Object payload);
+}
@@ -2,10 +2,14 @@ package com.mosque.crm.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.mosque.crm.dto.RelationshipResponse;
@@ -43,76 +47,98 @@ public class RelationshipService {
     private final FamilyRepository familyRepository;
     private final FamilyChildRepository familyChildRepository;
     private final GedcomPersonLinkRepository gedcomPersonLinkRepository;
+    private final FamilyGraphCache familyGraphCache;
+    private final GedcomIdAllocator gedcomIdAllocator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RelationshipService(PersonRepository personRepository,
                                IndividualRepository individualRepository,
                                FamilyRepository familyRepository,
                                FamilyChildRepository familyChildRepository,
-                               GedcomPersonLinkRepository gedcomPersonLinkRepository) {
+                               GedcomPersonLinkRepository gedcomPersonLinkRepository,
+                               FamilyGraphCache familyGraphCache,
+                               GedcomIdAllocator gedcomIdAllocator,
+                               ApplicationEventPublisher eventPublisher) {
         this.personRepository = personRepository;
         this.individualRepository = individualRepository;
         this.familyRepository = familyRepository;
         this.familyChildRepository = familyChildRepository;
         this.gedcomPersonLinkRepository = gedcomPersonLinkRepository;
+        this.familyGraphCache = familyGraphCache;
+        this.gedcomIdAllocator = gedcomIdAllocator;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Get all family relationships for a person.
+     * Structure comes from the cached family graph; the related persons' names
+     * are loaded with one query.
      */
     public List<RelationshipResponse> getRelationships(Long personId) {
-        Person person = personRepository.findById(personId)
-                .orElseThrow(() -> new IllegalArgumentException("Person not found"));
+        if (!personRepository.existsById(personId)) {
+            throw new IllegalArgumentException("Person not found");
+        }
 
         // Get the GEDCOM Individual linked to this person
-        Optional<GedcomPersonLink> gedcomLinkOpt = gedcomPersonLinkRepository.findByPerson(person);
-        if (!gedcomLinkOpt.isPresent()) {
+        FamilyGraph graph = familyGraphCache.get();
+        int individual = graph.individualIndexOfPerson(personId);
+        if (individual == FamilyGraph.NONE) {
             return new ArrayList<>(); // Return empty list if no GEDCOM link exists
         }
-        
-        Individual individual = gedcomLinkOpt.get().getGedcomIndividual();
-        List<RelationshipResponse> relationships = new ArrayList<>();
 
-        // Find parents (through FamilyChild)
-        List<FamilyChild> childRecords = familyChildRepository.findByChildId(individual.getId());
-        for (FamilyChild childRecord : childRecords) {
-            Family family = familyRepository.findById(childRecord.getFamilyId()).orElse(null);
-            if (family != null) {
-                // Add father
-                if (family.getHusbandId() != null) {
-                    addParentRelationship(relationships, family.getHusbandId(), "FATHER");
-                }
-                // Add mother
-                if (family.getWifeId() != null) {
-                    addParentRelationship(relationships, family.getWifeId(), "MOTHER");
-                }
+        List<RelatedPerson> related = new ArrayList<>();
+
+        // Find parents (families where individual is a child)
+        for (int family : graph.parentFamiliesOf(individual)) {
+            int father = graph.husband(family);
+            if (father != FamilyGraph.NONE) {
+                related.add(new RelatedPerson(graph.personIdOf(father), graph.individualId(father), "FATHER"));
+            }
+            int mother = graph.wife(family);
+            if (mother != FamilyGraph.NONE) {
+                related.add(new RelatedPerson(graph.personIdOf(mother), graph.individualId(mother), "MOTHER"));
             }
         }
 
         // Find spouses (where individual is husband or wife)
-        List<Family> spouseFamilies = familyRepository.findFamiliesBySpouse(individual.getId());
-        for (Family family : spouseFamilies) {
-            if (family.getHusbandId() != null && family.getHusbandId().equals(individual.getId())) {
-                // Individual is husband, so wife is spouse
-                if (family.getWifeId() != null) {
-                    addSpouseRelationship(relationships, family.getWifeId(), family.getId());
-                }
-            } else if (family.getWifeId() != null && family.getWifeId().equals(individual.getId())) {
-                // Individual is wife, so husband is spouse
-                if (family.getHusbandId() != null) {
-                    addSpouseRelationship(relationships, family.getHusbandId(), family.getId());
-                }
+        int[] spouseFamilies = graph.spouseFamiliesOf(individual);
+        for (int family : spouseFamilies) {
+            int spouse = graph.husband(family) == individual ? graph.wife(family) : graph.husband(family);
+            if (spouse != FamilyGraph.NONE) {
+                related.add(new RelatedPerson(graph.personIdOf(spouse), graph.familyId(family), "SPOUSE"));
             }
         }
 
         // Find children (families where individual is parent - either husband or wife)
-        List<Family> parentFamilies = familyRepository.findFamiliesBySpouse(individual.getId());
-        for (Family family : parentFamilies) {
-            List<FamilyChild> children = familyChildRepository.findByFamilyId(family.getId());
-            for (FamilyChild child : children) {
-                addChildRelationship(relationships, child.getChildId(), child.getId().toString());
+        for (int family : spouseFamilies) {
+            for (int slot = graph.childStart(family); slot < graph.childEnd(family); slot++) {
+                int child = graph.childAt(slot);
+                if (child != FamilyGraph.NONE) {
+                    related.add(new RelatedPerson(graph.personIdOf(child),
+                            String.valueOf(graph.familyChildIdAt(slot)), "CHILD"));
+                }
             }
         }
 
+        Map<Long, FamilyGraphCache.PersonName> names = familyGraphCache.loadPersonNames(related.stream()
+                .map(RelatedPerson::personId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        List<RelationshipResponse> relationships = new ArrayList<>();
+        for (RelatedPerson relatedPerson : related) {
+            FamilyGraphCache.PersonName name = relatedPerson.personId() != null
+                    ? names.get(relatedPerson.personId())
+                    : null;
+            if (name != null) {
+                relationships.add(new RelationshipResponse(
+                        relatedPerson.relationshipId(),
+                        relatedPerson.personId(),
+                        getFullName(name.firstName(), name.lastName()),
+                        relatedPerson.type()
+                ));
+            }
+        }
         return relationships;
     }
 
@@ -130,6 +156,7 @@ public class RelationshipService {
         // Get or create GEDCOM Individuals
         Individual individual = getOrCreateIndividual(person);
         Individual relatedIndividual = getOrCreateIndividual(relatedPerson);
+        eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
 
         // Process relationship based on type
         switch (relationshipTypeStr.toUpperCase()) {
@@ -151,6 +178,8 @@ public class RelationshipService {
      */
     @Transactional
     public void removeRelationship(String relationshipId) {
+        eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
+
         // Try to parse as Long (FamilyChild ID)
         try {
             Long familyChildId = Long.parseLong(relationshipId);
@@ -190,7 +219,7 @@ public class RelationshipService {
 
         // Create new GEDCOM Individual
         Individual individual = new Individual();
-        individual.setId(generateIndividualId());
+        individual.setId(gedcomIdAllocator.nextIndividualId());
         individual.setGivenName(person.getFirstName());
         individual.setSurname(person.getLastName());
         individual.setBirthDate(person.getDateOfBirth());
@@ -211,42 +240,6 @@ public class RelationshipService {
         return individual;
     }
 
-    /**
-     * Generate unique GEDCOM Individual ID in format @I{number}@
-     */
-    private String generateIndividualId() {
-        // Find highest existing ID number
-        List<Individual> allIndividuals = individualRepository.findAll();
-        int maxId = allIndividuals.stream()
-                .map(i -> extractIdNumber(i.getId()))
-                .max(Integer::compareTo)
-                .orElse(0);
-        return String.format("@I%d@", maxId + 1);
-    }
-
-    /**
-     * Extract numeric part from GEDCOM ID (e.g., "@I5@" -> 5)
-     */
-    private int extractIdNumber(String gedcomId) {
-        try {
-            return Integer.parseInt(gedcomId.replaceAll("[^0-9]", ""));
-        } catch (NumberFormatException e) {
-            return 0;
-        }
-    }
-
-    /**
-     * Generate unique GEDCOM Family ID in format @F{number}@
-     */
-    private String generateFamilyId() {
-        List<Family> allFamilies = familyRepository.findAll();
-        int maxId = allFamilies.stream()
-                .map(f -> extractIdNumber(f.getId()))
-                .max(Integer::compareTo)
-                .orElse(0);
-        return String.format("@F%d@", maxId + 1);
-    }
-
     /**
      * Infer GEDCOM Sex enum from Person gender string.
      */
@@ -284,7 +277,7 @@ public class RelationshipService {
         if (family == null) {
             // Create new family
             family = new Family();
-            family.setId(generateFamilyId());
+            family.setId(gedcomIdAllocator.nextFamilyId());
             if (isFather) {
                 family.setHusbandId(parent.getId());
             } else {
@@ -337,7 +330,7 @@ public class RelationshipService {
         } else {
             // Create new family
             family = new Family();
-            family.setId(generateFamilyId());
+            family.setId(gedcomIdAllocator.nextFamilyId());
 
             // Assign roles based on sex
             if (person1.getSex() == GenderEnum.M) {
@@ -381,7 +374,7 @@ public class RelationshipService {
         } else {
             // Create new family with just this parent
             family = new Family();
-            family.setId(generateFamilyId());
+            family.setId(gedcomIdAllocator.nextFamilyId());
             if (parent.getSex() == GenderEnum.M) {
                 family.setHusbandId(parent.getId());
             } else {
@@ -415,51 +408,6 @@ public class RelationshipService {
         );
     }
 
-    /**
-     * Helper to add parent relationship to result list.
-     */
-    private void addParentRelationship(List<RelationshipResponse> relationships, String parentIndividualId, String type) {
-        Person parentPerson = findPersonByIndividualId(parentIndividualId);
-        if (parentPerson != null) {
-            relationships.add(new RelationshipResponse(
-                    parentIndividualId,  // Use individual ID for parents
-                    parentPerson.getId(),
-                    getFullName(parentPerson),
-                    type
-            ));
-        }
-    }
-
-    /**
-     * Helper to add spouse relationship to result list.
-     */
-    private void addSpouseRelationship(List<RelationshipResponse> relationships, String spouseIndividualId, String familyId) {
-        Person spousePerson = findPersonByIndividualId(spouseIndividualId);
-        if (spousePerson != null) {
-            relationships.add(new RelationshipResponse(
-                    familyId,
-                    spousePerson.getId(),
-                    getFullName(spousePerson),
-                    "SPOUSE"
-            ));
-        }
-    }
-
-    /**
-     * Helper to add child relationship to result list.
-     */
-    private void addChildRelationship(List<RelationshipResponse> relationships, String childIndividualId, String familyChildId) {
-        Person childPerson = findPersonByIndividualId(childIndividualId);
-        if (childPerson != null) {
-            relationships.add(new RelationshipResponse(
-                    familyChildId,
-                    childPerson.getId(),
-                    getFullName(childPerson),
-                    "CHILD"
-            ));
-        }
-    }
-
     /**
      * Find Person by GEDCOM Individual ID.
      */
@@ -477,9 +425,19 @@ public class RelationshipService {
      * Get full name from Person.
      */
     private String getFullName(Person person) {
-        if (person.getLastName() != null && !person.getLastName().isEmpty()) {
-            return person.getFirstName() + " " + person.getLastName();
+        return getFullName(person.getFirstName(), person.getLastName());
+    }
+
+    private String getFullName(String firstName, String lastName) {
+        if (lastName != null && !lastName.isEmpty()) {
+            return firstName + " " + lastName;
         }
-        return person.getFirstName();
+        return firstName;
+    }
+
+    /**
+     * A related individual's person and the relationship it is reported under.
+     */
+    private record RelatedPerson(Long personId, String relationshipId, String type) {
     }
 }
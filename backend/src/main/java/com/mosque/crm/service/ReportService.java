@@ -13,6 +13,8 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,9 +29,9 @@ import com.mosque.crm.dto.report.PaymentSummaryReportDTO;
 import com.mosque.crm.dto.report.PaymentSummaryReportDTO.ContributionTypeColumn;
 import com.mosque.crm.dto.report.PaymentSummaryReportDTO.CurrencyAmount;
 import com.mosque.crm.dto.report.PaymentSummaryReportDTO.PersonPaymentRow;
-import com.mosque.crm.entity.MemberPayment;
 import com.mosque.crm.entity.Person;
 import com.mosque.crm.enums.PersonStatus;
+import com.mosque.crm.repository.ContributionTotalRepository;
 import com.mosque.crm.repository.ContributionTypeRepository;
 import com.mosque.crm.repository.MemberPaymentRepository;
 import com.mosque.crm.repository.PersonRepository;
@@ -40,25 +42,33 @@ public class ReportService {
 
     private static final Logger log = LoggerFactory.getLogger(ReportService.class);
 
+    /** Persons per aggregation query, keeps the IN list bounded when exporting all rows. */
+    private static final int REPORT_PERSON_CHUNK_SIZE = 500;
+
     private final MemberPaymentRepository paymentRepository;
     private final ContributionTypeRepository contributionTypeRepository;
     private final PersonRepository personRepository;
     private final MemberDirectoryFamilyResolver familyResolver;
+    private final ContributionTotalRepository contributionTotalRepository;
 
     public ReportService(MemberPaymentRepository paymentRepository,
                          ContributionTypeRepository contributionTypeRepository,
                          PersonRepository personRepository,
-                         MemberDirectoryFamilyResolver familyResolver) {
+                         MemberDirectoryFamilyResolver familyResolver,
+                         ContributionTotalRepository contributionTotalRepository) {
         this.paymentRepository = paymentRepository;
         this.contributionTypeRepository = contributionTypeRepository;
         this.personRepository = personRepository;
         this.familyResolver = familyResolver;
+        this.contributionTotalRepository = contributionTotalRepository;
     }
 
     /**
      * Generate the payment summary report for a given year and locale.
      * Returns all persons who made at least one payment in the year,
      * with amounts broken down by contribution type and currency.
+     * Persons are paged and amounts summed in the database, so only the
+     * requested page is ever loaded.
      */
     @Transactional(readOnly = true)
     public PaymentSummaryReportDTO generatePaymentSummary(int year, String locale, int page, int size) {
@@ -80,100 +90,88 @@ public class ReportService {
                 })
                 .collect(Collectors.toList());
 
-        // 2. Fetch all non-reversal payments for the year
-        List<MemberPayment> payments = paymentRepository.findPaymentsForReport(year);
-
-        if (payments.isEmpty()) {
+        // 2. Count and page the persons in SQL (size 0 = all, used by exports)
+        // Year as a half-open range on effective_date, so the (organization, effective date, person) index applies
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = from.plusYears(1);
+        long totalElements = paymentRepository.countPersonsForReport(from, to);
+        if (totalElements == 0) {
             return new PaymentSummaryReportDTO(year, columns, new ArrayList<>(), page, size, 0);
         }
+        Pageable pageable = size > 0 ? PageRequest.of(page, size) : Pageable.unpaged();
+        List<Object[]> persons = paymentRepository.findPersonsForReport(from, to, pageable);
 
-        // 3. Group payments by person
-        // personId → (contributionTypeId → (currencyCode → running total))
-        Map<Long, Map<Long, Map<String, BigDecimal>>> grouped = new LinkedHashMap<>();
+        // 3. Aggregate amounts in SQL for the persons on this page only
+        // personId → (contributionTypeId → (currencyCode → total))
+        Map<Long, Map<Long, Map<String, BigDecimal>>> grouped = new HashMap<>();
         // Track currency symbols
         Map<String, String> currencySymbols = new HashMap<>();
-        // Track person names
-        Map<Long, String[]> personNames = new HashMap<>();
 
-        for (MemberPayment payment : payments) {
-            if (payment.getPerson() == null || payment.getContributionType() == null) {
-                continue;
+        List<Long> personIds = persons.stream().map(p -> (Long) p[0]).collect(Collectors.toList());
+        for (int start = 0; start < personIds.size(); start += REPORT_PERSON_CHUNK_SIZE) {
+            List<Long> chunk = personIds.subList(start, Math.min(start + REPORT_PERSON_CHUNK_SIZE, personIds.size()));
+            for (Object[] row : paymentRepository.sumPaymentsForReportByPerson(from, to, chunk)) {
+                Long personId = (Long) row[0];
+                Long typeId = (Long) row[1];
+                String currCode = row[2] != null ? (String) row[2] : "???";
+                String currSymbol = row[3] != null ? (String) row[3] : "?";
+                BigDecimal amount = row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO;
+
+                currencySymbols.putIfAbsent(currCode, currSymbol);
+                grouped.computeIfAbsent(personId, k -> new HashMap<>())
+                        .computeIfAbsent(typeId, k -> new HashMap<>())
+                        .merge(currCode, amount, BigDecimal::add);
             }
-
-            Long personId = payment.getPerson().getId();
-            Long typeId = payment.getContributionType().getId();
-            String currCode = payment.getCurrency() != null ? payment.getCurrency().getCode() : "???";
-            String currSymbol = payment.getCurrency() != null ? payment.getCurrency().getSymbol() : "?";
-            BigDecimal amount = payment.getAmount() != null ? payment.getAmount() : BigDecimal.ZERO;
-
-            currencySymbols.putIfAbsent(currCode, currSymbol);
-            personNames.putIfAbsent(personId, new String[] {
-                    payment.getPerson().getLastName(),
-                    payment.getPerson().getFirstName()
-            });
-
-            grouped.computeIfAbsent(personId, k -> new HashMap<>())
-                    .computeIfAbsent(typeId, k -> new HashMap<>())
-                    .merge(currCode, amount, BigDecimal::add);
         }
 
-        // 4. Build rows sorted by lastName, firstName
-        List<PersonPaymentRow> rows = grouped.entrySet().stream()
-                .map(entry -> {
-                    Long personId = entry.getKey();
-                    Map<Long, Map<String, BigDecimal>> typeMap = entry.getValue();
-                    String[] names = personNames.get(personId);
-
-                    // Build amounts map: typeId → list of CurrencyAmount
-                    Map<Long, List<CurrencyAmount>> amounts = new LinkedHashMap<>();
-                    // Track person totals per currency
-                    Map<String, BigDecimal> personTotals = new HashMap<>();
-
-                    for (ContributionTypeColumn col : columns) {
-                        Map<String, BigDecimal> currencyMap = typeMap.getOrDefault(col.getId(), Map.of());
-                        List<CurrencyAmount> currAmounts = currencyMap.entrySet().stream()
-                                .sorted(Map.Entry.comparingByKey())
-                                .map(e -> {
-                                    personTotals.merge(e.getKey(), e.getValue(), BigDecimal::add);
-                                    return new CurrencyAmount(e.getKey(), currencySymbols.getOrDefault(e.getKey(), "?"), e.getValue());
-                                })
-                                .collect(Collectors.toList());
-                        amounts.put(col.getId(), currAmounts);
-                    }
+        // 4. Build rows in the SQL order (lastName, firstName)
+        List<PersonPaymentRow> rows = new ArrayList<>(persons.size());
+        for (Object[] person : persons) {
+            Long personId = (Long) person[0];
+            Map<Long, Map<String, BigDecimal>> typeMap = grouped.getOrDefault(personId, Map.of());
+
+            // Build amounts map: typeId → list of CurrencyAmount
+            Map<Long, List<CurrencyAmount>> amounts = new LinkedHashMap<>();
+            // Track person totals per currency
+            Map<String, BigDecimal> personTotals = new HashMap<>();
+
+            for (ContributionTypeColumn col : columns) {
+                Map<String, BigDecimal> currencyMap = typeMap.getOrDefault(col.getId(), Map.of());
+                List<CurrencyAmount> currAmounts = currencyMap.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(e -> {
+                            personTotals.merge(e.getKey(), e.getValue(), BigDecimal::add);
+                            return new CurrencyAmount(e.getKey(), currencySymbols.getOrDefault(e.getKey(), "?"), e.getValue());
+                        })
+                        .collect(Collectors.toList());
+                amounts.put(col.getId(), currAmounts);
+            }
 
-                    List<CurrencyAmount> totals = personTotals.entrySet().stream()
-                            .sorted(Map.Entry.comparingByKey())
-                            .map(e -> new CurrencyAmount(e.getKey(), currencySymbols.getOrDefault(e.getKey(), "?"), e.getValue()))
-                            .collect(Collectors.toList());
+            List<CurrencyAmount> totals = personTotals.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .map(e -> new CurrencyAmount(e.getKey(), currencySymbols.getOrDefault(e.getKey(), "?"), e.getValue()))
+                    .collect(Collectors.toList());
 
-                    return new PersonPaymentRow(personId, names[0], names[1], amounts, totals);
-                })
-                .sorted(Comparator.comparing((PersonPaymentRow r) -> r.getLastName() != null ? r.getLastName().toLowerCase() : "")
-                        .thenComparing(r -> r.getFirstName() != null ? r.getFirstName().toLowerCase() : ""))
-                .collect(Collectors.toList());
+            rows.add(new PersonPaymentRow(personId, (String) person[1], (String) person[2], amounts, totals));
+        }
 
-        // 5. Apply in-memory pagination
-        long totalElements = rows.size();
         if (size > 0) {
-            int fromIndex = Math.min(page * size, rows.size());
-            int toIndex = Math.min(fromIndex + size, rows.size());
-            List<PersonPaymentRow> pagedRows = rows.subList(fromIndex, toIndex);
-            return new PaymentSummaryReportDTO(year, columns, pagedRows, page, size, totalElements);
+            return new PaymentSummaryReportDTO(year, columns, rows, page, size, totalElements);
         }
-
         return new PaymentSummaryReportDTO(year, columns, rows);
     }
 
     /**
      * Generate the contribution totals report for a given year.
-     * Returns total amounts per contribution type per currency.
+     * Returns total amounts per contribution type per currency, read from the
+     * pre-aggregated contribution_totals table.
      */
     @Transactional(readOnly = true)
     public ContributionTotalReportDTO generateContributionTotals(int year, String locale) {
         log.info("Generating contribution totals report for year {} with locale {}", year, locale);
 
-        // 1. Fetch all non-reversal payments for the year
-        List<MemberPayment> payments = paymentRepository.findPaymentsForReport(year);
+        // 1. Read the pre-aggregated non-reversal totals for the year
+        List<Object[]> totalRows = contributionTotalRepository.sumByContributionTypeAndCurrency(year);
 
         // 2. Get active contribution types for display names
         Map<Long, String[]> typeInfo = new LinkedHashMap<>(); // id -> [code, name]
@@ -196,11 +194,10 @@ public class ReportService {
         Map<String, BigDecimal> grandTotalMap = new LinkedHashMap<>();
         java.util.Set<String> allCurrencies = new java.util.TreeSet<>();
 
-        for (MemberPayment payment : payments) {
-            if (payment.getContributionType() == null) continue;
-            Long typeId = payment.getContributionType().getId();
-            String currCode = payment.getCurrency() != null ? payment.getCurrency().getCode() : "???";
-            BigDecimal amount = payment.getAmount() != null ? payment.getAmount() : BigDecimal.ZERO;
+        for (Object[] row : totalRows) {
+            Long typeId = (Long) row[0];
+            String currCode = row[1] != null && !((String) row[1]).isEmpty() ? (String) row[1] : "???";
+            BigDecimal amount = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
 
             allCurrencies.add(currCode);
             grouped.computeIfAbsent(typeId, k -> new LinkedHashMap<>())
@@ -11,10 +11,9 @@ import org.springframework.stereotype.Service;
 import com.mosque.crm.entity.Permission;
 import com.mosque.crm.entity.Role;
 import com.mosque.crm.entity.User;
-import com.mosque.crm.entity.UserRole;
 import com.mosque.crm.repository.PermissionRepository;
 import com.mosque.crm.repository.RoleRepository;
-import com.mosque.crm.repository.UserRoleRepository;
+import com.mosque.crm.security.CurrentPrincipal;
 
 /**
  * Enforces the governance rules defined in MULTI-TENANT-SECURITY.md:
@@ -34,16 +33,13 @@ public class RoleGovernanceService {
     private static final Logger log = LoggerFactory.getLogger(RoleGovernanceService.class);
 
     private final AuthorizationService authorizationService;
-    private final UserRoleRepository userRoleRepository;
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
 
     public RoleGovernanceService(AuthorizationService authorizationService,
-                                 UserRoleRepository userRoleRepository,
                                  RoleRepository roleRepository,
                                  PermissionRepository permissionRepository) {
         this.authorizationService = authorizationService;
-        this.userRoleRepository = userRoleRepository;
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
     }
@@ -59,7 +55,7 @@ public class RoleGovernanceService {
             return true;
         }
 
-        Set<Long> actorRoleIds = getActiveRoleIds(authorizationService.getCurrentUser());
+        Set<Long> actorRoleIds = getActorRoleIds();
         if (actorRoleIds.isEmpty()) {
             return false;
         }
@@ -95,7 +91,7 @@ public class RoleGovernanceService {
             return true;
         }
 
-        Set<Long> actorRoleIds = getActiveRoleIds(authorizationService.getCurrentUser());
+        Set<Long> actorRoleIds = getActorRoleIds();
         if (actorRoleIds.isEmpty()) {
             return false;
         }
@@ -125,7 +121,7 @@ public class RoleGovernanceService {
             return true;
         }
 
-        Set<Long> actorRoleIds = getActiveRoleIds(authorizationService.getCurrentUser());
+        Set<Long> actorRoleIds = getActorRoleIds();
         if (actorRoleIds.isEmpty()) {
             return false;
         }
@@ -145,7 +141,7 @@ public class RoleGovernanceService {
             return true;
         }
 
-        Set<Long> actorRoleIds = getActiveRoleIds(authorizationService.getCurrentUser());
+        Set<Long> actorRoleIds = getActorRoleIds();
         if (actorRoleIds.isEmpty()) {
             return false;
         }
@@ -174,12 +170,7 @@ public class RoleGovernanceService {
             return Collections.emptySet(); // caller handles super-admin specially
         }
 
-        User actor = authorizationService.getCurrentUser();
-        if (actor == null) {
-            return Collections.emptySet();
-        }
-
-        Set<Long> actorRoleIds = getActiveRoleIds(actor);
+        Set<Long> actorRoleIds = getActorRoleIds();
         if (actorRoleIds.isEmpty()) {
             return Collections.emptySet();
         }
@@ -193,13 +184,12 @@ public class RoleGovernanceService {
         return authorizationService.hasPermission("superadmin.manage");
     }
 
-    private Set<Long> getActiveRoleIds(User user) {
-        if (user == null) {
+    /** Active role IDs of the current user, taken from the request principal snapshot. */
+    private Set<Long> getActorRoleIds() {
+        CurrentPrincipal actor = authorizationService.getCurrentPrincipal();
+        if (actor == null) {
             return Collections.emptySet();
         }
-        return userRoleRepository.findByIdUserId(user.getId()).stream()
-                .filter(UserRole::isActive)
-                .map(UserRole::getRoleId)
-                .collect(Collectors.toSet());
+        return actor.getRoleIds();
     }
 }
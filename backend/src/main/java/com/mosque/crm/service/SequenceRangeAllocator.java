@@ -0,0 +1,55 @@
+package com.mosque.crm.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserves ranges of ids from a counter row in {@code sequences_}, for code
+ * that writes rows with plain SQL instead of through a Hibernate
+ * TableGenerator.
+ * <p>
+ * A reservation is one atomic {@code UPDATE ... LAST_INSERT_ID(...)},
+ * committed in its own short transaction so the counter row is not locked for
+ * the caller's transaction. PK_VALUE stays the high-water mark, as with the
+ * pooled-lo generators on the same rows, so ranges never overlap with ids
+ * Hibernate hands out. Ids of a range left unused are skipped.
+ */
+@Component
+public class SequenceRangeAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public SequenceRangeAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserve {@code count} consecutive ids.
+     *
+     * @param initialValue counter value to start from when the row does not exist yet
+     * @return the first id of the range {@code [first, first + count)}
+     */
+    public long reserve(String sequence, int count, long initialValue) {
+        Long end = newTransaction.execute(status -> {
+            int updated = jdbcTemplate.update(
+                    "UPDATE sequences_ SET PK_VALUE = LAST_INSERT_ID(PK_VALUE + ?) WHERE PK_NAME = ?",
+                    count, sequence);
+            if (updated == 0) {
+                // Counter row missing (changeset not applied yet); a concurrent insert wins
+                jdbcTemplate.update("INSERT IGNORE INTO sequences_ (PK_NAME, PK_VALUE) VALUES (?, ?)",
+                        sequence, initialValue);
+                jdbcTemplate.update(
+                        "UPDATE sequences_ SET PK_VALUE = LAST_INSERT_ID(PK_VALUE + ?) WHERE PK_NAME = ?",
+                        count, sequence);
+            }
+            return jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        });
+        return end - count;
+    }
+}
@@ -12,6 +12,8 @@ import software.amazon.awssdk.services.s3.model.*;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Service for S3-compatible object storage (MinIO).
@@ -30,8 +32,15 @@ public class StorageService {
     private final MinioStorageService minioStorageService;
 
     private volatile S3Client dbS3Client;
-    private volatile String lastDbEndpoint;
-    private volatile String lastDbAccessKey;
+    private String lastDbEndpoint;
+    private String lastDbAccessKey;
+    private String lastDbSecretKey;
+    private String lastDbRegion;
+
+    /** Client and bucket in effect, resolved at {@link #settingsGeneration}. */
+    private volatile S3Client effectiveClient;
+    private volatile String effectiveBucket;
+    private volatile long settingsGeneration = -1;
 
     public StorageService(S3Client s3Client, StorageProperties storageProperties, MinioStorageService minioStorageService) {
         this.propertiesS3Client = s3Client;
@@ -45,38 +54,58 @@ public class StorageService {
      * Otherwise fall back to the application.properties-based client.
      */
     private S3Client getS3Client() {
-        String dbEndpoint = minioStorageService.getEndpoint();
-        String dbAccessKey = minioStorageService.getAccessKey();
-
-        if (dbEndpoint != null && !dbEndpoint.isBlank()) {
-            // Rebuild cached client when config changes
-            if (dbS3Client == null || !dbEndpoint.equals(lastDbEndpoint) || !dbAccessKey.equals(lastDbAccessKey)) {
-                synchronized (this) {
-                    if (dbS3Client == null || !dbEndpoint.equals(lastDbEndpoint) || !dbAccessKey.equals(lastDbAccessKey)) {
-                        if (dbS3Client != null) {
-                            try { dbS3Client.close(); } catch (Exception ignored) {}
-                        }
-                        dbS3Client = minioStorageService.buildClient();
-                        lastDbEndpoint = dbEndpoint;
-                        lastDbAccessKey = dbAccessKey;
-                        log.info("S3 client rebuilt from database config (endpoint: {})", dbEndpoint);
-                    }
-                }
-            }
-            return dbS3Client;
-        }
-        return propertiesS3Client;
+        resolveSettings();
+        return effectiveClient;
     }
 
     /**
      * Return the effective bucket name (DB config first, then properties).
      */
     private String getBucket() {
-        String dbBucket = minioStorageService.getBucket();
-        if (dbBucket != null && !dbBucket.isBlank()) {
-            return dbBucket;
+        resolveSettings();
+        return effectiveBucket;
+    }
+
+    /**
+     * Re-read the MinIO settings only when the configuration snapshot changed,
+     * and rebuild the client only when its settings did.
+     */
+    private void resolveSettings() {
+        long generation = minioStorageService.getSettingsGeneration();
+        if (generation == settingsGeneration) {
+            return;
+        }
+        synchronized (this) {
+            if (generation == settingsGeneration) {
+                return;
+            }
+            String dbEndpoint = minioStorageService.getEndpoint();
+            if (dbEndpoint != null && !dbEndpoint.isBlank()) {
+                String dbAccessKey = minioStorageService.getAccessKey();
+                String dbSecretKey = minioStorageService.getSecretKey();
+                String dbRegion = minioStorageService.getRegion();
+                // Rebuild cached client when config changes
+                if (dbS3Client == null || !dbEndpoint.equals(lastDbEndpoint) || !dbAccessKey.equals(lastDbAccessKey)
+                        || !dbSecretKey.equals(lastDbSecretKey) || !dbRegion.equals(lastDbRegion)) {
+                    if (dbS3Client != null) {
+                        try { dbS3Client.close(); } catch (Exception ignored) {}
+                    }
+                    dbS3Client = minioStorageService.buildClient();
+                    lastDbEndpoint = dbEndpoint;
+                    lastDbAccessKey = dbAccessKey;
+                    lastDbSecretKey = dbSecretKey;
+                    lastDbRegion = dbRegion;
+                    log.info("S3 client rebuilt from database config (endpoint: {})", dbEndpoint);
+                }
+                effectiveClient = dbS3Client;
+            } else {
+                effectiveClient = propertiesS3Client;
+            }
+
+            String dbBucket = minioStorageService.getBucket();
+            effectiveBucket = dbBucket != null && !dbBucket.isBlank() ? dbBucket : storageProperties.getS3().getBucket();
+            settingsGeneration = generation;
         }
-        return storageProperties.getS3().getBucket();
     }
 
     @PreDestroy
@@ -125,6 +154,93 @@ public class StorageService {
         log.debug("Uploaded object '{}' to bucket '{}'", key, bucket);
     }
 
+    // ==================== Multipart upload ====================
+
+    /**
+     * Start a multipart upload.
+     *
+     * @return the storage-side upload id
+     */
+    public String createMultipartUpload(String key, String contentType) {
+        String bucket = getBucket();
+        CreateMultipartUploadResponse response = getS3Client().createMultipartUpload(
+                CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .build());
+        log.debug("Started multipart upload '{}' for object '{}'", response.uploadId(), key);
+        return response.uploadId();
+    }
+
+    /**
+     * Upload one part, streaming exactly {@code size} bytes from the input.
+     *
+     * @return the part's ETag
+     */
+    public String uploadPart(String key, String uploadId, int partNumber, InputStream inputStream, long size) {
+        String bucket = getBucket();
+        UploadPartResponse response = getS3Client().uploadPart(
+                UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength(size)
+                        .build(),
+                RequestBody.fromInputStream(inputStream, size));
+        return response.eTag();
+    }
+
+    /**
+     * Parts uploaded so far, ordered by part number (all pages).
+     */
+    public List<Part> listParts(String key, String uploadId) {
+        String bucket = getBucket();
+        List<Part> parts = new ArrayList<>();
+        getS3Client().listPartsPaginator(
+                ListPartsRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build())
+                .forEach(page -> parts.addAll(page.parts()));
+        return parts;
+    }
+
+    /**
+     * Assemble the uploaded parts into the final object.
+     */
+    public void completeMultipartUpload(String key, String uploadId, List<CompletedPart> parts) {
+        String bucket = getBucket();
+        getS3Client().completeMultipartUpload(
+                CompleteMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                        .build());
+        log.debug("Completed multipart upload '{}' for object '{}' ({} parts)", uploadId, key, parts.size());
+    }
+
+    /**
+     * Abort a multipart upload and discard its parts. Unknown upload ids are ignored.
+     */
+    public void abortMultipartUpload(String key, String uploadId) {
+        String bucket = getBucket();
+        try {
+            getS3Client().abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .build());
+            log.debug("Aborted multipart upload '{}' for object '{}'", uploadId, key);
+        } catch (NoSuchUploadException e) {
+            log.debug("Multipart upload '{}' for object '{}' no longer exists", uploadId, key);
+        }
+    }
+
     /**
      * Download an object.
      *
@@ -140,6 +256,24 @@ public class StorageService {
                         .build());
     }
 
+    /**
+     * Download a byte range of an object.
+     *
+     * @param key          the object key
+     * @param start        first byte, inclusive
+     * @param endInclusive last byte, inclusive
+     * @return response stream (caller must close)
+     */
+    public ResponseInputStream<GetObjectResponse> download(String key, long start, long endInclusive) {
+        String bucket = getBucket();
+        return getS3Client().getObject(
+                GetObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .range("bytes=" + start + "-" + endInclusive)
+                        .build());
+    }
+
     /**
      * Delete an object.
      *
@@ -0,0 +1,110 @@
+package com.mosque.crm.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+/**
+ * Streams bytes into one storage object as a multipart upload, buffering one
+ * part at a time. Output that fits in a single part is stored with a plain
+ * upload. {@link #close()} completes the object; {@link #abort()} discards it.
+ */
+class StorageUploadOutputStream extends OutputStream {
+
+    /** S3 rejects parts below 5 MiB except for the last one. */
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final StorageService storageService;
+    private final String key;
+    private final String contentType;
+    private final byte[] buffer;
+    private final List<CompletedPart> parts = new ArrayList<>();
+
+    private int count;
+    private long size;
+    private String uploadId;
+    private boolean closed;
+
+    StorageUploadOutputStream(StorageService storageService, String key, String contentType, int partSize) {
+        this.storageService = storageService;
+        this.key = key;
+        this.contentType = contentType;
+        this.buffer = new byte[Math.max(MIN_PART_SIZE, partSize)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            flushPart();
+        }
+        buffer[count++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (count == buffer.length) {
+                flushPart();
+            }
+            int n = Math.min(len, buffer.length - count);
+            System.arraycopy(bytes, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    /** Bytes written so far. */
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (uploadId == null) {
+            storageService.upload(key, new ByteArrayInputStream(buffer, 0, count), contentType, count);
+            return;
+        }
+        if (count > 0) {
+            flushPart();
+        }
+        storageService.completeMultipartUpload(key, uploadId, parts);
+    }
+
+    /** Give up on the object; parts uploaded so far are discarded. */
+    void abort() {
+        closed = true;
+        if (uploadId != null) {
+            storageService.abortMultipartUpload(key, uploadId);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Upload of " + key + " is closed");
+        }
+    }
+
+    private void flushPart() {
+        if (uploadId == null) {
+            uploadId = storageService.createMultipartUpload(key, contentType);
+        }
+        int partNumber = parts.size() + 1;
+        String eTag = storageService.uploadPart(key, uploadId, partNumber,
+                new ByteArrayInputStream(buffer, 0, count), count);
+        parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+        count = 0;
+    }
+}
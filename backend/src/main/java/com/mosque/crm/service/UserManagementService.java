@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,8 @@ import com.mosque.crm.repository.PasswordResetTokenRepository;
 import com.mosque.crm.repository.RoleRepository;
 import com.mosque.crm.repository.UserPreferencesRepository;
 import com.mosque.crm.repository.UserRepository;
+import com.mosque.crm.security.TokenRevocationRegistry;
+import com.mosque.crm.security.UserRolesChangedEvent;
 import com.mosque.crm.subscription.FeatureKeys;
 import com.mosque.crm.subscription.PlanLimitExceededException;
 import com.mosque.crm.service.OrganizationSubscriptionService;
@@ -48,6 +51,8 @@ public class UserManagementService {
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final OrganizationSubscriptionService organizationSubscriptionService;
     private final RoleGovernanceService roleGovernanceService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserManagementService(UserRepository userRepository,
                                   RoleRepository roleRepository,
@@ -57,7 +62,9 @@ public class UserManagementService {
                                   UserPreferencesRepository userPreferencesRepository,
                                   PasswordResetTokenRepository passwordResetTokenRepository,
                                   OrganizationSubscriptionService organizationSubscriptionService,
-                                  RoleGovernanceService roleGovernanceService) {
+                                  RoleGovernanceService roleGovernanceService,
+                                  TokenRevocationRegistry tokenRevocationRegistry,
+                                  ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.organizationRepository = organizationRepository;
@@ -67,6 +74,8 @@ public class UserManagementService {
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.organizationSubscriptionService = organizationSubscriptionService;
         this.roleGovernanceService = roleGovernanceService;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -228,19 +237,26 @@ public class UserManagementService {
             user.setEmail(request.getEmail());
         }
 
+        // Tokens issued before an access-relevant change must no longer be trusted
+        boolean invalidateTokens = false;
+
         if (request.getAccountEnabled() != null) {
+            invalidateTokens |= request.getAccountEnabled() != user.isAccountEnabled();
             user.setAccountEnabled(request.getAccountEnabled());
         }
 
         if (request.getAccountLocked() != null) {
+            invalidateTokens |= request.getAccountLocked() != user.isAccountLocked();
             user.setAccountLocked(request.getAccountLocked());
         }
 
         if (request.getOrganizationId() != null) {
+            invalidateTokens |= !request.getOrganizationId().equals(user.getOrganizationId());
             user.setOrganizationId(request.getOrganizationId());
         }
 
         if (request.getPassword() != null && !request.getPassword().isBlank()) {
+            invalidateTokens = true;
             user.setPassword(passwordEncoder.encode(request.getPassword()));
         }
 
@@ -275,8 +291,12 @@ public class UserManagementService {
             }
             user.getRoles().clear();
             user.getRoles().addAll(newRoles);
-            // Evict permission cache for this user since roles changed
-            authorizationService.evictCache(id);
+            // Evicts cached permissions and makes the user's tokens stale (TokenRevocationRegistry)
+            eventPublisher.publishEvent(new UserRolesChangedEvent(id));
+        }
+
+        if (invalidateTokens) {
+            tokenRevocationRegistry.bumpPermissionVersion(id);
         }
 
         User saved = userRepository.save(user);
@@ -308,8 +328,9 @@ public class UserManagementService {
         // Clean up related records that have FK constraints to users table
         userPreferencesRepository.deleteByUserId(id);
         passwordResetTokenRepository.deleteByUserId(id);
+        tokenRevocationRegistry.bumpPermissionVersion(id);
         userRepository.delete(user);
-        authorizationService.evictCache(id);
+        eventPublisher.publishEvent(new UserRolesChangedEvent(id));
         log.info("Deleted user '{}' (id={})", user.getUsername(), id);
         return true;
     }
@@ -336,6 +357,7 @@ public class UserManagementService {
             throw new IllegalArgumentException("You do not have permission to modify this user");
         }
         user.setAccountEnabled(!user.isAccountEnabled());
+        tokenRevocationRegistry.bumpPermissionVersion(id);
         User saved = userRepository.save(user);
         log.info("Toggled enabled for user '{}' (id={}) → {}", saved.getUsername(), id, saved.isAccountEnabled());
         return toUserListDTO(saved, getCurrentUserId());
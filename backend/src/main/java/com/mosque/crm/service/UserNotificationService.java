@@ -1,33 +1,33 @@
 package com.mosque.crm.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.mosque.crm.dto.UserNotificationDTO;
 import com.mosque.crm.entity.UserNotification;
+import com.mosque.crm.enums.RealtimeChannel;
 import com.mosque.crm.repository.UserNotificationRepository;
 
 @Service
 public class UserNotificationService {
 
-    private static final Logger log = LoggerFactory.getLogger(UserNotificationService.class);
-
     private final UserNotificationRepository userNotificationRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RealtimeOutbox realtimeOutbox;
 
     public UserNotificationService(
             UserNotificationRepository userNotificationRepository,
-            SimpMessagingTemplate messagingTemplate) {
+            RealtimeOutbox realtimeOutbox) {
         this.userNotificationRepository = userNotificationRepository;
-        this.messagingTemplate = messagingTemplate;
+        this.realtimeOutbox = realtimeOutbox;
     }
 
     @Transactional
@@ -41,19 +41,36 @@ public class UserNotificationService {
         if (userId == null) {
             return null;
         }
-        UserNotification notification = new UserNotification();
-        notification.setUserId(userId);
-        notification.setOrganizationId(organizationId);
-        notification.setType(type);
-        notification.setTitle(truncate(title, 255));
-        notification.setBody(truncate(body, 1000));
-        notification.setLinkPath(linkPath);
-        UserNotification saved = userNotificationRepository.save(notification);
+        UserNotification saved = userNotificationRepository.save(
+                newNotification(userId, organizationId, type, title, body, linkPath));
         UserNotificationDTO dto = toDto(saved);
-        pushRealtime(userId, dto);
+        realtimeOutbox.enqueue(userId, RealtimeChannel.NOTIFICATIONS, dto);
         return dto;
     }
 
+    /**
+     * Create the same notification for several users, e.g. every admin of an
+     * organization, and queue their realtime pushes in one batch.
+     */
+    @Transactional
+    public void createForUsers(
+            Collection<Long> userIds,
+            Long organizationId,
+            String type,
+            String title,
+            String body,
+            String linkPath) {
+        List<UserNotification> notifications = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            notifications.add(newNotification(userId, organizationId, type, title, body, linkPath));
+        }
+        Map<Long, UserNotificationDTO> pushes = new LinkedHashMap<>();
+        for (UserNotification saved : userNotificationRepository.saveAll(notifications)) {
+            pushes.put(saved.getUserId(), toDto(saved));
+        }
+        realtimeOutbox.enqueueAll(RealtimeChannel.NOTIFICATIONS, pushes);
+    }
+
     @Transactional(readOnly = true)
     public List<UserNotificationDTO> listRecent(Long userId, int limit) {
         int size = Math.min(Math.max(limit, 1), 50);
@@ -84,15 +101,21 @@ public class UserNotificationService {
         return userNotificationRepository.markAllRead(userId);
     }
 
-    private void pushRealtime(Long userId, UserNotificationDTO dto) {
-        try {
-            messagingTemplate.convertAndSendToUser(
-                    userId.toString(),
-                    "/topic/notifications",
-                    dto);
-        } catch (Exception e) {
-            log.debug("Could not push notification WS event to user {}: {}", userId, e.getMessage());
-        }
+    private UserNotification newNotification(
+            Long userId,
+            Long organizationId,
+            String type,
+            String title,
+            String body,
+            String linkPath) {
+        UserNotification notification = new UserNotification();
+        notification.setUserId(userId);
+        notification.setOrganizationId(organizationId);
+        notification.setType(type);
+        notification.setTitle(truncate(title, 255));
+        notification.setBody(truncate(body, 1000));
+        notification.setLinkPath(linkPath);
+        return notification;
     }
 
     private UserNotificationDTO toDto(UserNotification notification) {
@@ -0,0 +1,210 @@
+package com.mosque.crm.subscription;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mosque.crm.entity.FeatureDefinition;
+import com.mosque.crm.entity.PlanEntitlement;
+import com.mosque.crm.entity.SubscriptionPlan;
+import com.mosque.crm.repository.FeatureDefinitionRepository;
+import com.mosque.crm.repository.PlanEntitlementRepository;
+import com.mosque.crm.repository.SubscriptionPlanRepository;
+
+/**
+ * Immutable, in-memory {@code (planCode, featureKey) → enabled/limit} matrix built
+ * from {@link SubscriptionPlan}, {@link PlanEntitlement} and {@link FeatureDefinition}.
+ *
+ * <p>Combined with the organization → plan pointer held by
+ * {@link SubscriptionStatusCache}, an entitlement check is two hash lookups and
+ * performs no JPA work. The matrix is rebuilt lazily after {@link #invalidate()},
+ * which {@code OrganizationSubscriptionService} calls whenever a plan or its
+ * entitlements are written, and at the latest {@link #MAX_AGE_MS} after it was
+ * built, so writes made on another node or directly in the database are picked
+ * up without a restart.</p>
+ */
+@Component
+public class PlanEntitlementMatrix {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanEntitlementMatrix.class);
+
+    /** Upper bound on how long a matrix may be used – 5 minutes, as in {@link SubscriptionStatusCache}. */
+    private static final long MAX_AGE_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final SubscriptionPlanRepository subscriptionPlanRepository;
+    private final PlanEntitlementRepository planEntitlementRepository;
+    private final FeatureDefinitionRepository featureDefinitionRepository;
+
+    /** Current matrix; {@code null} means "rebuild on next lookup". */
+    private volatile CachedMatrix cached;
+
+    /** Bumped on every invalidation so a rebuild racing with a write is not published. */
+    private final AtomicLong generation = new AtomicLong();
+
+    public PlanEntitlementMatrix(SubscriptionPlanRepository subscriptionPlanRepository,
+                                 PlanEntitlementRepository planEntitlementRepository,
+                                 FeatureDefinitionRepository featureDefinitionRepository) {
+        this.subscriptionPlanRepository = subscriptionPlanRepository;
+        this.planEntitlementRepository = planEntitlementRepository;
+        this.featureDefinitionRepository = featureDefinitionRepository;
+    }
+
+    /**
+     * Look up the entitlement of a plan for a feature.
+     * Unknown plans or features resolve to {@link Entitlement#DISABLED}.
+     */
+    public Entitlement lookup(String planCode, String featureKey) {
+        return current().lookup(planCode, featureKey);
+    }
+
+    /**
+     * Discard the matrix so it is rebuilt on the next lookup. Safe to call inside a
+     * transaction: the matrix is discarded again once the transaction completes.
+     */
+    public void invalidate() {
+        discard();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    discard();
+                }
+            });
+        }
+    }
+
+    // ─── internal ────────────────────────────────────────────────────────
+
+    private void discard() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    private Snapshot current() {
+        CachedMatrix c = cached;
+        if (c != null && System.currentTimeMillis() < c.expiresAtMillis) {
+            return c.snapshot;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            c = cached;
+            if (c != null && now < c.expiresAtMillis) {
+                return c.snapshot;
+            }
+            long gen = generation.get();
+            Snapshot s = Snapshot.build(subscriptionPlanRepository.findAll(),
+                    planEntitlementRepository.findAllWithPlan(),
+                    featureDefinitionRepository.findAll());
+            if (gen == generation.get()) {
+                cached = new CachedMatrix(s, now + MAX_AGE_MS);
+            }
+            log.debug("Rebuilt plan entitlement matrix for {} plan(s)", s.planCount());
+            return s;
+        }
+    }
+
+    private static final class CachedMatrix {
+        final Snapshot snapshot;
+        final long expiresAtMillis;
+
+        CachedMatrix(Snapshot snapshot, long expiresAtMillis) {
+            this.snapshot = snapshot;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    // ─── matrix ──────────────────────────────────────────────────────────
+
+    /** Immutable matrix of entitlements, keyed by plan code then feature key. */
+    static final class Snapshot {
+
+        private final Map<String, Map<String, Entitlement>> byPlan;
+
+        private Snapshot(Map<String, Map<String, Entitlement>> byPlan) {
+            this.byPlan = byPlan;
+        }
+
+        /**
+         * Every known feature gets an explicit cell for every plan (disabled when the
+         * plan has no entitlement row for it), so lookups of catalogue features never
+         * fall through to the default.
+         */
+        static Snapshot build(Collection<SubscriptionPlan> plans,
+                              Collection<PlanEntitlement> entitlements,
+                              Collection<FeatureDefinition> features) {
+            Map<String, Map<String, Entitlement>> mutable = new HashMap<>();
+            for (SubscriptionPlan plan : plans) {
+                Map<String, Entitlement> row = new HashMap<>();
+                for (FeatureDefinition feature : features) {
+                    row.put(feature.getFeatureKey(), Entitlement.DISABLED);
+                }
+                mutable.put(plan.getCode(), row);
+            }
+            for (PlanEntitlement entitlement : entitlements) {
+                mutable.computeIfAbsent(entitlement.getPlan().getCode(), code -> new HashMap<>())
+                        .put(entitlement.getFeatureKey(), Entitlement.of(
+                                Boolean.TRUE.equals(entitlement.getEnabled()), entitlement.getLimitValue()));
+            }
+
+            Map<String, Map<String, Entitlement>> frozen = new HashMap<>();
+            mutable.forEach((code, row) -> frozen.put(code, Map.copyOf(row)));
+            return new Snapshot(Map.copyOf(frozen));
+        }
+
+        Entitlement lookup(String planCode, String featureKey) {
+            if (planCode == null || featureKey == null) {
+                return Entitlement.DISABLED;
+            }
+            Map<String, Entitlement> row = byPlan.get(planCode);
+            if (row == null) {
+                return Entitlement.DISABLED;
+            }
+            Entitlement entitlement = row.get(featureKey);
+            return entitlement != null ? entitlement : Entitlement.DISABLED;
+        }
+
+        int planCount() {
+            return byPlan.size();
+        }
+    }
+
+    /** A single matrix cell. */
+    public static final class Entitlement {
+
+        public static final Entitlement DISABLED = new Entitlement(false, null);
+
+        private static final Entitlement ENABLED_UNLIMITED = new Entitlement(true, null);
+
+        private final boolean enabled;
+        private final Integer limitValue;
+
+        private Entitlement(boolean enabled, Integer limitValue) {
+            this.enabled = enabled;
+            this.limitValue = limitValue;
+        }
+
+        static Entitlement of(boolean enabled, Integer limitValue) {
+            if (limitValue == null) {
+                return enabled ? ENABLED_UNLIMITED : DISABLED;
+            }
+            return new Entitlement(enabled, limitValue);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /** Limit stored on the entitlement row, or {@code null} when unlimited / not set. */
+        public Integer getLimitValue() {
+            return limitValue;
+        }
+    }
+}
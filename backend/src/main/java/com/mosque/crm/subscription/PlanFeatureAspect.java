@@ -20,7 +20,12 @@ import com.mosque.crm.service.OrganizationSubscriptionService;
  * {@link OrganizationSubscriptionService#assertFeatureEnabled} to verify the
  * feature is included in the organization's active subscription plan.</p>
  *
- * <p>Super-admins (organizationId == null in TenantContext) bypass all plan checks.</p>
+ * <p>Super-admins (organizationId == null in TenantContext) bypass all plan checks.
+ * Super-admins scoped to an organization are only checked for {@code superadmin.manage}
+ * when the plan would deny access, so the common path never loads the current user.</p>
+ *
+ * <p>The lookup itself is answered from {@link SubscriptionStatusCache} and
+ * {@link PlanEntitlementMatrix} without touching the database.</p>
  *
  * <p>If the organization has no active subscription, or the feature is disabled on
  * their plan, a {@link PlanEntitlementException} is thrown, which is caught by
@@ -53,29 +58,46 @@ public class PlanFeatureAspect {
         String featureKey = planFeatureRequired.value();
         Long organizationId = TenantContext.getCurrentOrganizationId();
 
-        // Super-admins bypass all plan entitlement checks
-        // Also bypass when a super-admin is scoped to an org via X-Organization-Id header
-        if (organizationId == null || authorizationService.hasPermission("superadmin.manage")) {
+        // Super-admins without an organization scope bypass all plan entitlement checks
+        if (organizationId == null) {
             log.debug("Super-admin request — bypassing plan check for feature={}", featureKey);
             return joinPoint.proceed();
         }
 
         log.debug("Checking plan entitlement: organizationId={}, feature={}", organizationId, featureKey);
 
+        // The entitlement check is served from in-memory caches, so it runs first;
+        // the (user-loading) super-admin check only runs when access would be denied.
+        PlanEntitlementException denial = null;
         try {
             organizationSubscriptionService.assertFeatureEnabled(organizationId, featureKey);
         } catch (PlanEntitlementException e) {
-            log.warn("Plan entitlement denied: organizationId={}, feature={}", organizationId, featureKey);
-            throw e;
+            denial = e;
         } catch (RuntimeException e) {
             // No active subscription found or other lookup failure — deny access
-            log.warn("Subscription lookup failed for organizationId={}, feature={}: {}",
+            log.debug("Subscription lookup failed for organizationId={}, feature={}: {}",
                     organizationId, featureKey, e.getMessage());
-            throw new PlanEntitlementException(featureKey,
+            denial = new PlanEntitlementException(featureKey,
                     "No active subscription found. Feature access denied: " + featureKey);
         }
 
-        return joinPoint.proceed();
+        if (denial == null) {
+            return joinPoint.proceed();
+        }
+
+        // Also bypass when a super-admin is scoped to an org via X-Organization-Id header
+        if (isSuperAdmin()) {
+            log.debug("Super-admin request — bypassing plan check for feature={}", featureKey);
+            return joinPoint.proceed();
+        }
+
+        log.warn("Plan entitlement denied: organizationId={}, feature={}: {}",
+                organizationId, featureKey, denial.getMessage());
+        throw denial;
+    }
+
+    private boolean isSuperAdmin() {
+        return authorizationService.hasPermission("superadmin.manage");
     }
 
     /**
@@ -1,9 +1,6 @@
 package com.mosque.crm.subscription;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,10 +9,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import com.mosque.crm.entity.OrganizationSubscription;
 import com.mosque.crm.enums.OrganizationSubscriptionStatus;
 import com.mosque.crm.multitenancy.TenantContext;
-import com.mosque.crm.repository.OrganizationSubscriptionRepository;
+import com.mosque.crm.subscription.SubscriptionStatusCache.SubscriptionState;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -41,16 +37,19 @@ import jakarta.servlet.http.HttpServletResponse;
  * </ul>
  *
  * Super administrators bypass all checks (checked via SecurityContext authority).
+ *
+ * The subscription state is read from {@link SubscriptionStatusCache}, so in steady
+ * state this interceptor performs no database round-trips.
  */
 @Component
 public class SubscriptionEnforcementInterceptor implements HandlerInterceptor {
 
     private static final Logger log = LoggerFactory.getLogger(SubscriptionEnforcementInterceptor.class);
 
-    private final OrganizationSubscriptionRepository organizationSubscriptionRepository;
+    private final SubscriptionStatusCache subscriptionStatusCache;
 
-    public SubscriptionEnforcementInterceptor(OrganizationSubscriptionRepository organizationSubscriptionRepository) {
-        this.organizationSubscriptionRepository = organizationSubscriptionRepository;
+    public SubscriptionEnforcementInterceptor(SubscriptionStatusCache subscriptionStatusCache) {
+        this.subscriptionStatusCache = subscriptionStatusCache;
     }
 
     @Override
@@ -64,19 +63,9 @@ public class SubscriptionEnforcementInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        List<OrganizationSubscriptionStatus> usableStatuses = List.of(
-                OrganizationSubscriptionStatus.TRIALING,
-                OrganizationSubscriptionStatus.ACTIVE,
-                OrganizationSubscriptionStatus.PAST_DUE,
-                OrganizationSubscriptionStatus.GRACE,
-                OrganizationSubscriptionStatus.READ_ONLY);
-
-        Optional<OrganizationSubscription> subscriptionOpt = organizationSubscriptionRepository
-                .findFirstByOrganizationIdAndStatusInAndStartsAtLessThanEqualOrderByStartsAtDesc(
-                        organizationId, usableStatuses, now);
+        SubscriptionState subscription = subscriptionStatusCache.get(organizationId);
 
-        if (subscriptionOpt.isEmpty()) {
+        if (!subscription.isPresent()) {
             log.warn("Subscription enforcement: no active subscription for organizationId={}, blocking request {}",
                     organizationId, request.getRequestURI());
             sendPaymentRequired(response, "SUBSCRIPTION_INACTIVE",
@@ -84,11 +73,10 @@ public class SubscriptionEnforcementInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        OrganizationSubscription subscription = subscriptionOpt.get();
         OrganizationSubscriptionStatus status = subscription.getStatus();
 
         // Subscriptions with billing disabled always get full access
-        if (Boolean.FALSE.equals(subscription.getBillingEnabled())) {
+        if (!subscription.isBillingEnabled()) {
             return true;
         }
 
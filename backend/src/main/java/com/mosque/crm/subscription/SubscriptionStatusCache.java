@@ -0,0 +1,246 @@
+package com.mosque.crm.subscription;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mosque.crm.entity.OrganizationSubscription;
+import com.mosque.crm.enums.OrganizationSubscriptionStatus;
+import com.mosque.crm.repository.OrganizationSubscriptionRepository;
+
+/**
+ * Per-organization cache of the subscription state used by
+ * {@link SubscriptionEnforcementInterceptor} on every authenticated request.
+ *
+ * <p>An entry holds the current usable subscription (or the fact that there is
+ * none) and expires at the earlier of:</p>
+ * <ul>
+ *   <li>{@link #MAX_TTL_MS} after it was loaded (safety net for writes made on
+ *       another node or outside the services), and</li>
+ *   <li>the {@code startsAt} of the next future-dated subscription, so a scheduled
+ *       downgrade takes effect exactly when it becomes current.</li>
+ * </ul>
+ *
+ * <p>Writers ({@code OrganizationSubscriptionService}, {@code BillingService})
+ * call {@link #evict(Long)}; the entry is dropped immediately and again after
+ * the surrounding transaction completes, so concurrent readers cannot re-cache
+ * the pre-commit state. A load that overlaps an eviction is not cached either,
+ * as in {@code PermissionCache}.</p>
+ */
+@Component
+public class SubscriptionStatusCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionStatusCache.class);
+
+    /** Upper bound on how long an entry may live – 5 minutes. */
+    private static final long MAX_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    /** Statuses that grant (possibly restricted) access; mirrors OrganizationSubscriptionService. */
+    public static final List<OrganizationSubscriptionStatus> USABLE_STATUSES = List.of(
+            OrganizationSubscriptionStatus.TRIALING,
+            OrganizationSubscriptionStatus.ACTIVE,
+            OrganizationSubscriptionStatus.PAST_DUE,
+            OrganizationSubscriptionStatus.GRACE,
+            OrganizationSubscriptionStatus.READ_ONLY);
+
+    private final OrganizationSubscriptionRepository organizationSubscriptionRepository;
+
+    /** organizationId → CachedState */
+    private final Map<Long, CachedState> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped by every eviction. A load that started before an eviction may have
+     * read the pre-eviction state, so it is returned but not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SubscriptionStatusCache(OrganizationSubscriptionRepository organizationSubscriptionRepository) {
+        this.organizationSubscriptionRepository = organizationSubscriptionRepository;
+    }
+
+    /**
+     * Return the current subscription state for the organization, loading it
+     * from the database only on a miss or after expiry.
+     *
+     * @return the state, or {@link SubscriptionState#NONE} when the organization
+     *         has no usable subscription
+     */
+    public SubscriptionState get(Long organizationId) {
+        long now = System.currentTimeMillis();
+        CachedState cached = cache.get(organizationId);
+        if (cached != null && now < cached.expiresAtMillis) {
+            hits.incrementAndGet();
+            return cached.state;
+        }
+
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        CachedState loaded = load(organizationId, now);
+        synchronized (cache) {
+            if (generation.get() == loadGeneration) {
+                cache.put(organizationId, loaded);
+            }
+        }
+        return loaded.state;
+    }
+
+    /**
+     * Drop the cached state for an organization. Safe to call inside a transaction:
+     * the entry is removed again once the transaction completes.
+     */
+    public void evict(Long organizationId) {
+        if (organizationId == null) {
+            return;
+        }
+        remove(organizationId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(organizationId);
+                }
+            });
+        }
+    }
+
+    /** Drop every cached entry (e.g. after a bulk billing run). */
+    public void evictAll() {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            evictions.addAndGet(cache.size());
+            cache.clear();
+        }
+    }
+
+    /** Hit/miss/eviction counters and current size, for the admin stats endpoint. */
+    public Map<String, Object> getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", (h + m) == 0 ? 0.0 : (double) h / (h + m));
+        return stats;
+    }
+
+    // ─── internal ────────────────────────────────────────────────────────
+
+    private void remove(Long organizationId) {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            if (cache.remove(organizationId) != null) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private CachedState load(Long organizationId, long nowMillis) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Optional<OrganizationSubscription> current = organizationSubscriptionRepository
+                .findFirstByOrganizationIdAndStatusInAndStartsAtLessThanEqualOrderByStartsAtDesc(
+                        organizationId, USABLE_STATUSES, now);
+
+        long expiresAt = nowMillis + MAX_TTL_MS;
+        Optional<OrganizationSubscription> next = organizationSubscriptionRepository
+                .findFirstByOrganizationIdAndStatusInAndStartsAtGreaterThanOrderByStartsAtAsc(
+                        organizationId, USABLE_STATUSES, now);
+        if (next.isPresent()) {
+            long untilNextStart = Duration.between(now, next.get().getStartsAt()).toMillis();
+            expiresAt = Math.min(expiresAt, nowMillis + Math.max(0L, untilNextStart));
+        }
+
+        SubscriptionState state = current.map(SubscriptionState::of).orElse(SubscriptionState.NONE);
+        log.debug("Loaded subscription state for organizationId={}: status={}, expiresIn={}ms",
+                organizationId, state.getStatus(), expiresAt - nowMillis);
+        return new CachedState(state, expiresAt);
+    }
+
+    // ─── cache entry ─────────────────────────────────────────────────────
+
+    /**
+     * Immutable snapshot of the fields the request path needs from an
+     * {@link OrganizationSubscription}. Detached from the persistence context.
+     */
+    public static final class SubscriptionState {
+
+        /** Marker for "no usable subscription". */
+        public static final SubscriptionState NONE = new SubscriptionState(null, null, null, null, false);
+
+        private final Long subscriptionId;
+        private final Long planId;
+        private final String planCode;
+        private final OrganizationSubscriptionStatus status;
+        private final boolean billingEnabled;
+
+        private SubscriptionState(Long subscriptionId, Long planId, String planCode,
+                                  OrganizationSubscriptionStatus status, boolean billingEnabled) {
+            this.subscriptionId = subscriptionId;
+            this.planId = planId;
+            this.planCode = planCode;
+            this.status = status;
+            this.billingEnabled = billingEnabled;
+        }
+
+        static SubscriptionState of(OrganizationSubscription subscription) {
+            return new SubscriptionState(
+                    subscription.getId(),
+                    subscription.getPlan() != null ? subscription.getPlan().getId() : null,
+                    subscription.getPlan() != null ? subscription.getPlan().getCode() : null,
+                    subscription.getStatus(),
+                    !Boolean.FALSE.equals(subscription.getBillingEnabled()));
+        }
+
+        public boolean isPresent() {
+            return subscriptionId != null;
+        }
+
+        public Long getSubscriptionId() {
+            return subscriptionId;
+        }
+
+        public Long getPlanId() {
+            return planId;
+        }
+
+        public String getPlanCode() {
+            return planCode;
+        }
+
+        public OrganizationSubscriptionStatus getStatus() {
+            return status;
+        }
+
+        public boolean isBillingEnabled() {
+            return billingEnabled;
+        }
+    }
+
+    private static final class CachedState {
+        final SubscriptionState state;
+        final long expiresAtMillis;
+
+        CachedState(SubscriptionState state, long expiresAtMillis) {
+            this.state = state;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
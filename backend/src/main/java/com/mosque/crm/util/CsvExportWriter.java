@@ -0,0 +1,76 @@
+package com.mosque.crm.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * CSV writer: one RFC 4180 file per sheet ({@code Members.csv}, ...), packed
+ * into a ZIP archive as they are written. Files start with a UTF-8 byte order
+ * mark so Excel reads accented names correctly.
+ */
+public class CsvExportWriter implements ExportWriter {
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private boolean entryOpen;
+
+    public CsvExportWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void startSheet(String name, String[] headers) throws IOException {
+        closeEntry();
+        zip.putNextEntry(new ZipEntry(name + ".csv"));
+        entryOpen = true;
+        writer.write('\uFEFF');
+        writeRow(headers);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escape(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        closeEntry();
+        zip.finish();
+        zip.flush();
+    }
+
+    @Override
+    public void close() {
+        // The target stream belongs to the caller; finish() wrote everything
+    }
+
+    private void closeEntry() throws IOException {
+        if (entryOpen) {
+            writer.flush();
+            zip.closeEntry();
+            entryOpen = false;
+        }
+    }
+
+    static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,28 @@
+package com.mosque.crm.util;
+
+/**
+ * Entity tag comparison for conditional requests, shared by document
+ * downloads and served images.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /** {@code If-None-Match} uses weak comparison: {@code W/} prefixes are ignored. */
+    public static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mosque.crm.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.mosque.crm.enums.ExportFormat;
+
+/**
+ * Writes export sheets row by row to an output stream, holding at most a
+ * small window of rows in memory.
+ * <p>
+ * Cell values are {@code Long}, {@code String} or null. {@link #finish()}
+ * completes the file; {@link #close()} releases temporary resources. Neither
+ * closes the target stream, which stays with the caller.
+ */
+public interface ExportWriter extends Closeable {
+
+    void startSheet(String name, String[] headers) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    void finish() throws IOException;
+
+    /**
+     * @param xlsxWindowSize rows of the current XLSX sheet kept in memory before
+     *                       they are flushed to a temporary file
+     */
+    static ExportWriter open(ExportFormat format, OutputStream out, int xlsxWindowSize) {
+        return switch (format) {
+            case XLSX -> new XlsxExportWriter(out, xlsxWindowSize);
+            case CSV -> new CsvExportWriter(out);
+            case JSONL -> new JsonLinesExportWriter(out);
+        };
+    }
+}
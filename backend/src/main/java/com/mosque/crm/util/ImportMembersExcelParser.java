@@ -1,96 +1,160 @@
 package com.mosque.crm.util;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
+import javax.xml.parsers.ParserConfigurationException;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.web.multipart.MultipartFile;
-
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.mosque.crm.constants.Constant;
 import com.mosque.crm.dto.ExcelImportResult;
 import com.mosque.crm.dto.PersonCreateDTO;
 import com.mosque.crm.models.RowData;
 
+/**
+ * Reads the member sheet (first sheet) of an import file into {@link RowData}.
+ * <p>
+ * .xlsx files are read as a stream of SAX events, so only the parsed rows are
+ * held in memory, never the workbook. Legacy .xls files (at most 65,536 rows)
+ * are still loaded whole. Cell values are rendered as {@link ExcelParserUtil}
+ * renders them: dates as yyyy-MM-dd, whole numbers without a fraction.
+ */
 public class ImportMembersExcelParser {
 
-	private List<String> errors = new ArrayList<>();
-	private List<String> warnings = new ArrayList<>();
-
-	public ExcelImportResult parseExcel(MultipartFile file) {
-		int successfullyProcessed = 0;
-		int skipped = 0;
-
-		try (InputStream inputStream = file.getInputStream()) {
-			Workbook workbook;
-
-			// Determine if file is .xlsx or .xls
-			if (file.getOriginalFilename().toLowerCase().endsWith(".xlsx")) {
-				workbook = new XSSFWorkbook(inputStream);
-			} else if (file.getOriginalFilename().toLowerCase().endsWith(".xls")) {
-				workbook = new HSSFWorkbook(inputStream);
+	private static final DateTimeFormatter CELL_DATE_FORMAT = DateTimeFormatter.ofPattern(Constant.DATE_FORMAT.toPattern());
+
+	private ExcelImportResult result;
+	private Map<String, Integer> columnIndexMap;
+
+	/**
+	 * Parse {@code file}; {@code fileName} decides the format. Unreadable rows
+	 * and files are reported as errors on the result.
+	 */
+	public ExcelImportResult parseExcel(File file, String fileName) {
+		result = new ExcelImportResult(0, 0, 0, new ArrayList<>(), new ArrayList<>());
+		columnIndexMap = null;
+
+		String name = fileName != null ? fileName.toLowerCase() : "";
+		try {
+			if (name.endsWith(".xlsx")) {
+				readXlsx(file);
+			} else if (name.endsWith(".xls")) {
+				readXls(file);
 			} else {
-				errors.add("Unsupported file format. Please upload an Excel file (.xls or .xlsx)");
-				return new ExcelImportResult(0, 0, 0, errors, warnings);
+				result.addError("Unsupported file format. Please upload an Excel file (.xls or .xlsx)");
+				return result;
 			}
+		} catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+			result.addError("Error reading Excel file: " + e.getMessage());
+			return result;
+		}
 
-			Sheet sheet = workbook.getSheetAt(0); // Use first sheet
-			Iterator<Row> rows = sheet.iterator();
+		if (columnIndexMap == null) {
+			result.addError("Excel file is empty");
+		}
+		return result;
+	}
 
-			if (!rows.hasNext()) {
-				errors.add("Excel file is empty");
-				return new ExcelImportResult(0, 0, 0, errors, warnings);
+	private void readXlsx(File file) throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+		OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+		try {
+			XSSFReader reader = new XSSFReader(pkg);
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			if (!sheets.hasNext()) {
+				return;
+			}
+			try (InputStream sheet = sheets.next()) {
+				XMLReader xmlReader = XMLHelper.newXMLReader();
+				xmlReader.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+						new SheetRowCollector(), new ImportCellFormatter(), false));
+				xmlReader.parse(new InputSource(sheet));
 			}
+		} finally {
+			// A package opened read-only is released with revert(); close() would try to save it
+			pkg.revert();
+		}
+	}
 
-			// Skip header row
-			Row headerRow = rows.next();
-			Map<String, Integer> columnIndexMap = getColumnIndexMap(headerRow);
-
-			// First pass: collect all data to organize by gezinnen
-			List<RowData> allRows = new ArrayList<>();
-			int totalRecords = 0;
-			while (rows.hasNext()) {
-				Row row = rows.next();
-				totalRecords++;
-
-				try {
-					PersonCreateDTO personDto = extractPersonData(row, columnIndexMap);
-					String gezinnen = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("Gezinnen"));
-
-					if (personDto != null) {
-						if (StringUtils.isNotBlank(gezinnen)) {
-							personDto.setFamilyNumber(gezinnen.trim());
-						}
-						allRows.add(new RowData(row, personDto, gezinnen, totalRecords));
-					} else {
-						skipped++;
+	private void readXls(File file) throws IOException {
+		try (InputStream inputStream = new FileInputStream(file);
+				HSSFWorkbook workbook = new HSSFWorkbook(inputStream)) {
+			Sheet sheet = workbook.getSheetAt(0); // Use first sheet
+			for (Row row : sheet) {
+				Map<Integer, String> cells = new HashMap<>();
+				for (Cell cell : row) {
+					String value = ExcelParserUtil.getCellValueAsString(cell);
+					if (value != null) {
+						cells.put(cell.getColumnIndex(), value);
 					}
-				} catch (Exception e) {
-					errors.add("Error processing row " + (totalRecords + 1) + ": " + e.getMessage());
-					skipped++;
 				}
+				acceptRow(row.getRowNum(), cells);
 			}
+		}
+	}
 
-			System.out.println("Total records to process: " + allRows.size());
+	/**
+	 * The first row is the header; every later row is a person. {@code rowNum}
+	 * is 0-based, reported row numbers are the spreadsheet's (1-based).
+	 */
+	private void acceptRow(int rowNum, Map<Integer, String> cells) {
+		if (columnIndexMap == null) {
+			columnIndexMap = getColumnIndexMap(cells);
+			return;
+		}
+
+		int rowNumber = rowNum + 1;
+		result.setTotalRecords(result.getTotalRecords() + 1);
+		try {
+			PersonCreateDTO personDto = extractPersonData(cells);
+			String gezinnen = value(cells, "Gezinnen");
 
-			return new ExcelImportResult(allRows, totalRecords, successfullyProcessed, skipped, errors, warnings);
-		} catch (IOException e) {
-			errors.add("Error reading Excel file: " + e.getMessage());
-			return new ExcelImportResult(0, 0, 0, errors, warnings);
+			if (personDto != null) {
+				if (StringUtils.isNotBlank(gezinnen)) {
+					personDto.setFamilyNumber(gezinnen.trim());
+				}
+				result.getRows().add(new RowData(personDto, gezinnen, rowNumber));
+			} else {
+				result.setSkipped(result.getSkipped() + 1);
+			}
+		} catch (Exception e) {
+			result.addError(rowNumber, "Error processing row: " + e.getMessage());
+			result.setSkipped(result.getSkipped() + 1);
 		}
 	}
 
-	private Map<String, Integer> getColumnIndexMap(Row headerRow) {
+	private String value(Map<Integer, String> cells, String header) {
+		Integer columnIndex = columnIndexMap.get(header);
+		return columnIndex != null ? cells.get(columnIndex) : null;
+	}
+
+	private Map<String, Integer> getColumnIndexMap(Map<Integer, String> headerCells) {
 		Map<String, Integer> columnIndexMap = new HashMap<>();
 
 // Common column names in Dutch and English variations
@@ -99,12 +163,12 @@ public class ImportMembersExcelParser {
 				"Mobiel no", "EMAIL", "PARAAF", "Burgerlijke Staat", "Geboorte plaats", "Beroep", "Werkgever",
 				"Lid vanaf" };
 
-		for (Cell cell : headerRow) {
-			String headerValue = ExcelParserUtil.getCellValueAsString(cell);
+		for (Map.Entry<Integer, String> cell : headerCells.entrySet()) {
+			String headerValue = cell.getValue();
 			if (headerValue != null) {
 				for (String expectedHeader : expectedHeaders) {
 					if (expectedHeader.equalsIgnoreCase(headerValue.trim())) {
-						columnIndexMap.put(expectedHeader, cell.getColumnIndex());
+						columnIndexMap.put(expectedHeader, cell.getKey());
 						break;
 					}
 				}
@@ -114,23 +178,23 @@ public class ImportMembersExcelParser {
 		return columnIndexMap;
 	}
 
-	private PersonCreateDTO extractPersonData(Row row, Map<String, Integer> columnIndexMap) {
+	private PersonCreateDTO extractPersonData(Map<Integer, String> cells) {
 		PersonCreateDTO dto = new PersonCreateDTO();
 
 		// Extract NAAM (surname)
-		String naam = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("NAAM"));
+		String naam = value(cells, "NAAM");
 		if (StringUtils.isNotBlank(naam)) {
 			dto.setLastName(PersonNameUtil.normalize(naam.trim()));
 		}
 
 		// Extract VOORNAMEN (first names)
-		String voornamen = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("VOORNAMEN"));
+		String voornamen = value(cells, "VOORNAMEN");
 		if (StringUtils.isNotBlank(voornamen)) {
 			dto.setFirstName(PersonNameUtil.normalize(voornamen.trim()));
 		}
 
 		// Extract ADRES (address)
-		String adres = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("ADRES"));
+		String adres = value(cells, "ADRES");
 		if (StringUtils.isNotBlank(adres)) {
 			dto.setAddress(adres.trim());
 		}
@@ -139,7 +203,7 @@ public class ImportMembersExcelParser {
 		String gebDatStr = null;
 		// Check for multiple possible column names for date of birth
 		if (columnIndexMap.containsKey("GEB.DAT.")) {
-			gebDatStr = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("GEB.DAT."));
+			gebDatStr = value(cells, "GEB.DAT.");
 		}
 
 		if (StringUtils.isNotBlank(gebDatStr)) {
@@ -150,13 +214,13 @@ public class ImportMembersExcelParser {
 		}
 
 		// Extract EMAIL
-		String email = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("EMAIL"));
+		String email = value(cells, "EMAIL");
 		if (StringUtils.isNotBlank(email)) {
 			dto.setEmail(email.trim());
 		}
 
 		// Extract Mobiel no (phone)
-		String mobielNo = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("Mobiel no"));
+		String mobielNo = value(cells, "Mobiel no");
 		if (StringUtils.isNotBlank(mobielNo)) {
 			// Extract phone number from formats like "8407043/ +31616255904" to get just
 			// the phone part
@@ -168,19 +232,19 @@ public class ImportMembersExcelParser {
 		}
 
 		// Extract GESL (gender)
-		String gesl = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("GESL"));
+		String gesl = value(cells, "GESL");
 		if (StringUtils.isNotBlank(gesl)) {
 			dto.setGender(gesl.trim());
 		}
 
 		// Extract CBB ID# (external ID number)
-		String cbbId = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("CBB ID#"));
+		String cbbId = value(cells, "CBB ID#");
 		if (StringUtils.isNotBlank(cbbId)) {
 			dto.setIdNumber(cbbId.trim());
 		}
 
 		// Extract Burgerlijke Staat (civil state)
-		String civilState = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("Burgerlijke Staat"));
+		String civilState = value(cells, "Burgerlijke Staat");
 		if (StringUtils.isNotBlank(civilState)) {
 			dto.setCivilState(civilState.trim());
 		}
@@ -189,7 +253,7 @@ public class ImportMembersExcelParser {
 		String heengegaanStr = null;
 		// Check for multiple possible column names for date of death
 		if (columnIndexMap.containsKey("Heengegaan")) {
-			heengegaanStr = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("Heengegaan"));
+			heengegaanStr = value(cells, "Heengegaan");
 		}
 
 		if (StringUtils.isNotBlank(heengegaanStr)) {
@@ -200,7 +264,7 @@ public class ImportMembersExcelParser {
 		}
 
 		// Extract Lid vanaf (member since)
-		String lidVanafStr = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("Lid vanaf"));
+		String lidVanafStr = value(cells, "Lid vanaf");
 		if (StringUtils.isNotBlank(lidVanafStr)) {
 			LocalDate lidVanaf = DateUtil.parseDate(lidVanafStr);
 			if (lidVanaf != null) {
@@ -210,7 +274,7 @@ public class ImportMembersExcelParser {
 
 		// Extract Geboorte plaats (birth place) - not in PersonCreateDTO but could be
 		// stored in GEDCOM
-		String geboortePlaats = ExcelParserUtil.getCellValueAsString(row, columnIndexMap.get("Geboorte plaats"));
+		String geboortePlaats = value(cells, "Geboorte plaats");
 		if (StringUtils.isNotBlank(geboortePlaats)) {
 			// This would be stored in GEDCOM Individual entity
 		}
@@ -223,4 +287,48 @@ public class ImportMembersExcelParser {
 		return dto;
 	}
 
+	/** Hands each row of the SAX-parsed sheet to {@link #acceptRow} as column index to value. */
+	private final class SheetRowCollector implements SheetContentsHandler {
+
+		private Map<Integer, String> cells;
+		private int lastColumn;
+
+		@Override
+		public void startRow(int rowNum) {
+			cells = new HashMap<>();
+			lastColumn = -1;
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			acceptRow(rowNum, cells);
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			// The reference is optional in the file format; cells without one follow the previous cell
+			int column = cellReference != null ? new CellReference(cellReference).getCol() : lastColumn + 1;
+			lastColumn = column;
+			if (formattedValue != null && !formattedValue.isEmpty()) {
+				cells.put(column, formattedValue);
+			}
+		}
+	}
+
+	/** Renders numeric cells the way {@link ExcelParserUtil} renders cells of a loaded workbook. */
+	private static final class ImportCellFormatter extends DataFormatter {
+
+		@Override
+		public String formatRawCellContents(double value, int formatIndex, String formatString) {
+			// Fully qualified: this package's DateUtil parses the rendered dates
+			if (org.apache.poi.ss.usermodel.DateUtil.isADateFormat(formatIndex, formatString)
+					&& org.apache.poi.ss.usermodel.DateUtil.isValidExcelDate(value)) {
+				return org.apache.poi.ss.usermodel.DateUtil.getLocalDateTime(value).toLocalDate().format(CELL_DATE_FORMAT);
+			}
+			if (value == Math.floor(value) && !Double.isInfinite(value)) {
+				return String.valueOf((long) value);
+			}
+			return String.valueOf(value);
+		}
+	}
 }
@@ -0,0 +1,66 @@
+package com.mosque.crm.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * JSON lines writer: one object per row, keyed by the sheet's column names,
+ * with the sheet name under {@code "sheet"}.
+ */
+public class JsonLinesExportWriter implements ExportWriter {
+
+    // Root values are separated by the newline written after each row instead of Jackson's default space
+    private static final JsonFactory JSON = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+
+    private final JsonGenerator generator;
+    private String sheet;
+    private String[] headers;
+
+    public JsonLinesExportWriter(OutputStream out) {
+        try {
+            this.generator = JSON.createGenerator(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open JSON output", e);
+        }
+    }
+
+    @Override
+    public void startSheet(String name, String[] headers) {
+        this.sheet = name;
+        this.headers = headers;
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("sheet", sheet);
+        for (int i = 0; i < headers.length && i < values.length; i++) {
+            Object value = values[i];
+            generator.writeFieldName(headers[i]);
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
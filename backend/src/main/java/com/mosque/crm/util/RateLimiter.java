@@ -0,0 +1,36 @@
+package com.mosque.crm.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out permits to a steady rate shared by all calling threads.
+ * Each caller reserves the next free slot and sleeps until it arrives, so a
+ * request for many permits delays the callers after it rather than itself.
+ * A rate of zero or less disables limiting.
+ */
+public class RateLimiter {
+
+    private final double permitsPerSecond;
+    private long nextFreeNanos;
+
+    public RateLimiter(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    public void acquire(int permits) throws InterruptedException {
+        if (permitsPerSecond <= 0 || permits <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextFreeNanos);
+            waitNanos = start - now;
+            nextFreeNanos = start + (long) (permits * TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
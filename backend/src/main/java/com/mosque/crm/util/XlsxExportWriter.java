@@ -0,0 +1,111 @@
+package com.mosque.crm.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Streaming XLSX writer on top of SXSSF: only the last {@code windowSize} rows
+ * of a sheet stay in memory, older rows go to a compressed temporary file.
+ * <p>
+ * {@code autoSizeColumn} would measure every cell with AWT font metrics, so
+ * column widths are derived from the longest value seen instead.
+ */
+public class XlsxExportWriter implements ExportWriter {
+
+    private static final int MAX_COLUMN_CHARS = 60;
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+
+    private SXSSFSheet sheet;
+    private int[] widths;
+    private int rowNum;
+
+    public XlsxExportWriter(OutputStream out, int windowSize) {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(Math.max(1, windowSize));
+        this.workbook.setCompressTempFiles(true);
+        this.headerStyle = buildHeaderStyle(workbook);
+    }
+
+    @Override
+    public void startSheet(String name, String[] headers) {
+        applyWidths();
+        sheet = workbook.createSheet(name);
+        widths = new int[headers.length];
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+            widths[i] = headers[i].length();
+        }
+        rowNum = 1;
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        Row row = sheet.createRow(rowNum++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            Cell cell = row.createCell(i);
+            String text;
+            if (value instanceof Long number) {
+                cell.setCellValue(number);
+                text = number.toString();
+            } else {
+                text = value != null ? value.toString() : "";
+                cell.setCellValue(text);
+            }
+            if (i < widths.length && text.length() > widths[i]) {
+                widths[i] = text.length();
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        applyWidths();
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Deletes the temporary sheet files
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void applyWidths() {
+        if (sheet == null) {
+            return;
+        }
+        for (int i = 0; i < widths.length; i++) {
+            sheet.setColumnWidth(i, (Math.min(widths[i], MAX_COLUMN_CHARS) + 2) * 256);
+        }
+    }
+
+    private static CellStyle buildHeaderStyle(SXSSFWorkbook wb) {
+        CellStyle style = wb.createCellStyle();
+        Font font = wb.createFont();
+        font.setBold(true);
+        font.setColor(IndexedColors.WHITE.getIndex());
+        style.setFont(font);
+        style.setFillForegroundColor(IndexedColors.DARK_GREEN.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        style.setBorderBottom(BorderStyle.THIN);
+        return style;
+    }
+}
@@ -0,0 +1,104 @@
+package com.mosque.crm.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.TableGenerator;
+
+/**
+ * Guards the pooled {@code sequences_} generators: every entity uses the shared
+ * block size, segment names are unique, and each segment is synced from the
+ * table's max id by a startup changeset. Classpath scan only; no database.
+ */
+class IdAllocationTest {
+
+    private static final String[] SYNC_CHANGELOGS = {
+            "db/changelog/changes/dml/215-sync-all-sequences.xml",
+            "db/changelog/changes/dml/228-sync-remaining-table-generator-sequences.xml",
+            "db/changelog/changes/dml/229-seed-communication-recipients-sequence.xml",
+            "db/changelog/changes/dml/230-seed-data-export-jobs-sequence.xml",
+            "db/changelog/changes/dml/231-seed-member-import-jobs-sequence.xml",
+            "db/changelog/changes/dml/233-seed-organization-deletion-jobs-sequence.xml" };
+
+    /** A changeset that Liquibase runs on every startup, body included. */
+    private static final Pattern RUN_ALWAYS_CHANGE_SET =
+            Pattern.compile("<changeSet[^>]*runAlways=\"true\"[^>]*>.*?</changeSet>", Pattern.DOTALL);
+
+    @Test
+    void everySequencesTableGeneratorUsesTheSharedBlockSize() throws Exception {
+        List<TableGenerator> generators = sequencesGenerators();
+
+        assertFalse(generators.isEmpty());
+        for (TableGenerator generator : generators) {
+            assertEquals(IdAllocation.BLOCK_SIZE, generator.allocationSize(), generator.pkColumnValue());
+        }
+    }
+
+    @Test
+    void segmentNamesAreUnique() throws Exception {
+        Map<String, Integer> counts = new HashMap<>();
+        for (TableGenerator generator : sequencesGenerators()) {
+            counts.merge(generator.pkColumnValue(), 1, Integer::sum);
+        }
+        counts.forEach((segment, count) -> assertEquals(1, count, segment));
+    }
+
+    @Test
+    void everySegmentIsSyncedOnStartup() throws Exception {
+        StringBuilder changelogs = new StringBuilder();
+        for (String path : SYNC_CHANGELOGS) {
+            Matcher changeSets = RUN_ALWAYS_CHANGE_SET.matcher(read(path));
+            while (changeSets.find()) {
+                changelogs.append(changeSets.group());
+            }
+        }
+        for (TableGenerator generator : sequencesGenerators()) {
+            assertTrue(changelogs.indexOf("PK_NAME = '" + generator.pkColumnValue() + "'") >= 0,
+                    "No startup sync for " + generator.pkColumnValue());
+        }
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private static List<TableGenerator> sequencesGenerators() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+
+        List<TableGenerator> generators = new ArrayList<>();
+        for (BeanDefinition definition : scanner.findCandidateComponents("com.mosque.crm.entity")) {
+            Class<?> type = Class.forName(definition.getBeanClassName());
+            for (Field field : type.getDeclaredFields()) {
+                TableGenerator generator = field.getAnnotation(TableGenerator.class);
+                if (generator != null && "sequences_".equals(generator.table())) {
+                    generators.add(generator);
+                }
+            }
+        }
+        return generators;
+    }
+
+    private static String read(String path) throws IOException {
+        try (InputStream in = IdAllocationTest.class.getClassLoader().getResourceAsStream(path)) {
+            assertTrue(in != null, "Missing changelog " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.mosque.crm.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mosque.crm.dto.GeneralEventAttendanceCreateDTO;
+import com.mosque.crm.dto.GeneralEventSessionDTO;
+import com.mosque.crm.integration.fixtures.StatementRecorder;
+import com.mosque.crm.integration.fixtures.StatementRecorder.RecordedStatement;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.service.GeneralEventAttendanceService;
+import com.mosque.crm.service.GeneralEventSessionService;
+
+/**
+ * Set-based attendance for one alpha-tenant session with {@link #ATTENDEES}
+ * confirmed registrations.
+ * <p>
+ * Pre-population and bulk marking must write one row per registration with a
+ * fixed number of statements, however many attendees there are, and must only
+ * ever touch the caller's tenant. Scratch event, session and registrations are
+ * removed afterwards.
+ */
+@DisplayName("Attendance bulk operations")
+@Import(StatementRecorder.class)
+class AttendanceBulkIT extends BaseIT {
+
+    private static final long EVENT_ID = 990_000_002L;
+    private static final long SESSION_ID = 990_000_002L;
+    private static final long FIRST_REGISTRATION_ID = 990_100_000L;
+    private static final long DECLINED_REGISTRATION_ID = 990_200_001L;
+    private static final long FOREIGN_REGISTRATION_ID = 990_200_002L;
+    private static final int ATTENDEES = 1_000;
+    private static final String ATTENDANCE_INSERT = "INSERT IGNORE INTO org_general_event_attendance";
+    private static final String ATTENDANCE_UPSERT = "INSERT INTO org_general_event_attendance";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GeneralEventAttendanceService attendanceService;
+
+    @Autowired
+    private GeneralEventSessionService sessionService;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @BeforeAll
+    void setUpEvent() {
+        removeEvent();
+        jdbcTemplate.update("INSERT INTO org_general_events (id, name, general_event_type, start_date, organization_id) "
+                + "VALUES (?, 'Attendance IT', 'LECTURE', '2026-04-03', ?)", EVENT_ID, fixture.alphaOrgId);
+        jdbcTemplate.update("INSERT INTO org_general_event_sessions "
+                + "(id, general_event_id, session_name, session_date, organization_id) "
+                + "VALUES (?, ?, 'Friday prayer', '2026-04-03', ?)", SESSION_ID, EVENT_ID, fixture.alphaOrgId);
+        List<Object[]> registrations = new ArrayList<>();
+        for (int i = 0; i < ATTENDEES; i++) {
+            registrations.add(new Object[] {FIRST_REGISTRATION_ID + i, "Attendee " + i, "CONFIRMED", fixture.alphaOrgId});
+        }
+        registrations.add(new Object[] {DECLINED_REGISTRATION_ID, "Declined", "DECLINED", fixture.alphaOrgId});
+        // Points at the alpha event but belongs to beta: must never get an alpha attendance row
+        registrations.add(new Object[] {FOREIGN_REGISTRATION_ID, "Other tenant", "CONFIRMED", fixture.betaOrgId});
+        jdbcTemplate.batchUpdate("INSERT INTO org_general_event_registrations (id, general_event_id, registrant_type, "
+                + "name, party_size, rsvp_status, check_in_status, registered_at, source, organization_id) "
+                + "VALUES (?, " + EVENT_ID + ", 'NON_MEMBER', ?, 1, ?, 'NOT_CHECKED_IN', NOW(), 'ADMIN_MANUAL', ?)",
+                registrations);
+    }
+
+    // Runs before BaseIT.tearDownFixtures removes the tenants
+    @AfterAll
+    void removeEvent() {
+        jdbcTemplate.update("DELETE FROM org_general_event_attendance WHERE session_id = ?", SESSION_ID);
+        jdbcTemplate.update("DELETE FROM org_general_event_registrations WHERE general_event_id = ?", EVENT_ID);
+        jdbcTemplate.update("DELETE FROM org_general_event_sessions WHERE id = ?", SESSION_ID);
+        jdbcTemplate.update("DELETE FROM org_general_events WHERE id = ?", EVENT_ID);
+    }
+
+    @BeforeEach
+    void clearAttendance() {
+        jdbcTemplate.update("DELETE FROM org_general_event_attendance WHERE session_id = ?", SESSION_ID);
+    }
+
+    @Test
+    @DisplayName("Pre-population writes every confirmed registration with one INSERT ... SELECT")
+    void prepopulationIsOneStatementForAllRegistrations() {
+        int[] created = new int[1];
+        List<RecordedStatement> statements = recordAs(fixture.alphaOrgId,
+                () -> created[0] = attendanceService.prepopulateFromRegistrations(EVENT_ID, SESSION_ID));
+
+        assertThat(created[0]).isEqualTo(ATTENDEES);
+        assertThat(count(statements, ATTENDANCE_INSERT)).isEqualTo(1);
+        assertThat(attendanceRows("ABSENT")).isEqualTo(ATTENDEES);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM org_general_event_attendance WHERE session_id = ? "
+                        + "AND (registration_id IN (?, ?) OR organization_id <> ?)",
+                Integer.class, SESSION_ID, DECLINED_REGISTRATION_ID, FOREIGN_REGISTRATION_ID, fixture.alphaOrgId))
+                .isZero();
+
+        // A re-run finds nothing missing and writes nothing
+        List<RecordedStatement> rerun = recordAs(fixture.alphaOrgId,
+                () -> created[0] = attendanceService.prepopulateFromRegistrations(EVENT_ID, SESSION_ID));
+        assertThat(created[0]).isZero();
+        assertThat(count(rerun, ATTENDANCE_INSERT)).isZero();
+    }
+
+    @Test
+    @DisplayName("Bulk marking upserts every attendee in one JDBC batch")
+    void bulkMarkIsOneBatchForAllAttendees() {
+        recordAs(fixture.alphaOrgId, () -> attendanceService.prepopulateFromRegistrations(EVENT_ID, SESSION_ID));
+
+        int[] marked = new int[1];
+        List<RecordedStatement> statements = recordAs(fixture.alphaOrgId,
+                () -> marked[0] = attendanceService.bulkMark(EVENT_ID, SESSION_ID, marks("LATE"), null));
+
+        assertThat(marked[0]).isEqualTo(ATTENDEES);
+        assertThat(count(statements, ATTENDANCE_UPSERT)).isEqualTo(1);
+        // Lookups and the id reservation, not one statement per attendee
+        assertThat(statements).hasSizeLessThan(20);
+        assertThat(attendanceRows("LATE")).isEqualTo(ATTENDEES);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM org_general_event_attendance WHERE session_id = ? AND checked_in_at IS NULL",
+                Integer.class, SESSION_ID)).isZero();
+
+        GeneralEventSessionDTO session = as(fixture.alphaOrgId, () -> sessionService.listSessions(EVENT_ID).get(0));
+        assertThat(session.getPresentCount()).isEqualTo(ATTENDEES);
+        assertThat(session.getAbsentCount()).isZero();
+        assertThat(session.getTotalAttendance()).isEqualTo(ATTENDEES);
+    }
+
+    @Test
+    @DisplayName("Another tenant cannot pre-populate or mark the session")
+    void otherTenantIsRefused() {
+        assertThatThrownBy(() -> recordAs(fixture.betaOrgId,
+                () -> attendanceService.prepopulateFromRegistrations(EVENT_ID, SESSION_ID)))
+                .hasMessage("Event not found: " + EVENT_ID);
+        assertThatThrownBy(() -> recordAs(fixture.betaOrgId,
+                () -> attendanceService.bulkMark(EVENT_ID, SESSION_ID, marks("PRESENT"), null)))
+                .hasMessage("Event not found: " + EVENT_ID);
+
+        assertThat(attendanceRows(null)).isZero();
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    /** Run a service call as {@code organizationId}; return the statements it sent. */
+    private List<RecordedStatement> recordAs(Long organizationId, Runnable call) {
+        return as(organizationId, () -> statementRecorder.record(call));
+    }
+
+    private static <T> T as(Long organizationId, Supplier<T> call) {
+        TenantContext.setCurrentOrganizationId(organizationId);
+        try {
+            return call.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static long count(List<RecordedStatement> statements, String prefix) {
+        return statements.stream().filter(statement -> statement.sql().startsWith(prefix)).count();
+    }
+
+    private static List<GeneralEventAttendanceCreateDTO> marks(String status) {
+        List<GeneralEventAttendanceCreateDTO> items = new ArrayList<>(ATTENDEES);
+        for (int i = 0; i < ATTENDEES; i++) {
+            GeneralEventAttendanceCreateDTO item = new GeneralEventAttendanceCreateDTO();
+            item.setRegistrationId(FIRST_REGISTRATION_ID + i);
+            item.setStatus(status);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /** Attendance rows of the session, optionally only those with {@code status}. */
+    private int attendanceRows(String status) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM org_general_event_attendance WHERE session_id = ? AND (? IS NULL OR status = ?)",
+                Integer.class, SESSION_ID, status, status);
+    }
+}
@@ -0,0 +1,212 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.dto.CommunicationMessageDTO;
+import com.mosque.crm.dto.CommunicationProgressDTO;
+import com.mosque.crm.dto.SendMessageRequest;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.service.BulkEmailDispatcher;
+import com.mosque.crm.service.CommunicationService;
+import com.mosque.crm.service.ConfigurationService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk communications of the alpha tenant, sent by the background dispatcher
+ * to a stub mail endpoint on localhost.
+ *
+ * Verifies: one recipient row per address of the tenant's persons, all sent
+ * and the message SENT; transient mail server errors leave the recipients
+ * pending with a later retry; permanent errors fail them and the message.
+ *
+ * The global MAIL_SERVER_* configuration points at the stub for the duration
+ * of the class and is restored afterwards.
+ */
+@DisplayName("Bulk email dispatch")
+class BulkEmailDispatchIT extends BaseIT {
+
+    private static final String MAIL_HOST = "MAIL_SERVER_HOST";
+    private static final String MAIL_PROJECT = "MAIL_SERVER_PROJECT_UUID";
+    private static final long TIMEOUT_MS = 15_000;
+
+    @Autowired
+    private CommunicationService communicationService;
+
+    @Autowired
+    private BulkEmailDispatcher dispatcher;
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private HttpServer mailServer;
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+    private Optional<String> previousHost;
+    private Optional<String> previousProject;
+
+    @BeforeAll
+    void startMailServer() throws IOException {
+        mailServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        mailServer.createContext("/rest/v1/api/register-mail", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                requests.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        mailServer.start();
+
+        previousHost = configurationService.getValue(MAIL_HOST);
+        previousProject = configurationService.getValue(MAIL_PROJECT);
+        configurationService.setValue(MAIL_HOST, "http://127.0.0.1:" + mailServer.getAddress().getPort());
+        configurationService.setValue(MAIL_PROJECT, "it-project");
+    }
+
+    // Runs before BaseIT.tearDownFixtures removes the tenants
+    @AfterAll
+    void stopMailServer() {
+        restore(MAIL_HOST, previousHost);
+        restore(MAIL_PROJECT, previousProject);
+        mailServer.stop(0);
+    }
+
+    @BeforeEach
+    void resetMailServer() {
+        requests.clear();
+        responseStatus.set(200);
+    }
+
+    @AfterEach
+    void removeMessages() {
+        jdbc.update("DELETE FROM communication_recipients WHERE organization_id = ?", fixture.alphaOrgId);
+        jdbc.update("DELETE FROM communication_messages WHERE organization_id = ?", fixture.alphaOrgId);
+    }
+
+    @Test
+    @DisplayName("Every address of the tenant's persons is sent and the message becomes SENT")
+    void recipientsAreSentAndTheMessageCompletes() {
+        List<String> addresses = jdbc.queryForList(
+            "SELECT DISTINCT LOWER(TRIM(email)) FROM persons WHERE organization_id = ? AND email IS NOT NULL AND email <> ''",
+            String.class, fixture.alphaOrgId);
+
+        CommunicationMessageDTO message = queue("Eid prayer times");
+
+        awaitUntil(() -> "SENT".equals(progress(message.getId()).getStatus()));
+        CommunicationProgressDTO progress = progress(message.getId());
+        assertThat(progress.getTotal()).isEqualTo(addresses.size());
+        assertThat(progress.getSent()).isEqualTo(addresses.size());
+        assertThat(String.join("\n", requests))
+            .contains("it-alpha-p1@test.invalid", "it-alpha-p2@test.invalid")
+            .doesNotContain("it-beta-");
+    }
+
+    @Test
+    @DisplayName("A transient mail server error leaves the recipients pending with a later retry")
+    void transientErrorsAreRetriedLater() {
+        responseStatus.set(503);
+
+        CommunicationMessageDTO message = queue("Ramadan timetable");
+
+        awaitUntil(() -> rescheduled(message.getId()) == progress(message.getId()).getTotal());
+        CommunicationProgressDTO progress = progress(message.getId());
+        assertThat(progress.getStatus()).isEqualTo("QUEUED");
+        assertThat(progress.getPending()).isEqualTo(progress.getTotal());
+        assertThat(jdbc.queryForObject(
+            "SELECT COUNT(*) FROM communication_recipients WHERE message_id = ? AND last_error = 'Mail server returned 503'",
+            Long.class, message.getId())).isEqualTo(progress.getTotal());
+    }
+
+    @Test
+    @DisplayName("A permanent mail server error fails the recipients and the message")
+    void permanentErrorsFailTheMessage() {
+        responseStatus.set(400);
+
+        CommunicationMessageDTO message = queue("Zakat reminder");
+
+        awaitUntil(() -> "FAILED".equals(progress(message.getId()).getStatus()));
+        CommunicationProgressDTO progress = progress(message.getId());
+        assertThat(progress.getFailed()).isEqualTo(progress.getTotal());
+        assertThat(progress.getSent()).isZero();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private CommunicationMessageDTO queue(String subject) {
+        SendMessageRequest request = new SendMessageRequest();
+        request.setSubject(subject);
+        request.setBodyHtml("<p>" + subject + "</p>");
+        request.setRecipientType("ALL_MEMBERS");
+        CommunicationMessageDTO message = as(fixture.alphaOrgId,
+            () -> communicationService.sendMessage(request, fixture.alphaAdminUserId));
+        assertThat(message.getStatus()).isEqualTo("QUEUED");
+        return message;
+    }
+
+    private CommunicationProgressDTO progress(Long messageId) {
+        return as(fixture.alphaOrgId, () -> communicationService.getProgress(messageId)).orElseThrow();
+    }
+
+    private long rescheduled(Long messageId) {
+        return jdbc.queryForObject(
+            "SELECT COUNT(*) FROM communication_recipients WHERE message_id = ? AND status = 'PENDING' "
+                + "AND attempts = 1 AND next_attempt_at > NOW()",
+            Long.class, messageId);
+    }
+
+    /** Dispatching starts after commit; also runs it here in case the run was already busy. */
+    private void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("dispatch finished in time").isLessThan(deadline);
+            dispatcher.dispatchPending();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private void restore(String name, Optional<String> previous) {
+        if (previous.isPresent()) {
+            configurationService.setValue(name, previous.get());
+        } else {
+            configurationService.deleteConfiguration(name);
+        }
+    }
+
+    private static <T> T as(long organizationId, Supplier<T> call) {
+        TenantContext.setCurrentOrganizationId(organizationId);
+        try {
+            return call.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.dto.MemberPaymentCreateDTO;
+import com.mosque.crm.dto.MemberPaymentDTO;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.service.ContributionTotalsService;
+import com.mosque.crm.service.MemberPaymentService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contribution totals of the alpha tenant, maintained by the member payment
+ * service on every write.
+ *
+ * Verifies: after payments are created, updated, reversed and deleted the
+ * stored totals equal a fresh aggregate of member_payments
+ * ({@link ContributionTotalsService#verify} finds no drift), a rolled back
+ * payment leaves no trace in the totals, and the beta tenant's totals are
+ * never touched. Seeded payments, contribution type and currency are removed
+ * afterwards.
+ */
+@DisplayName("Contribution totals")
+class ContributionTotalsIT extends BaseIT {
+
+    private static final String TYPE_CODE = "IT_TOTALS";
+    private static final String CURRENCY_CODE = "XTC";
+
+    @Autowired
+    private MemberPaymentService paymentService;
+
+    @Autowired
+    private ContributionTotalsService totalsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long typeId;
+    private Long currencyId;
+
+    @BeforeAll
+    void createTypeAndCurrency() {
+        removeTypeAndCurrency();
+        jdbc.update("INSERT INTO currencies (code, name, symbol) VALUES (?, 'Totals IT', 'T')", CURRENCY_CODE);
+        currencyId = jdbc.queryForObject("SELECT id FROM currencies WHERE code = ?", Long.class, CURRENCY_CODE);
+        jdbc.update("INSERT INTO contribution_types (code, is_required, is_active, organization_id) VALUES (?, FALSE, TRUE, ?)",
+            TYPE_CODE, fixture.alphaOrgId);
+        typeId = jdbc.queryForObject("SELECT id FROM contribution_types WHERE code = ? AND organization_id = ?",
+            Long.class, TYPE_CODE, fixture.alphaOrgId);
+    }
+
+    // Runs before BaseIT.tearDownFixtures removes the tenants
+    @AfterAll
+    void removeTypeAndCurrency() {
+        removePayments();
+        jdbc.update("DELETE FROM contribution_types WHERE code = ? AND organization_id = ?", TYPE_CODE, fixture.alphaOrgId);
+        jdbc.update("DELETE FROM currencies WHERE code = ?", CURRENCY_CODE);
+    }
+
+    @AfterEach
+    void removePayments() {
+        jdbc.update("DELETE FROM member_payments WHERE organization_id = ? AND is_reversal = TRUE "
+            + "AND contribution_type_id IN (SELECT id FROM contribution_types WHERE code = ?)", fixture.alphaOrgId, TYPE_CODE);
+        jdbc.update("DELETE FROM member_payments WHERE organization_id = ? "
+            + "AND contribution_type_id IN (SELECT id FROM contribution_types WHERE code = ?)", fixture.alphaOrgId, TYPE_CODE);
+        jdbc.update("DELETE FROM contribution_totals WHERE organization_id = ? "
+            + "AND contribution_type_id IN (SELECT id FROM contribution_types WHERE code = ?)", fixture.alphaOrgId, TYPE_CODE);
+    }
+
+    @Test
+    @DisplayName("Created payments are added to the totals of their period's year")
+    void createdPaymentsAreAddedToTheirYear() {
+        int betaRows = betaTotalRows();
+
+        create("10.00", LocalDate.of(2025, 2, 1), null);
+        create("15.50", LocalDate.of(2025, 6, 1), null);
+        // The period start decides the year, not the payment date
+        create("20.00", LocalDate.of(2025, 1, 5), LocalDate.of(2024, 12, 1));
+
+        assertThat(totals()).containsOnly(
+            Map.entry(2024, "20|0|1"),
+            Map.entry(2025, "25.5|0|2"));
+        assertThat(totalsService.verify(fixture.alphaOrgId)).isZero();
+        assertThat(betaTotalRows()).isEqualTo(betaRows);
+        assertThat(totalsService.verify(fixture.betaOrgId)).isZero();
+    }
+
+    @Test
+    @DisplayName("An updated payment moves its amount to the new year")
+    void updatedPaymentsMoveBetweenYears() {
+        MemberPaymentDTO payment = create("30.00", LocalDate.of(2025, 3, 1), null);
+
+        as(fixture.alphaOrgId, () -> paymentService.updatePayment(payment.getId(),
+            request("35.00", LocalDate.of(2024, 3, 1), null)));
+
+        assertThat(totals()).containsEntry(2024, "35|0|1").doesNotContainKey(2025);
+        assertThat(totalsService.verify(fixture.alphaOrgId)).isZero();
+    }
+
+    @Test
+    @DisplayName("A reversal is recorded as a reversal amount, not as a payment")
+    void reversalsAreRecordedAsReversalAmounts() {
+        MemberPaymentDTO payment = create("40.00", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 1, 1));
+
+        as(fixture.alphaOrgId, () -> paymentService.reversePayment(payment.getId()));
+
+        // The reversal keeps the original's period, so it lands in the same year
+        assertThat(totals()).containsOnly(Map.entry(2025, "40|-40|1"));
+        assertThat(totalsService.verify(fixture.alphaOrgId)).isZero();
+    }
+
+    @Test
+    @DisplayName("A deleted payment is taken out of the totals")
+    void deletedPaymentsAreTakenOut() {
+        create("12.00", LocalDate.of(2025, 4, 1), null);
+        MemberPaymentDTO deleted = create("8.00", LocalDate.of(2025, 5, 1), null);
+
+        as(fixture.alphaOrgId, () -> {
+            paymentService.deletePayment(deleted.getId());
+            return null;
+        });
+
+        assertThat(totals()).containsOnly(Map.entry(2025, "12|0|1"));
+        assertThat(totalsService.verify(fixture.alphaOrgId)).isZero();
+    }
+
+    @Test
+    @DisplayName("A rolled back payment leaves the totals unchanged")
+    void rolledBackPaymentsLeaveNoTotals() {
+        create("5.00", LocalDate.of(2025, 7, 1), null);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            create("99.00", LocalDate.of(2025, 7, 2), null);
+            status.setRollbackOnly();
+        });
+
+        assertThat(totals()).containsOnly(Map.entry(2025, "5|0|1"));
+        assertThat(totalsService.verify(fixture.alphaOrgId)).isZero();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private MemberPaymentDTO create(String amount, LocalDate paymentDate, LocalDate periodFrom) {
+        return as(fixture.alphaOrgId, () -> paymentService.createPayment(request(amount, paymentDate, periodFrom)));
+    }
+
+    private MemberPaymentCreateDTO request(String amount, LocalDate paymentDate, LocalDate periodFrom) {
+        MemberPaymentCreateDTO request = new MemberPaymentCreateDTO();
+        request.setPersonId(fixture.alphaPersonId);
+        request.setContributionTypeId(typeId);
+        request.setAmount(new BigDecimal(amount));
+        request.setPaymentDate(paymentDate);
+        request.setPeriodFrom(periodFrom);
+        request.setCurrencyId(currencyId);
+        request.setReference("it-totals");
+        return request;
+    }
+
+    /** Stored totals of the seeded type per year, as "total|reversal|count"; zero rows are left out. */
+    private Map<Integer, String> totals() {
+        List<Map<String, Object>> rows = jdbc.queryForList(
+            "SELECT period_year, total_amount, reversal_amount, payment_count FROM contribution_totals "
+                + "WHERE organization_id = ? AND contribution_type_id = ? AND currency_code = ? "
+                + "AND (total_amount <> 0 OR reversal_amount <> 0 OR payment_count <> 0)",
+            fixture.alphaOrgId, typeId, CURRENCY_CODE);
+        Map<Integer, String> totals = new TreeMap<>();
+        for (Map<String, Object> row : rows) {
+            totals.put(((Number) row.get("period_year")).intValue(),
+                plain(row.get("total_amount")) + "|" + plain(row.get("reversal_amount")) + "|" + row.get("payment_count"));
+        }
+        return totals;
+    }
+
+    private int betaTotalRows() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM contribution_totals WHERE organization_id = ?",
+            Integer.class, fixture.betaOrgId);
+    }
+
+    private static String plain(Object amount) {
+        return new BigDecimal(amount.toString()).stripTrailingZeros().toPlainString();
+    }
+
+    private static <T> T as(long organizationId, Supplier<T> call) {
+        TenantContext.setCurrentOrganizationId(organizationId);
+        try {
+            return call.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
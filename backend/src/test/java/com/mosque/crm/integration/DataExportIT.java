@@ -0,0 +1,203 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.enums.ExportFormat;
+import com.mosque.crm.enums.ExportScope;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.service.DataExportService;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streaming data export of the alpha tenant, seeded with more persons than
+ * the XLSX window and the progress interval, and one payment.
+ *
+ * Verifies: every format holds exactly the tenant's rows (never another
+ * tenant's), the row count matches {@link DataExportService#countRows}, and
+ * cells are written in the canonical form the import reads back.
+ * Seeded persons, payment, contribution type and currency are removed afterwards.
+ */
+@DisplayName("Data export")
+class DataExportIT extends BaseIT {
+
+    private static final int PERSONS = 1_200;
+    private static final String QUOTED_EMAIL = "it-export-quoted@test.invalid";
+
+    @Autowired
+    private DataExportService dataExportService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long quotedPersonId;
+    private Long paymentId;
+
+    @BeforeAll
+    void seedAlpha() {
+        removeSeed();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> persons = new ArrayList<>();
+        for (int i = 0; i < PERSONS; i++) {
+            persons.add(new Object[] {"Export" + i, "ExportIT", "it-export-" + i + "@test.invalid",
+                UUID.randomUUID().toString(), fixture.alphaOrgId, now, now});
+        }
+        jdbc.batchUpdate("INSERT INTO persons (first_name, last_name, email, status, hash, organization_id, "
+            + "created_at, updated_at) VALUES (?, ?, ?, 'ACTIVE', ?, ?, ?, ?)", persons);
+        jdbc.update("INSERT INTO persons (first_name, last_name, email, address, status, hash, organization_id, "
+            + "created_at, updated_at) VALUES ('Yusuf', 'Nazir, Jr.', ?, 'Keizerstraat \"12\"', 'ACTIVE', ?, ?, ?, ?)",
+            QUOTED_EMAIL, UUID.randomUUID().toString(), fixture.alphaOrgId, now, now);
+        quotedPersonId = jdbc.queryForObject("SELECT id FROM persons WHERE email = ?", Long.class, QUOTED_EMAIL);
+
+        jdbc.update("INSERT INTO currencies (code, name, symbol) VALUES ('XTE', 'Export IT', 'E')");
+        jdbc.update("INSERT INTO contribution_types (code, is_required, is_active, organization_id) "
+            + "VALUES ('IT_EXPORT', FALSE, TRUE, ?)", fixture.alphaOrgId);
+        jdbc.update("INSERT INTO member_payments (person_id, contribution_type_id, amount, payment_date, effective_date, "
+                + "reference, currency_id, is_reversal, organization_id, created_at) "
+                + "SELECT ?, ct.id, 25.50, '2026-03-01', '2026-03-01', 'it-export', c.id, FALSE, ?, ? "
+                + "FROM contribution_types ct, currencies c "
+                + "WHERE ct.code = 'IT_EXPORT' AND ct.organization_id = ? AND c.code = 'XTE'",
+            quotedPersonId, fixture.alphaOrgId, now, fixture.alphaOrgId);
+        paymentId = jdbc.queryForObject("SELECT id FROM member_payments WHERE person_id = ?", Long.class, quotedPersonId);
+    }
+
+    // Runs before BaseIT.tearDownFixtures removes the tenants
+    @AfterAll
+    void removeSeed() {
+        jdbc.update("DELETE FROM member_payments WHERE organization_id = ? AND reference = 'it-export'", fixture.alphaOrgId);
+        jdbc.update("DELETE FROM contribution_types WHERE organization_id = ? AND code = 'IT_EXPORT'", fixture.alphaOrgId);
+        jdbc.update("DELETE FROM currencies WHERE code = 'XTE'");
+        jdbc.update("DELETE FROM persons WHERE organization_id = ? AND email LIKE 'it-export-%'", fixture.alphaOrgId);
+    }
+
+    @Test
+    @DisplayName("XLSX keeps every row of the tenant beyond the streaming window")
+    void xlsxHoldsEveryRowOfTheTenant() throws IOException {
+        List<Long> progress = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = export(fixture.alphaOrgId, ExportScope.MEMBERS, ExportFormat.XLSX, out, progress::add);
+
+        assertThat(rows).isEqualTo(as(fixture.alphaOrgId, () -> dataExportService.countRows(ExportScope.MEMBERS)));
+        assertThat(progress).contains(1_000L).last().isEqualTo(rows);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet members = workbook.getSheet("Members");
+            assertThat(members.getRow(0).getCell(1).getStringCellValue()).isEqualTo("first_name");
+            Set<String> firstNames = new HashSet<>();
+            for (Row row : members) {
+                if (row.getRowNum() > 0) {
+                    firstNames.add(row.getCell(1).getStringCellValue());
+                }
+            }
+            assertThat(members.getLastRowNum()).isEqualTo(alphaPersons());
+            assertThat(firstNames).contains("Alpha", "Export0", "Export" + (PERSONS - 1)).doesNotContain("Beta");
+            assertThat(workbook.getSheet("Memberships")).isNotNull();
+            assertThat(workbook.getSheet("Payments")).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("CSV is a zip with one quoted file per sheet")
+    void csvIsAZipOfQuotedFiles() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export(fixture.alphaOrgId, ExportScope.MEMBERS, ExportFormat.CSV, out, null);
+
+        Map<String, String> files = unzip(out.toByteArray());
+        assertThat(files.keySet()).containsExactly("Members.csv", "Memberships.csv");
+        List<String> lines = List.of(files.get("Members.csv").split("\r\n"));
+        assertThat(lines.get(0)).startsWith("\uFEFFid,first_name,last_name");
+        assertThat(lines).hasSize(alphaPersons() + 1).contains(quotedPersonId
+            + ",Yusuf,\"Nazir, Jr.\",,,," + QUOTED_EMAIL + ",,\"Keizerstraat \"\"12\"\"\",,,,ACTIVE,");
+    }
+
+    @Test
+    @DisplayName("JSON lines hold one object per payment and contribution type")
+    void jsonLinesHoldOneObjectPerRow() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = export(fixture.alphaOrgId, ExportScope.PAYMENTS, ExportFormat.JSONL, out, null);
+
+        List<String> lines = List.of(out.toString(StandardCharsets.UTF_8).split("\n"));
+        assertThat(lines).hasSize((int) rows);
+        assertThat(rows).isEqualTo(as(fixture.alphaOrgId, () -> dataExportService.countRows(ExportScope.PAYMENTS)));
+        assertThat(lines).contains("{\"sheet\":\"Payments\",\"id\":" + paymentId + ",\"member_id\":" + quotedPersonId
+            + ",\"first_name\":\"Yusuf\",\"last_name\":\"Nazir, Jr.\",\"contribution_type_code\":\"IT_EXPORT\","
+            + "\"amount\":\"25.50\",\"currency\":\"XTE\",\"payment_date\":\"2026-03-01\",\"period_from\":null,"
+            + "\"period_to\":null,\"reference\":\"it-export\",\"notes\":null,\"is_reversal\":\"false\"}");
+        assertThat(lines).filteredOn(line -> line.startsWith("{\"sheet\":\"ContributionTypes\""))
+            .anyMatch(line -> line.contains("\"code\":\"IT_EXPORT\""));
+    }
+
+    @Test
+    @DisplayName("Another tenant's export holds none of the alpha rows")
+    void otherTenantExportsOnlyItsOwnRows() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export(fixture.betaOrgId, ExportScope.FULL, ExportFormat.JSONL, out, null);
+
+        String export = out.toString(StandardCharsets.UTF_8);
+        assertThat(export).contains("\"first_name\":\"Beta\"")
+            .doesNotContain("ExportIT", "IT_EXPORT", "\"first_name\":\"Alpha\"");
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private long export(long organizationId, ExportScope scope, ExportFormat format, ByteArrayOutputStream out,
+                        LongConsumer progress) {
+        return as(organizationId, () -> {
+            try {
+                return dataExportService.export(scope, format, out, progress);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private int alphaPersons() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM persons WHERE organization_id = ?",
+            Integer.class, fixture.alphaOrgId);
+    }
+
+    private static Map<String, String> unzip(byte[] bytes) throws IOException {
+        Map<String, String> files = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                files.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return files;
+    }
+
+    private static <T> T as(long organizationId, Supplier<T> call) {
+        TenantContext.setCurrentOrganizationId(organizationId);
+        try {
+            return call.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.dto.DocumentCreateDTO;
+import com.mosque.crm.dto.DocumentDTO;
+import com.mosque.crm.dto.RichTextDocumentSaveDTO;
+import com.mosque.crm.enums.DocumentVisibility;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.repository.DocumentSearchEntryRepository;
+import com.mosque.crm.service.DocumentSearchService;
+import com.mosque.crm.service.DocumentService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Full-text document search against the fixture tenants.
+ *
+ * Verifies: a rich-text document is found by prefixes of its title and body
+ * words in its own organization only, trashed documents drop out of the
+ * results, and documents created without a search row (the fixture inserts
+ * them directly) are picked up by the backlog indexer.
+ *
+ * Note: only rich-text documents are used; file bodies need Minio.
+ */
+@DisplayName("Document search")
+class DocumentSearchIT extends BaseIT {
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentSearchService searchService;
+
+    @Autowired
+    private DocumentSearchEntryRepository entryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long timetableId;
+
+    @BeforeAll
+    void createDocument() {
+        timetableId = as(fixture.alphaOrgId, () -> {
+            DocumentCreateDTO meta = new DocumentCreateDTO();
+            meta.setFolderId(fixture.alphaFolderId);
+            meta.setTitle("Ramadan timetable");
+            meta.setVisibility(DocumentVisibility.ORGANIZATION);
+            DocumentDTO created = documentService.createRichTextDocument(meta, fixture.alphaAdminUserId);
+
+            RichTextDocumentSaveDTO content = new RichTextDocumentSaveDTO();
+            content.setContentHtml("<p>Iftar <b>volunteers</b> rota</p>");
+            documentService.saveRichTextContent(created.getId(), content, fixture.alphaAdminUserId);
+            return created.getId();
+        });
+    }
+
+    // Runs before BaseIT.tearDownFixtures removes the fixture documents and tenants
+    @AfterAll
+    void removeDocument() {
+        jdbc.update("DELETE FROM org_document_audit_events WHERE document_id = ?", timetableId);
+        jdbc.update("DELETE FROM org_document_versions WHERE document_id = ?", timetableId);
+        jdbc.update("DELETE FROM org_documents WHERE id = ?", timetableId);
+    }
+
+    @Test
+    @DisplayName("A rich-text document is found by title and body prefixes")
+    void richTextDocumentIsFoundByPrefix() {
+        assertThat(search(fixture.alphaOrgId, "ramad")).contains(timetableId);
+        assertThat(search(fixture.alphaOrgId, "volunt iftar")).contains(timetableId);
+        // Every word is required
+        assertThat(search(fixture.alphaOrgId, "volunteers zakat")).doesNotContain(timetableId);
+    }
+
+    @Test
+    @DisplayName("Another organization never finds the document")
+    void otherOrganizationDoesNotFindTheDocument() {
+        assertThat(search(fixture.betaOrgId, "volunteers")).doesNotContain(timetableId);
+    }
+
+    @Test
+    @DisplayName("A trashed document drops out of the results until restored")
+    void trashedDocumentIsNotFound() {
+        as(fixture.alphaOrgId, () -> {
+            documentService.trashDocument(timetableId, fixture.alphaAdminUserId);
+            return null;
+        });
+        try {
+            assertThat(search(fixture.alphaOrgId, "volunteers")).doesNotContain(timetableId);
+        } finally {
+            as(fixture.alphaOrgId, () -> {
+                documentService.restoreDocument(timetableId, fixture.alphaAdminUserId);
+                return null;
+            });
+        }
+        assertThat(search(fixture.alphaOrgId, "volunteers")).contains(timetableId);
+    }
+
+    @Test
+    @DisplayName("The backlog indexer picks up documents that have no search row")
+    void backlogIndexesDocumentsWithoutARow() {
+        jdbc.update("DELETE FROM org_document_search_index WHERE document_id IN (?, ?)",
+            fixture.alphaDocumentId, fixture.betaDocumentId);
+
+        // One batch per run; a shared database may hold more unindexed documents than that
+        for (int run = 0; run < 100 && !entryRepository.findUnindexedDocumentIds(1).isEmpty(); run++) {
+            searchService.indexBacklog();
+        }
+
+        assertThat(search(fixture.alphaOrgId, "alpha test")).contains(fixture.alphaDocumentId)
+            .doesNotContain(fixture.betaDocumentId);
+        assertThat(search(fixture.betaOrgId, "beta test")).contains(fixture.betaDocumentId)
+            .doesNotContain(fixture.alphaDocumentId);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private List<Long> search(long organizationId, String query) {
+        return as(organizationId, () -> documentService.searchDocuments(query, 0, 100).getItems().stream()
+            .map(DocumentDTO::getId)
+            .toList());
+    }
+
+    private static <T> T as(long organizationId, Supplier<T> call) {
+        TenantContext.setCurrentOrganizationId(organizationId);
+        try {
+            return call.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
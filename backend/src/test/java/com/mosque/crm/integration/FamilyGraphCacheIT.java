@@ -0,0 +1,157 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.service.FamilyGraph;
+import com.mosque.crm.service.FamilyGraphCache;
+import com.mosque.crm.service.FamilyGraphChangedEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Family graph cache against GEDCOM rows of the alpha and beta tenants.
+ *
+ * Verifies: each organization's graph holds only its own individuals and links,
+ * graphs are cached per organization, and a committed change event reloads the
+ * graph of its organization only (a rolled-back one reloads nothing).
+ */
+@DisplayName("Family graph cache")
+class FamilyGraphCacheIT extends BaseIT {
+
+    private static final String ALPHA_HUSBAND = "@IT-A1@";
+    private static final String ALPHA_WIFE = "@IT-A2@";
+    private static final String ALPHA_FAMILY = "@IT-FA@";
+    private static final String ALPHA_ADDED = "@IT-A3@";
+    private static final String BETA_INDIVIDUAL = "@IT-B1@";
+
+    @Autowired
+    private FamilyGraphCache familyGraphCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeAll
+    void createGedcomRows() {
+        removeGedcomRows();
+        insertIndividual(ALPHA_HUSBAND, "M", fixture.alphaOrgId);
+        insertIndividual(ALPHA_WIFE, "F", fixture.alphaOrgId);
+        insertIndividual(BETA_INDIVIDUAL, "M", fixture.betaOrgId);
+        jdbc.update("INSERT INTO gedcom_families (id, husband_id, wife_id, organization_id) VALUES (?, ?, ?, ?)",
+            ALPHA_FAMILY, ALPHA_HUSBAND, ALPHA_WIFE, fixture.alphaOrgId);
+        jdbc.update("INSERT INTO gedcom_person_links (person_id, gedcom_individual_id, organization_id) VALUES (?, ?, ?)",
+            fixture.alphaPersonId, ALPHA_HUSBAND, fixture.alphaOrgId);
+        jdbc.update("INSERT INTO gedcom_person_links (person_id, gedcom_individual_id, organization_id) VALUES (?, ?, ?)",
+            fixture.betaPersonId, BETA_INDIVIDUAL, fixture.betaOrgId);
+    }
+
+    // Runs before BaseIT.tearDownFixtures removes the tenants and persons
+    @AfterAll
+    void removeGedcomRows() {
+        jdbc.update("DELETE FROM gedcom_person_links WHERE gedcom_individual_id IN (?, ?)", ALPHA_HUSBAND, BETA_INDIVIDUAL);
+        jdbc.update("DELETE FROM gedcom_families WHERE id = ?", ALPHA_FAMILY);
+        jdbc.update("DELETE FROM gedcom_individuals WHERE id IN (?, ?, ?, ?)",
+            ALPHA_HUSBAND, ALPHA_WIFE, ALPHA_ADDED, BETA_INDIVIDUAL);
+        familyGraphCache.invalidateAll();
+    }
+
+    @BeforeEach
+    void startFromAnEmptyCache() {
+        jdbc.update("DELETE FROM gedcom_individuals WHERE id = ?", ALPHA_ADDED);
+        familyGraphCache.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Each organization's graph holds only its own individuals and links")
+    void graphIsScopedToTheOrganization() {
+        FamilyGraph alpha = as(fixture.alphaOrgId, familyGraphCache::get);
+        FamilyGraph beta = as(fixture.betaOrgId, familyGraphCache::get);
+
+        assertThat(alpha.findIndividualIdByPersonId(fixture.alphaPersonId)).isEqualTo(ALPHA_HUSBAND);
+        assertThat(alpha.husband(alpha.familyIndex(ALPHA_FAMILY))).isEqualTo(alpha.individualIndex(ALPHA_HUSBAND));
+        assertThat(alpha.individualIndex(BETA_INDIVIDUAL)).isEqualTo(FamilyGraph.NONE);
+        assertThat(alpha.findIndividualIdByPersonId(fixture.betaPersonId)).isNull();
+
+        assertThat(beta.findIndividualIdByPersonId(fixture.betaPersonId)).isEqualTo(BETA_INDIVIDUAL);
+        assertThat(beta.individualIndex(ALPHA_HUSBAND)).isEqualTo(FamilyGraph.NONE);
+        assertThat(beta.familyIndex(ALPHA_FAMILY)).isEqualTo(FamilyGraph.NONE);
+    }
+
+    @Test
+    @DisplayName("Graphs are cached per organization")
+    void graphIsCachedPerOrganization() {
+        FamilyGraph alpha = as(fixture.alphaOrgId, familyGraphCache::get);
+
+        assertThat(as(fixture.alphaOrgId, familyGraphCache::get)).isSameAs(alpha);
+        assertThat(as(fixture.betaOrgId, familyGraphCache::get)).isNotSameAs(alpha);
+    }
+
+    @Test
+    @DisplayName("A committed change reloads the organization's graph only")
+    void committedChangeReloadsTheOrganizationOnly() {
+        FamilyGraph alpha = as(fixture.alphaOrgId, familyGraphCache::get);
+        FamilyGraph beta = as(fixture.betaOrgId, familyGraphCache::get);
+
+        as(fixture.alphaOrgId, () -> new TransactionTemplate(transactionManager).execute(status -> {
+            insertIndividual(ALPHA_ADDED, "F", fixture.alphaOrgId);
+            eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
+            // Not dropped before the commit: another reader could re-cache the old rows
+            assertThat(familyGraphCache.get()).isSameAs(alpha);
+            return null;
+        }));
+
+        FamilyGraph reloaded = as(fixture.alphaOrgId, familyGraphCache::get);
+        assertThat(reloaded).isNotSameAs(alpha);
+        assertThat(reloaded.individualIndex(ALPHA_ADDED)).isNotEqualTo(FamilyGraph.NONE);
+        assertThat(as(fixture.betaOrgId, familyGraphCache::get)).isSameAs(beta);
+    }
+
+    @Test
+    @DisplayName("A rolled-back change keeps the cached graph")
+    void rolledBackChangeKeepsTheGraph() {
+        FamilyGraph alpha = as(fixture.alphaOrgId, familyGraphCache::get);
+
+        as(fixture.alphaOrgId, () -> new TransactionTemplate(transactionManager).execute(status -> {
+            insertIndividual(ALPHA_ADDED, "F", fixture.alphaOrgId);
+            eventPublisher.publishEvent(FamilyGraphChangedEvent.forCurrentOrganization());
+            status.setRollbackOnly();
+            return null;
+        }));
+
+        assertThat(as(fixture.alphaOrgId, familyGraphCache::get)).isSameAs(alpha);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private static <T> T as(long organizationId, Supplier<T> call) {
+        TenantContext.setCurrentOrganizationId(organizationId);
+        try {
+            return call.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private void insertIndividual(String id, String sex, long organizationId) {
+        jdbc.update("INSERT INTO gedcom_individuals (id, given_name, surname, sex, organization_id) VALUES (?, ?, 'Graph IT', ?, ?)",
+            id, "Given " + id, sex, organizationId);
+    }
+}
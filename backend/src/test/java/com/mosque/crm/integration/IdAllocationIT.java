@@ -0,0 +1,144 @@
+package com.mosque.crm.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mosque.crm.entity.ExpenseTag;
+import com.mosque.crm.entity.IdAllocation;
+import com.mosque.crm.integration.fixtures.StatementRecorder;
+import com.mosque.crm.integration.fixtures.StatementRecorder.RecordedStatement;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.repository.ExpenseTagRepository;
+
+/**
+ * Pooled {@code sequences_} id allocation through a real entity generator
+ * ({@link ExpenseTag}, {@code expense_tag_seq}).
+ * <p>
+ * A reserved block of {@link IdAllocation#BLOCK_SIZE} ids serves that many
+ * inserts from memory, so sequences_ is touched once per block and the inserts
+ * are batched. Concurrent writers never receive the same id, and the stored
+ * PK_VALUE stays the high-water mark the startup sync relies on. Scratch tags
+ * belong to the alpha tenant and are removed after each test.
+ */
+@DisplayName("sequences_ id allocation")
+@Import(StatementRecorder.class)
+class IdAllocationIT extends BaseIT {
+
+    private static final String SEGMENT = "expense_tag_seq";
+    private static final int ROWS = 120;
+    // Each writer holds one connection plus one for its isolated reservations (pool size 10)
+    private static final int WRITERS = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExpenseTagRepository expenseTagRepository;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @AfterEach
+    void removeTags() {
+        jdbcTemplate.update("DELETE FROM org_expense_tags WHERE organization_id = ? AND name LIKE 'IT id %'",
+                fixture.alphaOrgId);
+    }
+
+    @Test
+    @DisplayName("One sequences_ reservation serves a whole block of inserts")
+    void aReservedBlockServesManyInserts() {
+        List<Long> ids = new ArrayList<>();
+        List<RecordedStatement> statements = statementRecorder.record(() -> ids.addAll(saveTags("single", ROWS)));
+
+        assertThat(new HashSet<>(ids)).hasSize(ROWS);
+        // ceil(120 / 50) = 3 blocks; an id left over from an earlier block can only lower that
+        int blocks = (ROWS + IdAllocation.BLOCK_SIZE - 1) / IdAllocation.BLOCK_SIZE;
+        assertThat(count(statements, "update sequences_")).isBetween(blocks - 1L, (long) blocks);
+        // JDBC batches of hibernate.jdbc.batch_size (50), not one statement per row
+        assertThat(count(statements, "insert into org_expense_tags")).isBetween(1L, (long) blocks);
+        // Ids of one block are handed out consecutively (plus the leftover block, if any)
+        assertThat(contiguousRuns(ids)).isLessThanOrEqualTo(blocks + 1);
+    }
+
+    @Test
+    @DisplayName("Concurrent writers never receive the same id")
+    void concurrentWritersNeverShareAnId() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                String writer = "writer" + w;
+                futures.add(pool.submit(() -> saveTags(writer, ROWS)));
+            }
+            for (Future<List<Long>> future : futures) {
+                ids.addAll(future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(new HashSet<>(ids)).hasSize(WRITERS * ROWS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM org_expense_tags WHERE organization_id = ? AND name LIKE 'IT id %'",
+                Integer.class, fixture.alphaOrgId)).isEqualTo(WRITERS * ROWS);
+        // pooled-lo stores the end of the last block handed out: never below an issued id
+        Long storedValue = jdbcTemplate.queryForObject(
+                "SELECT PK_VALUE FROM sequences_ WHERE PK_NAME = ?", Long.class, SEGMENT);
+        assertThat(storedValue).isGreaterThanOrEqualTo(ids.stream().mapToLong(Long::longValue).max().orElseThrow());
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    /** Save {@code rows} tags in one transaction as the alpha tenant; returns their ids in save order. */
+    private List<Long> saveTags(String prefix, int rows) {
+        TenantContext.setCurrentOrganizationId(fixture.alphaOrgId);
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                List<ExpenseTag> tags = new ArrayList<>();
+                for (int i = 0; i < rows; i++) {
+                    ExpenseTag tag = new ExpenseTag();
+                    tag.setName("IT id " + prefix + " " + i);
+                    tags.add(tag);
+                }
+                return expenseTagRepository.saveAll(tags).stream().map(ExpenseTag::getId).toList();
+            });
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static long count(List<RecordedStatement> statements, String prefix) {
+        return statements.stream()
+                .filter(statement -> statement.sql().trim().toLowerCase().startsWith(prefix))
+                .count();
+    }
+
+    private static int contiguousRuns(List<Long> ids) {
+        int runs = 1;
+        for (int i = 1; i < ids.size(); i++) {
+            if (ids.get(i) != ids.get(i - 1) + 1) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+}
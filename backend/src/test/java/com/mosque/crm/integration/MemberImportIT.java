@@ -0,0 +1,170 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.dto.ExcelImportResult;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.service.ExcelImportService;
+import com.mosque.crm.service.MemberImportListener;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Member import of a generated .xlsx sheet into the fixture tenants.
+ *
+ * Verifies: every row becomes one person of the importing organization with a
+ * GEDCOM individual, link and membership; importing the same sheet again
+ * updates those persons instead of duplicating them; a same-named person of
+ * another organization is never matched; and the plan's member limit caps the
+ * import. Imported rows are removed after each test.
+ */
+@DisplayName("Member import")
+class MemberImportIT extends BaseIT {
+
+    private static final int ROWS = 120;
+    private static final String LAST_NAME = "ImportIT";
+
+    @Autowired
+    private ExcelImportService excelImportService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void removeImportedPersons() {
+        for (long organizationId : new long[] {fixture.alphaOrgId, fixture.betaOrgId, fixture.starterOrgId}) {
+            String persons = "SELECT id FROM persons WHERE organization_id = " + organizationId
+                + " AND last_name LIKE '" + LAST_NAME + "%'";
+            jdbc.update("DELETE FROM memberships WHERE person_id IN (" + persons + ")");
+            jdbc.update("DELETE l, i FROM gedcom_person_links l JOIN gedcom_individuals i ON i.id = l.gedcom_individual_id "
+                + "WHERE l.person_id IN (" + persons + ")");
+            jdbc.update("DELETE FROM persons WHERE organization_id = ? AND last_name LIKE ?", organizationId, LAST_NAME + "%");
+        }
+    }
+
+    @Test
+    @DisplayName("Each row becomes one person of the organization, with individual, link and membership")
+    void rowsBecomePersonsOfTheOrganization() throws IOException {
+        ExcelImportResult result = importAs(fixture.alphaOrgId, workbook());
+
+        assertThat(result.getCreated()).isEqualTo(ROWS);
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(imported(fixture.alphaOrgId)).isEqualTo(ROWS);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM gedcom_person_links l JOIN persons p ON p.id = l.person_id "
+            + "WHERE p.organization_id = ? AND p.last_name LIKE ? AND l.organization_id = p.organization_id",
+            Integer.class, fixture.alphaOrgId, LAST_NAME + "%")).isEqualTo(ROWS);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM memberships m JOIN persons p ON p.id = m.person_id "
+            + "WHERE p.organization_id = ? AND p.last_name LIKE ? AND m.organization_id = p.organization_id",
+            Integer.class, fixture.alphaOrgId, LAST_NAME + "%")).isEqualTo(ROWS);
+    }
+
+    @Test
+    @DisplayName("Importing the same sheet again updates the persons instead of duplicating them")
+    void reimportUpdatesInsteadOfDuplicating() throws IOException {
+        File sheet = workbook();
+        importAs(fixture.alphaOrgId, sheet);
+
+        ExcelImportResult again = importAs(fixture.alphaOrgId, sheet);
+
+        assertThat(again.getCreated()).isZero();
+        assertThat(again.getUpdated()).isEqualTo(ROWS);
+        assertThat(again.getWarnings()).hasSize(ROWS);
+        assertThat(imported(fixture.alphaOrgId)).isEqualTo(ROWS);
+    }
+
+    @Test
+    @DisplayName("A same-named person of another organization is never matched")
+    void otherOrganizationsPersonsAreNotMatched() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        jdbc.update("INSERT INTO persons (first_name, last_name, date_of_birth, status, hash, organization_id, "
+            + "created_at, updated_at) VALUES ('First 1', ?, '1980-01-02', 'ACTIVE', ?, ?, ?, ?)",
+            LAST_NAME + " 1", UUID.randomUUID().toString(), fixture.betaOrgId, now, now);
+
+        ExcelImportResult result = importAs(fixture.alphaOrgId, workbook());
+
+        assertThat(result.getCreated()).isEqualTo(ROWS);
+        assertThat(imported(fixture.betaOrgId)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT phone FROM persons WHERE organization_id = ? AND last_name = ?",
+            String.class, fixture.betaOrgId, LAST_NAME + " 1")).isNull();
+    }
+
+    @Test
+    @DisplayName("The plan's member limit caps the import")
+    void memberLimitCapsTheImport() throws IOException {
+        int existing = jdbc.queryForObject("SELECT COUNT(*) FROM persons WHERE organization_id = ?",
+            Integer.class, fixture.starterOrgId);
+        // Starter plan: at most 100 members
+        int room = Math.max(0, 100 - existing);
+
+        ExcelImportResult result = importAs(fixture.starterOrgId, workbook());
+
+        assertThat(result.getCreated()).isEqualTo(Math.min(room, ROWS));
+        assertThat(result.getErrors()).hasSize(ROWS - Math.min(room, ROWS))
+            .allMatch(error -> error.contains("Member limit of 100 reached"));
+        assertThat(imported(fixture.starterOrgId)).isEqualTo(Math.min(room, ROWS));
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private ExcelImportResult importAs(long organizationId, File sheet) {
+        TenantContext.setCurrentOrganizationId(organizationId);
+        try {
+            return excelImportService.importFile(sheet, "members.xlsx", MemberImportListener.NONE);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private int imported(long organizationId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM persons WHERE organization_id = ? AND last_name LIKE ?",
+            Integer.class, organizationId, LAST_NAME + "%");
+    }
+
+    /** A member list of {@link #ROWS} men, with the columns the import expects. */
+    private File workbook() throws IOException {
+        Path path = Files.createTempFile(tempDir, "members", ".xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(path)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd-mm-yyyy"));
+            Sheet sheet = workbook.createSheet("Leden");
+            Row header = sheet.createRow(0);
+            String[] headers = { "NAAM", "VOORNAMEN", "GEB.DAT.", "GESL", "Mobiel no" };
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            for (int i = 1; i <= ROWS; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(LAST_NAME + " " + i);
+                row.createCell(1).setCellValue("First " + i);
+                row.createCell(2).setCellValue(LocalDate.of(1980, 1, 2));
+                row.getCell(2).setCellStyle(dateStyle);
+                row.createCell(3).setCellValue("M");
+                row.createCell(4).setCellValue(12345);
+            }
+            workbook.write(out);
+        }
+        return path.toFile();
+    }
+}
@@ -0,0 +1,190 @@
+package com.mosque.crm.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mosque.crm.integration.fixtures.StatementRecorder;
+import com.mosque.crm.integration.fixtures.StatementRecorder.RecordedStatement;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.repository.MemberPaymentRepository;
+
+/**
+ * Query-plan regression for the year-scoped payment queries.
+ * <p>
+ * The alpha tenant is seeded with ten years of payments for many persons and
+ * contribution types, and the table analyzed. Each repository method is then
+ * called as the alpha tenant, so the organization filter is applied, and every
+ * statement it sends to {@code member_payments} is explained as sent, with its
+ * own parameters and no index hint. The optimizer must pick the composite
+ * index meant for it and seek the date bounds ({@code range}).
+ */
+@DisplayName("Member payment query plans")
+@Import(StatementRecorder.class)
+class MemberPaymentQueryPlanIT extends BaseIT {
+
+    private static final int PERSONS = 40;
+    private static final int TYPES = 3;
+    private static final int FIRST_YEAR = 2016;
+    private static final int YEARS = 10;
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = FROM.plusYears(1);
+    private static final Pattern PAYMENTS_ALIAS = Pattern.compile("member_payments (\\w+)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberPaymentRepository paymentRepository;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    private final List<Long> personIds = new ArrayList<>();
+    private final List<Long> typeIds = new ArrayList<>();
+    private Long currencyId;
+
+    @BeforeAll
+    void seedPayments() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO currencies (code, name, symbol) VALUES ('XTS', 'Query plan IT', 'T')");
+        currencyId = jdbcTemplate.queryForObject("SELECT id FROM currencies WHERE code = 'XTS'", Long.class);
+        for (int t = 0; t < TYPES; t++) {
+            String code = "IT_PLAN_" + t;
+            jdbcTemplate.update("INSERT INTO contribution_types (code, is_required, is_active, organization_id) "
+                    + "VALUES (?, FALSE, TRUE, ?)", code, fixture.alphaOrgId);
+            typeIds.add(jdbcTemplate.queryForObject(
+                    "SELECT id FROM contribution_types WHERE code = ? AND organization_id = ?",
+                    Long.class, code, fixture.alphaOrgId));
+        }
+        for (int p = 0; p < PERSONS; p++) {
+            String email = "it-plan-p" + p + "@test.invalid";
+            jdbcTemplate.update("INSERT INTO persons (first_name, last_name, email, status, hash, organization_id, "
+                    + "created_at, updated_at) VALUES (?, 'QueryPlan', ?, 'ACTIVE', ?, ?, ?, ?)",
+                    "Payer" + p, email, UUID.randomUUID().toString(), fixture.alphaOrgId, now, now);
+            personIds.add(jdbcTemplate.queryForObject("SELECT id FROM persons WHERE email = ?", Long.class, email));
+        }
+
+        // One payment per person, type and quarter: 10% of the tenant's rows fall in any one year
+        List<Object[]> payments = new ArrayList<>();
+        for (Long personId : personIds) {
+            for (Long typeId : typeIds) {
+                for (int y = 0; y < YEARS; y++) {
+                    for (int q = 0; q < 4; q++) {
+                        LocalDate period = LocalDate.of(FIRST_YEAR + y, 1 + q * 3, 1);
+                        payments.add(new Object[] { personId, typeId, new BigDecimal("25.00"), period.plusDays(5),
+                                period, period.plusMonths(3).minusDays(1), period, currencyId, fixture.alphaOrgId, now });
+                    }
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO member_payments (person_id, contribution_type_id, amount, payment_date, "
+                + "period_from, period_to, effective_date, currency_id, is_reversal, organization_id, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, FALSE, ?, ?)", payments);
+        jdbcTemplate.queryForList("ANALYZE TABLE member_payments");
+    }
+
+    // Runs before BaseIT.tearDownFixtures removes the alpha tenant
+    @AfterAll
+    void removePayments() {
+        jdbcTemplate.update("DELETE FROM member_payments WHERE organization_id = ? AND currency_id = ?",
+                fixture.alphaOrgId, currencyId);
+        jdbcTemplate.update("DELETE FROM persons WHERE organization_id = ? AND last_name = 'QueryPlan'",
+                fixture.alphaOrgId);
+        jdbcTemplate.update("DELETE FROM contribution_types WHERE organization_id = ? AND code LIKE 'IT_PLAN_%'",
+                fixture.alphaOrgId);
+        jdbcTemplate.update("DELETE FROM currencies WHERE code = 'XTS'");
+    }
+
+    @Test
+    @DisplayName("Report person count seeks (organization, effective date, person)")
+    void reportPersonCountSeeksTheEffectiveDateIndex() {
+        List<RecordedStatement> statements = recordAsAlpha(() -> paymentRepository.countPersonsForReport(FROM, TO));
+
+        assertPlans(statements, "idx_mempay_org_effective_person");
+    }
+
+    @Test
+    @DisplayName("A person's payments for a year seek (organization, person, effective date)")
+    void personYearSeeksThePersonIndex() {
+        List<RecordedStatement> statements = recordAsAlpha(() -> paymentRepository
+                .findByPersonIdAndEffectiveDateRange(personIds.get(0), FROM, TO, PageRequest.of(0, 5)));
+
+        assertPlans(statements, "idx_mempay_org_person_effective");
+    }
+
+    @Test
+    @DisplayName("A contribution type's payments for a year seek (organization, type, effective date)")
+    void contributionTypeYearSeeksTheTypeIndex() {
+        List<RecordedStatement> statements = recordAsAlpha(() -> paymentRepository
+                .findByContributionTypeIdAndEffectiveDateRange(typeIds.get(0), FROM, TO, PageRequest.of(0, 5)));
+
+        assertPlans(statements, "idx_mempay_org_type_effective");
+    }
+
+    @Test
+    @DisplayName("The monthly summary seeks (organization, payment date)")
+    void monthlySummarySeeksThePaymentDateIndex() {
+        List<RecordedStatement> statements = recordAsAlpha(() -> paymentRepository
+                .findMonthlySummaryByPaymentDateRange(FROM, TO));
+
+        assertPlans(statements, "idx_mempay_org_payment_date");
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    /** Run a repository call in a read-only transaction as the alpha tenant; return the payment statements sent. */
+    private List<RecordedStatement> recordAsAlpha(Runnable call) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        TenantContext.setCurrentOrganizationId(fixture.alphaOrgId);
+        try {
+            return statementRecorder.record(() -> transaction.executeWithoutResult(status -> call.run())).stream()
+                    .filter(statement -> PAYMENTS_ALIAS.matcher(statement.sql()).find())
+                    .toList();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /** Every statement is tenant-filtered and reads {@code member_payments} by a range on {@code index}. */
+    private void assertPlans(List<RecordedStatement> statements, String index) {
+        assertThat(statements).isNotEmpty();
+        for (RecordedStatement statement : statements) {
+            assertThat(statement.sql()).contains("organization_id");
+            Matcher alias = PAYMENTS_ALIAS.matcher(statement.sql());
+            assertThat(alias.find()).isTrue();
+
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList(
+                    "EXPLAIN " + statement.sql(), statement.parameterValues());
+            Map<String, Object> payments = plan.stream()
+                    .filter(row -> alias.group(1).equals(row.get("table")))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("No member_payments row in plan " + plan));
+            assertThat(payments.get("key")).as(statement.sql()).isEqualTo(index);
+            assertThat(payments.get("type")).as(statement.sql()).isEqualTo("range");
+        }
+    }
+}
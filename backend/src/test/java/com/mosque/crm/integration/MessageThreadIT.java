@@ -0,0 +1,169 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.dto.ConversationSummaryDTO;
+import com.mosque.crm.dto.InboxPageDTO;
+import com.mosque.crm.dto.MessageDTO;
+import com.mosque.crm.dto.SendMessageDTO;
+import com.mosque.crm.integration.fixtures.StatementRecorder;
+import com.mosque.crm.integration.fixtures.StatementRecorder.RecordedStatement;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.service.MessageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Message thread summaries (message_threads) between the alpha admin and member.
+ *
+ * Verifies: both participants get the thread, only the recipient's copy counts
+ * it as unread, read and delete actions keep the summary in step with the
+ * messages, and the inbox is read with a fixed number of statements.
+ * Messages and threads of the alpha tenant are removed after each test.
+ */
+@DisplayName("Message threads")
+@Import(StatementRecorder.class)
+class MessageThreadIT extends BaseIT {
+
+    private static final String SUBJECT = "Ramadan schedule";
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void removeMessages() {
+        jdbc.update("DELETE FROM message_threads WHERE organization_id = ?", fixture.alphaOrgId);
+        jdbc.update("DELETE FROM messages WHERE organization_id = ?", fixture.alphaOrgId);
+    }
+
+    @Test
+    @DisplayName("Both participants get the thread; only the recipient's copy is unread")
+    void repliesShareOneThreadPerParticipant() {
+        send(fixture.alphaAdminUserId, fixture.alphaMemberUserId, SUBJECT);
+        send(fixture.alphaMemberUserId, fixture.alphaAdminUserId, "RE: " + SUBJECT);
+        MessageDTO last = send(fixture.alphaAdminUserId, fixture.alphaMemberUserId, "Re: RE: " + SUBJECT);
+
+        ConversationSummaryDTO member = onlyThread(fixture.alphaMemberUserId);
+        assertThat(member.getOtherUserId()).isEqualTo(fixture.alphaAdminUserId);
+        assertThat(member.getOtherUserName()).isEqualTo("test_alpha_admin");
+        assertThat(member.getBaseSubject()).isEqualTo(SUBJECT);
+        assertThat(member.getUnreadCount()).isEqualTo(2L);
+        assertThat(member.getLastMessage().getId()).isEqualTo(last.getId());
+
+        ConversationSummaryDTO admin = onlyThread(fixture.alphaAdminUserId);
+        assertThat(admin.getOtherUserId()).isEqualTo(fixture.alphaMemberUserId);
+        assertThat(admin.getUnreadCount()).isEqualTo(1L);
+        assertThat(admin.getLastMessage().getId()).isEqualTo(last.getId());
+    }
+
+    @Test
+    @DisplayName("Reading keeps the thread's unread count in step with the messages")
+    void readingUpdatesTheUnreadCount() {
+        MessageDTO first = send(fixture.alphaAdminUserId, fixture.alphaMemberUserId, SUBJECT);
+        send(fixture.alphaAdminUserId, fixture.alphaMemberUserId, "RE: " + SUBJECT);
+
+        as(fixture.alphaOrgId, () -> {
+            messageService.markRead(first.getId(), fixture.alphaMemberUserId);
+            messageService.markRead(first.getId(), fixture.alphaMemberUserId);
+        });
+        assertThat(onlyThread(fixture.alphaMemberUserId).getUnreadCount()).isEqualTo(1L);
+
+        as(fixture.alphaOrgId, () ->
+            messageService.markThreadAsRead(fixture.alphaMemberUserId, fixture.alphaAdminUserId, "RE: " + SUBJECT));
+        assertThat(onlyThread(fixture.alphaMemberUserId).getUnreadCount()).isZero();
+        assertThat(as(fixture.alphaOrgId, () -> messageService.getUnreadCount(fixture.alphaMemberUserId))).isZero();
+    }
+
+    @Test
+    @DisplayName("Deleting a thread removes it for both participants")
+    void deletingRemovesTheThreadForBoth() {
+        send(fixture.alphaAdminUserId, fixture.alphaMemberUserId, SUBJECT);
+        send(fixture.alphaMemberUserId, fixture.alphaAdminUserId, "RE: " + SUBJECT);
+
+        as(fixture.alphaOrgId, () ->
+            messageService.deleteThread(fixture.alphaMemberUserId, fixture.alphaAdminUserId, "RE: " + SUBJECT));
+
+        assertThat(inbox(fixture.alphaMemberUserId, fixture.alphaOrgId).getContent()).isEmpty();
+        assertThat(inbox(fixture.alphaAdminUserId, fixture.alphaOrgId).getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("The inbox is a fixed number of statements, however many threads it lists")
+    void inboxIsAFixedNumberOfStatements() {
+        for (int i = 0; i < 12; i++) {
+            send(fixture.alphaAdminUserId, fixture.alphaMemberUserId, "Notice " + i);
+        }
+        send(null, fixture.alphaMemberUserId, "Payment received");
+
+        List<InboxPageDTO> page = new ArrayList<>();
+        List<RecordedStatement> statements = statementRecorder.record(
+            () -> page.add(inbox(fixture.alphaMemberUserId, fixture.alphaOrgId)));
+
+        List<ConversationSummaryDTO> threads = page.get(0).getContent();
+        assertThat(threads).hasSize(13);
+        assertThat(threads).filteredOn(thread -> thread.getOtherUserId() == null)
+            .extracting(ConversationSummaryDTO::getOtherUserName).containsExactly("System");
+        // Page and count queries, then one batched name lookup by link and one by username
+        assertThat(statements).hasSizeLessThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Threads are listed only in their own organization")
+    void inboxIsScopedToTheOrganization() {
+        send(fixture.alphaAdminUserId, fixture.alphaMemberUserId, SUBJECT);
+
+        assertThat(inbox(fixture.alphaMemberUserId, fixture.betaOrgId).getContent()).isEmpty();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private MessageDTO send(Long senderId, Long recipientId, String subject) {
+        SendMessageDTO dto = new SendMessageDTO();
+        dto.setRecipientId(recipientId);
+        dto.setSubject(subject);
+        dto.setBody("As salamu alaykum");
+        return as(fixture.alphaOrgId, () -> messageService.sendMessage(senderId, fixture.alphaOrgId, dto));
+    }
+
+    private InboxPageDTO inbox(Long userId, long organizationId) {
+        return as(organizationId, () -> messageService.getInbox(userId, organizationId, 0, 20));
+    }
+
+    private ConversationSummaryDTO onlyThread(Long userId) {
+        List<ConversationSummaryDTO> threads = inbox(userId, fixture.alphaOrgId).getContent();
+        assertThat(threads).hasSize(1);
+        return threads.get(0);
+    }
+
+    private static void as(long organizationId, Runnable call) {
+        as(organizationId, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private static <T> T as(long organizationId, Supplier<T> call) {
+        TenantContext.setCurrentOrganizationId(organizationId);
+        try {
+            return call.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
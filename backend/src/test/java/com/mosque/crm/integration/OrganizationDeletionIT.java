@@ -0,0 +1,151 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.dto.OrganizationDeletionJobDTO;
+import com.mosque.crm.service.OrganizationDeletionService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deleting a scratch organization (not one of the fixture tenants) through
+ * the background purge job.
+ *
+ * Verifies: after the job completes no table holds a row of the organization,
+ * rows reached only through its users (user_roles) are gone too, and the
+ * fixture tenants keep every row.
+ *
+ * Note: the scratch data holds no storage keys, so no Minio server is needed.
+ */
+@DisplayName("Organization deletion")
+class OrganizationDeletionIT extends BaseIT {
+
+    private static final String HANDLE = "it-test-purge";
+    private static final long TIMEOUT_MS = 120_000;
+
+    @Autowired
+    private OrganizationDeletionService deletionService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long organizationId;
+    private long userId;
+
+    @BeforeAll
+    void createScratchOrganization() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbc.update("INSERT INTO organizations (name, handle, active, created_at, updated_at) VALUES (?,?,?,?,?)",
+            "IT Test Purge Mosque", HANDLE, true, now, now);
+        organizationId = jdbc.queryForObject("SELECT id FROM organizations WHERE handle = ?", Long.class, HANDLE);
+        jdbc.update("INSERT INTO organization_subscriptions (organization_id, plan_id, billing_cycle, status, starts_at, "
+                + "auto_renew, billing_enabled, created_at, updated_at) VALUES (?,?,?,?,?,?,?,?,?)",
+            organizationId, 3L, "MONTHLY", "ACTIVE", now, true, false, now, now);
+
+        jdbc.update("INSERT INTO users (username, password, email, account_enabled, account_locked, credentials_expired, "
+                + "must_change_password, organization_id, created_at, updated_at) VALUES (?,?,?,?,?,?,?,?,?,?)",
+            "test_purge_admin", "-", "it-purge-admin@test.invalid", true, false, false, false, organizationId, now, now);
+        userId = jdbc.queryForObject("SELECT id FROM users WHERE username = 'test_purge_admin'", Long.class);
+        jdbc.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, 1)", userId);
+
+        for (int i = 1; i <= 3; i++) {
+            jdbc.update("INSERT INTO persons (first_name, last_name, email, status, hash, organization_id, created_at, "
+                    + "updated_at) VALUES (?,?,?,?,?,?,?,?)",
+                "Purge", "Person" + i, "it-purge-p" + i + "@test.invalid", "ACTIVE", UUID.randomUUID().toString(),
+                organizationId, now, now);
+        }
+        jdbc.update("INSERT INTO org_document_folders (organization_id, name, owner_user_id, visibility, created_at, "
+            + "updated_at) VALUES (?,?,?,?,?,?)", organizationId, "Purge Docs", userId, "ORGANIZATION", now, now);
+        Long folderId = jdbc.queryForObject("SELECT id FROM org_document_folders WHERE organization_id = ?",
+            Long.class, organizationId);
+        jdbc.update("INSERT INTO org_documents (organization_id, folder_id, title, document_type, file_size, status, "
+                + "visibility, owner_user_id, version_count, expiry_notification_sent, created_at, updated_at) "
+                + "VALUES (?,?,?,?,?,?,?,?,?,?,?,?)",
+            organizationId, folderId, "Purge Doc", "RICH_TEXT", 0L, "ACTIVE", "ORGANIZATION", userId, 1, false, now, now);
+        jdbc.update("INSERT INTO org_document_search_index (document_id, organization_id, title, body_pending) "
+            + "SELECT id, organization_id, title, FALSE FROM org_documents WHERE organization_id = ?", organizationId);
+        jdbc.update("INSERT INTO `groups` (name, organization_id, created_at) VALUES (?,?,?)",
+            "Purge Group", organizationId, now);
+        jdbc.update("INSERT INTO gedcom_individuals (id, given_name, surname, sex, organization_id) "
+            + "VALUES ('@IT-PURGE1@', 'Purge', 'Person1', 'M', ?)", organizationId);
+        jdbc.update("INSERT INTO gedcom_person_links (person_id, gedcom_individual_id, organization_id) "
+            + "SELECT id, '@IT-PURGE1@', organization_id FROM persons WHERE email = 'it-purge-p1@test.invalid'");
+    }
+
+    // Runs before BaseIT.tearDownFixtures; the organization itself is removed by the job
+    @AfterAll
+    void removeJob() {
+        jdbc.update("DELETE FROM organization_deletion_jobs WHERE target_organization_id = ?", organizationId);
+    }
+
+    @Test
+    @DisplayName("The purge removes every row of the organization and none of the other tenants")
+    void purgeRemovesOnlyTheOrganizationsRows() {
+        Map<String, Integer> alphaBefore = rowsOf(fixture.alphaOrgId);
+        Map<String, Integer> betaBefore = rowsOf(fixture.betaOrgId);
+        assertThat(rowsOf(organizationId)).containsEntry("persons", 3).containsEntry("org_documents", 1);
+
+        OrganizationDeletionJobDTO job = deletionService.requestDeletion(organizationId, fixture.alphaAdminUserId)
+            .orElseThrow();
+        OrganizationDeletionJobDTO finished = awaitFinished(job.getId());
+
+        assertThat(finished.getError()).isNull();
+        assertThat(finished.getStatus()).isEqualTo("COMPLETED");
+        assertThat(finished.getStepsDone()).isEqualTo(finished.getStepsTotal());
+        assertThat(finished.getRowsDeleted()).isGreaterThanOrEqualTo(8L);
+        assertThat(rowsOf(organizationId)).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM organizations WHERE id = ?", Integer.class, organizationId))
+            .isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM user_roles WHERE user_id = ?", Integer.class, userId))
+            .isZero();
+        assertThat(rowsOf(fixture.alphaOrgId)).isEqualTo(alphaBefore);
+        assertThat(rowsOf(fixture.betaOrgId)).isEqualTo(betaBefore);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────────────────────
+
+    /** Row counts of the organization per table with an organization_id column, omitting empty tables. */
+    private Map<String, Integer> rowsOf(long orgId) {
+        List<String> tables = jdbc.queryForList("SELECT DISTINCT table_name FROM information_schema.columns "
+            + "WHERE table_schema = DATABASE() AND column_name = 'organization_id' AND table_name <> 'organizations'",
+            String.class);
+        Map<String, Integer> rows = new HashMap<>();
+        for (String table : tables) {
+            int count = jdbc.queryForObject("SELECT COUNT(*) FROM `" + table + "` WHERE organization_id = ?",
+                Integer.class, orgId);
+            if (count > 0) {
+                rows.put(table, count);
+            }
+        }
+        return rows;
+    }
+
+    private OrganizationDeletionJobDTO awaitFinished(Long jobId) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (true) {
+            OrganizationDeletionJobDTO job = deletionService.getJob(jobId);
+            if ("COMPLETED".equals(job.getStatus()) || "FAILED".equals(job.getStatus())) {
+                return job;
+            }
+            assertThat(System.currentTimeMillis()).as("deletion job finished in time").isLessThan(deadline);
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.mosque.crm.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mosque.crm.dto.ParcelDistributionBatchResultDTO;
+import com.mosque.crm.dto.ParcelDistributionCreateDTO;
+import com.mosque.crm.enums.RecipientType;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.service.DistributionService;
+
+/**
+ * Parcel stock and recipient status under concurrent distribution desks.
+ * <p>
+ * Desks call {@link DistributionService#distribute} and
+ * {@link DistributionService#distributeBatch} at once, for more recipients than
+ * the category has parcels. The stock must stop exactly at its total, a refused
+ * hand-out must leave no trace, a recipient collected by several desks at once
+ * is collected exactly once, and a request key sent by several desks at once is
+ * recorded once and replayed to the others. Scratch rows belong to the alpha
+ * tenant and are removed afterwards.
+ */
+@DisplayName("Parcel distribution concurrency")
+class ParcelInventoryConcurrencyIT extends BaseIT {
+
+    private static final long EVENT_ID = 990_000_001L;
+    private static final long CATEGORY_ID = 990_000_001L;
+    private static final long FIRST_RECIPIENT_ID = 990_000_001L;
+    private static final int TOTAL_PARCELS = 300;
+    private static final int RECIPIENTS = 400;
+    // Each desk holds one connection (pool size 10)
+    private static final int DESKS = 8;
+    private static final int BATCH_SIZE = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @BeforeAll
+    void setUpEvent() {
+        removeEvent();
+        jdbcTemplate.update("INSERT INTO org_events (id, year, name, event_type, status, organization_id) "
+                + "VALUES (?, 2026, 'Concurrency IT', 'EID_UL_ADHA_DISTRIBUTION', 'ACTIVE', ?)",
+                EVENT_ID, fixture.alphaOrgId);
+        jdbcTemplate.update("INSERT INTO org_event_categories "
+                + "(id, event_id, name, total_parcels, distributed_parcels, organization_id) "
+                + "VALUES (?, ?, 'Eid parcels', ?, 0, ?)", CATEGORY_ID, EVENT_ID, TOTAL_PARCELS, fixture.alphaOrgId);
+        List<Object[]> recipients = new ArrayList<>();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            recipients.add(new Object[] { FIRST_RECIPIENT_ID + i, EVENT_ID, String.format("N-%03d", i + 1), fixture.alphaOrgId });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO org_event_recipients "
+                + "(id, event_id, distribution_number, name, status, organization_id) "
+                + "VALUES (?, ?, ?, 'Concurrency IT', 'REGISTERED', ?)", recipients);
+    }
+
+    // Runs before BaseIT.tearDownFixtures removes the alpha tenant
+    @AfterAll
+    void removeEvent() {
+        jdbcTemplate.update("DELETE FROM org_event_distributions WHERE event_id = ?", EVENT_ID);
+        jdbcTemplate.update("DELETE FROM org_event_recipients WHERE event_id = ?", EVENT_ID);
+        jdbcTemplate.update("DELETE FROM org_event_categories WHERE id = ?", CATEGORY_ID);
+        jdbcTemplate.update("DELETE FROM org_events WHERE id = ?", EVENT_ID);
+    }
+
+    @BeforeEach
+    void resetStock() {
+        jdbcTemplate.update("DELETE FROM org_event_distributions WHERE event_id = ?", EVENT_ID);
+        jdbcTemplate.update("UPDATE org_event_categories SET distributed_parcels = 0 WHERE id = ?", CATEGORY_ID);
+        jdbcTemplate.update("UPDATE org_event_recipients SET status = 'REGISTERED' WHERE event_id = ?", EVENT_ID);
+    }
+
+    @Test
+    @DisplayName("Concurrent desks stop exactly at the category total")
+    void concurrentDesksNeverOversell() throws Exception {
+        List<Callable<Integer>> desks = new ArrayList<>();
+        for (int d = 0; d < DESKS; d++) {
+            int deskNo = d;
+            List<ParcelDistributionCreateDTO> queue = new ArrayList<>();
+            for (int i = deskNo; i < RECIPIENTS; i += DESKS) {
+                queue.add(request(FIRST_RECIPIENT_ID + i, "desk-" + deskNo + "-" + i));
+            }
+            // Half the desks hand out one at a time, the other half in batches
+            desks.add(deskNo % 2 == 0 ? () -> distributeOneByOne(queue) : () -> distributeInBatches(queue));
+        }
+
+        int succeeded = runTogether(desks).stream().mapToInt(Integer::intValue).sum();
+
+        assertThat(succeeded).isEqualTo(TOTAL_PARCELS);
+        assertThat(distributedParcels()).isEqualTo(TOTAL_PARCELS);
+        assertThat(distributionRows()).isEqualTo(TOTAL_PARCELS);
+        // A refused hand-out rolls back its recipient transition as well
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM org_event_recipients WHERE event_id = ? AND status = 'COLLECTED'",
+                Integer.class, EVENT_ID)).isEqualTo(TOTAL_PARCELS);
+    }
+
+    @Test
+    @DisplayName("A recipient served by several desks at once is collected once")
+    void aRecipientIsCollectedOnceAcrossDesks() throws Exception {
+        List<Callable<String>> desks = new ArrayList<>();
+        for (int d = 0; d < DESKS; d++) {
+            ParcelDistributionCreateDTO dto = request(FIRST_RECIPIENT_ID, "same-recipient-" + d);
+            desks.add(() -> {
+                try {
+                    distributionService.distribute(dto);
+                    return null;
+                } catch (RuntimeException e) {
+                    return e.getMessage();
+                }
+            });
+        }
+
+        List<String> errors = runTogether(desks);
+
+        assertThat(errors).filteredOn(error -> error == null).hasSize(1);
+        assertThat(errors).filteredOn(error -> error != null)
+                .hasSize(DESKS - 1)
+                .allMatch("Non-member already collected parcels"::equals);
+        assertThat(distributedParcels()).isEqualTo(1);
+        assertThat(distributionRows()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A request key sent by several desks at once is recorded once and replayed")
+    void aReplayedRequestKeyIsRecordedOnce() throws Exception {
+        List<Callable<Long>> desks = new ArrayList<>();
+        for (int d = 0; d < DESKS; d++) {
+            ParcelDistributionCreateDTO dto = request(FIRST_RECIPIENT_ID, "retried-request");
+            desks.add(d % 2 == 0
+                    ? () -> distributionService.distribute(dto).getId()
+                    : () -> distributionService.distributeBatch(List.of(dto)).getResults().get(0).getDistribution().getId());
+        }
+
+        List<Long> ids = runTogether(desks);
+
+        assertThat(ids).doesNotContainNull().containsOnly(ids.get(0));
+        assertThat(distributedParcels()).isEqualTo(1);
+        assertThat(distributionRows()).isEqualTo(1);
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private int distributeOneByOne(List<ParcelDistributionCreateDTO> queue) {
+        int succeeded = 0;
+        for (ParcelDistributionCreateDTO dto : queue) {
+            try {
+                distributionService.distribute(dto);
+                succeeded++;
+            } catch (RuntimeException e) {
+                assertThat(e.getMessage()).startsWith("Not enough parcels available");
+            }
+        }
+        return succeeded;
+    }
+
+    private int distributeInBatches(List<ParcelDistributionCreateDTO> queue) {
+        int succeeded = 0;
+        for (int from = 0; from < queue.size(); from += BATCH_SIZE) {
+            ParcelDistributionBatchResultDTO result = distributionService.distributeBatch(
+                    queue.subList(from, Math.min(from + BATCH_SIZE, queue.size())));
+            for (ParcelDistributionBatchResultDTO.Item item : result.getResults()) {
+                if (item.getError() != null) {
+                    assertThat(item.getError()).startsWith("Not enough parcels available");
+                }
+            }
+            succeeded += result.getSucceeded();
+        }
+        return succeeded;
+    }
+
+    /** Start every desk together, each as the alpha tenant, and collect the results in desk order. */
+    private <T> List<T> runTogether(List<Callable<T>> desks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(desks.size());
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> desk : desks) {
+                futures.add(pool.submit(() -> {
+                    TenantContext.setCurrentOrganizationId(fixture.alphaOrgId);
+                    try {
+                        start.await();
+                        return desk.call();
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static ParcelDistributionCreateDTO request(long recipientId, String requestKey) {
+        ParcelDistributionCreateDTO dto = new ParcelDistributionCreateDTO();
+        dto.setDistributionEventId(EVENT_ID);
+        dto.setRecipientType(RecipientType.NON_MEMBER.name());
+        dto.setRecipientId(recipientId);
+        dto.setParcelCategoryId(CATEGORY_ID);
+        dto.setParcelCount(1);
+        dto.setDistributedBy("Concurrency IT");
+        dto.setRequestKey(requestKey);
+        return dto;
+    }
+
+    private int distributedParcels() {
+        return jdbcTemplate.queryForObject(
+                "SELECT distributed_parcels FROM org_event_categories WHERE id = ?", Integer.class, CATEGORY_ID);
+    }
+
+    private int distributionRows() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM org_event_distributions WHERE event_id = ?", Integer.class, EVENT_ID);
+    }
+}
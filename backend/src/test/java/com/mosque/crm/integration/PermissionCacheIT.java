@@ -0,0 +1,137 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.repository.PermissionRepository;
+import com.mosque.crm.repository.UserRoleRepository;
+import com.mosque.crm.security.PermissionCache;
+import com.mosque.crm.security.RolePermissionsChangedEvent;
+import com.mosque.crm.security.UserRolesChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Permission cache against the fixture users and the global ADMIN (1) and
+ * MEMBER (2) roles.
+ *
+ * Verifies: users holding the same roles share one resolved set across
+ * organizations, committed role assignment and role permission changes are
+ * picked up through their events, and the user level is bounded.
+ */
+@DisplayName("Permission cache")
+class PermissionCacheIT extends BaseIT {
+
+    private static final long ADMIN_ROLE = 1L;
+    private static final long MEMBER_ROLE = 2L;
+
+    @Autowired
+    private PermissionCache permissionCache;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    @DisplayName("Members of different organizations share one resolved permission set")
+    void usersWithTheSameRolesShareOneResolvedSet() {
+        PermissionCache cache = new PermissionCache(userRoleRepository, permissionRepository, 10, 10, 60_000);
+
+        Set<String> alpha = cache.get(fixture.alphaMemberUserId).getPermissions();
+        Set<String> beta = cache.get(fixture.betaMemberUserId).getPermissions();
+
+        assertThat(alpha).isEqualTo(permissionRepository.findPermissionCodesByRoleIds(Set.of(MEMBER_ROLE)));
+        assertThat(beta).isSameAs(alpha);
+        assertThat(cache.getStats()).containsEntry("roleSetMisses", 1L).containsEntry("roleSetHits", 1L);
+    }
+
+    @Test
+    @DisplayName("A committed role assignment change reloads the user's roles")
+    void roleAssignmentChangeReloadsTheUser() {
+        assertThat(permissionCache.get(fixture.alphaMemberUserId).getRoleIds()).containsExactly(MEMBER_ROLE);
+        try {
+            changeRole(fixture.alphaMemberUserId, ADMIN_ROLE);
+
+            assertThat(permissionCache.get(fixture.alphaMemberUserId).getRoleIds()).containsExactly(ADMIN_ROLE);
+            assertThat(permissionCache.get(fixture.alphaMemberUserId).getPermissions())
+                .isSameAs(permissionCache.get(fixture.alphaAdminUserId).getPermissions());
+        } finally {
+            changeRole(fixture.alphaMemberUserId, MEMBER_ROLE);
+        }
+        assertThat(permissionCache.get(fixture.alphaMemberUserId).getRoleIds()).containsExactly(MEMBER_ROLE);
+    }
+
+    @Test
+    @DisplayName("A committed role permission change reaches the role's holders only")
+    void rolePermissionChangeReloadsTheRolesSet() {
+        Map<String, Object> granted = jdbc.queryForMap(
+            "SELECT p.id, p.code FROM permissions p WHERE p.id NOT IN "
+                + "(SELECT rp.permission_id FROM role_permissions rp WHERE rp.role_id = ?) ORDER BY p.id LIMIT 1",
+            MEMBER_ROLE);
+        Set<String> adminPermissions = permissionCache.get(fixture.alphaAdminUserId).getPermissions();
+        assertThat(permissionCache.get(fixture.alphaMemberUserId).getPermissions()).doesNotContain((String) granted.get("code"));
+        try {
+            changeRolePermissions("INSERT INTO role_permissions (role_id, permission_id) VALUES (?, ?)", granted.get("id"));
+
+            assertThat(permissionCache.get(fixture.alphaMemberUserId).getPermissions()).contains((String) granted.get("code"));
+            assertThat(permissionCache.get(fixture.betaMemberUserId).getPermissions()).contains((String) granted.get("code"));
+            assertThat(permissionCache.get(fixture.alphaAdminUserId).getPermissions()).isSameAs(adminPermissions);
+        } finally {
+            changeRolePermissions("DELETE FROM role_permissions WHERE role_id = ? AND permission_id = ?", granted.get("id"));
+        }
+        assertThat(permissionCache.get(fixture.alphaMemberUserId).getPermissions()).doesNotContain((String) granted.get("code"));
+    }
+
+    @Test
+    @DisplayName("The least recently used user is evicted beyond the maximum size")
+    void leastRecentlyUsedUserIsEvictedBeyondMaxSize() {
+        PermissionCache cache = new PermissionCache(userRoleRepository, permissionRepository, 2, 10, 60_000);
+
+        cache.get(fixture.alphaAdminUserId);
+        cache.get(fixture.alphaMemberUserId);
+        cache.get(fixture.alphaAdminUserId);
+        cache.get(fixture.betaAdminUserId);   // evicts the alpha member, the least recently used
+
+        assertThat(cache.getStats()).containsEntry("users", 2).containsEntry("sizeEvictions", 1L);
+        cache.get(fixture.alphaAdminUserId);
+        assertThat(cache.getStats()).containsEntry("userMisses", 3L);
+        cache.get(fixture.alphaMemberUserId);
+        assertThat(cache.getStats()).containsEntry("userMisses", 4L);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    //  Helpers
+    // ─────────────────────────────────────────────────────────────────────────
+
+    private void changeRole(long userId, long roleId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbc.update("UPDATE user_roles SET role_id = ? WHERE user_id = ?", roleId, userId);
+            eventPublisher.publishEvent(new UserRolesChangedEvent(userId));
+        });
+    }
+
+    private void changeRolePermissions(String sql, Object permissionId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbc.update(sql, MEMBER_ROLE, permissionId);
+            eventPublisher.publishEvent(RolePermissionsChangedEvent.of(MEMBER_ROLE));
+        });
+    }
+}
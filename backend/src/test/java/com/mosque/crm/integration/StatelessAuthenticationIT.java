@@ -0,0 +1,144 @@
+package com.mosque.crm.integration;
+
+import com.mosque.crm.integration.fixtures.TestTenantFixture;
+import com.mosque.crm.security.JwtUtil;
+import com.mosque.crm.security.RolePermissionsChangedEvent;
+import com.mosque.crm.security.TokenRevocationRegistry;
+import com.mosque.crm.security.UserRolesChangedEvent;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stateless JWT mode (jwt.stateless.enabled=true).
+ *
+ * Verifies: tokens carry the same authorities as the database path, claims are
+ * trusted without reloading the user, logout revokes a single token, and
+ * account, role and role-permission changes make earlier tokens stale.
+ */
+@DisplayName("Stateless authentication")
+@TestPropertySource(properties = "jwt.stateless.enabled=true")
+class StatelessAuthenticationIT extends BaseIT {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterAll
+    void removeRevocations() {
+        jdbc.update("UPDATE users SET account_enabled = TRUE WHERE id = ?", fixture.alphaMemberUserId);
+        jdbc.update("DELETE FROM token_revocations WHERE user_id IN (?, ?)",
+                fixture.alphaAdminUserId, fixture.alphaMemberUserId);
+    }
+
+    @Test
+    @DisplayName("Login token carries the authorities of the database path")
+    void loginTokenCarriesTheUserDetailsAuthorities() {
+        List<String> expected = userDetailsService.loadUserByUsername("test_alpha_admin").getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList();
+
+        Claims claims = jwtUtil.extractAllClaims(alphaAdminToken);
+        List<?> authorities = claims.get(JwtUtil.CLAIM_AUTHORITIES, List.class);
+
+        assertThat(authorities).isEqualTo(expected);
+        assertThat(expected).noneMatch(name -> name.startsWith("ROLE_"));
+    }
+
+    @Test
+    @DisplayName("Logout revokes the presented token only")
+    void logoutRevokesThePresentedToken() {
+        String token = login("test_alpha_member", TestTenantFixture.TEST_PASSWORD);
+        String other = login("test_alpha_member", TestTenantFixture.TEST_PASSWORD);
+        assertThat(get("/users/me", token).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(post("/auth/logout", null, token).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(get("/users/me", token).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(get("/users/me", other).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("Claims are trusted until the permission version is bumped")
+    void disabledAccountLosesAccessOnceTheVersionIsBumped() {
+        String token = login("test_alpha_member", TestTenantFixture.TEST_PASSWORD);
+        try {
+            // Disabled behind the registry's back: the token's claims are still trusted
+            jdbc.update("UPDATE users SET account_enabled = FALSE WHERE id = ?", fixture.alphaMemberUserId);
+            assertThat(get("/users/me", token).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+            tokenRevocationRegistry.bumpPermissionVersion(fixture.alphaMemberUserId);
+
+            // Stale: the database path sees the disabled account
+            assertThat(get("/users/me", token).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        } finally {
+            jdbc.update("UPDATE users SET account_enabled = TRUE WHERE id = ?", fixture.alphaMemberUserId);
+        }
+        assertThat(get("/users/me", token).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("A role assignment change makes the user's earlier tokens stale")
+    void roleChangeMakesEarlierTokensStale() {
+        String token = login("test_alpha_member", TestTenantFixture.TEST_PASSWORD);
+        long version = jwtUtil.extractPermissionVersion(jwtUtil.extractAllClaims(token));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            eventPublisher.publishEvent(new UserRolesChangedEvent(fixture.alphaMemberUserId)));
+
+        assertThat(tokenRevocationRegistry.isPermissionVersionStale(fixture.alphaMemberUserId, version)).isTrue();
+        String fresh = login("test_alpha_member", TestTenantFixture.TEST_PASSWORD);
+        long freshVersion = jwtUtil.extractPermissionVersion(jwtUtil.extractAllClaims(fresh));
+        assertThat(tokenRevocationRegistry.isPermissionVersionStale(fixture.alphaMemberUserId, freshVersion)).isFalse();
+        // A stale token still works through the database path
+        assertThat(get("/users/me", token).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("A role permission change makes the tokens of the role's holders stale")
+    void rolePermissionChangeMakesHoldersTokensStale() {
+        String token = login("test_alpha_admin", TestTenantFixture.TEST_PASSWORD);
+        long version = jwtUtil.extractPermissionVersion(jwtUtil.extractAllClaims(token));
+        List<Long> roleIds = jdbc.queryForList(
+            "SELECT role_id FROM user_roles WHERE user_id = ?", Long.class, fixture.alphaAdminUserId);
+        long memberVersion = jdbc.queryForObject(
+            "SELECT permission_version FROM users WHERE id = ?", Long.class, fixture.alphaMemberUserId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            eventPublisher.publishEvent(RolePermissionsChangedEvent.of(roleIds)));
+
+        assertThat(tokenRevocationRegistry.isPermissionVersionStale(fixture.alphaAdminUserId, version)).isTrue();
+        // The member holds none of the admin's roles
+        assertThat(jdbc.queryForObject(
+            "SELECT permission_version FROM users WHERE id = ?", Long.class, fixture.alphaMemberUserId))
+            .isEqualTo(memberVersion);
+    }
+}
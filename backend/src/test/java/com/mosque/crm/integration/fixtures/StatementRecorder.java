@@ -0,0 +1,137 @@
+package com.mosque.crm.integration.fixtures;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Records the SQL the application sends on the current thread, with the
+ * parameters bound to it, so an IT can assert on the statements actually
+ * issued: how many there were, or how MariaDB plans them.
+ *
+ * Not picked up by component scanning; a test opts in with
+ * {@code @Import(StatementRecorder.class)}, which wraps the DataSource bean.
+ * Outside {@link #record(Runnable)} connections are passed through untouched.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+
+    /** One prepared or plain statement, with its parameters by (1-based) index. */
+    public record RecordedStatement(String sql, SortedMap<Integer, Object> parameters) {
+
+        /** Parameters in bind order, for re-running the statement through JdbcTemplate. */
+        public Object[] parameterValues() {
+            return parameters.values().toArray();
+        }
+    }
+
+    private final ThreadLocal<List<RecordedStatement>> recording = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof RecordingDataSource)) {
+            return new RecordingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    /** Run {@code action} and return the statements it sent on this thread, in order. */
+    public List<RecordedStatement> record(Runnable action) {
+        List<RecordedStatement> statements = new ArrayList<>();
+        recording.set(statements);
+        try {
+            action.run();
+        } finally {
+            recording.remove();
+        }
+        return Collections.unmodifiableList(statements);
+    }
+
+    // ─── JDBC wrappers ───────────────────────────────────────────────────
+
+    private final class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrapConnection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrapConnection(super.getConnection(username, password));
+        }
+    }
+
+    private Connection wrapConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    List<RecordedStatement> statements = recording.get();
+                    if (statements == null) {
+                        return result;
+                    }
+                    String name = method.getName();
+                    if ((name.equals("prepareStatement") || name.equals("prepareCall"))
+                            && result instanceof PreparedStatement prepared) {
+                        RecordedStatement statement = new RecordedStatement((String) args[0], new TreeMap<>());
+                        statements.add(statement);
+                        return wrapPreparedStatement(prepared, statement);
+                    }
+                    if (name.equals("createStatement") && result instanceof Statement plain) {
+                        return wrapStatement(plain, statements);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object wrapPreparedStatement(PreparedStatement target, RecordedStatement statement) {
+        Class<?> type = target instanceof CallableStatement
+                ? CallableStatement.class : PreparedStatement.class;
+        return Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer index) {
+                        statement.parameters().put(index, method.getName().equals("setNull") ? null : args[1]);
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object wrapStatement(Statement target, List<RecordedStatement> statements) {
+        return Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), new Class<?>[] { Statement.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ((name.startsWith("execute") || name.equals("addBatch"))
+                            && args != null && args.length >= 1 && args[0] instanceof String sql) {
+                        statements.add(new RecordedStatement(sql, new TreeMap<>()));
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.mosque.crm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mosque.crm.repository.ConfigurationRepository;
+
+/**
+ * Snapshot lookups, tenant overrides, version polling and write invalidation
+ * of the configuration cache. The repository is mocked; no Spring context or
+ * database is involved.
+ */
+class ConfigurationCacheTest {
+
+    private static final long ORG = 7L;
+
+    private ConfigurationRepository configurationRepository;
+    private ConfigurationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        configurationRepository = mock(ConfigurationRepository.class);
+        when(configurationRepository.findCacheVersion()).thenReturn(1L);
+        when(configurationRepository.findAllNameValueRows()).thenReturn(List.of(
+                new Object[] {"APP_NAME", "MemberFlow", null},
+                new Object[] {"MINIO_BUCKET", "documents", null},
+                new Object[] {"APP_NAME", "Masjid Noor", ORG}));
+        cache = new ConfigurationCache(configurationRepository, mock(PlatformTransactionManager.class), 600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(cache);
+    }
+
+    @Test
+    void valuesAreLoadedOnceAndServedFromMemory() {
+        assertEquals("documents", cache.getGlobal("MINIO_BUCKET"));
+        assertEquals("documents", cache.getGlobal("MINIO_BUCKET"));
+        assertNull(cache.getGlobal("MISSING"));
+
+        verify(configurationRepository, times(1)).findAllNameValueRows();
+    }
+
+    @Test
+    void organizationOverrideWinsOverGlobalValue() {
+        assertEquals("Masjid Noor", cache.getEffective("APP_NAME", ORG));
+        assertEquals("MemberFlow", cache.getEffective("APP_NAME", 8L));
+        assertEquals("MemberFlow", cache.getEffective("APP_NAME", null));
+        assertEquals("documents", cache.getEffective("MINIO_BUCKET", ORG));
+    }
+
+    @Test
+    void pollReloadsOnlyWhenTheVersionChanged() {
+        long generation = cache.getGeneration();
+
+        cache.poll();
+        assertEquals(generation, cache.getGeneration());
+
+        when(configurationRepository.findCacheVersion()).thenReturn(2L);
+        cache.poll();
+        assertEquals(generation + 1, cache.getGeneration());
+        verify(configurationRepository, times(2)).findAllNameValueRows();
+    }
+
+    @Test
+    void writingTransactionReadsTheDatabaseUntilItCompletes() {
+        cache.getGlobal("APP_NAME");
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.onWrite();
+        cache.onWrite();
+
+        verify(configurationRepository, times(2)).incrementCacheVersion();
+        assertFalse(cache.isUsable());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertTrue(cache.isUsable());
+        cache.getGlobal("APP_NAME");
+        verify(configurationRepository, times(2)).findAllNameValueRows();
+    }
+}
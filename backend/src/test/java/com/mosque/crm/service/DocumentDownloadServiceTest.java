@@ -0,0 +1,174 @@
+package com.mosque.crm.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.mosque.crm.entity.Document;
+import com.mosque.crm.enums.DocumentAuditEventType;
+import com.mosque.crm.enums.DocumentType;
+import com.mosque.crm.util.ETags;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+/**
+ * Range, conditional and bandwidth handling of streamed document downloads.
+ * Storage and quota services are mocked; no Spring context or S3 is involved.
+ */
+class DocumentDownloadServiceTest {
+
+    private static final long DOC_ID = 5L;
+    private static final long ORG = 3L;
+    private static final String KEY = "orgs/3/documents/abc-report.pdf";
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    private StorageService storageService;
+    private DocumentQuotaService quotaService;
+    private DocumentAuditService auditService;
+    private DocumentDownloadService downloads;
+    private Document doc;
+
+    @BeforeEach
+    void setUp() {
+        DocumentService documentService = mock(DocumentService.class);
+        storageService = mock(StorageService.class);
+        quotaService = mock(DocumentQuotaService.class);
+        auditService = mock(DocumentAuditService.class);
+        // Minimum buffer size; the copy loop is the same for any size
+        downloads = new DocumentDownloadService(documentService, auditService, quotaService, storageService, 1024);
+
+        doc = new Document();
+        doc.setOrganizationId(ORG);
+        doc.setDocumentType(DocumentType.FILE);
+        doc.setStorageKey(KEY);
+        doc.setFileSize(CONTENT.length);
+        doc.setMimeType("application/pdf");
+        doc.setOriginalFilename("report.pdf");
+        when(documentService.requireDocumentEntity(DOC_ID)).thenReturn(doc);
+
+        when(storageService.download(KEY)).thenAnswer(invocation -> stream(CONTENT));
+        when(storageService.download(eq(KEY), anyLong(), anyLong())).thenAnswer(invocation -> {
+            int start = (int) (long) invocation.getArgument(1);
+            int end = (int) (long) invocation.getArgument(2);
+            return stream(Arrays.copyOfRange(CONTENT, start, end + 1));
+        });
+    }
+
+    @Test
+    void fullDownloadStreamsTheBodyAndChargesItsSize() throws Exception {
+        MockHttpServletResponse response = download(new MockHttpServletRequest());
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+        assertEquals(CONTENT.length, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(DocumentDownloadService.etagOf(doc), response.getHeader(HttpHeaders.ETAG));
+        verify(quotaService).incrementBandwidth(ORG, CONTENT.length);
+        verify(auditService).record(DOC_ID, ORG, DocumentAuditEventType.DOWNLOADED, 1L, "stream");
+    }
+
+    @Test
+    void singleRangeReturnsPartialContentAndChargesOnlyThoseBytes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-14");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-14/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("abcde", response.getContentAsString());
+        verify(quotaService).incrementBandwidth(ORG, 5L);
+        // A resume/seek is not a new download
+        verify(auditService, never()).record(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void suffixRangeServesTheTail() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=-4");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("ghij", response.getContentAsString());
+    }
+
+    @Test
+    void rangeBeyondTheEndIsNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=50-60");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        verify(quotaService, never()).incrementBandwidth(any(), anyLong());
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModifiedWithoutTouchingStorage() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + DocumentDownloadService.etagOf(doc));
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        verify(storageService, never()).download(any());
+        verify(quotaService, never()).incrementBandwidth(any(), anyLong());
+    }
+
+    @Test
+    void staleIfRangeSendsTheFullBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-14");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    void conditionalHelpers() {
+        String etag = "\"x\"";
+        assertTrue(ETags.matchesAny("*", etag));
+        assertFalse(ETags.matchesAny("\"y\"", etag));
+        assertTrue(DocumentDownloadService.ifRangeAllows(null, etag));
+        assertFalse(DocumentDownloadService.ifRangeAllows("Wed, 21 Oct 2015 07:28:00 GMT", etag));
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        downloads.stream(DOC_ID, 1L, request, response);
+        return response;
+    }
+
+    private static ResponseInputStream<GetObjectResponse> stream(byte[] bytes) {
+        return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(bytes)));
+    }
+}
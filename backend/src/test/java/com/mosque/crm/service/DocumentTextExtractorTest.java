@@ -0,0 +1,68 @@
+package com.mosque.crm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfWriter;
+
+/**
+ * Text extraction for the document search index, against files generated in
+ * memory with the same libraries; no Spring context or storage is involved.
+ */
+class DocumentTextExtractorTest {
+
+    private final DocumentTextExtractor extractor = new DocumentTextExtractor(1_000);
+
+    @Test
+    void richTextHtmlIsReducedToItsWords() {
+        String html = "<h1>Friday&nbsp;khutbah</h1><style>p{color:red}</style><p>Topic: <b>patience</b> &amp; gratitude</p>";
+
+        assertEquals("Friday khutbah Topic: patience & gratitude", extractor.fromHtml(html));
+    }
+
+    @Test
+    void pdfTextIsExtracted() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        com.lowagie.text.Document pdf = new com.lowagie.text.Document();
+        PdfWriter.getInstance(pdf, out);
+        pdf.open();
+        pdf.add(new Paragraph("Zakat distribution report"));
+        pdf.close();
+
+        String text = extractor.extract(new ByteArrayInputStream(out.toByteArray()), "application/pdf", "report.pdf");
+
+        assertTrue(text.contains("Zakat distribution report"), text);
+    }
+
+    @Test
+    void spreadsheetCellsAreExtracted() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            workbook.createSheet("Rota").createRow(0).createCell(0).setCellValue("Ramadan iftar volunteers");
+            workbook.write(out);
+        }
+
+        String text = extractor.extract(new ByteArrayInputStream(out.toByteArray()),
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "rota.xlsx");
+
+        assertTrue(text.contains("Ramadan iftar volunteers"), text);
+    }
+
+    @Test
+    void textIsCappedAndUnsupportedTypesAreEmpty() throws Exception {
+        byte[] longText = "word ".repeat(1_000).getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(1_000, extractor.extract(new ByteArrayInputStream(longText), "text/plain", "notes.txt").length());
+        assertFalse(extractor.supports("image/png", "photo.png"));
+        assertEquals("", extractor.extract(new ByteArrayInputStream(new byte[] {1, 2}), "image/png", "photo.png"));
+    }
+}
@@ -0,0 +1,232 @@
+package com.mosque.crm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.mosque.crm.dto.DocumentDTO;
+import com.mosque.crm.dto.DocumentUploadSessionDTO;
+import com.mosque.crm.dto.DocumentUploadStartDTO;
+import com.mosque.crm.entity.DocumentUploadSession;
+import com.mosque.crm.enums.DocumentUploadStatus;
+import com.mosque.crm.multitenancy.TenantContext;
+import com.mosque.crm.repository.DocumentUploadSessionRepository;
+
+import software.amazon.awssdk.services.s3.model.Part;
+
+/**
+ * Quota reservation, part validation, completion and back-pressure of chunked
+ * uploads. Storage and repositories are mocked; no Spring context or S3.
+ */
+class DocumentUploadServiceTest {
+
+    private static final long ORG = 4L;
+    private static final long USER = 9L;
+    private static final long MIB = 1024 * 1024;
+
+    private DocumentUploadSessionRepository sessionRepository;
+    private DocumentService documentService;
+    private DocumentQuotaService quotaService;
+    private StorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        sessionRepository = mock(DocumentUploadSessionRepository.class);
+        documentService = mock(DocumentService.class);
+        quotaService = mock(DocumentQuotaService.class);
+        storageService = mock(StorageService.class);
+        when(documentService.newStorageKey(eq(ORG), anyString())).thenReturn("orgs/4/documents/x-video.mp4");
+        when(storageService.createMultipartUpload(anyString(), any())).thenReturn("s3-upload");
+        when(sessionRepository.transition(anyString(), any(), any())).thenReturn(1);
+        TenantContext.setCurrentOrganizationId(ORG);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void partSizeGrowsToStayWithinTheS3PartLimit() {
+        assertEquals(8 * MIB, DocumentUploadService.partSizeFor(100 * MIB, 8 * MIB));
+        assertEquals(DocumentUploadService.MIN_PART_SIZE, DocumentUploadService.partSizeFor(MIB, MIB));
+        long huge = 200_000 * MIB;
+        assertEquals(20 * MIB, DocumentUploadService.partSizeFor(huge, 8 * MIB));
+    }
+
+    @Test
+    void startReservesQuotaForTheWholeFile() {
+        DocumentUploadSessionDTO dto = service(8).start(startRequest(20 * MIB), USER);
+
+        assertEquals(3, dto.getPartCount());
+        assertEquals(8 * MIB, dto.getPartSize());
+        verify(quotaService).checkAndIncrementStorage(ORG, 20 * MIB);
+        ArgumentCaptor<DocumentUploadSession> saved = ArgumentCaptor.forClass(DocumentUploadSession.class);
+        verify(sessionRepository).save(saved.capture());
+        assertEquals("s3-upload", saved.getValue().getStorageUploadId());
+    }
+
+    @Test
+    void quotaIsReleasedWhenTheMultipartUploadCannotStart() {
+        when(storageService.createMultipartUpload(anyString(), any())).thenThrow(new RuntimeException("down"));
+
+        assertThrows(ResponseStatusException.class, () -> service(8).start(startRequest(20 * MIB), USER));
+
+        verify(quotaService).decrementStorage(ORG, 20 * MIB);
+    }
+
+    @Test
+    void partWithTheWrongLengthIsRejected() {
+        DocumentUploadSession session = session(20 * MIB, 8 * MIB, 3);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service(8).uploadPart(session.getId(), 3, InputStream.nullInputStream(), 8 * MIB, USER));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verify(storageService, never()).uploadPart(anyString(), anyString(), anyInt(), any(), anyLong());
+    }
+
+    @Test
+    void lastPartCarriesTheRemainder() {
+        DocumentUploadSession session = session(20 * MIB, 8 * MIB, 3);
+
+        service(8).uploadPart(session.getId(), 3, InputStream.nullInputStream(), 4 * MIB, USER);
+
+        verify(storageService).uploadPart(eq(session.getStorageKey()), eq("s3-upload"), eq(3), any(), eq(4 * MIB));
+    }
+
+    @Test
+    void completeWithMissingPartsIsRefusedAndReopened() {
+        DocumentUploadSession session = session(20 * MIB, 8 * MIB, 3);
+        when(storageService.listParts(session.getStorageKey(), "s3-upload"))
+                .thenReturn(List.of(part(1, 8 * MIB), part(2, 8 * MIB)));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service(8).complete(session.getId(), USER));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        verify(sessionRepository).transition(session.getId(), DocumentUploadStatus.COMPLETING, DocumentUploadStatus.UPLOADING);
+        verify(storageService, never()).completeMultipartUpload(anyString(), anyString(), any());
+    }
+
+    @Test
+    void completeAssemblesThePartsAndCreatesTheDocument() {
+        DocumentUploadSession session = session(20 * MIB, 8 * MIB, 3);
+        when(storageService.listParts(session.getStorageKey(), "s3-upload"))
+                .thenReturn(List.of(part(1, 8 * MIB), part(2, 8 * MIB), part(3, 4 * MIB)));
+        DocumentDTO created = new DocumentDTO();
+        when(documentService.createFileDocument(eq(session.getStorageKey()), any(), eq(20 * MIB), any(), any(), eq(USER)))
+                .thenReturn(created);
+
+        assertEquals(created, service(8).complete(session.getId(), USER));
+
+        verify(storageService).completeMultipartUpload(eq(session.getStorageKey()), eq("s3-upload"), any());
+        verify(sessionRepository).deleteById(session.getId());
+        // The reservation made at start becomes the document's usage
+        verify(quotaService, never()).decrementStorage(anyLong(), anyLong());
+    }
+
+    @Test
+    void abortDiscardsThePartsAndReleasesTheReservation() {
+        DocumentUploadSession session = session(20 * MIB, 8 * MIB, 3);
+
+        service(8).abort(session.getId(), USER);
+
+        verify(storageService).abortMultipartUpload(session.getStorageKey(), "s3-upload");
+        verify(quotaService).decrementStorage(ORG, 20 * MIB);
+        verify(sessionRepository).deleteById(session.getId());
+    }
+
+    @Test
+    void anotherUsersUploadIsNotVisible() {
+        DocumentUploadSession session = session(20 * MIB, 8 * MIB, 3);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service(8).getStatus(session.getId(), USER + 1));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    void partsBeyondTheConcurrencyLimitAreTurnedAway() throws Exception {
+        DocumentUploadSession session = session(20 * MIB, 8 * MIB, 3);
+        DocumentUploadService uploads = service(1);
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(storageService.uploadPart(anyString(), anyString(), eq(1), any(), anyLong())).thenAnswer(invocation -> {
+            inFlight.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "etag-1";
+        });
+
+        Thread first = new Thread(() -> uploads.uploadPart(session.getId(), 1, new ByteArrayInputStream(new byte[0]), 8 * MIB, USER));
+        first.start();
+        inFlight.await(5, TimeUnit.SECONDS);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> uploads.uploadPart(session.getId(), 2, InputStream.nullInputStream(), 8 * MIB, USER));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+
+        release.countDown();
+        first.join();
+        uploads.uploadPart(session.getId(), 2, InputStream.nullInputStream(), 8 * MIB, USER);
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private DocumentUploadService service(int maxConcurrentParts) {
+        return new DocumentUploadService(sessionRepository, documentService, quotaService, storageService,
+                8 * MIB, maxConcurrentParts, 50, 24);
+    }
+
+    private static DocumentUploadStartDTO startRequest(long size) {
+        DocumentUploadStartDTO dto = new DocumentUploadStartDTO();
+        dto.setFilename("video.mp4");
+        dto.setContentType("video/mp4");
+        dto.setFileSize(size);
+        return dto;
+    }
+
+    private DocumentUploadSession session(long fileSize, long partSize, int partCount) {
+        DocumentUploadSession session = new DocumentUploadSession();
+        session.setId("u-1");
+        session.setOrganizationId(ORG);
+        session.setOwnerUserId(USER);
+        session.setStorageKey("orgs/4/documents/x-video.mp4");
+        session.setStorageUploadId("s3-upload");
+        session.setFileSize(fileSize);
+        session.setPartSize(partSize);
+        session.setPartCount(partCount);
+        session.setOriginalFilename("video.mp4");
+        session.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(sessionRepository.findById("u-1")).thenReturn(Optional.of(session));
+        return session;
+    }
+
+    private static Part part(int number, long size) {
+        return Part.builder().partNumber(number).size(size).eTag("etag-" + number).build();
+    }
+}
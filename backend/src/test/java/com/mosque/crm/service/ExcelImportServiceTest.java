@@ -0,0 +1,150 @@
+package com.mosque.crm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mosque.crm.dto.ExcelImportResult;
+import com.mosque.crm.dto.PersonCreateDTO;
+import com.mosque.crm.models.RowData;
+import com.mosque.crm.service.ExcelImportService.FamilyMember;
+import com.mosque.crm.service.ExcelImportService.FamilyRoles;
+import com.mosque.crm.util.ImportMembersExcelParser;
+
+/**
+ * Member import stages that need no database: streaming the sheet into rows
+ * (with spreadsheet row numbers on errors) and inferring families from a
+ * Gezinnen group.
+ */
+class ExcelImportServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 1);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void xlsxRowsAreStreamedWithTheirSpreadsheetRowNumbers() throws IOException {
+        File file = workbook(5_000);
+
+        ExcelImportResult result = new ImportMembersExcelParser().parseExcel(file, "members.xlsx");
+
+        assertEquals(5_001, result.getTotalRecords());
+        assertEquals(5_000, result.getRows().size());
+        assertEquals(1, result.getSkipped());
+        RowData first = result.getRows().get(0);
+        PersonCreateDTO dto = first.getPersonDto();
+        assertEquals(2, first.getRowNumber());
+        assertEquals("First 1", dto.getFirstName());
+        assertEquals("Last 1", dto.getLastName());
+        assertEquals(LocalDate.of(1980, 1, 2), dto.getDateOfBirth());
+        assertEquals("M", dto.getGender());
+        assertEquals("12345", dto.getPhone());
+        assertEquals("G1", first.getGezinnenId());
+        assertEquals(5_001, result.getRows().get(4_999).getRowNumber());
+    }
+
+    @Test
+    void emptyFileIsReported() throws IOException {
+        Path path = tempDir.resolve("empty.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(path)) {
+            workbook.createSheet("Leden");
+            workbook.write(out);
+        }
+
+        ExcelImportResult result = new ImportMembersExcelParser().parseExcel(path.toFile(), "empty.xlsx");
+
+        assertEquals(List.of("Excel file is empty"), result.getErrors());
+    }
+
+    @Test
+    void eldestManAndWomanAreParentsOfMembersSixteenYearsYounger() {
+        FamilyMember father = member("@I1@", "M", 1970);
+        FamilyMember mother = member("@I2@", "F", 1968);
+        FamilyMember son = member("@I3@", "M", 2000);
+        FamilyMember aunt = member("@I4@", "F", 1965);
+        FamilyMember unknownAge = member("@I5@", "M", null);
+
+        FamilyRoles roles = ExcelImportService.inferFamily(List.of(son, mother, unknownAge, father, aunt), TODAY);
+
+        // The two eldest are women, so the eldest man and the eldest woman are taken
+        assertSame(father, roles.father());
+        assertSame(aunt, roles.mother());
+        assertEquals(List.of(son), roles.children());
+    }
+
+    @Test
+    void twoEldestOfOppositeSexAreTheParents() {
+        FamilyMember mother = member("@I1@", "F", 1960);
+        FamilyMember father = member("@I2@", "m", 1962);
+        FamilyMember daughter = member("@I3@", "F", 1990);
+        FamilyMember son = member("@I4@", "M", 1980);
+
+        FamilyRoles roles = ExcelImportService.inferFamily(List.of(daughter, son, father, mother), TODAY);
+
+        assertSame(father, roles.father());
+        assertSame(mother, roles.mother());
+        // Born 18 and 28 years after the younger parent
+        assertEquals(List.of(son, daughter), roles.children());
+    }
+
+    @Test
+    void noFamilyWithoutAManAndAWoman() {
+        assertNull(ExcelImportService.inferFamily(List.of(member("@I1@", "M", 1970), member("@I2@", "M", 1995)), TODAY));
+        assertNull(ExcelImportService.inferFamily(List.of(member("@I1@", "F", 1970)), TODAY));
+        FamilyRoles roles = ExcelImportService.inferFamily(
+                List.of(member("@I1@", "F", null), member("@I2@", "M", null)), TODAY);
+        assertTrue(roles.children().isEmpty());
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private static FamilyMember member(String individualId, String gender, Integer birthYear) {
+        return new FamilyMember(1L, individualId, "G1", 2, gender,
+                birthYear != null ? LocalDate.of(birthYear, 1, 1) : null);
+    }
+
+    /** A member list of {@code rows} persons and one row without a first name, as the import expects it. */
+    private File workbook(int rows) throws IOException {
+        Path path = tempDir.resolve("members.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(path)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd-mm-yyyy"));
+            Sheet sheet = workbook.createSheet("Leden");
+            Row header = sheet.createRow(0);
+            String[] headers = { "NAAM", "VOORNAMEN", "GEB.DAT.", "GESL", "Mobiel no", "Gezinnen" };
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("Last " + i);
+                row.createCell(1).setCellValue("First " + i);
+                row.createCell(2).setCellValue(LocalDate.of(1980, 1, 2));
+                row.getCell(2).setCellStyle(dateStyle);
+                row.createCell(3).setCellValue("M");
+                row.createCell(4).setCellValue(12345);
+                row.createCell(5).setCellValue("G" + ((i + 1) / 2));
+            }
+            sheet.createRow(rows + 1).createCell(0).setCellValue("Nameless");
+            workbook.write(out);
+        }
+        return path.toFile();
+    }
+}
@@ -0,0 +1,189 @@
+package com.mosque.crm.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.mosque.crm.dto.GenealogyEdgeDTO;
+import com.mosque.crm.dto.GenealogyGraphDTO;
+import com.mosque.crm.dto.GenealogyNodeDTO;
+import com.mosque.crm.enums.GenderEnum;
+
+/**
+ * Traversal semantics of the in-memory family graph, built from hand-made rows.
+ */
+class FamilyGraphTest {
+
+    /**
+     * G1 + G2 (F1) → P1, A1
+     * P1 + P2 (F2) → C1, C2
+     * C1 is linked to person 100; everyone else is unlinked.
+     */
+    private static FamilyGraph smallTree() {
+        List<Object[]> individuals = List.of(
+                individual("G1", GenderEnum.M), individual("G2", GenderEnum.F),
+                individual("P1", GenderEnum.M), individual("A1", GenderEnum.F),
+                individual("P2", GenderEnum.F), individual("C1", null), individual("C2", GenderEnum.M));
+        List<Object[]> families = List.of(
+                new Object[] {"F1", "G1", "G2"},
+                new Object[] {"F2", "P1", "P2"});
+        List<Object[]> children = List.of(
+                new Object[] {1L, "F1", "P1"}, new Object[] {2L, "F1", "A1"},
+                new Object[] {3L, "F2", "C1"}, new Object[] {4L, "F2", "C2"});
+        List<Object[]> links = List.<Object[]>of(new Object[] {"C1", 100L});
+        return FamilyGraph.build(1L, individuals, families, children, links);
+    }
+
+    @Test
+    void unlimitedTraversalReachesTheWholeFamilyInBreadthFirstOrder() {
+        FamilyGraph graph = smallTree();
+
+        GenealogyGraphDTO dto = graph.traverse(graph.findIndividualIdByPersonId(100L), FamilyGraph.UNLIMITED_DEPTH);
+
+        assertEquals(List.of("C1", "F2", "P1", "F1", "P2", "C2", "G1", "G2", "A1"), ids(dto.getNodes()));
+        // F2 → C1 appears twice: once as "this child", once among the siblings
+        assertEquals(List.of(
+                "P1>F2", "P2>F2", "F2>C1", "F2>C1", "F2>C2",
+                "G1>F1", "G2>F1", "F1>P1", "F1>P1", "F1>A1"), edges(dto));
+    }
+
+    @Test
+    void genderDefaultsToUnknownAndPersonLinksResolve() {
+        FamilyGraph graph = smallTree();
+
+        Map<String, GenealogyNodeDTO> nodes = graph.traverse("C1", FamilyGraph.UNLIMITED_DEPTH).getNodes().stream()
+                .collect(Collectors.toMap(GenealogyNodeDTO::getId, Function.identity()));
+
+        assertEquals("U", nodes.get("C1").getGender());
+        assertEquals("M", nodes.get("C2").getGender());
+        assertEquals(100L, graph.personIdOf(graph.individualIndex("C1")));
+        assertNull(graph.personIdOf(graph.individualIndex("C2")));
+        assertNull(graph.personIdOf(FamilyGraph.NONE));
+    }
+
+    @Test
+    void adjacencyArraysFollowFamilyOrder() {
+        FamilyGraph graph = smallTree();
+        int p1 = graph.individualIndex("P1");
+
+        assertArrayEquals(new int[] {graph.familyIndex("F2")}, graph.spouseFamiliesOf(p1));
+        assertArrayEquals(new int[] {graph.familyIndex("F1")}, graph.parentFamiliesOf(p1));
+
+        int f2 = graph.familyIndex("F2");
+        assertEquals(p1, graph.husband(f2));
+        assertEquals(2, graph.childEnd(f2) - graph.childStart(f2));
+        assertEquals(3L, graph.familyChildIdAt(graph.childStart(f2)));
+        assertEquals(graph.individualIndex("C1"), graph.childAt(graph.childStart(f2)));
+    }
+
+    @Test
+    void depthLimitStopsExpandingAtTheBoundary() {
+        FamilyGraph graph = smallTree();
+
+        assertEquals(List.of("C1"), ids(graph.traverse("C1", 0).getNodes()));
+
+        GenealogyGraphDTO dto = graph.traverse("C1", 1);
+        assertEquals(List.of("C1", "F2", "P1", "P2", "C2"), ids(dto.getNodes()));
+        assertEquals(List.of("P1>F2", "P2>F2", "F2>C1", "F2>C1", "F2>C2"), edges(dto));
+    }
+
+    @Test
+    void unknownStartReturnsAnEmptyGraph() {
+        GenealogyGraphDTO dto = smallTree().traverse("X1", FamilyGraph.UNLIMITED_DEPTH);
+
+        assertTrue(dto.getNodes().isEmpty());
+        assertTrue(dto.getEdges().isEmpty());
+        assertNull(smallTree().findIndividualIdByPersonId(999L));
+    }
+
+    @Test
+    void completeGraphContainsEveryIndividualAndFamily() {
+        GenealogyGraphDTO dto = smallTree().complete();
+
+        assertEquals(9, dto.getNodes().size());
+        assertEquals(List.of(
+                "G1>F1", "G2>F1", "F1>P1", "F1>A1",
+                "P1>F2", "P2>F2", "F2>C1", "F2>C2"), edges(dto));
+    }
+
+    /**
+     * Synthetic tree of 10,000 individuals: every child marries an outsider and
+     * has three children. Traversal from the youngest leaf must reach everyone once.
+     */
+    @Test
+    void traversalOfTenThousandIndividualsVisitsEachOnce() {
+        List<Object[]> individuals = new ArrayList<>();
+        List<Object[]> families = new ArrayList<>();
+        List<Object[]> children = new ArrayList<>();
+
+        individuals.add(individual("@I0@", GenderEnum.M));
+        List<String> generation = List.of("@I0@");
+        int nextIndividual = 1;
+        int nextFamily = 0;
+        String lastChild = "@I0@";
+        while (individuals.size() < 10_000) {
+            List<String> nextGeneration = new ArrayList<>();
+            for (String parent : generation) {
+                if (individuals.size() >= 10_000) {
+                    break;
+                }
+                String spouse = "@I" + nextIndividual++ + "@";
+                individuals.add(individual(spouse, GenderEnum.F));
+                String familyId = "@F" + nextFamily++ + "@";
+                families.add(new Object[] {familyId, parent, spouse});
+                for (int c = 0; c < 3 && individuals.size() < 10_000; c++) {
+                    String child = "@I" + nextIndividual++ + "@";
+                    individuals.add(individual(child, GenderEnum.M));
+                    children.add(new Object[] {(long) children.size() + 1, familyId, child});
+                    nextGeneration.add(child);
+                    lastChild = child;
+                }
+            }
+            generation = nextGeneration;
+        }
+        String leaf = lastChild;
+        List<Object[]> links = List.<Object[]>of(new Object[] {leaf, 1L});
+
+        FamilyGraph graph = FamilyGraph.build(1L, individuals, families, children, links);
+        assertEquals(10_000, graph.individualCount());
+        assertEquals(families.size(), graph.familyCount());
+
+        // Every individual and family is visited exactly once
+        String start = graph.findIndividualIdByPersonId(1L);
+        List<String> visited = ids(graph.traverse(start, FamilyGraph.UNLIMITED_DEPTH).getNodes());
+        assertEquals(10_000 + families.size(), visited.size());
+        assertEquals(visited.size(), new HashSet<>(visited).size());
+
+        // Depth 1 from the root: its own family, spouse and three children
+        assertEquals(List.of("@I0@", "@F0@", "@I1@", "@I2@", "@I3@", "@I4@"), ids(graph.traverse("@I0@", 1).getNodes()));
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private static Object[] individual(String id, GenderEnum sex) {
+        return new Object[] {id, "Given " + id, "Surname", sex, LocalDate.of(1990, 1, 1)};
+    }
+
+    private static List<String> ids(List<GenealogyNodeDTO> nodes) {
+        return nodes.stream().map(GenealogyNodeDTO::getId).toList();
+    }
+
+    private static List<String> edges(GenealogyGraphDTO dto) {
+        List<String> result = new ArrayList<>();
+        for (GenealogyEdgeDTO edge : dto.getEdges()) {
+            result.add(edge.getFrom() + ">" + edge.getTo());
+        }
+        return result;
+    }
+}
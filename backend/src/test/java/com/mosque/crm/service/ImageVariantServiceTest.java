@@ -0,0 +1,194 @@
+package com.mosque.crm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mosque.crm.service.ImageVariantService.StoredImage;
+import com.mosque.crm.service.ImageVariantService.Variant;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+/**
+ * Variant generation, lazy creation of missing variants and the LRU image
+ * cache.
+ */
+class ImageVariantServiceTest {
+
+    private static final String KEY = "business-logos/7/1/logo.png";
+
+    private StorageService storageService;
+    private ImageVariantService service;
+
+    @BeforeEach
+    void setUp() {
+        storageService = mock(StorageService.class);
+        service = new ImageVariantService(storageService, 1_000_000, 500_000);
+    }
+
+    @Test
+    void variantsFitTheirBoxAndKeepTheAspectRatio() throws IOException {
+        byte[] original = png(1200, 600, false);
+
+        StoredImage thumb = ImageVariantService.resize(original, Variant.THUMB.getMaxDimension());
+        StoredImage medium = ImageVariantService.resize(original, Variant.MEDIUM.getMaxDimension());
+
+        assertEquals("image/jpeg", thumb.contentType());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumb.bytes()));
+        assertEquals(128, decoded.getWidth());
+        assertEquals(64, decoded.getHeight());
+        decoded = ImageIO.read(new ByteArrayInputStream(medium.bytes()));
+        assertEquals(512, decoded.getWidth());
+        assertEquals(256, decoded.getHeight());
+    }
+
+    @Test
+    void transparentImagesStayPngAndSmallImagesAreNotEnlarged() throws IOException {
+        StoredImage thumb = ImageVariantService.resize(png(40, 30, true), Variant.THUMB.getMaxDimension());
+
+        assertEquals("image/png", thumb.contentType());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumb.bytes()));
+        assertEquals(40, decoded.getWidth());
+        assertEquals(30, decoded.getHeight());
+    }
+
+    @Test
+    void undecodableImagesGetNoVariants() throws IOException {
+        assertNull(ImageVariantService.resize(new byte[] {1, 2, 3}, 128));
+
+        service.store(KEY, new byte[] {1, 2, 3}, "image/webp");
+
+        verify(storageService, times(1)).upload(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void imagesDeclaringTooManyPixelsAreNotDecoded() throws IOException {
+        byte[] declaredHuge = pngHeader(100_000, 100_000);
+
+        assertNull(ImageVariantService.resize(declaredHuge, 128));
+
+        service.store(KEY, declaredHuge, "image/png");
+
+        verify(storageService, times(1)).upload(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void storeUploadsTheOriginalAndEachVariant() throws IOException {
+        service.store(KEY, png(800, 800, false), "image/png");
+
+        verify(storageService).upload(eq(KEY), any(), eq("image/png"), anyLong());
+        verify(storageService).upload(eq(KEY + ".thumb"), any(), eq("image/jpeg"), anyLong());
+        verify(storageService).upload(eq(KEY + ".medium"), any(), eq("image/jpeg"), anyLong());
+    }
+
+    @Test
+    void repeatedLoadsAreServedFromTheCache() throws IOException {
+        byte[] thumb = png(128, 128, false);
+        serve(KEY + ".thumb", thumb);
+
+        StoredImage first = service.load(KEY, Variant.THUMB);
+        StoredImage second = service.load(KEY, Variant.THUMB);
+
+        assertSame(first, second);
+        assertEquals(ImageVariantService.etag(thumb), first.etag());
+        verify(storageService, times(1)).download(KEY + ".thumb");
+    }
+
+    @Test
+    void missingVariantIsGeneratedFromTheOriginalAndStored() throws IOException {
+        when(storageService.download(KEY + ".medium")).thenThrow(NoSuchKeyException.builder().build());
+        serve(KEY, png(1024, 768, false));
+
+        StoredImage medium = service.load(KEY, Variant.MEDIUM);
+
+        assertEquals("image/jpeg", medium.contentType());
+        verify(storageService).upload(eq(KEY + ".medium"), any(), eq("image/jpeg"), eq((long) medium.bytes().length));
+    }
+
+    @Test
+    void leastRecentlyUsedImagesAreEvictedBeyondTheByteLimit() throws IOException {
+        service = new ImageVariantService(storageService, 250, 200);
+        serve("a", new byte[100]);
+        serve("b", new byte[100]);
+        serve("c", new byte[100]);
+        serve("big", new byte[300]);
+
+        service.load("a", Variant.ORIGINAL);
+        service.load("b", Variant.ORIGINAL);
+        service.load("a", Variant.ORIGINAL);
+        service.load("c", Variant.ORIGINAL);
+        // b was least recently used; a is still cached
+        service.load("a", Variant.ORIGINAL);
+        service.load("big", Variant.ORIGINAL);
+        service.load("big", Variant.ORIGINAL);
+
+        verify(storageService, times(1)).download("a");
+        verify(storageService, times(2)).download("big");
+        assertEquals(200L, service.getStats().get("bytes"));
+    }
+
+    @Test
+    void etagIsAQuotedContentHash() {
+        String etag = ImageVariantService.etag(new byte[] {1});
+
+        assertEquals(34, etag.length());
+        assertEquals('"', etag.charAt(0));
+        assertNotEquals(etag, ImageVariantService.etag(new byte[] {2}));
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private static byte[] png(int width, int height, boolean alpha) throws IOException {
+        BufferedImage image = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /** The signature and header chunk of a PNG, declaring the given size without any pixel data. */
+    private static byte[] pngHeader(int width, int height) {
+        ByteBuffer chunk = ByteBuffer.allocate(17).put("IHDR".getBytes(StandardCharsets.US_ASCII))
+                .putInt(width).putInt(height).put((byte) 8).put((byte) 2).put((byte) 0).put((byte) 0).put((byte) 0);
+        CRC32 crc = new CRC32();
+        crc.update(chunk.array());
+        return ByteBuffer.allocate(8 + 4 + 17 + 4)
+                .put(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'})
+                .putInt(13).put(chunk.array()).putInt((int) crc.getValue())
+                .array();
+    }
+
+    /** Every download of {@code key} returns a fresh stream of {@code bytes}. */
+    private void serve(String key, byte[] bytes) {
+        when(storageService.download(key)).thenAnswer(invocation -> stream(bytes, "image/png"));
+    }
+
+    private static ResponseInputStream<GetObjectResponse> stream(byte[] bytes, String contentType) {
+        return new ResponseInputStream<>(GetObjectResponse.builder().contentType(contentType).build(),
+                AbortableInputStream.create(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.mosque.crm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mosque.crm.service.OrganizationPurgePlan.ForeignKey;
+import com.mosque.crm.service.OrganizationPurgePlan.Step;
+
+/**
+ * Ordering and statements of organization purge plans built from foreign key
+ * metadata.
+ */
+class OrganizationPurgePlanTest {
+
+    @Test
+    void childrenAreDeletedBeforeTheirParentsAndOrganizationsLast() {
+        OrganizationPurgePlan plan = OrganizationPurgePlan.build(
+                List.of("members", "payments", "roles", "users"),
+                List.of(
+                        fk("members", "organization_id", "organizations", false),
+                        fk("payments", "member_id", "members", false),
+                        fk("payments", "organization_id", "organizations", false),
+                        fk("users", "role_id", "roles", false),
+                        fk("users", "organization_id", "organizations", true)));
+
+        List<String> tables = deleteOrder(plan);
+
+        assertEquals(List.of("payments", "members", "users", "roles", "organizations"), tables);
+        Step payments = plan.steps().get(0);
+        assertEquals("DELETE FROM `payments` WHERE organization_id = ?", payments.sql());
+        assertEquals(1, payments.parameterCount());
+        assertEquals("DELETE FROM `organizations` WHERE id = ?", plan.steps().get(4).sql());
+    }
+
+    @Test
+    void tablesWithoutOrganizationIdAreDeletedThroughTheirNotNullReferences() {
+        OrganizationPurgePlan plan = OrganizationPurgePlan.build(
+                List.of("roles"),
+                List.of(
+                        fk("role_assignable_roles", "role_id", "roles", false),
+                        fk("role_assignable_roles", "assignable_role_id", "roles", false),
+                        fk("role_permissions", "role_id", "roles", false),
+                        fk("role_permissions", "permission_id", "permissions", false),
+                        fk("partnerships", "member_organization_id", "organizations", false),
+                        fk("partnerships", "parent_organization_id", "organizations", false)));
+
+        Step assignable = step(plan, "role_assignable_roles");
+        assertEquals("DELETE FROM `role_assignable_roles` WHERE ("
+                + "`assignable_role_id` IN (SELECT `id` FROM `roles` WHERE organization_id = ?) OR "
+                + "`role_id` IN (SELECT `id` FROM `roles` WHERE organization_id = ?))", assignable.sql());
+        assertEquals(2, assignable.parameterCount());
+        assertEquals("DELETE FROM `role_permissions` WHERE "
+                + "`role_id` IN (SELECT `id` FROM `roles` WHERE organization_id = ?)", step(plan, "role_permissions").sql());
+        assertEquals(2, step(plan, "partnerships").parameterCount());
+        assertTrue(deleteOrder(plan).indexOf("role_permissions") < deleteOrder(plan).indexOf("roles"));
+        assertFalse(deleteOrder(plan).contains("permissions"));
+    }
+
+    @Test
+    void nullableReferencesThatOrderCannotSatisfyAreDetachedFirst() {
+        OrganizationPurgePlan plan = OrganizationPurgePlan.build(
+                List.of("persons", "users"),
+                List.of(
+                        fk("persons", "partner_id", "persons", true),
+                        fk("users", "selected_organization_id", "organizations", true),
+                        fk("users", "organization_id", "organizations", true),
+                        fk("audit_log", "user_id", "users", true)));
+
+        List<String> detach = plan.steps().stream().filter(Step::detach).map(Step::sql).toList();
+
+        assertEquals(List.of(
+                "UPDATE `audit_log` SET `user_id` = NULL WHERE `user_id` IN "
+                        + "(SELECT `id` FROM `users` WHERE organization_id = ?)",
+                "UPDATE `persons` SET `partner_id` = NULL WHERE `partner_id` IS NOT NULL AND (organization_id = ?)",
+                "UPDATE `users` SET `selected_organization_id` = NULL WHERE `selected_organization_id` = ?"),
+                detach);
+        assertTrue(plan.steps().subList(0, 3).stream().allMatch(Step::detach));
+    }
+
+    @Test
+    void cycleIsBrokenAtANullableReference() {
+        OrganizationPurgePlan plan = OrganizationPurgePlan.build(
+                List.of("families", "persons"),
+                List.of(
+                        fk("families", "head_id", "persons", true),
+                        fk("persons", "family_id", "families", false)));
+
+        assertEquals(List.of("persons", "families", "organizations"), deleteOrder(plan));
+        assertEquals("UPDATE `families` SET `head_id` = NULL WHERE `head_id` IS NOT NULL AND (organization_id = ?)",
+                plan.steps().get(0).sql());
+    }
+
+    @Test
+    void cycleOfNotNullReferencesIsRejected() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> OrganizationPurgePlan.build(
+                List.of("a", "b"),
+                List.of(fk("a", "b_id", "b", false), fk("b", "a_id", "a", false))));
+
+        assertTrue(e.getMessage().contains("[a, b]"));
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private static ForeignKey fk(String table, String column, String referencedTable, boolean nullable) {
+        return new ForeignKey(table, column, referencedTable, "id", nullable);
+    }
+
+    private static List<String> deleteOrder(OrganizationPurgePlan plan) {
+        return plan.steps().stream().filter(step -> !step.detach()).map(Step::table).toList();
+    }
+
+    private static Step step(OrganizationPurgePlan plan, String table) {
+        return plan.steps().stream().filter(s -> !s.detach() && s.table().equals(table)).findFirst().orElseThrow();
+    }
+}
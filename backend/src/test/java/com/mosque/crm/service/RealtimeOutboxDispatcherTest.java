@@ -0,0 +1,165 @@
+package com.mosque.crm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mosque.crm.dto.WsMessageNotification;
+import com.mosque.crm.entity.RealtimeOutboxEntry;
+import com.mosque.crm.enums.RealtimeChannel;
+import com.mosque.crm.repository.MessageRepository;
+import com.mosque.crm.repository.RealtimeOutboxRepository;
+
+/**
+ * Batching, coalescing and failure handling of the realtime outbox dispatcher.
+ * The outbox is mocked and the relay records what it is asked to send; no
+ * Spring context, broker or database is involved.
+ */
+class RealtimeOutboxDispatcherTest {
+
+    private static final long ORG = 2L;
+    private static final long ALICE = 7L;
+    private static final long BOB = 8L;
+
+    private RealtimeOutboxRepository outboxRepository;
+    private MessageRepository messageRepository;
+    private List<Sent> sent;
+    private Set<String> unreachableUsers;
+    private RealtimeOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(RealtimeOutboxRepository.class);
+        messageRepository = mock(MessageRepository.class);
+        sent = Collections.synchronizedList(new ArrayList<>());
+        unreachableUsers = Collections.synchronizedSet(new HashSet<>());
+        RealtimeRelay relay = (userId, destination, payload) -> {
+            if (unreachableUsers.contains(userId)) {
+                throw new IllegalStateException("broker unavailable");
+            }
+            sent.add(new Sent(userId, destination, payload));
+        };
+        dispatcher = new RealtimeOutboxDispatcher(outboxRepository, messageRepository, relay,
+                new ObjectMapper().findAndRegisterModules(), 200, 2, 10, 5, 30_000, 24);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void notificationsAreCoalescedToTheNewestPerUser() {
+        claim(entry(1L, ALICE, RealtimeChannel.NOTIFICATIONS, "{\"id\":1}"),
+                entry(2L, ALICE, RealtimeChannel.NOTIFICATIONS, "{\"id\":2}"),
+                entry(3L, ALICE, RealtimeChannel.NOTIFICATIONS, "{\"id\":3}"),
+                entry(4L, BOB, RealtimeChannel.NOTIFICATIONS, "{\"id\":4}"));
+
+        assertEquals(4, dispatcher.dispatchPending());
+
+        assertEquals(2, sent.size());
+        Sent toAlice = sentTo("7");
+        assertEquals("/topic/notifications", toAlice.destination());
+        assertEquals(3, ((JsonNode) toAlice.payload()).get("id").asInt());
+        assertEquals(List.of(1L, 2L, 3L, 4L), dispatchedIds());
+        assertEquals(2L, dispatcher.stats().getCoalesced());
+    }
+
+    @Test
+    void messagePushesCarryUnreadCountsReadInOneQuery() {
+        claim(entry(1L, ALICE, RealtimeChannel.MESSAGES, "{\"id\":11,\"organizationId\":2}"),
+                entry(2L, BOB, RealtimeChannel.MESSAGES, "{\"id\":12,\"organizationId\":2}"),
+                entry(3L, BOB, RealtimeChannel.MESSAGES, "{\"id\":13,\"organizationId\":2}"));
+        when(messageRepository.countUnreadByRecipientIn(anyCollection())).thenReturn(List.of(
+                new Object[] {ALICE, ORG, 1L},
+                new Object[] {BOB, ORG, 5L}));
+
+        dispatcher.dispatchPending();
+
+        verify(messageRepository, times(1)).countUnreadByRecipientIn(anyCollection());
+        assertEquals(3, sent.size());
+        WsMessageNotification toAlice = assertInstanceOf(WsMessageNotification.class, sentTo("7").payload());
+        assertEquals(Long.valueOf(11), toAlice.getMessage().getId());
+        assertEquals(1L, toAlice.getUnreadCount());
+        WsMessageNotification toBob = assertInstanceOf(WsMessageNotification.class, sentTo("8").payload());
+        assertEquals(5L, toBob.getUnreadCount());
+    }
+
+    @Test
+    void aFailingUserIsRetriedWithoutHoldingBackOthers() {
+        unreachableUsers.add("8");
+        claim(entry(1L, ALICE, RealtimeChannel.NOTIFICATIONS, "{\"id\":1}"),
+                entry(2L, BOB, RealtimeChannel.NOTIFICATIONS, "{\"id\":2}"));
+
+        assertEquals(1, dispatcher.dispatchPending());
+
+        assertEquals(List.of(1L), dispatchedIds());
+        verify(outboxRepository).markFailed(List.of(2L), "broker unavailable");
+        verify(messageRepository, never()).countUnreadByRecipientIn(anyCollection());
+    }
+
+    @Test
+    void nothingClaimedMeansNoWork() {
+        when(outboxRepository.claimBatch(anyString(), any(), any(), anyInt(), anyInt())).thenReturn(0);
+
+        assertEquals(0, dispatcher.dispatchPending());
+
+        verify(outboxRepository, never()).findByClaimTokenOrderByIdAsc(anyString());
+        verify(outboxRepository, never()).markDispatched(anyCollection(), any());
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private record Sent(String userId, String destination, Object payload) {
+    }
+
+    private void claim(RealtimeOutboxEntry... entries) {
+        when(outboxRepository.claimBatch(anyString(), any(), any(), eq(5), eq(200))).thenReturn(entries.length);
+        when(outboxRepository.findByClaimTokenOrderByIdAsc(anyString())).thenReturn(List.of(entries));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> dispatchedIds() {
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxRepository).markDispatched(ids.capture(), any());
+        return ids.getValue().stream().sorted().toList();
+    }
+
+    private Sent sentTo(String userId) {
+        return sent.stream().filter(s -> s.userId().equals(userId)).findFirst().orElseThrow();
+    }
+
+    private static RealtimeOutboxEntry entry(Long id, Long userId, RealtimeChannel channel, String payload) {
+        RealtimeOutboxEntry entry = new RealtimeOutboxEntry();
+        entry.setId(id);
+        entry.setUserId(userId);
+        entry.setChannel(channel);
+        entry.setPayload(payload);
+        entry.setCreatedAt(LocalDateTime.now());
+        return entry;
+    }
+}
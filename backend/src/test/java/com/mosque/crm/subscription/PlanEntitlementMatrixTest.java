@@ -0,0 +1,83 @@
+package com.mosque.crm.subscription;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mosque.crm.entity.FeatureDefinition;
+import com.mosque.crm.entity.PlanEntitlement;
+import com.mosque.crm.entity.SubscriptionPlan;
+
+/**
+ * Lookups against the in-memory plan entitlement matrix.
+ */
+class PlanEntitlementMatrixTest {
+
+    private static final String[] FEATURES = {
+            FeatureKeys.MEMBERS_MAX, FeatureKeys.REPORTS_ADVANCED, FeatureKeys.IMPORT_EXCEL,
+            FeatureKeys.FAMILY_TREE, FeatureKeys.DOCUMENT_MANAGEMENT, FeatureKeys.DATA_EXPORT };
+
+    @Test
+    void lookupResolvesEnabledDisabledAndLimits() {
+        PlanEntitlementMatrix.Snapshot matrix = buildMatrix();
+
+        PlanEntitlementMatrix.Entitlement members = matrix.lookup("PRO", FeatureKeys.MEMBERS_MAX);
+        assertTrue(members.isEnabled());
+        assertEquals(500, members.getLimitValue());
+
+        assertTrue(matrix.lookup("PRO", FeatureKeys.FAMILY_TREE).isEnabled());
+        assertFalse(matrix.lookup("FREE", FeatureKeys.FAMILY_TREE).isEnabled());
+
+        // Known feature without an entitlement row on the plan
+        assertFalse(matrix.lookup("FREE", FeatureKeys.DATA_EXPORT).isEnabled());
+        assertNull(matrix.lookup("FREE", FeatureKeys.DATA_EXPORT).getLimitValue());
+
+        // Unknown plan / feature
+        assertFalse(matrix.lookup("NOPE", FeatureKeys.FAMILY_TREE).isEnabled());
+        assertFalse(matrix.lookup("PRO", "does.not.exist").isEnabled());
+        assertFalse(matrix.lookup(null, FeatureKeys.FAMILY_TREE).isEnabled());
+    }
+
+    private static PlanEntitlementMatrix.Snapshot buildMatrix() {
+        SubscriptionPlan free = plan("FREE");
+        SubscriptionPlan pro = plan("PRO");
+
+        List<PlanEntitlement> entitlements = new ArrayList<>();
+        entitlements.add(entitlement(free, FeatureKeys.MEMBERS_MAX, true, 50));
+        entitlements.add(entitlement(free, FeatureKeys.FAMILY_TREE, false, null));
+        entitlements.add(entitlement(pro, FeatureKeys.MEMBERS_MAX, true, 500));
+        entitlements.add(entitlement(pro, FeatureKeys.FAMILY_TREE, true, null));
+        entitlements.add(entitlement(pro, FeatureKeys.REPORTS_ADVANCED, true, null));
+        entitlements.add(entitlement(pro, FeatureKeys.DATA_EXPORT, true, null));
+
+        List<FeatureDefinition> features = new ArrayList<>();
+        for (String key : FEATURES) {
+            FeatureDefinition fd = new FeatureDefinition();
+            fd.setFeatureKey(key);
+            features.add(fd);
+        }
+
+        return PlanEntitlementMatrix.Snapshot.build(List.of(free, pro), entitlements, features);
+    }
+
+    private static SubscriptionPlan plan(String code) {
+        SubscriptionPlan plan = new SubscriptionPlan();
+        plan.setCode(code);
+        return plan;
+    }
+
+    private static PlanEntitlement entitlement(SubscriptionPlan plan, String key, boolean enabled, Integer limit) {
+        PlanEntitlement entitlement = new PlanEntitlement();
+        entitlement.setFeatureKey(key);
+        entitlement.setEnabled(enabled);
+        entitlement.setLimitValue(limit);
+        plan.addEntitlement(entitlement);
+        return entitlement;
+    }
+}
@@ -0,0 +1,100 @@
+package com.mosque.crm.subscription;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mosque.crm.entity.OrganizationSubscription;
+import com.mosque.crm.enums.OrganizationSubscriptionStatus;
+import com.mosque.crm.repository.OrganizationSubscriptionRepository;
+
+/**
+ * An eviction that lands while a load is reading the database must win over
+ * that load's (possibly pre-eviction) result.
+ */
+class SubscriptionStatusCacheTest {
+
+    private static final Long ORG = 7L;
+
+    private OrganizationSubscriptionRepository repository;
+    private SubscriptionStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OrganizationSubscriptionRepository.class);
+        cache = new SubscriptionStatusCache(repository);
+        when(repository.findFirstByOrganizationIdAndStatusInAndStartsAtGreaterThanOrderByStartsAtAsc(
+                eq(ORG), anyList(), any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void loadedStateIsCachedUntilEvicted() {
+        when(repository.findFirstByOrganizationIdAndStatusInAndStartsAtLessThanEqualOrderByStartsAtDesc(
+                eq(ORG), anyList(), any())).thenReturn(Optional.of(subscription(OrganizationSubscriptionStatus.ACTIVE)));
+
+        SubscriptionStatusCache.SubscriptionState first = cache.get(ORG);
+        assertSame(first, cache.get(ORG));
+        cache.evict(ORG);
+        cache.get(ORG);
+
+        verify(repository, times(2)).findFirstByOrganizationIdAndStatusInAndStartsAtLessThanEqualOrderByStartsAtDesc(
+                eq(ORG), anyList(), any());
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached() {
+        // The first load reads ACTIVE; the writer commits CANCELLED and evicts before the load finishes
+        when(repository.findFirstByOrganizationIdAndStatusInAndStartsAtLessThanEqualOrderByStartsAtDesc(
+                eq(ORG), anyList(), any()))
+                .thenAnswer(invocation -> {
+                    cache.evict(ORG);
+                    return Optional.of(subscription(OrganizationSubscriptionStatus.ACTIVE));
+                })
+                .thenReturn(Optional.empty());
+
+        assertEquals(OrganizationSubscriptionStatus.ACTIVE, cache.get(ORG).getStatus());
+
+        assertSame(SubscriptionStatusCache.SubscriptionState.NONE, cache.get(ORG));
+        assertSame(SubscriptionStatusCache.SubscriptionState.NONE, cache.get(ORG));
+        verify(repository, times(2)).findFirstByOrganizationIdAndStatusInAndStartsAtLessThanEqualOrderByStartsAtDesc(
+                eq(ORG), anyList(), any());
+    }
+
+    @Test
+    void evictAllAlsoDiscardsAnInFlightLoad() {
+        when(repository.findFirstByOrganizationIdAndStatusInAndStartsAtLessThanEqualOrderByStartsAtDesc(
+                eq(ORG), anyList(), any()))
+                .thenAnswer(invocation -> {
+                    cache.evictAll();
+                    return Optional.empty();
+                })
+                .thenReturn(Optional.empty());
+
+        cache.get(ORG);
+        cache.get(ORG);
+        cache.get(ORG);
+
+        verify(repository, times(2)).findFirstByOrganizationIdAndStatusInAndStartsAtLessThanEqualOrderByStartsAtDesc(
+                eq(ORG), anyList(), any());
+    }
+
+    // ─── helpers ─────────────────────────────────────────────────────────
+
+    private static OrganizationSubscription subscription(OrganizationSubscriptionStatus status) {
+        OrganizationSubscription subscription = new OrganizationSubscription();
+        subscription.setId(1L);
+        subscription.setStatus(status);
+        return subscription;
+    }
+}
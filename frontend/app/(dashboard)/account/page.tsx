@@ -65,7 +65,7 @@ export default function AccountPage() {
       setMemberProfile(profileData);
       // Set profile image URL if available
       if (profileData.profileImageUrl) {
-        setProfileImageUrl(profileData.profileImageUrl + '?t=' + Date.now());
+        setProfileImageUrl(profileData.profileImageUrl + '?size=medium&t=' + Date.now());
       }
     } catch (error) {
       // Member profile not linked - this is OK for admin users
@@ -103,7 +103,7 @@ export default function AccountPage() {
     setUploadingImage(true);
     try {
       const result = await profileImageApi.uploadMy(file);
-      setProfileImageUrl(result.imageUrl + '?t=' + Date.now());
+      setProfileImageUrl(result.imageUrl + '?size=medium&t=' + Date.now());
     } catch (error: any) {
       setMessage(error?.message || 'Failed to upload image');
     } finally {
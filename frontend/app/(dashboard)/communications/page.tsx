@@ -104,7 +104,9 @@ export default function CommunicationsPage() {
         templateId: selectedTemplateId,
       };
       const result = await communicationApi.send(req);
-      if (result.status === 'SENT') {
+      if (result.status === 'QUEUED') {
+        showToast(t('communications.send_queued', { count: result.totalRecipients ?? 0 }), 'success');
+      } else if (result.status === 'SENT') {
         showToast(t('communications.send_success', { count: result.totalRecipients ?? 0 }), 'success');
       } else {
         showToast(t('communications.send_failed'), 'error');
@@ -201,6 +203,10 @@ export default function CommunicationsPage() {
     switch (status) {
       case 'SENT':
         return <span className="px-2 py-0.5 text-xs rounded-full bg-emerald-100 text-emerald-700 font-medium">SENT</span>;
+      case 'QUEUED':
+        return <span className="px-2 py-0.5 text-xs rounded-full bg-blue-100 text-blue-700 font-medium">QUEUED</span>;
+      case 'PARTIALLY_SENT':
+        return <span className="px-2 py-0.5 text-xs rounded-full bg-amber-100 text-amber-700 font-medium">PARTIALLY SENT</span>;
       case 'FAILED':
         return <span className="px-2 py-0.5 text-xs rounded-full bg-red-100 text-red-700 font-medium">FAILED</span>;
       default:
@@ -377,6 +377,7 @@ export default function DistributionPage() {
         recipientType: currentQueueItem.type,
         recipientId: currentQueueItem.id,
         parcelCount: distGiveCount,
+        requestKey: crypto.randomUUID(),
       });
       setToast({ message: t('distribution.distribute_success'), type: 'success' });
       const nextIndex = distQueueIndex < distQueue.length - 1 ? distQueueIndex + 1 : distQueue.length;
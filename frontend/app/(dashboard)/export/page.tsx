@@ -7,7 +7,7 @@ import ToastNotification from '@/components/ToastNotification';
 import { useTranslation } from '@/lib/i18n/LanguageContext';
 import { useAuth } from '@/lib/auth/AuthContext';
 import { useSubscription } from '@/lib/subscription/SubscriptionContext';
-import { ExportApi } from '@/lib/exportApi';
+import { ExportApi, ExportFormat } from '@/lib/exportApi';
 
 type ExportType = 'full' | 'members' | 'payments';
 
@@ -20,6 +20,7 @@ export default function ExportPage() {
   const canExecute = can('export.execute') && hasFeature('data.export');
 
   const [loading, setLoading] = useState<ExportType | null>(null);
+  const [format, setFormat] = useState<ExportFormat>('xlsx');
   const [toast, setToast] = useState<{ message: string; type: 'success' | 'error' } | null>(null);
 
   if (!canView) {
@@ -45,9 +46,9 @@ export default function ExportPage() {
     if (!canExecute || loading) return;
     setLoading(type);
     try {
-      if (type === 'full') await ExportApi.downloadFull();
-      else if (type === 'members') await ExportApi.downloadMembers();
-      else await ExportApi.downloadPayments();
+      if (type === 'full') await ExportApi.downloadFull(format);
+      else if (type === 'members') await ExportApi.downloadMembers(format);
+      else await ExportApi.downloadPayments(format);
       setToast({ message: t('export.success'), type: 'success' });
     } catch (err: any) {
       setToast({ message: err?.message || t('export.error'), type: 'error' });
@@ -69,6 +70,22 @@ export default function ExportPage() {
       <div className="mb-8">
         <h1 className="text-2xl font-bold text-stone-800">{t('export.title')}</h1>
         <p className="text-stone-500 mt-1">{t('export.subtitle')}</p>
+        <div className="flex items-center gap-3 mt-4">
+          <label htmlFor="export-format" className="text-sm font-medium text-stone-700">
+            {t('export.format_label')}
+          </label>
+          <select
+            id="export-format"
+            value={format}
+            onChange={(e) => setFormat(e.target.value as ExportFormat)}
+            disabled={loading !== null}
+            className="px-3 py-1.5 border border-gray-300 rounded-lg focus:ring-2 focus:ring-emerald-500 focus:border-emerald-500 outline-none bg-white text-sm"
+          >
+            <option value="xlsx">{t('export.format_xlsx')}</option>
+            <option value="csv">{t('export.format_csv')}</option>
+            <option value="jsonl">{t('export.format_jsonl')}</option>
+          </select>
+        </div>
       </div>
 
       <div className="grid grid-cols-1 md:grid-cols-3 gap-6 max-w-5xl">
@@ -13,6 +13,7 @@ export default function ImportPage() {
   const [uploadResult, setUploadResult] = useState<any>(null);
   const [notification, setNotification] = useState<{type: string, message: string} | null>(null);
   const [showConfirm, setShowConfirm] = useState(false);
+  const [progress, setProgress] = useState<{ status: string; totalRows: number | null; processedRows: number } | null>(null);
   const fileInputRef = useRef<HTMLInputElement>(null);
   const router = useRouter();
   const { selectedOrganization, activeOrganizationName } = useAuth();
@@ -66,27 +67,49 @@ export default function ImportPage() {
       return;
     }
 
+    const headers = { 'X-Organization-Id': organizationId };
+
     try {
-      const response = await fetch('/api/admin/import/excel', {
+      // The import runs as a background job; poll its progress, then fetch the report
+      const response = await fetch('/api/admin/import/excel/jobs', {
         method: 'POST',
-        headers: {
-          'X-Organization-Id': organizationId,
-        },
+        headers,
         body: formData,
       });
 
-      if (response.ok) {
-        const result = await response.json();
-        setUploadResult(result);
+      if (!response.ok) {
+        const errorData = await response.json().catch(() => ({}));
+        setNotification({
+          type: 'error',
+          message: `Upload failed: ${errorData.error || errorData.message || 'Unknown error'}`
+        });
+        return;
+      }
+
+      let job = await response.json();
+      setProgress(job);
+      while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+        await new Promise((resolve) => setTimeout(resolve, 2000));
+        const statusResponse = await fetch(`/api/admin/import/jobs/${job.id}`, { headers });
+        if (!statusResponse.ok) {
+          throw new Error(`Status request failed: ${statusResponse.status}`);
+        }
+        job = await statusResponse.json();
+        setProgress(job);
+      }
+
+      const reportResponse = await fetch(`/api/admin/import/jobs/${job.id}/report`, { headers });
+      const result = reportResponse.ok ? await reportResponse.json() : null;
+      setUploadResult(result);
+      if (job.status === 'COMPLETED' && result) {
         setNotification({
           type: 'success',
           message: `Import completed: ${result.successfullyProcessed} records processed, ${result.skipped} skipped`
         });
       } else {
-        const errorData = await response.json();
         setNotification({
           type: 'error',
-          message: `Upload failed: ${errorData.message || 'Unknown error'}`
+          message: `Import failed: ${job.error || 'Unknown error'}`
         });
       }
     } catch (error) {
@@ -97,6 +120,7 @@ export default function ImportPage() {
       });
     } finally {
       setIsUploading(false);
+      setProgress(null);
     }
   };
 
@@ -168,7 +192,9 @@ export default function ImportPage() {
                       <circle className="opacity-25" cx="12" cy="12" r="10" stroke="currentColor" strokeWidth="4"></circle>
                       <path className="opacity-75" fill="currentColor" d="M4 12a8 8 0 018-8V0C5.373 0 0 5.373 0 12h4zm2 5.291A7.962 7.962 0 014 12H0c0 3.042 1.135 5.824 3 7.938l3-2.647z"></path>
                     </svg>
-                    Importing...
+                    {progress?.totalRows
+                      ? `Importing ${progress.processedRows} / ${progress.totalRows}...`
+                      : 'Importing...'}
                   </span>
                 ) : 'Import Data'}
               </Button>
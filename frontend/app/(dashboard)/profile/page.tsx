@@ -65,7 +65,7 @@ export default function ProfilePage() {
 
         // Set profile image URL if available
         if (profileData.profileImageUrl) {
-          setProfileImageUrl(profileData.profileImageUrl + '?t=' + Date.now());
+          setProfileImageUrl(profileData.profileImageUrl + '?size=medium&t=' + Date.now());
         }
 
         // Fetch family relationships if personId is available
@@ -130,7 +130,7 @@ export default function ProfilePage() {
     setUploadingImage(true);
     try {
       const result = await profileImageApi.uploadMy(file);
-      setProfileImageUrl(result.imageUrl + '?t=' + Date.now());
+      setProfileImageUrl(result.imageUrl + '?size=medium&t=' + Date.now());
     } catch {
       // silently fail for profile page
     } finally {
@@ -199,7 +199,7 @@ export default function BusinessDirectoryCard({
           {business.logoUrl ? (
             // eslint-disable-next-line @next/next/no-img-element
             <img
-              src={business.logoUrl}
+              src={`${business.logoUrl}${business.logoUrl.includes('?') ? '&' : '?'}size=thumb`}
               alt=""
               className="w-full h-full object-cover"
             />
@@ -24,6 +24,10 @@ export default function RecentCommunicationsCard() {
     switch (status) {
       case 'SENT':
         return 'bg-emerald-100 text-emerald-700';
+      case 'QUEUED':
+        return 'bg-blue-100 text-blue-700';
+      case 'PARTIALLY_SENT':
+        return 'bg-amber-100 text-amber-700';
       case 'FAILED':
         return 'bg-red-100 text-red-700';
       default:
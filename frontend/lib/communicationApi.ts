@@ -15,6 +15,15 @@ export interface CommunicationMessageDTO {
   createdAt?: string;
 }
 
+export interface CommunicationProgressDTO {
+  messageId: number;
+  status: string;
+  total: number;
+  sent: number;
+  failed: number;
+  pending: number;
+}
+
 export interface CommunicationTemplateDTO {
   id?: number;
   name: string;
@@ -56,6 +65,9 @@ export const communicationApi = {
   getMessage: (id: number): Promise<CommunicationMessageDTO> =>
     ApiClient.get(`/communications/messages/${id}`),
 
+  getProgress: (id: number): Promise<CommunicationProgressDTO> =>
+    ApiClient.get(`/communications/messages/${id}/progress`),
+
   // Templates
   listTemplates: (): Promise<CommunicationTemplateDTO[]> =>
     ApiClient.get('/communications/templates'),
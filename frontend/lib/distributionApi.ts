@@ -36,6 +36,8 @@ export const distributionApi = {
   listDistributions: (eventId: number): Promise<ParcelDistribution[]> => ApiClient.get(`/events/distributions?eventId=${eventId}`),
   getDistribution: (id: number): Promise<ParcelDistribution> => ApiClient.get(`/events/distributions/${id}`),
   distribute: (data: ParcelDistributionCreate): Promise<ParcelDistribution> => ApiClient.post('/events/distribute', data),
+  distributeBatch: (distributions: ParcelDistributionCreate[]): Promise<ParcelDistributionBatchResult> =>
+    ApiClient.post('/events/distribute/batch', { distributions }),
 
   listRegistrationTypes: (eventId: number): Promise<DistributionRegistrationType[]> =>
     ApiClient.get(`/events/events/${eventId}/registration-types`),
@@ -238,6 +240,19 @@ export interface ParcelDistributionCreate {
   parcelCategoryId?: number;
   parcelCount: number;
   distributedBy?: string;
+  /** Client-generated key; resending the same key returns the recorded distribution. */
+  requestKey?: string;
+}
+
+export interface ParcelDistributionBatchResult {
+  succeeded: number;
+  failed: number;
+  results: {
+    index: number;
+    requestKey?: string | null;
+    distribution?: ParcelDistribution | null;
+    error?: string | null;
+  }[];
 }
 
 export interface DistributionSummary {
@@ -1,7 +1,36 @@
+import { ApiClient } from './api';
+
 // ============================================================
 // Export API — triggers file downloads from /admin/export/*
 // ============================================================
 
+export type ExportFormat = 'xlsx' | 'csv' | 'jsonl';
+export type ExportScope = 'full' | 'members' | 'payments';
+export type ExportJobStatus = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+
+export interface DataExportJob {
+  id: number;
+  scope: string;
+  format: string;
+  status: ExportJobStatus;
+  totalRows?: number;
+  rowsWritten: number;
+  fileName?: string;
+  fileSize?: number;
+  error?: string;
+  createdAt?: string;
+  startedAt?: string;
+  completedAt?: string;
+  expiresAt?: string;
+}
+
+/** File extension per format; CSV exports are a ZIP with one CSV per sheet. */
+const EXTENSIONS: Record<ExportFormat, string> = {
+  xlsx: 'xlsx',
+  csv: 'zip',
+  jsonl: 'jsonl',
+};
+
 /**
  * Download a file from a blob response.
  * Creates a temporary anchor element to trigger the browser download dialog.
@@ -27,7 +56,7 @@ async function downloadExport(path: string, filename: string): Promise<void> {
     : null;
 
   const headers: Record<string, string> = {
-    Accept: 'application/vnd.openxmlformats-officedocument.spreadsheetml.sheet',
+    Accept: '*/*',
     ...(organizationId ? { 'X-Organization-Id': organizationId } : {}),
   };
 
@@ -51,21 +80,43 @@ export const ExportApi = {
   /**
    * Download the full export: Members + Memberships + Payments + ContributionTypes.
    */
-  downloadFull(): Promise<void> {
-    return downloadExport('/admin/export/full', 'full-export.xlsx');
+  downloadFull(format: ExportFormat = 'xlsx'): Promise<void> {
+    return downloadExport(`/admin/export/full?format=${format}`, `full-export.${EXTENSIONS[format]}`);
   },
 
   /**
    * Download the members export: Members + Memberships sheets.
    */
-  downloadMembers(): Promise<void> {
-    return downloadExport('/admin/export/members', 'members-export.xlsx');
+  downloadMembers(format: ExportFormat = 'xlsx'): Promise<void> {
+    return downloadExport(`/admin/export/members?format=${format}`, `members-export.${EXTENSIONS[format]}`);
   },
 
   /**
    * Download the payments export: Payments + ContributionTypes sheets.
    */
-  downloadPayments(): Promise<void> {
-    return downloadExport('/admin/export/payments', 'payments-export.xlsx');
+  downloadPayments(format: ExportFormat = 'xlsx'): Promise<void> {
+    return downloadExport(`/admin/export/payments?format=${format}`, `payments-export.${EXTENSIONS[format]}`);
+  },
+
+  /**
+   * Queue a background export for large organizations; poll getJob for progress.
+   */
+  requestJob(scope: ExportScope, format: ExportFormat = 'xlsx'): Promise<DataExportJob> {
+    return ApiClient.post<DataExportJob>(`/admin/export/jobs?scope=${scope}&format=${format}`);
+  },
+
+  listJobs(): Promise<DataExportJob[]> {
+    return ApiClient.get<DataExportJob[]>('/admin/export/jobs');
+  },
+
+  getJob(id: number): Promise<DataExportJob> {
+    return ApiClient.get<DataExportJob>(`/admin/export/jobs/${id}`);
+  },
+
+  /**
+   * Download the file of a completed background export.
+   */
+  downloadJob(job: DataExportJob): Promise<void> {
+    return downloadExport(`/admin/export/jobs/${job.id}/download`, job.fileName || `export-${job.id}`);
   },
 };